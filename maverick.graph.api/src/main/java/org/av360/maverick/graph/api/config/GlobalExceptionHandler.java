@@ -3,12 +3,14 @@ package org.av360.maverick.graph.api.config;
 import lombok.extern.slf4j.Slf4j;
 import org.av360.maverick.graph.model.errors.InsufficientPrivilegeException;
 import org.av360.maverick.graph.model.errors.InvalidRequest;
+import org.av360.maverick.graph.model.errors.requests.QuotaExceeded;
 import org.av360.maverick.graph.model.errors.store.InvalidEntityModelException;
 import org.eclipse.rdf4j.query.MalformedQueryException;
 import org.eclipse.rdf4j.rio.RDFParseException;
 import org.springframework.boot.web.error.ErrorAttributeOptions;
 import org.springframework.boot.web.reactive.error.DefaultErrorAttributes;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.web.reactive.function.server.ServerRequest;
@@ -44,6 +46,15 @@ public class GlobalExceptionHandler extends DefaultErrorAttributes {
             errorAttributes.remove("exception");
             errorAttributes.remove("trace");
         }
+        else if (error instanceof QuotaExceeded quotaError) {
+            long retryAfter = quotaError.getRetryAfter().toSeconds();
+            request.exchange().getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+            errorAttributes.replace("status", quotaError.getStatusCode().value());
+            errorAttributes.replace("error", quotaError.getReasonPhrase());
+            errorAttributes.put("retryAfter", retryAfter);
+            errorAttributes.remove("exception");
+            errorAttributes.remove("trace");
+        }
         else if (error instanceof InvalidRequest requestError) {
             errorAttributes.replace("status", requestError.getStatusCode().value());
             errorAttributes.replace("error", requestError.getReasonPhrase());
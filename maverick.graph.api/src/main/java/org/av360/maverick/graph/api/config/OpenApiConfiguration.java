@@ -95,7 +95,7 @@ public class OpenApiConfiguration {
                             .title("Query Service API")
                             .description(description).version(version));
                 })
-                .pathsToMatch("/api/query/**");
+                .pathsToMatch("/api/query/**", "/api/search/**");
     }
 
     @Bean("TransactionsApiDefinition")
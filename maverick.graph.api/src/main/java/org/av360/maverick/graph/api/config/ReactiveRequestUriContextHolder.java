@@ -17,6 +17,7 @@ import java.util.Objects;
 public class ReactiveRequestUriContextHolder {
   public static final String CONTEXT_URI_KEY = "request.uri";
   public static final String CONTEXT_HEADERS_KEY = "request.headers";
+  public static final String CONTEXT_RESPONSE_HEADERS_KEY = "response.headers";
 
 
   public static Mono<URI> getURI() {
@@ -36,4 +37,16 @@ public class ReactiveRequestUriContextHolder {
               } else return null;
             });
   }
-}
\ No newline at end of file
+
+  /**
+   * The headers of the response, e.g. to set the entity tag of a response body which is streamed. They can only be
+   * changed until the first element of the body is emitted.
+   */
+  public static Mono<HttpHeaders> getResponseHeaders() {
+    return Mono.deferContextual(Mono::just).flatMap(ctx -> {
+        if(ctx.hasKey(CONTEXT_RESPONSE_HEADERS_KEY)) {
+            return Mono.just(ctx.get(CONTEXT_RESPONSE_HEADERS_KEY));
+        } else return Mono.empty();
+    });
+  }
+}
@@ -63,6 +63,7 @@ public class WebFluxConfiguration implements WebFluxConfigurer {
                     .contextWrite(ctx -> {
                         ctx = ctx.put(ReactiveRequestUriContextHolder.CONTEXT_URI_KEY, request.getURI());
                         ctx = ctx.put(ReactiveRequestUriContextHolder.CONTEXT_HEADERS_KEY, request.getHeaders());
+                        ctx = ctx.put(ReactiveRequestUriContextHolder.CONTEXT_RESPONSE_HEADERS_KEY, exchange.getResponse().getHeaders());
                         return ctx;
                     });
         };
@@ -1,33 +1,80 @@
 package org.av360.maverick.graph.api.controller;
 
+import org.av360.maverick.graph.api.config.ReactiveRequestUriContextHolder;
 import org.av360.maverick.graph.model.context.SessionContext;
 import org.av360.maverick.graph.services.SessionContextBuilder;
 import org.springframework.beans.factory.annotation.Autowired;
-import reactor.core.publisher.Flux;
+import org.springframework.http.HttpHeaders;
 import reactor.core.publisher.Mono;
 
-import java.util.Set;
+import javax.annotation.Nullable;
+import java.util.List;
+import java.util.Objects;
 
 public class AbstractController {
 
 
 
-    Set<SessionContextBuilder> builders;
+    /**
+     * The chain of all builders, assembled once. Every subscription starts with a new session context, the builders
+     * read the request from the subscriber context.
+     */
+    private Mono<SessionContext> contextChain = Mono.fromSupplier(SessionContext::new);
 
 
-    protected Mono<SessionContext>
+    protected Mono<SessionContext> acquireContext() {
+        return this.contextChain;
+    }
+
+    /**
+     * Acquires the context for a request changing the entity with the given key. If the request has an If-Match
+     * header, the changes are only committed if the entity is still in this version.
+     */
+    protected Mono<SessionContext> acquireContext(String entityKey) {
+        return this.acquireContext()
+                .flatMap(ctx -> Mono.deferContextual(Mono::just)
+                        .doOnNext(reactorContext -> {
+                            if (reactorContext.hasKey(ReactiveRequestUriContextHolder.CONTEXT_HEADERS_KEY)
+                                    && reactorContext.get(ReactiveRequestUriContextHolder.CONTEXT_HEADERS_KEY) instanceof HttpHeaders headers) {
+                                String version = parseEntityTag(headers.getFirst(HttpHeaders.IF_MATCH));
+                                if (Objects.nonNull(version)) ctx.getEnvironment().withExpectedVersion(entityKey, version);
+                            }
+                        })
+                        .thenReturn(ctx));
+    }
+
+    /**
+     * Sets the version as entity tag of the response.
+     */
+    protected Mono<Void> setEntityTag(String version) {
+        return ReactiveRequestUriContextHolder.getResponseHeaders()
+                .doOnNext(headers -> headers.setETag("\"" + version + "\""))
+                .then();
+    }
 
-     acquireContext() {
-        return Flux.fromIterable(this.builders)
-                // see example here: https://stackoverflow.com/questions/73141978/how-to-asynchronosuly-reduce-a-flux-to-mono-with-reactor
-                .reduceWith(() -> Mono.just(new SessionContext()), (update, builderService) -> update.flatMap(builderService::build))
-                .flatMap(sessionContextMono -> sessionContextMono);
+    /**
+     * @return the version in the entity tag, or null if any version matches
+     */
+    @Nullable
+    protected static String parseEntityTag(@Nullable String entityTag) {
+        if (Objects.isNull(entityTag) || entityTag.isBlank() || entityTag.strip().equals("*")) return null;
+        String version = entityTag.strip();
+        if (version.startsWith("W/")) version = version.substring(2);
+        if (version.length() > 1 && version.startsWith("\"") && version.endsWith("\"")) version = version.substring(1, version.length() - 1);
+        return version;
     }
 
 
+    /**
+     * @param builders in their order, the authentication is acquired first
+     */
     @Autowired
-    public void setBuilders(Set<SessionContextBuilder> builders) {
-        this.builders = builders;
+    public void setBuilders(List<SessionContextBuilder> builders) {
+        Mono<SessionContext> chain = Mono.fromSupplier(SessionContext::new);
+        for (SessionContextBuilder builder : builders) {
+            chain = chain.flatMap(builder::build);
+        }
+        this.contextChain = chain;
     }
 
 }
@@ -25,7 +25,9 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.av360.maverick.graph.model.enums.RdfMimeTypes;
 import org.av360.maverick.graph.model.rdf.AnnotatedStatement;
+import org.springframework.core.io.Resource;
 import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -39,9 +41,23 @@ import javax.annotation.Nullable;
 @SecurityRequirement(name = "api_key")
 @Tag(name = "Values")
 public interface ContentApi {
-    @GetMapping(value = "/content/{id:[\\w|\\d|\\-|\\_]+}")
+    @Operation(
+            operationId = "downloadContent",
+            summary = "Download the content of a value object.",
+            description = """
+                    Returns the stored file. Partial content can be requested with the 'Range' header, and the 'ETag'
+                    (derived from the checksum of the content) can be used with 'If-None-Match' for conditional requests.
+                    """,
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "The complete content"),
+                    @ApiResponse(responseCode = "206", description = "The requested ranges of the content"),
+                    @ApiResponse(responseCode = "304", description = "The content has not been modified"),
+                    @ApiResponse(responseCode = "416", description = "The requested range can't be satisfied")
+            }
+    )
+    @GetMapping(value = "/content/{key:[\\w|\\d|\\-|\\_]+}")
     @ResponseStatus(HttpStatus.OK)
-    Mono<ResponseEntity<Flux<DataBuffer>>> download(@PathVariable String key);
+    Mono<ResponseEntity<Resource>> download(@PathVariable String key, @Nullable @RequestHeader(value = HttpHeaders.RANGE, required = false) String range);
 
     @Operation(
             operationId = "uploadContent",
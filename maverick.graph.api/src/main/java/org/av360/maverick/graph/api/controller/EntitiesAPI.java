@@ -29,8 +29,10 @@ import org.av360.maverick.graph.model.enums.RdfMimeTypes;
 import org.av360.maverick.graph.model.rdf.AnnotatedStatement;
 import org.av360.maverick.graph.model.rdf.Triples;
 import org.springframework.boot.web.reactive.error.ErrorAttributes;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -67,6 +69,10 @@ public interface EntitiesAPI {
                     its type definition, all associated values, and relations to other entities. It also incorporates embedded
                     fragments, specific sets of statements inherent to the entity. However, details or value identifiers are
                     omitted due to their reliance on RDF-Star encodings, which are not supported by JSON-LD.
+                    \s
+                    The current version of the entity is returned in the ETag header (if the entity is requested by
+                    its key). It can be given in the If-Match header of requests changing the entity, which are
+                    rejected if the entity has been changed since.
                      """,
             responses = {
                     @ApiResponse(responseCode = "200", description = "Successfully retrieved entity details"),
@@ -135,6 +141,64 @@ public interface EntitiesAPI {
     Flux<AnnotatedStatement> create(@Parameter(description = "The RDF statements for the new entity.", required = true) @RequestBody Triples request);
 
 
+    @PostMapping(value = "/entities/batch",
+            consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(summary = "Create Entities in Batch",
+            description = """
+                    Creates (or merges) many entities in one request. The request body has one JSON-LD document per
+                    line, each describing one entity (with its embedded objects). The entities are committed in chunks,
+                    an invalid entity doesn't affect the other entities.
+                    \s
+                    The response streams one line per entity (in the order of the request) with its outcome: CREATED,
+                    MERGED (if an entity with the same identifier exists already, or is repeated within the chunk) or
+                    FAILED with the reason. Entities repeated in different chunks might both be reported as created.
+                    """,
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "The outcome for every entity",
+                            content = @Content(schema = @Schema(implementation = Responses.BatchItem.class))),
+                    @ApiResponse(responseCode = "500", description = "Server error")
+            })
+    Flux<Responses.BatchItem> createBatch(@Parameter(description = "The entities, one JSON-LD document per line.", required = true) @RequestBody Flux<String> documents);
+
+    @RequestMapping(method = RequestMethod.HEAD, value = "/entities/{key:[\\w|\\d|\\-|\\_]+}")
+    @Operation(summary = "Returns the version of an entity",
+            description = """
+                    Returns the current version of the entity as entity tag (in the ETag header), to be used as
+                    precondition (in the If-Match header) when changing the entity.
+                    """,
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "The version is in the ETag header"),
+                    @ApiResponse(responseCode = "404", description = "Entity not found.")
+            })
+    Mono<ResponseEntity<Void>> readVersion(@Parameter(description = "Key of the entity", required = true) @PathVariable String key);
+
+    @PatchMapping(value = "/entities/{key:[\\w|\\d|\\-|\\_]+}",
+            consumes = {RdfMimeTypes.RDFPATCH_VALUE, MediaType.TEXT_PLAIN_VALUE},
+            produces = {RdfMimeTypes.JSONLD_VALUE, RdfMimeTypes.TURTLE_VALUE, RdfMimeTypes.N3_VALUE})
+    @Operation(summary = "Patch Entity",
+            description = """
+                    Applies multiple changes to the values, relations, details and embedded objects of an entity in one
+                    transaction. The changes are given as RDF Patch document (https://afs.github.io/rdf-patch/), with
+                    one change per line: 'A' to add and 'D' to delete a triple (in Turtle-star syntax), 'PA' to declare
+                    a prefix. The patch is rejected as a whole if any of the changes is invalid.
+                    \s
+                    The version of the entity (from the ETag header of a previous request) can be given in the If-Match
+                    header. If the entity has been changed since, the patch is rejected. The response has the new
+                    version of the entity in the ETag header.
+                    """,
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Entity successfully patched"),
+                    @ApiResponse(responseCode = "400", description = "Invalid patch, or the patched entity is invalid"),
+                    @ApiResponse(responseCode = "404", description = "Entity not found."),
+                    @ApiResponse(responseCode = "412", description = "The entity has been changed since (the version in the If-Match header is outdated).")
+            })
+    Mono<ResponseEntity<Flux<AnnotatedStatement>>> patch(@Parameter(description = "Key of the entity to be patched", required = true) @PathVariable String key,
+                                                         @Parameter(description = "The RDF Patch document", required = true) @RequestBody String patch,
+                                                         @Parameter(description = "The version of the entity the patch is based on") @Nullable @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String version);
+
+
     @DeleteMapping(value = "/entities/{key:[\\w|\\d|\\-|\\_]+}",
             produces = {RdfMimeTypes.JSONLD_VALUE, RdfMimeTypes.TURTLE_VALUE, RdfMimeTypes.N3_VALUE})
     @ResponseStatus(HttpStatus.OK)
@@ -147,12 +211,14 @@ public interface EntitiesAPI {
                     this entity will be purged from the system. It's important to note that any incoming statements 
                     pointing to the entity will not be immediately removed. Instead, the removal of such incoming 
                     statements is managed in a deferred manner, being processed as a background job to 
-                    ensure system performance and integrity.
+                    ensure system performance and integrity. If the If-Match header is given, the entity is only
+                    deleted in this version.
                     """,
             responses = {
                     @ApiResponse(responseCode = "200", description = "Successfully deleted the entity and its statements."),
                     @ApiResponse(responseCode = "400", description = "Invalid entity key supplied."),
                     @ApiResponse(responseCode = "404", description = "Entity not found."),
+                    @ApiResponse(responseCode = "412", description = "The entity has been changed since (the version in the If-Match header is outdated)."),
                     @ApiResponse(responseCode = "500", description = "Internal server error.")
             }
 
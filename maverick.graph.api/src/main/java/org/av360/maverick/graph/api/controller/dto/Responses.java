@@ -19,6 +19,7 @@ import com.fasterxml.jackson.annotation.JsonInclude;
 import io.swagger.v3.oas.annotations.media.Schema;
 
 import java.io.Serializable;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -74,4 +75,55 @@ public class Responses {
     )
     public record Detail(String property, String value) {
     }
+
+    @Schema(
+            example = """
+                    {
+                        "identifier": "a1b2c3d4",
+                        "position": "1718870400000-a1b2c3d4",
+                        "committed": "2024-06-20T08:00:00Z",
+                        "inserted": ["http://example.org/entities/x8sd9wq2"]
+                    }
+                    """
+    )
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    public record TransactionItem(String identifier, String position, String committed, Set<String> inserted, Set<String> updated, Set<String> removed) {
+    }
+
+    @Schema(
+            example = """
+                    {
+                        "index": 0,
+                        "outcome": "CREATED",
+                        "identifier": "http://example.org/entities/x8sd9wq2",
+                        "key": "x8sd9wq2"
+                    }
+                    """
+    )
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    public record BatchItem(long index, String outcome, String identifier, String key, String reason) {
+    }
+
+    @Schema(
+            example = """
+                    {
+                        "total": 12,
+                        "offset": 0,
+                        "limit": 10,
+                        "hits": [
+                            {
+                                "id": "http://example.org/entities/x8sd9wq2",
+                                "label": "The Last Unicorn",
+                                "score": 4.71
+                            }
+                        ]
+                    }
+                    """
+    )
+    public record SearchResults(long total, int offset, int limit, List<SearchHit> hits) {
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record SearchHit(String id, String label, float score) {
+    }
 }
@@ -45,7 +45,7 @@ public class DetailsController extends AbstractController implements DetailsAPI
             String prefixedProperty,
             String prefixedDetailProperty,
             String valueIdentifier) {
-        return super.acquireContext()
+        return super.acquireContext(key)
                 .flatMap(ctx -> values.removeDetail(key, prefixedProperty, prefixedDetailProperty, valueIdentifier, ctx))
                 .flatMapIterable(Triples::asStatements)
                 .doOnSubscribe(s -> {
@@ -63,7 +63,7 @@ public class DetailsController extends AbstractController implements DetailsAPI
             String value
     ) {
         Assert.isTrue(!value.matches("(?s).*[\\n\\r].*"), "Newlines in request body are not supported");
-        return super.acquireContext()
+        return super.acquireContext(key)
                 .flatMap(ctx -> values.insertDetail(key, prefixedProperty, prefixedDetailProperty, value, valueIdentifier, ctx))
                 .flatMapIterable(Triples::asStatements)
                 .doOnSubscribe(s -> {
@@ -6,16 +6,23 @@ import org.av360.maverick.graph.api.controller.AbstractController;
 import org.av360.maverick.graph.api.controller.EntitiesAPI;
 import org.av360.maverick.graph.api.controller.dto.Responses;
 import org.av360.maverick.graph.api.converter.dto.EntityItemConverter;
+import org.av360.maverick.graph.model.context.SessionContext;
+import org.av360.maverick.graph.model.errors.requests.EntityNotFound;
 import org.av360.maverick.graph.model.rdf.AnnotatedStatement;
 import org.av360.maverick.graph.model.rdf.Triples;
 import org.av360.maverick.graph.services.EntityServices;
 import org.av360.maverick.graph.services.QueryServices;
 import org.av360.maverick.graph.services.SchemaServices;
 import org.av360.maverick.graph.store.rdf.fragments.TripleModel;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.rio.RDFFormat;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.core.annotation.Order;
+import org.springframework.http.ResponseEntity;
 import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -24,6 +31,7 @@ import reactor.core.publisher.Mono;
 
 import javax.annotation.Nullable;
 import java.util.Map;
+import java.util.Objects;
 
 @RestController
 @Qualifier("EntityApi")
@@ -47,7 +55,7 @@ public class EntitiesController extends AbstractController implements EntitiesAP
     @Override
     public Flux<AnnotatedStatement> readAsRDF(@PathVariable String key, @RequestParam(required = false) @Nullable String property) {
         return super.acquireContext()
-                .flatMap(ctx -> entityServices.find(key,  property, false, 0,  ctx))
+                .flatMap(ctx -> this.withEntityTag(key, property, ctx).then(entityServices.find(key,  property, false, 0,  ctx)))
                 .flatMapIterable(TripleModel::asStatements)
                 .doOnSubscribe(s -> {
                     if (log.isDebugEnabled()) log.debug("Request to read entity with id: {}", key);
@@ -56,7 +64,7 @@ public class EntitiesController extends AbstractController implements EntitiesAP
 
     public Flux<AnnotatedStatement> readAsRDFStar(@PathVariable String key, @RequestParam(required = false) @Nullable String property) {
         return super.acquireContext()
-                .flatMap(ctx -> entityServices.find(key,  property, true, 0,  ctx))
+                .flatMap(ctx -> this.withEntityTag(key, property, ctx).then(entityServices.find(key,  property, true, 0,  ctx)))
                 .flatMapIterable(TripleModel::asStatements)
                 .doOnSubscribe(s -> {
                     if (log.isDebugEnabled()) log.debug("Request to read entity including details with id: {}", key);
@@ -66,13 +74,25 @@ public class EntitiesController extends AbstractController implements EntitiesAP
     @Override
     public Mono<Responses.EntityResponse> readAsItem(@PathVariable String key, @RequestParam(required = false) @Nullable String property) {
         return super.acquireContext()
-                .flatMap(ctx -> entityServices.find(key,  property, true, 1,  ctx))
+                .flatMap(ctx -> this.withEntityTag(key, property, ctx).then(entityServices.find(key,  property, true, 1,  ctx)))
                 .map(EntityItemConverter::convert)
                 .doOnSubscribe(s -> {
                     if (log.isDebugEnabled()) log.debug("Request to read entity including details with id: {}", key);
                 });
     }
 
+    /**
+     * The version is read before the entity, a concurrent change results in an outdated entity tag (and not in an
+     * entity tag for changes which are not part of the response). Entities requested by the value of a property have
+     * no entity tag.
+     */
+    private Mono<Void> withEntityTag(String key, @Nullable String property, SessionContext ctx) {
+        if (StringUtils.hasLength(property)) return Mono.empty();
+        return entityServices.version(key, ctx)
+                .flatMap(super::setEntityTag)
+                .onErrorResume(EntityNotFound.class, error -> Mono.empty());
+    }
+
     @Override
     public Flux<AnnotatedStatement> list(
             @RequestParam(value = "limit", defaultValue = "100") Integer limit,
@@ -104,8 +124,45 @@ public class EntitiesController extends AbstractController implements EntitiesAP
 
 
     @Override
-    public Flux<AnnotatedStatement> delete(@PathVariable String key) {
+    public Flux<Responses.BatchItem> createBatch(@RequestBody Flux<String> documents) {
+        return super.acquireContext()
+                .flatMapMany(ctx -> entityServices.createAll(documents, RDFFormat.JSONLD, Map.of(), ctx))
+                .map(result -> new Responses.BatchItem(
+                        result.index(),
+                        result.outcome().name(),
+                        Objects.nonNull(result.identifier()) ? result.identifier().stringValue() : null,
+                        result.identifier() instanceof IRI iri ? iri.getLocalName() : null,
+                        result.reason()))
+                .doOnSubscribe(s -> {
+                    if (log.isDebugEnabled()) log.debug("Request to create a batch of entities");
+                });
+    }
+
+
+    @Override
+    public Mono<ResponseEntity<Void>> readVersion(@PathVariable String key) {
+        return super.acquireContext()
+                .flatMap(ctx -> entityServices.version(key, ctx))
+                .map(version -> ResponseEntity.ok().eTag(version).<Void>build())
+                .doOnSubscribe(s -> {
+                    if (log.isDebugEnabled()) log.debug("Request to read version of entity with id: {}", key);
+                });
+    }
+
+    @Override
+    public Mono<ResponseEntity<Flux<AnnotatedStatement>>> patch(@PathVariable String key, @RequestBody String patch, @Nullable @RequestHeader(value = "If-Match", required = false) String version) {
         return super.acquireContext()
+                .flatMap(ctx -> entityServices.patch(key, patch, parseEntityTag(version), ctx))
+                .map(result -> ResponseEntity.ok().eTag(result.getRight()).body(Flux.fromIterable(result.getLeft().asStatements())))
+                .doOnSubscribe(s -> {
+                    if (log.isDebugEnabled()) log.debug("Request to patch entity with id: {}", key);
+                    if (log.isTraceEnabled()) log.trace("Patch: \n {}", patch);
+                });
+    }
+
+    @Override
+    public Flux<AnnotatedStatement> delete(@PathVariable String key) {
+        return super.acquireContext(key)
                 .flatMap(ctx -> entityServices.remove(key, ctx))
                 .flatMapIterable(Triples::asStatements)
                 .doOnSubscribe(s -> {
@@ -55,7 +55,7 @@ public class RelationsController extends AbstractController implements Relations
 
     @Override
     public Flux<AnnotatedStatement> insert(@PathVariable String key, @PathVariable String prefixedProperty, @PathVariable String targetKey, @Nullable @RequestParam(required = false) Boolean replace) {
-        return super.acquireContext()
+        return super.acquireContext(key)
                 .flatMap(ctx -> this.valueServices.insertLink(key, prefixedProperty, targetKey, replace, ctx))
                 .flatMapIterable(Triples::asStatements)
                 .doOnSubscribe((Subscription s) -> {
@@ -68,7 +68,7 @@ public class RelationsController extends AbstractController implements Relations
 
     @Override
     public Flux<AnnotatedStatement> deleteLink(@PathVariable String key, @PathVariable String prefixedProperty, @PathVariable String targetKey) {
-        return super.acquireContext()
+        return super.acquireContext(key)
                 .flatMap(ctx -> this.valueServices.removeLink(key, prefixedProperty, targetKey, ctx))
                 .flatMap(Mono::just)
                 .flatMapIterable(Triples::asStatements)
@@ -73,7 +73,7 @@ public class ValuesController extends AbstractController implements ValuesAPI {
                                            Boolean replace) {
         Assert.isTrue(!value.matches("(?s).*[\\n\\r].*"), "Newlines in request body are not supported");
 
-        return super.acquireContext()
+        return super.acquireContext(key)
                 .flatMap(ctx -> values.insertValue(key, prefixedProperty, value, languageTag, replace, ctx))
                 .flatMapIterable(Triples::asStatements)
                 .doOnSubscribe(s -> {
@@ -89,7 +89,13 @@ public class ValuesController extends AbstractController implements ValuesAPI {
 
     @Override
     public Flux<AnnotatedStatement> getAsRdf(String key, String prefixedProperty, @Nullable String languageTag, @Nullable String valueIdentifier) {
-        return this.list(key, prefixedProperty);
+        return super.acquireContext()
+                .flatMap(ctx -> values.getValue(key, prefixedProperty, languageTag, valueIdentifier, ctx))
+                .flatMapIterable(Triples::asStatements)
+                .doOnSubscribe(s -> {
+                    if (log.isDebugEnabled())
+                        log.debug("Request to read property '{}' of entity '{}'", prefixedProperty, key);
+                });
     }
 
     @Override
@@ -109,7 +115,7 @@ public class ValuesController extends AbstractController implements ValuesAPI {
                                            String prefixedProperty,
                                            String languageTag,
                                            String valueIdentifier) {
-        return super.acquireContext()
+        return super.acquireContext(key)
                 .flatMap(ctx -> values.removeValue(key, prefixedProperty, languageTag, valueIdentifier, ctx))
                 .flatMapIterable(Triples::asStatements)
                 .doOnSubscribe(s -> {
@@ -121,7 +127,7 @@ public class ValuesController extends AbstractController implements ValuesAPI {
     @Override
     public Flux<AnnotatedStatement> embed(@PathVariable String key, @PathVariable String prefixedProperty, @RequestBody Triples value) {
 
-        return super.acquireContext()
+        return super.acquireContext(key)
                 .flatMap(ctx ->
                         schemaServices.resolvePrefixedName(prefixedProperty)
                                 .flatMap(predicate -> entityServices.linkEntityTo(key, predicate, value, ctx))
@@ -0,0 +1,60 @@
+package org.av360.maverick.graph.api.controller.search;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.av360.maverick.graph.api.controller.AbstractController;
+import org.av360.maverick.graph.api.controller.dto.Responses;
+import org.av360.maverick.graph.services.SearchServices;
+import org.av360.maverick.graph.store.SearchIndex;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+/**
+ * Full-text search over the labels and descriptions of the entities.
+ */
+@RestController
+@RequestMapping(path = "/api/search")
+@Slf4j(topic = "graph.ctrl.api.search")
+@SecurityRequirement(name = "api_key")
+@Tag(name = "Search")
+public class SearchController extends AbstractController {
+
+    private static final int MAX_LIMIT = 100;
+    private static final int MAX_OFFSET = 1000;
+
+    protected final SearchServices searchServices;
+
+    public SearchController(SearchServices searchServices) {
+        this.searchServices = searchServices;
+    }
+
+    @Operation(summary = "Search entities by their labels and descriptions",
+            description = "All terms have to match, the last term also matches as prefix. Matches in labels (names and titles) rank higher than matches in descriptions.")
+    @GetMapping(value = "", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    Mono<Responses.SearchResults> search(@RequestParam(value = "q") String text,
+                                         @RequestParam(value = "lang", required = false) String language,
+                                         @RequestParam(value = "fuzzy", defaultValue = "false") boolean fuzzy,
+                                         @RequestParam(value = "limit", defaultValue = "10") Integer limit,
+                                         @RequestParam(value = "offset", defaultValue = "0") Integer offset) {
+        Assert.isTrue(StringUtils.hasText(text), "Search terms are required.");
+        Assert.isTrue(limit > 0 && limit <= MAX_LIMIT, "Limit must be between 1 and %d.".formatted(MAX_LIMIT));
+        Assert.isTrue(offset >= 0 && offset <= MAX_OFFSET, "Offset must be between 0 and %d, refine the search terms to find further entities.".formatted(MAX_OFFSET));
+
+        SearchIndex.Query query = new SearchIndex.Query(text, StringUtils.hasText(language) ? language : null, fuzzy, limit, offset);
+        return super.acquireContext()
+                .flatMap(ctx -> this.searchServices.search(query, ctx))
+                .map(result -> new Responses.SearchResults(result.total(), offset, limit, result.hits().stream()
+                        .map(hit -> new Responses.SearchHit(hit.subject().stringValue(), hit.label(), hit.score()))
+                        .toList()))
+                .doOnSubscribe(s -> {
+                    if (log.isTraceEnabled()) log.trace("Searching entities for '{}' (language: {}, fuzzy: {})", text, language, fuzzy);
+                });
+    }
+}
@@ -4,16 +4,33 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import lombok.extern.slf4j.Slf4j;
 import org.av360.maverick.graph.api.controller.AbstractController;
+import org.av360.maverick.graph.api.controller.dto.Responses;
+import org.av360.maverick.graph.api.converter.dto.TransactionItemConverter;
+import org.av360.maverick.graph.model.entities.Transaction;
+import org.av360.maverick.graph.model.enums.Activity;
 import org.av360.maverick.graph.model.enums.RdfMimeTypes;
 import org.av360.maverick.graph.model.identifier.LocalIdentifier;
 import org.av360.maverick.graph.model.rdf.AnnotatedStatement;
 import org.av360.maverick.graph.model.rdf.Triples;
 import org.av360.maverick.graph.services.TransactionsService;
+import org.av360.maverick.graph.store.TransactionsStore;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 
+import javax.annotation.Nullable;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 /**
  * Api to request previous transactions
  */
@@ -24,6 +41,11 @@ import reactor.core.publisher.Flux;
 @SecurityRequirement(name = "api_key")
 public class TransactionsController extends AbstractController {
 
+    private static final Duration KEEP_ALIVE_INTERVAL = Duration.ofSeconds(15);
+    private static final int MAX_LIMIT = 1000;
+    // deeper pages have to be requested with the position of the previous page
+    private static final int MAX_OFFSET = 10000;
+
     protected final ObjectMapper objectMapper;
     protected final TransactionsService transactionsService;
 
@@ -48,17 +70,113 @@ public class TransactionsController extends AbstractController {
                 });
     }
 
+    /**
+     * Lists the recorded transactions in the order of their commit time. Use either the offset or (preferably) the
+     * position of the last transaction of the previous page to request the next page.
+     */
     @GetMapping(value = "", produces = {RdfMimeTypes.JSONLD_VALUE, RdfMimeTypes.TURTLE_VALUE, RdfMimeTypes.NQUADS_VALUE, RdfMimeTypes.N3_VALUE})
     @ResponseStatus(HttpStatus.OK)
     Flux<AnnotatedStatement> list(@RequestParam(value = "limit", defaultValue = "100") Integer limit,
-                                  @RequestParam(value = "offset", defaultValue = "0") Integer offset) {
+                                  @RequestParam(value = "offset", defaultValue = "0") Integer offset,
+                                  @RequestParam(value = "after", required = false) String after,
+                                  @RequestParam(value = "entity", required = false) String entity,
+                                  @RequestParam(value = "from", required = false) String from,
+                                  @RequestParam(value = "until", required = false) String until) {
 
-        // FIXME: marker to use transactions repository
-        return super.acquireContext()
-                .flatMapMany(ctx -> transactionsService.list(limit, offset, ctx))
+        return this.history(limit, offset, after, entity, from, until)
                 .flatMapIterable(Triples::asStatements)
                 .doOnSubscribe(s -> {
-                    if (log.isTraceEnabled()) log.trace("Listing last {} transactions with offset {}", limit, offset);
+                    if (log.isTraceEnabled()) log.trace("Listing {} transactions with offset {} after position '{}'", limit, offset, after);
+                });
+    }
+
+    @GetMapping(value = "", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    Flux<Responses.TransactionItem> listItems(@RequestParam(value = "limit", defaultValue = "100") Integer limit,
+                                              @RequestParam(value = "offset", defaultValue = "0") Integer offset,
+                                              @RequestParam(value = "after", required = false) String after,
+                                              @RequestParam(value = "entity", required = false) String entity,
+                                              @RequestParam(value = "from", required = false) String from,
+                                              @RequestParam(value = "until", required = false) String until) {
+
+        return this.history(limit, offset, after, entity, from, until)
+                .map(TransactionItemConverter::convert);
+    }
+
+    private Flux<Transaction> history(Integer limit, Integer offset, @Nullable String after, @Nullable String entity, @Nullable String from, @Nullable String until) {
+        Assert.isTrue(limit > 0 && limit <= MAX_LIMIT, "Limit must be between 1 and %d.".formatted(MAX_LIMIT));
+        Assert.isTrue(offset >= 0 && offset <= MAX_OFFSET, "Offset must be between 0 and %d, use the position of the last transaction ('after') to read further.".formatted(MAX_OFFSET));
+
+        return super.acquireContext()
+                .flatMapMany(ctx -> {
+                    TransactionsStore.Filter filter = TransactionsStore.Filter.ALL.between(asInstant(from), asInstant(until));
+                    TransactionsStore.Position position = StringUtils.hasText(after) ? TransactionsStore.Position.parse(after) : null;
+
+                    Flux<Transaction> page = StringUtils.hasText(entity)
+                            ? transactionsService.listForEntity(entity, filter, position, limit + offset, ctx)
+                            : transactionsService.list(filter, position, limit + offset, ctx);
+                    return page.skip(offset);
+                });
+    }
+
+    @Nullable
+    private static Instant asInstant(@Nullable String value) {
+        if (!StringUtils.hasText(value)) return null;
+        try {
+            return Instant.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid timestamp '%s', expected ISO-8601 format.".formatted(value));
+        }
+    }
+
+    private static Activity asActivity(String value) {
+        try {
+            return Activity.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid activity '%s', expected one of %s.".formatted(value, Arrays.toString(Activity.values())));
+        }
+    }
+
+
+    /**
+     * Streams the changes in the current scope as server-sent events. The id of each event is the position of the
+     * transaction, a reconnecting client resumes either with the Last-Event-ID header or the "after" parameter.
+     */
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    Flux<ServerSentEvent<Responses.TransactionItem>> streamChanges(@RequestParam(value = "after", required = false) String after,
+                                                                   @RequestParam(value = "activity", required = false) Set<String> activities,
+                                                                   @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+
+        Flux<ServerSentEvent<Responses.TransactionItem>> changes = this.changes(StringUtils.hasText(lastEventId) ? lastEventId : after, activities)
+                .map(item -> ServerSentEvent.builder(item).id(item.position()).event("transaction").build());
+
+        // comments keep idle connections open through proxies
+        Flux<ServerSentEvent<Responses.TransactionItem>> keepAlive = Flux.interval(KEEP_ALIVE_INTERVAL)
+                .map(tick -> ServerSentEvent.<Responses.TransactionItem>builder().comment("keep-alive").build());
+
+        return Flux.merge(changes, keepAlive);
+    }
+
+    /**
+     * Streams the changes in the current scope as newline-delimited json.
+     */
+    @GetMapping(value = "/changes", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    Flux<Responses.TransactionItem> listChanges(@RequestParam(value = "after", required = false) String after,
+                                                @RequestParam(value = "activity", required = false) Set<String> activities) {
+        return this.changes(after, activities);
+    }
+
+    private Flux<Responses.TransactionItem> changes(@Nullable String after, @Nullable Set<String> activities) {
+        return super.acquireContext()
+                .flatMapMany(ctx -> transactionsService.listChanges(
+                        StringUtils.hasText(after) ? TransactionsStore.Position.parse(after) : null,
+                        Objects.isNull(activities) ? Set.of() : activities.stream().map(TransactionsController::asActivity).collect(Collectors.toSet()),
+                        ctx))
+                .map(TransactionItemConverter::convert)
+                .doOnSubscribe(s -> {
+                    if (log.isTraceEnabled()) log.trace("Subscribing to changes after position '{}'", after);
                 });
     }
 
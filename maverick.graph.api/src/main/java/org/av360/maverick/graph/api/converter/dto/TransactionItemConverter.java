@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2024.
+ *
+ *  Licensed under the EUPL, Version 1.2 or – as soon they will be approved by the
+ *  European Commission - subsequent versions of the EUPL (the "Licence");
+ *
+ *  You may not use this work except in compliance with the Licence.
+ *  You may obtain a copy of the Licence at:
+ *
+ *  https://joinup.ec.europa.eu/software/page/eupl5
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the Licence is distributed on an "AS IS" basis,  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the Licence for the specific language governing permissions and limitations under the Licence.
+ *
+ */
+
+package org.av360.maverick.graph.api.converter.dto;
+
+import org.av360.maverick.graph.api.controller.dto.Responses;
+import org.av360.maverick.graph.model.entities.Transaction;
+import org.av360.maverick.graph.model.enums.Activity;
+import org.av360.maverick.graph.store.TransactionsStore;
+import org.eclipse.rdf4j.model.Value;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+public class TransactionItemConverter {
+
+    public static Responses.TransactionItem convert(Transaction transaction) {
+        TransactionsStore.Position position = TransactionsStore.Position.of(transaction);
+        return new Responses.TransactionItem(
+                transaction.getIdentifier().getLocalName(),
+                position.token(),
+                position.committed().toString(),
+                getSubjects(transaction, Activity.INSERTED),
+                getSubjects(transaction, Activity.UPDATED),
+                getSubjects(transaction, Activity.REMOVED)
+        );
+    }
+
+    private static Set<String> getSubjects(Transaction transaction, Activity activity) {
+        return transaction.affectedSubjects(activity).stream().map(Value::stringValue).collect(Collectors.toSet());
+    }
+}
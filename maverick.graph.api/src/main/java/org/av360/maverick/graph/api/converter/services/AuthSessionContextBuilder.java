@@ -2,6 +2,7 @@ package org.av360.maverick.graph.api.converter.services;
 
 import org.av360.maverick.graph.model.context.SessionContext;
 import org.av360.maverick.graph.services.SessionContextBuilder;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
 import org.springframework.security.authentication.InsufficientAuthenticationException;
 import org.springframework.security.core.Authentication;
@@ -10,7 +11,11 @@ import org.springframework.security.core.context.SecurityContext;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Mono;
 
+/**
+ * Sets the authentication of the request, it is acquired first and reused by the following builders.
+ */
 @Component
+@Order(10)
 public class AuthSessionContextBuilder implements SessionContextBuilder {
     @Override
     public Mono<SessionContext> build(SessionContext context) {
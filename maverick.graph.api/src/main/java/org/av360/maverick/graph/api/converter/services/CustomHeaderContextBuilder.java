@@ -19,6 +19,7 @@ import org.av360.maverick.graph.api.config.ReactiveRequestUriContextHolder;
 import org.av360.maverick.graph.model.context.RequestDetails;
 import org.av360.maverick.graph.model.context.SessionContext;
 import org.av360.maverick.graph.services.SessionContextBuilder;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Mono;
 
@@ -26,6 +27,7 @@ import reactor.core.publisher.Mono;
  * Fetches any custom header starting with "X-MEG-" and stores it in the session context
  */
 @Component
+@Order(20)
 public class CustomHeaderContextBuilder implements SessionContextBuilder  {
     @Override
     public Mono<SessionContext> build(SessionContext context) {
@@ -0,0 +1,102 @@
+package org.av360.maverick.graph.api.entities;
+
+import org.av360.maverick.graph.model.vocabulary.SDO;
+import org.av360.maverick.graph.tests.config.TestSecurityConfig;
+import org.av360.maverick.graph.tests.generator.EntitiesGenerator;
+import org.av360.maverick.graph.tests.util.ApiTestsBase;
+import org.av360.maverick.graph.tests.util.RdfConsumer;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.Rio;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ContextConfiguration(classes = TestSecurityConfig.class)
+@ActiveProfiles({"test", "api"})
+/**
+ * Tests for endpoint POST /api/entities/batch
+ */
+public class BatchCreateTest extends ApiTestsBase {
+
+    private static final int ENTITIES = 100;
+
+    @AfterEach
+    public void resetRepository() {
+        super.resetRepository();
+    }
+
+    @Test
+    public void createWithResultPerItem() {
+        super.printStart("createWithResultPerItem");
+
+        String first = """
+                {"@id": "http://example.org/batch/first", "@type": "https://schema.org/CreativeWork", "https://schema.org/title": "First"}""";
+        String second = """
+                {"@id": "http://example.org/batch/second", "@type": "https://schema.org/CreativeWork", "https://schema.org/title": "Second"}""";
+        String untyped = """
+                {"@id": "http://example.org/batch/untyped", "https://schema.org/title": "Untyped"}""";
+        String invalid = """
+                {"@id": "http://example.org/batch/invalid", "@type": """;
+
+        List<Map> results = this.createEntities(String.join("\n", first, untyped, invalid, second, first));
+        Assertions.assertEquals(5, results.size());
+        Assertions.assertEquals(List.of(0, 1, 2, 3, 4), results.stream().map(result -> result.get("index")).toList());
+        Assertions.assertEquals(List.of("CREATED", "FAILED", "FAILED", "CREATED", "MERGED"), results.stream().map(result -> result.get("outcome")).toList());
+        Assertions.assertNotNull(results.get(1).get("reason"));
+        Assertions.assertNotNull(results.get(2).get("reason"));
+        Assertions.assertEquals(results.get(0).get("identifier"), results.get(4).get("identifier"));
+
+        super.printStep("Create the entities again");
+        List<Map> repeated = this.createEntities(String.join("\n", first, second));
+        Assertions.assertEquals(List.of("MERGED", "MERGED"), repeated.stream().map(result -> result.get("outcome")).toList());
+        Assertions.assertEquals(results.get(3).get("key"), repeated.get(1).get("key"));
+
+        RdfConsumer entity = super.getTestClient().readEntity((String) results.get(0).get("key"));
+        Assertions.assertEquals(1, entity.asModel().filter(null, SDO.TITLE, null).size());
+    }
+
+    @Test
+    public void createManyInOneBatch() {
+        super.printStart("createManyInOneBatch");
+
+        String documents = IntStream.range(0, ENTITIES)
+                .mapToObj(i -> this.serialize(EntitiesGenerator.generateCreativeWork()))
+                .collect(Collectors.joining("\n"));
+        List<Map> results = this.createEntities(documents);
+
+        super.printStep("Verify the %d created entities".formatted(ENTITIES));
+        Assertions.assertEquals(ENTITIES, results.size());
+        Assertions.assertEquals(List.of(), results.stream().filter(result -> !"CREATED".equals(result.get("outcome"))).toList());
+        Assertions.assertEquals(ENTITIES, results.stream().map(result -> result.get("key")).distinct().count());
+        for (int i = 0; i < ENTITIES; i += 10) {
+            RdfConsumer entity = super.getTestClient().readEntity((String) results.get(i).get("key"));
+            Assertions.assertEquals(1, entity.asModel().filter(null, SDO.TITLE, null).size());
+        }
+    }
+
+    private List<Map> createEntities(String documents) {
+        return super.getTestClient().createEntities(documents)
+                .expectStatus().isOk()
+                .returnResult(Map.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+    }
+
+    private String serialize(Model model) {
+        StringWriter writer = new StringWriter();
+        Rio.write(model, writer, RDFFormat.JSONLD);
+        return writer.toString().replaceAll("\\R", " ");
+    }
+}
@@ -0,0 +1,103 @@
+package org.av360.maverick.graph.api.entities;
+
+import org.av360.maverick.graph.model.vocabulary.SDO;
+import org.av360.maverick.graph.tests.config.TestSecurityConfig;
+import org.av360.maverick.graph.tests.generator.EntitiesGenerator;
+import org.av360.maverick.graph.tests.util.ApiTestsBase;
+import org.av360.maverick.graph.tests.util.RdfConsumer;
+import org.eclipse.rdf4j.model.IRI;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ContextConfiguration(classes = TestSecurityConfig.class)
+@ActiveProfiles({"test", "api"})
+/**
+ * Tests for the entity tags of entities and the If-Match header on writes
+ */
+public class EntityVersionTest extends ApiTestsBase {
+
+    @AfterEach
+    public void resetRepository() {
+        super.resetRepository();
+    }
+
+    @Test
+    public void readWithEntityTag() {
+        super.printStart("readWithEntityTag");
+
+        IRI entity = this.createEntity();
+        String version = super.getTestClient().readVersion(entity);
+        String entityTag = super.getTestClient().checkEntity(entity.getLocalName())
+                .expectStatus().isOk()
+                .returnResult(String.class)
+                .getResponseHeaders().getETag();
+        Assertions.assertNotNull(version);
+        Assertions.assertEquals(version, entityTag);
+
+        super.printStep("Change a value");
+        super.getTestClient().setValue(entity, "sdo.description", "A description", version).expectStatus().isOk();
+        String changedTag = super.getTestClient().checkEntity(entity.getLocalName())
+                .expectStatus().isOk()
+                .returnResult(String.class)
+                .getResponseHeaders().getETag();
+        Assertions.assertNotEquals(version, changedTag);
+        Assertions.assertEquals(super.getTestClient().readVersion(entity), changedTag);
+    }
+
+    @Test
+    public void rejectOutdatedWrites() throws Exception {
+        super.printStart("rejectOutdatedWrites");
+
+        IRI entity = this.createEntity();
+        String version = super.getTestClient().readVersion(entity);
+
+        super.printStep("Set values concurrently based on the same version");
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<HttpStatus>> writes = IntStream.range(0, 8)
+                    .<Callable<HttpStatus>>mapToObj(i -> () -> HttpStatus.valueOf(super.getTestClient()
+                            .setValue(entity, "sdo.description", "Description " + i, version)
+                            .returnResult(String.class)
+                            .getStatus().value()))
+                    .toList();
+            List<HttpStatus> statuses = executor.invokeAll(writes).stream().map(this::get).toList();
+
+            Assertions.assertEquals(1, statuses.stream().filter(HttpStatus.OK::equals).count());
+            Assertions.assertEquals(7, statuses.stream().filter(HttpStatus.PRECONDITION_FAILED::equals).count());
+        } finally {
+            executor.shutdown();
+        }
+        Assertions.assertEquals(1, super.getTestClient().readEntity(entity).countValues(entity, SDO.DESCRIPTION));
+
+        super.printStep("Write without and with the current version");
+        super.getTestClient().setValue(entity, "sdo.name", "A name", version).expectStatus().isEqualTo(HttpStatus.PRECONDITION_FAILED);
+        super.getTestClient().setValue(entity, "sdo.name", "A name", null).expectStatus().isOk();
+        super.getTestClient().setValue(entity, "sdo.name", "Another name", super.getTestClient().readVersion(entity)).expectStatus().isOk();
+    }
+
+    private IRI createEntity() {
+        RdfConsumer created = super.getTestClient().createEntity(EntitiesGenerator.generateCreativeWork());
+        return created.getEntityIdentifier(SDO.CREATIVE_WORK);
+    }
+
+    private HttpStatus get(Future<HttpStatus> future) {
+        try {
+            return future.get();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
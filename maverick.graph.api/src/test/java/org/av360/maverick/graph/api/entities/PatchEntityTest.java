@@ -0,0 +1,223 @@
+package org.av360.maverick.graph.api.entities;
+
+import org.av360.maverick.graph.model.errors.requests.InvalidEntityUpdate;
+import org.av360.maverick.graph.model.events.EntityPatchedEvent;
+import org.av360.maverick.graph.model.vocabulary.SDO;
+import org.av360.maverick.graph.model.vocabulary.meg.Transactions;
+import org.av360.maverick.graph.store.WriteLimiter;
+import org.av360.maverick.graph.tests.config.TestSecurityConfig;
+import org.av360.maverick.graph.tests.generator.EntitiesGenerator;
+import org.av360.maverick.graph.tests.util.ApiTestsBase;
+import org.av360.maverick.graph.tests.util.RdfConsumer;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.util.Values;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.helpers.NTriplesUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ContextConfiguration(classes = {TestSecurityConfig.class, PatchEntityTest.RejectingWriteLimiter.class})
+@RecordApplicationEvents
+@ActiveProfiles({"test", "api"})
+/**
+ * Tests for endpoint PATCH /api/entities/{id}
+ */
+public class PatchEntityTest extends ApiTestsBase {
+
+    private static final Value REJECTED = Values.literal("Rejected by the store");
+
+    @Autowired
+    ApplicationEvents events;
+
+    @AfterEach
+    public void resetRepository() {
+        super.resetRepository();
+    }
+
+    @Test
+    public void patchInOneTransaction() {
+        super.printStart("patchInOneTransaction");
+
+        IRI entity = this.createEntity();
+        Value title = super.getTestClient().readEntity(entity).findFirstStatement(entity, SDO.TITLE, null).getObject();
+        String version = super.getTestClient().readVersion(entity);
+
+        super.printStep("Patch title, description, keywords, author and a detail");
+        String patch = """
+                PA sdo <https://schema.org/> .
+                PA schema: <https://schema.org/> .
+                # replace the title
+                D %1$s sdo:title %2$s .
+                A %1$s sdo:title "New title" .
+                A %1$s schema:description "A description" .
+                A %1$s sdo:keywords "one" .
+                A %1$s sdo:keywords "two" .
+                A << %1$s sdo:title "New title" >> sdo:author "An editor" .
+                A %1$s sdo:author _:author .
+                A _:author a sdo:Person .
+                A _:author sdo:name "An author" .
+                """.formatted(NTriplesUtil.toNTriplesString(entity), NTriplesUtil.toNTriplesString(title));
+
+        RdfConsumer transactions = new RdfConsumer(RDFFormat.TURTLE);
+        String patchedVersion = super.getTestClient().patchEntity(entity, patch, version)
+                .expectStatus().isOk()
+                .expectBody()
+                .consumeWith(transactions)
+                .returnResult()
+                .getResponseHeaders().getETag();
+
+        Assertions.assertEquals(1, transactions.asModel().filter(null, RDF.TYPE, Transactions.TRANSACTION).size());
+        Assertions.assertNotEquals(version, patchedVersion);
+        Assertions.assertEquals(patchedVersion, super.getTestClient().readVersion(entity));
+
+        super.printStep("Verify the entity");
+        RdfConsumer result = super.getTestClient().readEntity(entity);
+        Assertions.assertFalse(result.hasStatement(entity, SDO.TITLE, title));
+        Assertions.assertTrue(result.hasStatement(entity, SDO.TITLE, Values.literal("New title")));
+        Assertions.assertTrue(result.hasStatement(entity, SDO.DESCRIPTION, Values.literal("A description")));
+        Assertions.assertEquals(2, result.countValues(entity, SDO.KEYWORDS));
+        Value author = result.findFirstStatement(entity, SDO.AUTHOR, null).getObject();
+        Assertions.assertTrue(author.isIRI(), "the anonymous author has to be replaced by the preprocessors");
+    }
+
+    @Test
+    public void rejectPatchAsWhole() {
+        super.printStart("rejectPatchAsWhole");
+
+        IRI entity = this.createEntity();
+        Value title = super.getTestClient().readEntity(entity).findFirstStatement(entity, SDO.TITLE, null).getObject();
+        String version = super.getTestClient().readVersion(entity);
+        String subject = NTriplesUtil.toNTriplesString(entity);
+        String validChanges = """
+                D %1$s <https://schema.org/title> %2$s .
+                A %1$s <https://schema.org/title> "New title" .
+                A %1$s <https://schema.org/description> "A description" .
+                """.formatted(subject, NTriplesUtil.toNTriplesString(title));
+
+        super.printStep("The last line is invalid");
+        super.getTestClient().patchEntity(entity, validChanges + "A %s <https://schema.org/name> \"unterminated .".formatted(subject), null)
+                .expectStatus().isBadRequest();
+
+        super.printStep("The last line is about another entity");
+        super.getTestClient().patchEntity(entity, validChanges + "A <http://example.org/other> <https://schema.org/name> \"Other\" .", null)
+                .expectStatus().isBadRequest();
+
+        super.printStep("The type is removed");
+        super.getTestClient().patchEntity(entity, validChanges + "D %s a <https://schema.org/CreativeWork> .".formatted(subject), null)
+                .expectStatus().isBadRequest();
+
+        super.printStep("Verify the entity is unchanged");
+        Assertions.assertEquals(version, super.getTestClient().readVersion(entity));
+        RdfConsumer result = super.getTestClient().readEntity(entity);
+        Assertions.assertTrue(result.hasStatement(entity, SDO.TITLE, title));
+        Assertions.assertFalse(result.hasStatement(entity, SDO.TITLE, Values.literal("New title")));
+        Assertions.assertEquals(0, result.countValues(entity, SDO.DESCRIPTION));
+    }
+
+    @Test
+    public void rollbackFailedCommit() {
+        super.printStart("rollbackFailedCommit");
+
+        IRI entity = this.createEntity();
+        Value title = super.getTestClient().readEntity(entity).findFirstStatement(entity, SDO.TITLE, null).getObject();
+        String version = super.getTestClient().readVersion(entity);
+
+        super.printStep("Patch with changes the store rejects while committing");
+        String patch = """
+                D %1$s <https://schema.org/title> %2$s .
+                A %1$s <https://schema.org/title> "New title" .
+                A %1$s <https://schema.org/description> %3$s .
+                """.formatted(NTriplesUtil.toNTriplesString(entity), NTriplesUtil.toNTriplesString(title), NTriplesUtil.toNTriplesString(REJECTED));
+        super.getTestClient().patchEntity(entity, patch, version)
+                .expectStatus().isBadRequest();
+
+        super.printStep("Verify none of the changes were applied");
+        Assertions.assertEquals(version, super.getTestClient().readVersion(entity));
+        RdfConsumer result = super.getTestClient().readEntity(entity);
+        Assertions.assertTrue(result.hasStatement(entity, SDO.TITLE, title));
+        Assertions.assertFalse(result.hasStatement(entity, SDO.TITLE, Values.literal("New title")));
+        Assertions.assertEquals(0, result.countValues(entity, SDO.DESCRIPTION));
+        Assertions.assertEquals(0, events.stream(EntityPatchedEvent.class).count());
+    }
+
+    @Test
+    public void rejectOutdatedVersion() throws Exception {
+        super.printStart("rejectOutdatedVersion");
+
+        IRI entity = this.createEntity();
+        String version = super.getTestClient().readVersion(entity);
+        String subject = NTriplesUtil.toNTriplesString(entity);
+
+        super.printStep("Patch concurrently based on the same version");
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<HttpStatus>> patches = IntStream.range(0, 8)
+                    .<Callable<HttpStatus>>mapToObj(i -> () -> HttpStatus.valueOf(super.getTestClient()
+                            .patchEntity(entity, "A %s <https://schema.org/description> \"Description %d\" .".formatted(subject, i), version)
+                            .returnResult(String.class)
+                            .getStatus().value()))
+                    .toList();
+            List<HttpStatus> statuses = executor.invokeAll(patches).stream().map(this::get).toList();
+
+            Assertions.assertEquals(1, statuses.stream().filter(HttpStatus.OK::equals).count());
+            Assertions.assertEquals(7, statuses.stream().filter(HttpStatus.PRECONDITION_FAILED::equals).count());
+        } finally {
+            executor.shutdown();
+        }
+        Assertions.assertEquals(1, super.getTestClient().readEntity(entity).countValues(entity, SDO.DESCRIPTION));
+
+        super.printStep("Patch based on the outdated version");
+        super.getTestClient().patchEntity(entity, "A %s <https://schema.org/description> \"Another description\" .".formatted(subject), version)
+                .expectStatus().isEqualTo(HttpStatus.PRECONDITION_FAILED);
+        super.getTestClient().patchEntity(entity, "A %s <https://schema.org/description> \"Another description\" .".formatted(subject), super.getTestClient().readVersion(entity))
+                .expectStatus().isOk();
+    }
+
+    private IRI createEntity() {
+        RdfConsumer created = super.getTestClient().createEntity(EntitiesGenerator.generateCreativeWork());
+        return created.getEntityIdentifier(SDO.CREATIVE_WORK);
+    }
+
+    /**
+     * Fails the commit of transactions which insert the value {@link #REJECTED}
+     */
+    @TestConfiguration
+    static class RejectingWriteLimiter {
+        @Bean
+        WriteLimiter rejectingWriteLimiter() {
+            return (transaction, environment) -> {
+                if (transaction.getInsertedStatements().contains(null, null, REJECTED)) {
+                    throw new InvalidEntityUpdate(transaction.getIdentifier(), "The store rejected the transaction.");
+                }
+            };
+        }
+    }
+
+    private HttpStatus get(Future<HttpStatus> future) {
+        try {
+            return future.get();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -38,7 +38,7 @@ public class RemoveDetailsTests extends ApiTestsBase  {
         super.printStep("Dumping and validating current model");
         CsvConsumer cc1 = super.getTestClient().listAllStatements();
         super.dumpStatementsAsTable(cc1);
-        Assertions.assertEquals(13, cc1.getRows().size());
+        Assertions.assertEquals(14, cc1.getRows().size());
 
         super.printStep("Deleting detail dc.source from predicate teaches");
         super.getTestClient().deleteValueDetail(sourceIdentifier, "sdo.teaches", "dc.source").expectStatus().isOk();
@@ -46,7 +46,7 @@ public class RemoveDetailsTests extends ApiTestsBase  {
         super.printStep("Dumping and validating current model");
         CsvConsumer cc2 = super.getTestClient().listAllStatements();
         super.dumpStatementsAsTable(cc2);
-        Assertions.assertEquals(8, cc2.getRows().size());
+        Assertions.assertEquals(9, cc2.getRows().size());
     }
 
 
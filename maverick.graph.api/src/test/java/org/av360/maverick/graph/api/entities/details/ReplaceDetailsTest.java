@@ -60,7 +60,7 @@ public class ReplaceDetailsTest extends ApiTestsBase {
         super.printStep("Dumping and validating current model");
         CsvConsumer cc2 = super.getTestClient().listAllStatements();
         super.dumpStatementsAsTable(cc2);
-        Assertions.assertEquals(12, cc2.getRows().size());
+        Assertions.assertEquals(13, cc2.getRows().size());
 
     }
 }
@@ -6,6 +6,7 @@ import org.av360.maverick.graph.tests.generator.EntitiesGenerator;
 import org.av360.maverick.graph.tests.util.ApiTestsBase;
 import org.av360.maverick.graph.tests.util.RdfConsumer;
 import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.util.Values;
 import org.eclipse.rdf4j.rio.RDFFormat;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
@@ -63,4 +64,26 @@ public class ListValuesTest extends ApiTestsBase {
 
         Assertions.assertEquals(2, rdfConsumer2.asModel().filter(sourceIdentifier, SDO.AUTHOR, null).size());
     }
+
+    @Test
+    public void readValueWithLanguageTag() {
+
+        super.printStart("Read the value of a property in a specific language");
+
+        RdfConsumer rc1 = super.getTestClient().createEntity(EntitiesGenerator.generateCreativeWork());
+        IRI sourceIdentifier = rc1.getEntityIdentifier(SDO.CREATIVE_WORK);
+        super.getTestClient().createValue(sourceIdentifier, "sdo.headline", "A headline@en", false);
+        super.getTestClient().createValue(sourceIdentifier, "sdo.headline", "Eine Überschrift@de", false);
+        super.getTestClient().createValue(sourceIdentifier, "sdo.author", "an author", false);
+
+        RdfConsumer all = super.getTestClient().readValue(sourceIdentifier, "sdo.headline", null);
+        all.print(RDFFormat.TURTLESTAR);
+        Assertions.assertEquals(2, all.asModel().filter(sourceIdentifier, SDO.HEADLINE, null).size());
+        Assertions.assertTrue(all.asModel().filter(sourceIdentifier, SDO.AUTHOR, null).isEmpty());
+
+        RdfConsumer german = super.getTestClient().readValue(sourceIdentifier, "sdo.headline", "de");
+        german.print(RDFFormat.TURTLESTAR);
+        Assertions.assertEquals(1, german.asModel().filter(sourceIdentifier, SDO.HEADLINE, null).size());
+        Assertions.assertTrue(german.asModel().contains(sourceIdentifier, SDO.HEADLINE, Values.literal("Eine Überschrift", "de")));
+    }
 }
@@ -0,0 +1,167 @@
+package org.av360.maverick.graph.api.search;
+
+import org.av360.maverick.graph.api.controller.dto.Responses;
+import org.av360.maverick.graph.services.SearchServices;
+import org.av360.maverick.graph.tests.config.TestSecurityConfig;
+import org.av360.maverick.graph.tests.util.ApiTestsBase;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Optional;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ContextConfiguration(classes = TestSecurityConfig.class)
+@ActiveProfiles({"test", "api"})
+@TestPropertySource(properties = {
+        "application.storage.search.persistent=true",
+        "application.storage.search.path=target/search-index"
+})
+/**
+ * Tests for endpoint GET /api/search
+ */
+public class SearchTest extends ApiTestsBase {
+
+    @Autowired
+    private SearchServices searchServices;
+
+    @AfterEach
+    public void resetRepository() {
+        super.resetRepository();
+        // the index is derived from the (now empty) repository
+        StepVerifier.create(this.searchServices.rebuild(TestSecurityConfig.createTestContext()))
+                .expectNext(0L)
+                .verifyComplete();
+    }
+
+    @Test
+    public void rankLabelsOverDescriptions() {
+        super.printStart("rankLabelsOverDescriptions");
+        super.upload("requests/create-searchable.ttl");
+
+        super.printStep();
+        Responses.SearchResults results = this.awaitResults("unicorn", 3);
+        Assertions.assertEquals(3, results.hits().size());
+        Assertions.assertTrue(results.hits().get(1).score() > results.hits().get(2).score());
+        Assertions.assertEquals("Horses of the Steppe", results.hits().get(2).label());
+    }
+
+    @Test
+    public void matchPrefixAndFuzzy() {
+        super.printStart("matchPrefixAndFuzzy");
+        super.upload("requests/create-searchable.ttl");
+        this.awaitResults("unicorn", 3);
+
+        super.printStep("prefix");
+        Assertions.assertEquals(3, this.search("unic", null, false, 10, 0).total());
+        Assertions.assertEquals(1, this.search("horses step", null, false, 10, 0).total());
+
+        super.printStep("fuzzy");
+        Assertions.assertEquals(0, this.search("unicron", null, false, 10, 0).total());
+        Assertions.assertEquals(3, this.search("unicron", null, true, 10, 0).total());
+    }
+
+    @Test
+    public void matchLanguage() {
+        super.printStart("matchLanguage");
+        super.upload("requests/create-searchable.ttl");
+        this.awaitResults("unicorn", 3);
+
+        super.printStep("stemming");
+        // "unicorns" only matches with the English stemmer
+        Assertions.assertEquals(0, this.search("unicorns", null, false, 10, 0).total());
+        Assertions.assertEquals(2, this.search("unicorns", "en", false, 10, 0).total());
+
+        super.printStep("language");
+        Assertions.assertEquals(0, this.search("unicorn", "de", false, 10, 0).total());
+        Responses.SearchResults german = this.search("letzten einhorns", "de", false, 10, 0);
+        Assertions.assertEquals(1, german.total());
+        Assertions.assertEquals("Das letzte Einhorn", german.hits().get(0).label());
+    }
+
+    @Test
+    public void paginate() {
+        super.printStart("paginate");
+        super.upload("requests/create-searchable.ttl");
+        Responses.SearchResults all = this.awaitResults("unicorn", 3);
+
+        super.printStep();
+        Responses.SearchResults second = this.search("unicorn", null, false, 1, 1);
+        Assertions.assertEquals(3, second.total());
+        Assertions.assertEquals(1, second.hits().size());
+        Assertions.assertEquals(all.hits().get(1).id(), second.hits().get(0).id());
+
+        Assertions.assertTrue(this.search("unicorn", null, false, 10, 3).hits().isEmpty());
+    }
+
+    @Test
+    public void rebuildIndex() {
+        super.printStart("rebuildIndex");
+        super.upload("requests/create-searchable.ttl");
+        this.awaitResults("unicorn", 3);
+
+        super.printStep();
+        StepVerifier.create(this.searchServices.rebuild(TestSecurityConfig.createTestContext()))
+                .expectNext(3L)
+                .verifyComplete();
+        Assertions.assertEquals(3, this.search("unicorn", null, false, 10, 0).total());
+    }
+
+    @Test
+    public void rejectInvalidRequests() {
+        super.printStart("rejectInvalidRequests");
+
+        webClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/api/search").queryParam("q", " ").build())
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        webClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/api/search").queryParam("q", "unicorn").queryParam("limit", 0).build())
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        webClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/api/search").queryParam("q", "unicorn").queryParam("offset", Integer.MAX_VALUE).build())
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    /**
+     * The index is updated asynchronously after the transaction has been committed.
+     */
+    private Responses.SearchResults awaitResults(String text, int expected) {
+        Responses.SearchResults results = Awaitility.await()
+                .atMost(Duration.ofSeconds(10))
+                .pollInterval(Duration.ofMillis(100))
+                .until(() -> this.search(text, null, false, 10, 0), current -> current.total() >= expected);
+        Assertions.assertEquals(expected, results.total());
+        return results;
+    }
+
+    private Responses.SearchResults search(String text, String language, boolean fuzzy, int limit, int offset) {
+        return webClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/api/search")
+                        .queryParam("q", text)
+                        .queryParamIfPresent("lang", Optional.ofNullable(language))
+                        .queryParam("fuzzy", fuzzy)
+                        .queryParam("limit", limit)
+                        .queryParam("offset", offset)
+                        .build())
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(Responses.SearchResults.class)
+                .returnResult()
+                .getResponseBody();
+    }
+}
@@ -0,0 +1,118 @@
+package org.av360.maverick.graph.api.transactions;
+
+import org.av360.maverick.graph.api.controller.dto.Responses;
+import org.av360.maverick.graph.model.events.EntityCreatedEvent;
+import org.av360.maverick.graph.model.vocabulary.SDO;
+import org.av360.maverick.graph.model.vocabulary.meg.Transactions;
+import org.av360.maverick.graph.tests.config.TestSecurityConfig;
+import org.av360.maverick.graph.tests.util.ApiTestsBase;
+import org.av360.maverick.graph.tests.util.RdfConsumer;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ContextConfiguration(classes = TestSecurityConfig.class)
+@RecordApplicationEvents
+@ActiveProfiles({"test", "api"})
+/**
+ * Tests for endpoint GET /api/transactions/changes
+ */
+public class ChangeFeedTest extends ApiTestsBase {
+
+    @Autowired
+    ApplicationEvents events;
+
+    @AfterEach
+    public void resetRepository() {
+        super.resetRepository();
+    }
+
+    @Test
+    public void receiveAndResumeChanges() {
+        super.printStart("receiveAndResumeChanges");
+
+        AtomicReference<Responses.TransactionItem> received = new AtomicReference<>();
+
+        // the entity is created while we are listening to the live feed (the change might arrive before the upload has returned)
+        Mono<Statement> video = Mono.delay(Duration.ofMillis(500), Schedulers.boundedElastic())
+                .map(tick -> super.upload("requests/create-valid.ttl").findFirstStatement(null, RDF.TYPE, SDO.VIDEO_OBJECT))
+                .cache();
+        video.subscribe();
+
+        StepVerifier.create(this.changes(null))
+                .assertNext(received::set)
+                .thenCancel()
+                .verify(Duration.ofSeconds(10));
+
+        Assertions.assertTrue(received.get().inserted().contains(video.block(Duration.ofSeconds(10)).getSubject().stringValue()));
+        AtomicReference<String> position = new AtomicReference<>(received.get().position());
+
+        super.printStep();
+        RdfConsumer second = super.upload("requests/create-valid_withEmbedded.ttl");
+
+        super.printStep();
+        StepVerifier.create(this.changes(position.get()))
+                .assertNext(item -> {
+                    Assertions.assertTrue(item.position().compareTo(position.get()) > 0);
+                    Assertions.assertTrue(second.getStatements().stream().anyMatch(statement -> item.inserted().contains(statement.getSubject().stringValue())));
+                })
+                .thenCancel()
+                .verify(Duration.ofSeconds(10));
+    }
+
+    @Test
+    public void keepTransactionsOfEventsUnchanged() {
+        super.printStart("keepTransactionsOfEventsUnchanged");
+
+        Mono.delay(Duration.ofMillis(500), Schedulers.boundedElastic())
+                .subscribe(tick -> super.upload("requests/create-valid.ttl"));
+        StepVerifier.create(this.changes(null))
+                .expectNextCount(1)
+                .thenCancel()
+                .verify(Duration.ofSeconds(10));
+
+        // only the recorded copies are stamped with the commit time
+        Assertions.assertTrue(this.events.stream(EntityCreatedEvent.class).findAny().isPresent());
+        this.events.stream(EntityCreatedEvent.class).forEach(event ->
+                Assertions.assertFalse(event.getTransaction().getModel().contains(event.getTransaction().getIdentifier(), Transactions.COMMITTED, null)));
+    }
+
+    @Test
+    public void rejectUnknownActivity() {
+        super.printStart("rejectUnknownActivity");
+
+        webClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/api/transactions/changes").queryParam("activity", "unknown").build())
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    private Flux<Responses.TransactionItem> changes(String after) {
+        return webClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/api/transactions/changes").queryParamIfPresent("after", Optional.ofNullable(after)).build())
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(Responses.TransactionItem.class)
+                .getResponseBody();
+    }
+}
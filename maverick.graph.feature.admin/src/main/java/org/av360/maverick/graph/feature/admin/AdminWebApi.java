@@ -27,6 +27,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import org.av360.maverick.graph.feature.admin.controller.dto.ImportFromEndpointRequest;
 import org.av360.maverick.graph.model.enums.RdfMimeTypes;
 import org.av360.maverick.graph.model.enums.RepositoryType;
+import org.av360.maverick.graph.store.RepositorySnapshot;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -112,4 +113,29 @@ public interface AdminWebApi {
             @RequestParam(required = false, defaultValue = "entities", value = "entities")
             @Parameter(name = "repository", description = "The repository type in which the query should search.")
             RepositoryType repositoryType);
+
+    @PostMapping(value = "/snapshots", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Takes a consistent snapshot of a persistent repository, only the configured number of snapshots is kept")
+    @ResponseStatus(HttpStatus.CREATED)
+    Mono<RepositorySnapshot> createSnapshot(
+            @RequestParam(required = false, defaultValue = "entities", value = "repository")
+            @Parameter(name = "repository", description = "The repository type to take the snapshot of.")
+            RepositoryType repositoryType);
+
+    @GetMapping(value = "/snapshots", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Lists the snapshots of a persistent repository, the latest first")
+    @ResponseStatus(HttpStatus.OK)
+    Flux<RepositorySnapshot> listSnapshots(
+            @RequestParam(required = false, defaultValue = "entities", value = "repository")
+            @Parameter(name = "repository", description = "The repository type to list the snapshots of.")
+            RepositoryType repositoryType);
+
+    @PostMapping(value = "/snapshots/{id}/restore", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Replaces a persistent repository with the snapshot, all later changes are lost")
+    @ResponseStatus(HttpStatus.OK)
+    Mono<RepositorySnapshot> restoreSnapshot(
+            @PathVariable @Parameter(name = "id", description = "Identifier of the snapshot.") String id,
+            @RequestParam(required = false, defaultValue = "entities", value = "repository")
+            @Parameter(name = "repository", description = "The repository type to restore.")
+            RepositoryType repositoryType);
 }
@@ -5,6 +5,7 @@ import org.av360.maverick.graph.api.controller.AbstractController;
 import org.av360.maverick.graph.feature.admin.controller.dto.ImportFromEndpointRequest;
 import org.av360.maverick.graph.feature.admin.services.AdminServices;
 import org.av360.maverick.graph.model.enums.RepositoryType;
+import org.av360.maverick.graph.store.RepositorySnapshot;
 import org.av360.maverick.graph.store.rdf.helpers.RdfUtils;
 import org.eclipse.rdf4j.rio.RDFParserFactory;
 import org.springframework.core.io.buffer.DataBuffer;
@@ -98,4 +99,30 @@ public class AdminRestController extends AbstractController implements org.av360
                 .doOnSubscribe(s -> log.info("Request to import a packaged file"));
     }
 
+    @Override
+    public Mono<RepositorySnapshot> createSnapshot(RepositoryType repositoryType) {
+        return super.acquireContext()
+                .map(context -> context.updateEnvironment(env -> env.setRepositoryType(repositoryType)))
+                .flatMap(adminServices::createSnapshot)
+                .doOnError(throwable -> log.error("Error while creating snapshot of repository.", throwable))
+                .doOnSubscribe(s -> log.info("Request to create a snapshot of the repository of type '{}'", repositoryType));
+    }
+
+    @Override
+    public Flux<RepositorySnapshot> listSnapshots(RepositoryType repositoryType) {
+        return super.acquireContext()
+                .map(context -> context.updateEnvironment(env -> env.setRepositoryType(repositoryType)))
+                .flatMapMany(adminServices::listSnapshots)
+                .doOnSubscribe(s -> log.debug("Request to list the snapshots of the repository of type '{}'", repositoryType));
+    }
+
+    @Override
+    public Mono<RepositorySnapshot> restoreSnapshot(String id, RepositoryType repositoryType) {
+        return super.acquireContext()
+                .map(context -> context.updateEnvironment(env -> env.setRepositoryType(repositoryType)))
+                .flatMap(ctx -> adminServices.restoreSnapshot(id, ctx))
+                .doOnError(throwable -> log.error("Error while restoring snapshot '{}' of repository.", id, throwable))
+                .doOnSubscribe(s -> log.info("Request to restore snapshot '{}' of the repository of type '{}'", id, repositoryType));
+    }
+
 }
@@ -4,15 +4,22 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.Validate;
 import org.av360.maverick.graph.feature.admin.services.importer.EndpointImporter;
 import org.av360.maverick.graph.model.annotations.RequiresPrivilege;
+import org.av360.maverick.graph.model.context.Environment;
 import org.av360.maverick.graph.model.context.SessionContext;
 import org.av360.maverick.graph.model.enums.RepositoryType;
+import org.av360.maverick.graph.model.events.StatementsImportedEvent;
 import org.av360.maverick.graph.model.security.Authorities;
 import org.av360.maverick.graph.services.IdentifierServices;
+import org.av360.maverick.graph.services.aspects.SetsRepositoryType;
 import org.av360.maverick.graph.store.FragmentsStore;
+import org.av360.maverick.graph.store.RepositorySnapshot;
+import org.av360.maverick.graph.store.StoreSchedulers;
+import org.av360.maverick.graph.store.behaviours.Maintainable;
 import org.eclipse.rdf4j.rio.RDFFormat;
 import org.eclipse.rdf4j.rio.Rio;
 import org.reactivestreams.Publisher;
 import org.reactivestreams.Subscription;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.io.buffer.DataBufferFactory;
 import org.springframework.core.io.buffer.DataBufferUtils;
@@ -22,7 +29,6 @@ import org.springframework.scheduling.SchedulingException;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
 
 import java.io.File;
 import java.io.FileInputStream;
@@ -42,11 +48,17 @@ public class AdminServices {
 
     private final Map<RepositoryType, FragmentsStore> stores;
     private final IdentifierServices identifierServices;
+    private final StoreSchedulers schedulers;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SetsRepositoryType repositoryDefaults;
 
     private boolean maintenanceActive = false;
 
-    public AdminServices(Set<FragmentsStore> storeSet, IdentifierServices identifierServices) {
+    public AdminServices(Set<FragmentsStore> storeSet, IdentifierServices identifierServices, StoreSchedulers schedulers, ApplicationEventPublisher eventPublisher, SetsRepositoryType repositoryDefaults) {
         this.identifierServices = identifierServices;
+        this.schedulers = schedulers;
+        this.eventPublisher = eventPublisher;
+        this.repositoryDefaults = repositoryDefaults;
         this.stores = new HashMap<>();
 
 
@@ -74,7 +86,7 @@ public class AdminServices {
                     this.maintenanceActive = false;
                     log.debug("Purging repository {} completed.", ctx.getEnvironment());
                 })
-                .subscribeOn(Schedulers.newSingle("import"))
+                .subscribeOn(this.schedulers.forRepository(ctx.getEnvironment().getRepositoryType(), ctx.getEnvironment()))
                 .subscribe();
         return Mono.empty();
     }
@@ -92,9 +104,10 @@ public class AdminServices {
                 })
                 .doOnSuccess(suc -> {
                     log.debug("Importing statements completed into repository {} through admin services", ctx.getEnvironment());
+                    this.eventPublisher.publishEvent(new StatementsImportedEvent(ctx.getEnvironment()));
                 })
                 .doOnSuccess(this::release)
-                .subscribeOn(Schedulers.newSingle("import"))
+                .subscribeOn(this.schedulers.forRepository(ctx.getEnvironment().getRepositoryType(), ctx.getEnvironment()))
                 .subscribe();
         return Mono.empty();
 
@@ -102,12 +115,53 @@ public class AdminServices {
 
     @RequiresPrivilege(Authorities.SYSTEM_VALUE)
     public Mono<Void> importFromEndpoint(String endpoint, Map<String, String> headers, int limit, int offset, SessionContext ctx) {
-        EndpointImporter endpointImporter = new EndpointImporter(endpoint, headers, this.stores, this.identifierServices);
+        EndpointImporter endpointImporter = new EndpointImporter(endpoint, headers, this.stores, this.identifierServices, this.schedulers.forRepository(ctx.getEnvironment().getRepositoryType(), ctx.getEnvironment()));
         return endpointImporter.runImport(ctx)
                 .doOnSubscribe(this::lock)
+                .doOnSuccess(suc -> this.eventPublisher.publishEvent(new StatementsImportedEvent(ctx.getEnvironment())))
                 .doOnSuccess(this::release);
     }
 
+    /**
+     * Takes a consistent snapshot of the persistent repository in the current environment. Only the configured number
+     * of snapshots is kept (<code>application.storage.snapshots.retain</code>).
+     */
+    @RequiresPrivilege(Authorities.MAINTAINER_VALUE)
+    public Mono<RepositorySnapshot> createSnapshot(SessionContext ctx) {
+        return this.getMaintainable(ctx)
+                .createSnapshot(ctx.getEnvironment())
+                .doOnSubscribe(sub -> log.debug("Creating snapshot of repository {} through admin services.", ctx.getEnvironment()));
+    }
+
+    @RequiresPrivilege(Authorities.MAINTAINER_VALUE)
+    public Flux<RepositorySnapshot> listSnapshots(SessionContext ctx) {
+        return this.getMaintainable(ctx).listSnapshots(ctx.getEnvironment());
+    }
+
+    /**
+     * Replaces the persistent repository in the current environment with the given snapshot, all later changes are
+     * lost. Dependent state (e.g. the statistics of applications) is refreshed as after an import.
+     */
+    @RequiresPrivilege(Authorities.MAINTAINER_VALUE)
+    public Mono<RepositorySnapshot> restoreSnapshot(String snapshotId, SessionContext ctx) {
+        if (maintenanceActive) return Mono.error(new SchedulingException("Maintenance job still running."));
+
+        return this.getMaintainable(ctx)
+                .restoreSnapshot(snapshotId, ctx.getEnvironment())
+                .doOnSubscribe(this::lock)
+                .doOnSubscribe(sub -> log.debug("Restoring snapshot '{}' of repository {} through admin services.", snapshotId, ctx.getEnvironment()))
+                .doOnSuccess(snapshot -> this.eventPublisher.publishEvent(new StatementsImportedEvent(ctx.getEnvironment())))
+                .doFinally(signal -> this.maintenanceActive = false);
+    }
+
+    private Maintainable getMaintainable(SessionContext ctx) {
+        // the persistence of the repository is otherwise only set for the entity services
+        if (!ctx.getEnvironment().hasConfiguration(Environment.RepositoryConfigurationKey.FLAG_PERSISTENT)) {
+            this.repositoryDefaults.setDefaultConfigurations(ctx.getEnvironment());
+        }
+        return this.stores.get(ctx.getEnvironment().getRepositoryType()).asMaintainable();
+    }
+
     /**
      * Stops the maintenance mode.
      */
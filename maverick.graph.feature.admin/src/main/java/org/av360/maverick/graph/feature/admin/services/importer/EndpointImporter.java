@@ -29,7 +29,7 @@ import org.eclipse.rdf4j.query.TupleQueryResult;
 import org.eclipse.rdf4j.repository.RepositoryConnection;
 import org.eclipse.rdf4j.repository.sparql.SPARQLRepository;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
+import reactor.core.scheduler.Scheduler;
 
 import java.time.Duration;
 import java.time.temporal.ChronoUnit;
@@ -45,12 +45,17 @@ public class EndpointImporter {
     private final Map<String, String> headers;
     private final Map<RepositoryType, FragmentsStore> stores;
     private final IdentifierServices identifierServices;
+    private final Scheduler scheduler;
 
-    public EndpointImporter(String endpoint, Map<String, String> headers, Map<RepositoryType, FragmentsStore> stores, IdentifierServices identifierServices) {
+    /**
+     * @param scheduler the scheduler for the blocking queries to the endpoint and the target repository
+     */
+    public EndpointImporter(String endpoint, Map<String, String> headers, Map<RepositoryType, FragmentsStore> stores, IdentifierServices identifierServices, Scheduler scheduler) {
         this.endpoint = endpoint;
         this.headers = headers;
         this.stores = stores;
         this.identifierServices = identifierServices;
+        this.scheduler = scheduler;
     }
 
     public Mono<Void> runImport(SessionContext ctx) {
@@ -59,7 +64,8 @@ public class EndpointImporter {
 
         repository.setAdditionalHttpHeaders(headers);
 
-        return this.importFromEndpoint(repository, 5000, 0, ctx);
+        return Mono.defer(() -> this.importFromEndpoint(repository, 5000, 0, ctx))
+                .subscribeOn(this.scheduler);
     }
 
     private Mono<Void> importFromEndpoint(SPARQLRepository repository, int limit, int offset, SessionContext ctx) {
@@ -100,13 +106,12 @@ public class EndpointImporter {
                         .asMaintainable()
                         .importStatements(resultingModel, ctx.getEnvironment())
                         .doOnSuccess(suc -> {
-                            Mono.just(offset + limit)
-                                    .delayElement(Duration.of(100, ChronoUnit.MILLIS))
-                                    .flatMap(nlimit -> this.importFromEndpoint(repository, limit, nlimit, ctx))
+                            Mono.defer(() -> this.importFromEndpoint(repository, limit, offset + limit, ctx))
                                     .doOnSubscribe(subscription -> {
                                         log.debug("Importing next {} statements from endpoint {} with offset {}", limit, endpoint, offset + limit);
                                     })
-                                    .subscribeOn(Schedulers.newSingle("import"))
+                                    .subscribeOn(this.scheduler)
+                                    .delaySubscription(Duration.of(100, ChronoUnit.MILLIS))
                                     .subscribe();
 
                         })
@@ -0,0 +1,59 @@
+package org.av360.maverick.graph.feature.applications.config;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.extern.slf4j.Slf4j;
+import org.av360.maverick.graph.feature.applications.services.ApplicationQuotas;
+import org.av360.maverick.graph.model.errors.requests.QuotaExceeded;
+import org.av360.maverick.graph.model.util.PreAuthenticationWebFilter;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.regex.Pattern;
+
+/**
+ * Enforces the request quotas of the requested application (see {@link ApplicationQuotas}). Requests exceeding a
+ * quota are rejected with status 429 and a Retry-After header.
+ * <p>
+ * Runs after the {@link RequestedApplicationFilter}, which stores the label of the requested application in the
+ * context.
+ */
+@Component
+@Order(2)
+@Slf4j(topic = "graph.feat.apps.filter")
+public class ApplicationQuotaFilter implements PreAuthenticationWebFilter {
+
+    private static final Pattern QUERY_PATH = Pattern.compile("^/api(?:/s/[^/]+)?/query(?:/|$)");
+    private static final String ATTRIBUTE_ACQUIRED = ApplicationQuotaFilter.class.getName() + ".acquired";
+
+    private final ApplicationQuotas quotas;
+
+    public ApplicationQuotaFilter(ApplicationQuotas quotas) {
+        this.quotas = quotas;
+    }
+
+    @Override
+    public Mono<Void> filter(@NotNull ServerWebExchange exchange, WebFilterChain chain) {
+        // the filter is part of the security chain and of the web filters, a request only counts once
+        if (exchange.getAttributes().putIfAbsent(ATTRIBUTE_ACQUIRED, Boolean.TRUE) != null) return chain.filter(exchange);
+
+        return ReactiveApplicationContextHolder.getRequestedApplicationLabel()
+                .flatMap(this.quotas::getLimits)
+                .map(limits -> {
+                    try {
+                        limits.acquireRequest();
+                        if (!QUERY_PATH.matcher(exchange.getRequest().getPath().value()).find()) return chain.filter(exchange);
+
+                        limits.acquireQuery();
+                        return chain.filter(exchange).doFinally(signal -> limits.releaseQuery());
+                    } catch (QuotaExceeded e) {
+                        log.debug("Rejected request to '{}': {}", exchange.getRequest().getPath(), e.getMessage());
+                        return Mono.<Void>error(e);
+                    }
+                })
+                .defaultIfEmpty(Mono.defer(() -> chain.filter(exchange)))
+                .flatMap(filtered -> filtered);
+    }
+}
@@ -16,6 +16,9 @@ import reactor.core.publisher.Mono;
 import java.io.IOException;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 
 @Component
@@ -23,7 +26,10 @@ import java.util.Optional;
 @Slf4j(topic = "graph.feat.apps.filter")
 public class RequestedApplicationFilter implements PreAuthenticationWebFilter {
 
-
+    /**
+     * The segment following the first segment "s" (in any case) of the path, e.g. "/api/s/{label}/entities".
+     */
+    private static final Pattern SCOPE_SEGMENT = Pattern.compile("(?:^|/)[sS]/([^/]+)");
 
     public RequestedApplicationFilter() {
     }
@@ -58,7 +64,11 @@ public class RequestedApplicationFilter implements PreAuthenticationWebFilter {
 
 
     private Optional<String> getRequestedApplicationFromRequest(ServerHttpRequest request) throws IOException {
-        return getRequestedApplicationFromRequest(request.getPath().toString(), request.getHeaders().toSingleValueMap(), request.getQueryParams().toSingleValueMap());
+        // the headers and parameters are only looked up, without copying them into maps first
+        Optional<String> fromPath = getRequestedApplicationFromPath(request.getPath().value());
+        return resolve(fromPath,
+                () -> Optional.ofNullable(request.getHeaders().getFirst(Globals.HEADER_APPLICATION_LABEL)),
+                () -> Optional.ofNullable(request.getQueryParams().getFirst("s")).or(() -> Optional.ofNullable(request.getQueryParams().getFirst("S"))));
     }
 
     public static Optional<String> getRequestedApplicationFromRequestDetails(RequestDetails request) throws IOException {
@@ -66,17 +76,15 @@ public class RequestedApplicationFilter implements PreAuthenticationWebFilter {
     }
 
     public Optional<String> getRequestedApplicationFromRequest(String path, Map<String, String> headers, Map<String, String> queryParams) throws IOException {
-        // header OR path (path wins)
-        Optional<String> fromHeader = getRequestedApplicationFromHeaders(headers);
-        Optional<String> fromPath = getRequestedApplicationFromPath(path);
-        Optional<String> fromParameter = getRequestedApplicationFromQueryParam(queryParams);
+        return resolve(getRequestedApplicationFromPath(path), () -> getRequestedApplicationFromHeaders(headers), () -> getRequestedApplicationFromQueryParam(queryParams));
+    }
 
+    private static Optional<String> resolve(Optional<String> fromPath, Supplier<Optional<String>> fromHeader, Supplier<Optional<String>> fromParameter) {
+        // path OR header OR parameter (path wins)
         return fromPath
-                .or(() -> fromHeader)
-                .or(() -> fromParameter)
-                .filter(app -> !app.equalsIgnoreCase(Globals.DEFAULT_APPLICATION_LABEL))
-                .or(Optional::empty);
-
+                .or(fromHeader)
+                .or(fromParameter)
+                .filter(app -> !app.equalsIgnoreCase(Globals.DEFAULT_APPLICATION_LABEL));
     }
 
     public Optional<String> getRequestedApplicationFromHeaders(Map<String, String> headers) {
@@ -97,18 +105,8 @@ public class RequestedApplicationFilter implements PreAuthenticationWebFilter {
     public Optional<String> getRequestedApplicationFromPath(String path) throws IOException {
         Assert.isTrue(StringUtils.hasLength(path), "Empty path in request details");
 
-
-
-        String[] split = path.split("/");
-        for (int i = 0; i < split.length; i++) {
-            if (split[i].equalsIgnoreCase("s")) {
-                if (split.length > i + 1) {
-                    return Optional.of(split[i + 1]);
-                }
-            }
-        }
-
-        return Optional.empty();
+        Matcher matcher = SCOPE_SEGMENT.matcher(path);
+        return matcher.find() ? Optional.of(matcher.group(1)) : Optional.empty();
     }
 
 
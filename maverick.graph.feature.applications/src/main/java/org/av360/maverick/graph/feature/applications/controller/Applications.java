@@ -9,6 +9,7 @@ import org.av360.maverick.graph.api.controller.AbstractController;
 import org.av360.maverick.graph.feature.applications.controller.dto.Requests;
 import org.av360.maverick.graph.feature.applications.controller.dto.Responses;
 import org.av360.maverick.graph.feature.applications.model.errors.InvalidApplication;
+import org.av360.maverick.graph.feature.applications.services.ApplicationStatistics;
 import org.av360.maverick.graph.feature.applications.services.ApplicationsService;
 import org.av360.maverick.graph.feature.applications.services.SubscriptionsService;
 import org.av360.maverick.graph.model.enums.ConfigurationKeysRegistry;
@@ -23,6 +24,7 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 
 @RestController
@@ -39,11 +41,14 @@ public class Applications extends AbstractController {
 
     private final QueryServices queryServices;
 
-    public Applications(ApplicationsService applicationsService, SubscriptionsService subscriptionsService, QueryServices queryServices) {
+    private final ApplicationStatistics applicationStatistics;
+
+    public Applications(ApplicationsService applicationsService, SubscriptionsService subscriptionsService, QueryServices queryServices, ApplicationStatistics applicationStatistics) {
 
         this.applicationsService = applicationsService;
         this.subscriptionsService = subscriptionsService;
         this.queryServices = queryServices;
+        this.applicationStatistics = applicationStatistics;
     }
 
 
@@ -102,6 +107,27 @@ public class Applications extends AbstractController {
     }
 
 
+    @GetMapping(value = "/{applicationKey}/metrics")
+    @ResponseStatus(HttpStatus.OK)
+    Mono<Responses.ApplicationMetricsResponse> getMetrics(@PathVariable String applicationKey) {
+        return super.acquireContext()
+                .flatMap(context -> this.applicationsService.getApplication(applicationKey, context)
+                        .flatMap(application -> this.applicationStatistics.getStatistics(application, context)
+                                // no statistics have been computed yet
+                                .defaultIfEmpty(ApplicationStatistics.Snapshot.EMPTY)
+                                .map(statistics -> new Responses.ApplicationMetricsResponse(
+                                        application.key(),
+                                        application.label(),
+                                        statistics.types(),
+                                        statistics.values(),
+                                        statistics.links(),
+                                        Objects.nonNull(statistics.lastModified()) ? statistics.lastModified().toString() : null,
+                                        Objects.nonNull(statistics.reconciled()) ? statistics.reconciled().toString() : null
+                                ))))
+                .doOnSubscribe(subscription -> log.info("Request to get metrics of application with id '{}'", applicationKey));
+    }
+
+
     @PostMapping(value = "/{applicationKey}/keywords")
     @ResponseStatus(HttpStatus.OK)
     Mono<Responses.ApplicationResponse> createKeyword(@PathVariable String applicationKey, @RequestBody String keyword) {
@@ -16,6 +16,11 @@ public class Responses {
 
     }
 
+    public record ApplicationMetricsResponse(String key, String label, Map<String, Long> types, long values, long links,
+                                             String lastModified, String lastReconciled) {
+
+    }
+
     public record ApiKeyWithApplicationResponse(String key, String issueDate, boolean active,
                                                 ApplicationResponse subscription) {
 
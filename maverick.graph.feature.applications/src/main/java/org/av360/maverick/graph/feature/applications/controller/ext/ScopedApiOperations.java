@@ -9,7 +9,8 @@ import org.av360.maverick.graph.feature.applications.services.delegates.Delegati
 import org.av360.maverick.graph.model.enums.PropertyType;
 import org.av360.maverick.graph.model.enums.RdfMimeTypes;
 import org.av360.maverick.graph.model.rdf.AnnotatedStatement;
-import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -128,11 +129,11 @@ public class ScopedApiOperations extends AbstractController {
     @GetMapping(value = "/content/s/{label}/{id:[\\w|\\d|\\-|\\_]+}")
 
     @ResponseStatus(HttpStatus.OK)
-    Mono<ResponseEntity<Flux<DataBuffer>>> getContent(@PathVariable String label, @PathVariable String id) {
+    Mono<ResponseEntity<Resource>> getContent(@PathVariable String label, @PathVariable String id, @Nullable @RequestHeader(value = HttpHeaders.RANGE, required = false) String range) {
         if (Objects.isNull(this.contentCtrl)) {
             return Mono.just(ResponseEntity.noContent().build());
         }
-        return this.contentCtrl.download(id);
+        return this.contentCtrl.download(id, range);
     }
 
 
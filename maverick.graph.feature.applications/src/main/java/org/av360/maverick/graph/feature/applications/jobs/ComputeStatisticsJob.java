@@ -2,58 +2,35 @@ package org.av360.maverick.graph.feature.applications.jobs;
 
 
 import lombok.extern.slf4j.Slf4j;
+import org.av360.maverick.graph.feature.applications.services.ApplicationStatistics;
 import org.av360.maverick.graph.feature.applications.services.ApplicationsService;
 import org.av360.maverick.graph.model.annotations.Job;
 import org.av360.maverick.graph.model.context.SessionContext;
 import org.av360.maverick.graph.model.entities.ScheduledJob;
-import org.av360.maverick.graph.model.enums.RepositoryType;
-import org.av360.maverick.graph.services.QueryServices;
-import org.av360.maverick.graph.services.TransactionsService;
-import org.av360.maverick.graph.services.preprocessors.types.AssignLocalTypes;
-import org.av360.maverick.graph.store.TransactionsStore;
-import org.eclipse.rdf4j.model.Literal;
-import org.eclipse.rdf4j.model.Value;
-import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import reactor.core.publisher.Mono;
 
-import javax.annotation.Nullable;
-import java.math.BigInteger;
+import java.time.Duration;
 
 /**
- * <p>
- * Type coercion detects linked data fragments within a repository and tries to infer
- * - individuals (entities)
- * - classifier (shared embedded)
- * - embedded (single use embedded)
- * </p>
- * <p>
- * Individual are fragments with characteristic properties which induce uniqueness.
- * Classifiers are concepts used to categorize or cluster the individuals.
- * A fragment is a collection of statements with a common subject. This job queries for fragments which are neither
- * individual nor classifier. The entity api serves only individuals.
- *</p>
+ * Stores the statistics of an application (see {@link ApplicationStatistics}) as metrics of the application. The
+ * statistics are recounted if they haven't been verified yet, or the last recount is older than
+ * <code>application.features.modules.jobs.scheduled.computeStatistics.recountInterval</code>.
  */
 @Job
-@Slf4j(topic = "graph.jobs.coercion")
-@SuppressWarnings("javadoc")
+@Slf4j(topic = "graph.jobs.statistics")
 public class ComputeStatisticsJob implements ScheduledJob {
 
     public static String NAME = "computeStatistics";
     private final ApplicationsService applicationsService;
-    private final QueryServices queryServices;
+    private final ApplicationStatistics applicationStatistics;
+    private final Duration recountInterval;
 
-    private  final TransactionsService transactionsService;
-
-    private final AssignLocalTypes localTypesTransformer;
-    private final TransactionsStore transactionsStore;
-
-    public ComputeStatisticsJob(ApplicationsService applicationsService, QueryServices queryServices, TransactionsService transactionsService, @Autowired(required = false) @Nullable AssignLocalTypes localTypesTransformer, TransactionsStore transactionsStore) {
+    public ComputeStatisticsJob(ApplicationsService applicationsService, ApplicationStatistics applicationStatistics,
+                                @Value("${application.features.modules.jobs.scheduled.computeStatistics.recountInterval:P1D}") Duration recountInterval) {
         this.applicationsService = applicationsService;
-        this.queryServices = queryServices;
-        this.transactionsService = transactionsService;
-        this.localTypesTransformer = localTypesTransformer;
-        this.transactionsStore = transactionsStore;
-
+        this.applicationStatistics = applicationStatistics;
+        this.recountInterval = recountInterval;
     }
 
     @Override
@@ -62,43 +39,22 @@ public class ComputeStatisticsJob implements ScheduledJob {
     }
 
     public Mono<Void> run(SessionContext ctx) {
-        return this.applicationsService.getApplicationByLabel(ctx.getEnvironment().getScope().label(), ctx)
-                        .flatMap(application ->
-                                this.countIndividuals(ctx)
-                                .map(count -> this.applicationsService.setMetric(application, "count_individuals", count.intValue(), ctx))
-                                .then(Mono.just(application))
-                        ).flatMap(application ->
-                        this.countIndividuals(ctx)
-                                .map(count -> this.applicationsService.setMetric(application, "count_individuals", count.intValue(), ctx))
-                                .then(Mono.just(application))
-                        ).then();
-
-
-    }
-
-    private Mono<BigInteger> countIndividuals(SessionContext ctx) {
-        String q = """
-                SELECT( COUNT(?entity ) as ?count) WHERE { ?entity a <urn:pwid:meg:e:Individual> }
-                """;
-        return this.count(q, ctx);
-    }
-
-    private Mono<BigInteger> countClassifier(SessionContext ctx) {
-        String q = """
-                SELECT( COUNT(?entity ) as ?count) WHERE { ?entity a <urn:pwid:meg:e:Classifier> }
-                """;
-        return this.count(q, ctx);
+        String label = ctx.getEnvironment().getScope().label();
+        return this.applicationsService.getApplicationByLabel(label, ctx)
+                .flatMap(application -> this.reconcileIfRequired(label, ctx)
+                        .then(this.applicationStatistics.getStatistics(application, ctx))
+                        .flatMap(statistics -> this.applicationsService.setMetrics(application, statistics.toMetrics(), ctx)))
+                .then();
     }
 
+    private Mono<Boolean> reconcileIfRequired(String label, SessionContext ctx) {
+        if (!this.applicationStatistics.requiresRecount(label, this.recountInterval)) return Mono.just(false);
 
-    private Mono<BigInteger> count(String query, SessionContext ctx) {
-        return this.queryServices.queryValues(query, RepositoryType.ENTITIES, ctx)
-                .map(bindings -> bindings.getValue("count"))
-                .filter(Value::isLiteral)
-                .map(value -> (Literal)value)
-                .map(Literal::integerValue)
-                .next()
-                .switchIfEmpty(Mono.just(BigInteger.ZERO));
+        return Mono.defer(() -> {
+                    long changes = this.applicationStatistics.getChanges(label);
+                    return this.applicationStatistics.recount(ctx).map(recounted -> this.applicationStatistics.reconcile(label, recounted, changes));
+                })
+                .doOnSubscribe(sub -> log.debug("Recounting statistics of application '{}'", label));
     }
 
 }
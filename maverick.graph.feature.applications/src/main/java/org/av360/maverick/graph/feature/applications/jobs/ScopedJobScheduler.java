@@ -1,28 +1,43 @@
 package org.av360.maverick.graph.feature.applications.jobs;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.av360.maverick.graph.feature.applications.model.domain.Application;
 import org.av360.maverick.graph.feature.applications.model.events.ApplicationCreatedEvent;
 import org.av360.maverick.graph.feature.applications.model.events.ApplicationDeletedEvent;
 import org.av360.maverick.graph.feature.applications.model.events.ApplicationUpdatedEvent;
+import org.av360.maverick.graph.feature.applications.services.ApplicationChanges;
 import org.av360.maverick.graph.feature.applications.services.ApplicationsService;
 import org.av360.maverick.graph.model.context.SessionContext;
 import org.av360.maverick.graph.model.enums.RepositoryType;
+import org.av360.maverick.graph.model.events.JobCompletedEvent;
 import org.av360.maverick.graph.model.events.JobScheduledEvent;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.TaskScheduler;
 import org.springframework.scheduling.support.CronTrigger;
 import org.springframework.util.StringUtils;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledFuture;
-
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Schedules a job for each application according to the frequency configured for the application.
+ * <p>
+ * A job is only requested if the entities of the application have changed since the last job which completed
+ * successfully (see {@link ApplicationChanges}), the version of the application is passed on with the job. The requests
+ * are delayed by a random jitter, to spread the jobs of all applications firing at the same time.
+ */
 @Slf4j(topic = "graph.feat.apps.schedulers")
 public abstract class ScopedJobScheduler {
 
@@ -32,10 +47,20 @@ public abstract class ScopedJobScheduler {
 
     private ApplicationsService applicationsService;
 
+    private ApplicationChanges applicationChanges;
+
+    private MeterRegistry meterRegistry;
+
+    private Duration jitter = Duration.ZERO;
+
     private final Map<String, ScheduledFuture<?>> scheduledTasks;
 
+    // the version of the application processed by the last successful job
+    private final Map<String, Long> processedVersions;
+
     protected ScopedJobScheduler() {
         this.scheduledTasks = new ConcurrentHashMap<>();
+        this.processedVersions = new ConcurrentHashMap<>();
     }
 
     abstract String getFrequencyConfigurationKey();
@@ -58,10 +83,7 @@ public abstract class ScopedJobScheduler {
             return;
         }
 
-        Runnable task = () -> {
-            JobScheduledEvent event = new JobScheduledEvent(getJobLabel(), new SessionContext().setSystemAuthentication().updateEnvironment(env -> env.withScope(application.label()).withRepositoryType(RepositoryType.ENTITIES)));
-            eventPublisher.publishEvent(event);
-        };
+        Runnable task = () -> this.requestJob(application.label());
 
         ScheduledFuture<?> scheduledFuture;
         try {
@@ -74,15 +96,58 @@ public abstract class ScopedJobScheduler {
         scheduledTasks.put("%s.%s".formatted(application.label(), getJobLabel()), scheduledFuture);
     }
 
+    /**
+     * Requests the job for the application after a random delay, if the application has changed since the last
+     * successful job.
+     */
+    protected void requestJob(String applicationLabel) {
+        long version = this.applicationChanges.getVersion(applicationLabel);
+        Long processedVersion = this.processedVersions.get(applicationLabel);
+        if (Objects.nonNull(processedVersion) && processedVersion == version) {
+            log.trace("Skipping job '{}' for application '{}' without any changes since the last run.", getJobLabel(), applicationLabel);
+            this.count(applicationLabel, "skipped");
+            return;
+        }
+
+        Runnable publish = () -> {
+            JobScheduledEvent event = new JobScheduledEvent(getJobLabel(), new SessionContext().setSystemAuthentication().updateEnvironment(env -> env.withScope(applicationLabel).withRepositoryType(RepositoryType.ENTITIES)), version);
+            eventPublisher.publishEvent(event);
+        };
+
+        this.count(applicationLabel, "queued");
+        if (this.jitter.isZero() || this.jitter.isNegative()) {
+            publish.run();
+        } else {
+            Instant startTime = Instant.now().plusMillis(ThreadLocalRandom.current().nextLong(this.jitter.toMillis() + 1));
+            taskScheduler.schedule(publish, startTime);
+        }
+    }
+
+    private void count(String applicationLabel, String status) {
+        if (Objects.nonNull(this.meterRegistry)) {
+            this.meterRegistry.counter("graph.jobs.scoped.counter", "name", getJobLabel(), "scope", applicationLabel, "status", status).increment();
+        }
+    }
+
 
     protected void deleteScheduledTask(String applicationLabel, boolean mayInterruptIfRunning) {
-        ScheduledFuture<?> scheduledFuture = scheduledTasks.get("%s.%s".formatted(applicationLabel, getJobLabel()));
+        String key = "%s.%s".formatted(applicationLabel, getJobLabel());
+        ScheduledFuture<?> scheduledFuture = scheduledTasks.get(key);
         if (scheduledFuture != null) {
             scheduledFuture.cancel(mayInterruptIfRunning);
-            scheduledTasks.remove(applicationLabel);
+            scheduledTasks.remove(key);
         }
     }
 
+    @EventListener
+    public void handleJobCompleted(JobCompletedEvent event) {
+        JobScheduledEvent request = event.getRequest();
+        if (!getJobLabel().equalsIgnoreCase(request.getJobName()) || !request.getSessionContext().getEnvironment().hasScope()) return;
+
+        // a failed job is requested again with the next run, even without further changes
+        request.getVersion().ifPresent(version -> this.processedVersions.merge(request.getScope(), version, Math::max));
+    }
+
     @EventListener
     public void handleApplicationCreated(ApplicationCreatedEvent event) {
         scheduleRunnableTask(event.getApplication());
@@ -97,6 +162,7 @@ public abstract class ScopedJobScheduler {
     @EventListener
     public void handleApplicationDeleted(ApplicationDeletedEvent event) {
         deleteScheduledTask(event.getApplicationLabel(), true);
+        processedVersions.remove(event.getApplicationLabel());
     }
 
     @Autowired
@@ -113,4 +179,22 @@ public abstract class ScopedJobScheduler {
     public void setApplicationsService(ApplicationsService applicationsService) {
         this.applicationsService = applicationsService;
     }
+
+    @Autowired
+    public void setApplicationChanges(ApplicationChanges applicationChanges) {
+        this.applicationChanges = applicationChanges;
+    }
+
+    @Autowired(required = false)
+    public void setMeterRegistry(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * @param jitter the maximum random delay of a requested job
+     */
+    @Autowired
+    public void setJitter(@Value("${application.features.modules.jobs.scheduled.jitter:PT1M}") Duration jitter) {
+        this.jitter = jitter;
+    }
 }
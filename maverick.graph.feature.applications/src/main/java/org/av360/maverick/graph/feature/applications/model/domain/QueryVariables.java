@@ -3,11 +3,15 @@ package org.av360.maverick.graph.feature.applications.model.domain;
 import org.av360.maverick.graph.model.errors.InconsistentModelException;
 import org.av360.maverick.graph.store.rdf.helpers.BindingsAccessor;
 import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.base.CoreDatatype;
 import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
 import org.eclipse.rdf4j.sparqlbuilder.core.SparqlBuilder;
 import org.eclipse.rdf4j.sparqlbuilder.core.Variable;
 import reactor.core.publisher.Mono;
 
+import java.io.Serializable;
 import java.util.HashMap;
 
 public class QueryVariables {
@@ -38,6 +42,10 @@ public class QueryVariables {
 
     public static final Variable varConfigValue = SparqlBuilder.var("cfgV");
 
+    public static final Variable varNodeMetric = SparqlBuilder.var("metricNode");
+    public static final Variable varMetricKey = SparqlBuilder.var("metricL");
+    public static final Variable varMetricValue = SparqlBuilder.var("metricV");
+
 
     public static Mono<Subscription> buildSubscriptionFromBindings(BindingsAccessor ba)  {
         return buildApplicationFromBindings(ba)
@@ -99,4 +107,24 @@ public class QueryVariables {
         }
 
     }
+
+    public static Mono<Metrics> buildMetricsFromBindings(BindingsAccessor bindingsAccessor, IRI application) {
+        try {
+            // integer metrics are counters, all other values are returned as strings
+            Serializable value = bindingsAccessor.findValue(varMetricValue)
+                    .filter(Value::isLiteral)
+                    .map(literal -> (Literal) literal)
+                    .map(literal -> literal.getCoreDatatype().asXSDDatatype().map(CoreDatatype.XSD::isIntegerDatatype).orElse(false) ? (Serializable) literal.longValue() : literal.stringValue())
+                    .orElseThrow(() -> new InconsistentModelException("Missing value of metrics item"));
+
+            return Mono.just(new Metrics(
+                    bindingsAccessor.asIRI(varNodeMetric),
+                    bindingsAccessor.asString(varMetricKey),
+                    value,
+                    application
+            ));
+        } catch (InconsistentModelException e) {
+            return Mono.error(e);
+        }
+    }
 }
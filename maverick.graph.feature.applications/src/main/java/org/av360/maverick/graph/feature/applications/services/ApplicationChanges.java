@@ -0,0 +1,61 @@
+package org.av360.maverick.graph.feature.applications.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.av360.maverick.graph.feature.applications.model.events.ApplicationDeletedEvent;
+import org.av360.maverick.graph.model.context.Environment;
+import org.av360.maverick.graph.model.enums.RepositoryType;
+import org.av360.maverick.graph.model.events.EntityEvent;
+import org.av360.maverick.graph.model.events.StatementsImportedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps track of the writes to the entities of each application. Every change increments the version of the
+ * application, which allows the scoped jobs to skip applications without any changes since their last run.
+ * <p>
+ * The versions are only kept in memory, after a restart all applications are considered as changed.
+ */
+@Component
+@Slf4j(topic = "graph.feat.apps.changes")
+public class ApplicationChanges {
+
+    private final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    /**
+     * @param applicationLabel the label of the application
+     * @return the number of changes of the application since the start
+     */
+    public long getVersion(String applicationLabel) {
+        AtomicLong version = this.versions.get(applicationLabel);
+        return Objects.isNull(version) ? 0 : version.get();
+    }
+
+    @EventListener
+    public void handleEntityChanged(EntityEvent event) {
+        this.markChanged(event.getEnvironment());
+    }
+
+    @EventListener
+    public void handleStatementsImported(StatementsImportedEvent event) {
+        this.markChanged(event.getEnvironment());
+    }
+
+    @EventListener
+    public void handleApplicationDeleted(ApplicationDeletedEvent event) {
+        this.versions.remove(event.getApplicationLabel());
+    }
+
+    private void markChanged(Environment environment) {
+        if (!environment.hasScope()) return;
+        // the entity services don't always set the repository type
+        if (Objects.nonNull(environment.getRepositoryType()) && environment.getRepositoryType() != RepositoryType.ENTITIES) return;
+
+        this.versions.computeIfAbsent(environment.getScope().label(), label -> new AtomicLong()).incrementAndGet();
+        log.trace("Marked application '{}' as changed", environment.getScope().label());
+    }
+}
@@ -1,17 +1,49 @@
 package org.av360.maverick.graph.feature.applications.services;
 
 import org.av360.maverick.graph.feature.applications.config.ReactiveApplicationContextHolder;
+import org.av360.maverick.graph.feature.applications.model.domain.Application;
+import org.av360.maverick.graph.feature.applications.model.events.GraphApplicationEvent;
 import org.av360.maverick.graph.model.context.Environment;
 import org.av360.maverick.graph.model.context.SessionContext;
 import org.av360.maverick.graph.services.SessionContextBuilder;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Mono;
 
+import javax.annotation.Nullable;
+import java.io.Serializable;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Resolves the application requested by label and applies its configuration to the environment of the session.
+ * <p>
+ * The configuration of each application is kept as an immutable snapshot, which is dropped as soon as any
+ * application is created, updated or deleted. Requests for a known application therefore don't go through the
+ * applications service (and its authorization checks) anymore.
+ */
 @Component
-public class ApplicationContextBuilder implements SessionContextBuilder {
+@Order(30)
+public class ApplicationContextBuilder implements SessionContextBuilder, ApplicationListener<GraphApplicationEvent> {
+
+    private record ApplicationSnapshot(String key, boolean persistent, boolean isPublic, @Nullable String schedulingWeight) {
+        private static ApplicationSnapshot of(Application application) {
+            Serializable schedulingWeight = application.configuration().get(ApplicationQuotas.CONFIG_KEY_SCHEDULING_WEIGHT);
+            return new ApplicationSnapshot(application.key(), application.flags().isPersistent(), application.flags().isPublic(),
+                    Objects.nonNull(schedulingWeight) ? schedulingWeight.toString() : null);
+        }
+    }
 
     private final ApplicationsService applicationsService;
 
+    private final Map<String, ApplicationSnapshot> snapshots = new ConcurrentHashMap<>();
+
+    // snapshots resolved before the last change of the applications are not kept
+    private final AtomicLong generation = new AtomicLong();
+
     public ApplicationContextBuilder(ApplicationsService applicationsService) {
         this.applicationsService = applicationsService;
     }
@@ -30,15 +62,39 @@ public class ApplicationContextBuilder implements SessionContextBuilder {
 
     }
 
+    @Override
+    public void onApplicationEvent(GraphApplicationEvent event) {
+        synchronized (this.snapshots) {
+            this.generation.incrementAndGet();
+            this.snapshots.clear();
+        }
+    }
+
     private Mono<SessionContext> buildApplicationConfiguration(SessionContext context) {
-        return this.applicationsService.getApplicationByLabel(context.getEnvironment().getScope().label(), SessionContext.SYSTEM)
-                .map(application ->
-                        context.updateEnvironment(env -> {
-                            env.setConfiguration(Environment.RepositoryConfigurationKey.FLAG_PERSISTENT, application.flags().isPersistent());
-                            env.setConfiguration(Environment.RepositoryConfigurationKey.FLAG_PUBLIC, application.flags().isPublic());
-                            env.setConfiguration(Environment.RepositoryConfigurationKey.KEY, application.key());
-                        })
-                );
+        String label = context.getEnvironment().getScope().label();
+        ApplicationSnapshot snapshot = this.snapshots.get(label);
+        if (Objects.nonNull(snapshot)) return Mono.just(this.apply(snapshot, context));
+
+        long resolvedIn = this.generation.get();
+        return this.applicationsService.getApplicationByLabel(label, SessionContext.SYSTEM)
+                .map(ApplicationSnapshot::of)
+                .doOnNext(resolved -> {
+                    synchronized (this.snapshots) {
+                        if (this.generation.get() == resolvedIn) this.snapshots.put(label, resolved);
+                    }
+                })
+                .map(resolved -> this.apply(resolved, context));
+
+    }
 
+    private SessionContext apply(ApplicationSnapshot snapshot, SessionContext context) {
+        return context.updateEnvironment(env -> {
+            env.setConfiguration(Environment.RepositoryConfigurationKey.FLAG_PERSISTENT, snapshot.persistent());
+            env.setConfiguration(Environment.RepositoryConfigurationKey.FLAG_PUBLIC, snapshot.isPublic());
+            env.setConfiguration(Environment.RepositoryConfigurationKey.KEY, snapshot.key());
+            if (Objects.nonNull(snapshot.schedulingWeight())) {
+                env.setConfiguration(Environment.RepositoryConfigurationKey.SCHEDULING_WEIGHT, snapshot.schedulingWeight());
+            }
+        });
     }
 }
@@ -0,0 +1,187 @@
+package org.av360.maverick.graph.feature.applications.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.av360.maverick.graph.feature.applications.model.events.ApplicationDeletedEvent;
+import org.av360.maverick.graph.feature.applications.model.events.GraphApplicationEvent;
+import org.av360.maverick.graph.model.context.Environment;
+import org.av360.maverick.graph.model.context.SessionContext;
+import org.av360.maverick.graph.model.entities.Transaction;
+import org.av360.maverick.graph.model.enums.ConfigurationKeysRegistry;
+import org.av360.maverick.graph.model.enums.RepositoryType;
+import org.av360.maverick.graph.model.errors.requests.QuotaExceeded;
+import org.av360.maverick.graph.store.WriteLimiter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.Nullable;
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The quotas of the applications: requests per second, concurrent queries and written statements per second. The
+ * defaults are configured with <code>application.features.modules.applications.quotas.*</code> (0 for no limit), and
+ * can be overridden for each application with its configuration items.
+ * <p>
+ * The limits of an application are loaded with its first request (see
+ * {@link org.av360.maverick.graph.feature.applications.config.ApplicationQuotaFilter}) and replaced with the next
+ * request after the application has been changed. The replacing limits keep the state of the replaced ones (the
+ * running queries and the permits left). Writes are checked by the stores before a transaction is committed.
+ */
+@Component
+@Slf4j(topic = "graph.feat.apps.quotas")
+public class ApplicationQuotas implements WriteLimiter, ApplicationListener<GraphApplicationEvent> {
+
+    public static final String CONFIG_KEY_REQUESTS_PER_SECOND = "quota_requests_per_second";
+    public static final String CONFIG_KEY_CONCURRENT_QUERIES = "quota_concurrent_queries";
+    public static final String CONFIG_KEY_WRITE_STATEMENTS_PER_SECOND = "quota_write_statements_per_second";
+    public static final String CONFIG_KEY_SCHEDULING_WEIGHT = "quota_scheduling_weight";
+
+    /**
+     * The limits of one application, shared by all of its requests.
+     */
+    public static final class Limits {
+
+        private static final Limits NONE = new Limits("default", 0, 0, 0, 0, null);
+
+        private final String scope;
+        // the number of changes of the application when the limits have been resolved
+        private final long generation;
+        @Nullable
+        private final TokenBucket requests;
+        private final int concurrentQueries;
+        // shared with the limits replacing these ones, queries started before a change are released after it
+        private final AtomicInteger runningQueries;
+        @Nullable
+        private final TokenBucket writes;
+
+        private Limits(String scope, long generation, double requestsPerSecond, int concurrentQueries, double writeStatementsPerSecond, @Nullable Limits previous) {
+            this.scope = scope;
+            this.generation = generation;
+            this.requests = requestsPerSecond > 0 ? new TokenBucket(requestsPerSecond, Objects.nonNull(previous) ? previous.requests : null) : null;
+            this.concurrentQueries = concurrentQueries;
+            this.runningQueries = Objects.nonNull(previous) ? previous.runningQueries : new AtomicInteger();
+            this.writes = writeStatementsPerSecond > 0 ? new TokenBucket(writeStatementsPerSecond, Objects.nonNull(previous) ? previous.writes : null) : null;
+        }
+
+        public void acquireRequest() throws QuotaExceeded {
+            acquire(this.requests, 1, CONFIG_KEY_REQUESTS_PER_SECOND);
+        }
+
+        /**
+         * @throws QuotaExceeded if the application is running its maximum number of queries, the query has to be
+         *                       released with {@link #releaseQuery()} otherwise
+         */
+        public void acquireQuery() throws QuotaExceeded {
+            // queries are counted without limit as well, the limit might be set while they are running
+            int running = this.runningQueries.incrementAndGet();
+            if (this.concurrentQueries > 0 && running > this.concurrentQueries) {
+                this.runningQueries.decrementAndGet();
+                throw new QuotaExceeded(this.scope, CONFIG_KEY_CONCURRENT_QUERIES, Duration.ofSeconds(1));
+            }
+        }
+
+        public void releaseQuery() {
+            this.runningQueries.decrementAndGet();
+        }
+
+        /**
+         * Writes of more statements than are allowed per second are granted once the quota is unused for a second,
+         * the following writes have to wait until the additional statements are within the quota.
+         */
+        public void acquireWrites(long statements) throws QuotaExceeded {
+            acquire(this.writes, statements, CONFIG_KEY_WRITE_STATEMENTS_PER_SECOND);
+        }
+
+        private void acquire(@Nullable TokenBucket bucket, long permits, String quota) throws QuotaExceeded {
+            if (Objects.isNull(bucket)) return;
+            Duration retryAfter = bucket.tryAcquire(permits);
+            if (!retryAfter.isZero()) throw new QuotaExceeded(this.scope, quota, retryAfter);
+        }
+    }
+
+    private final ApplicationsService applicationsService;
+    private final double defaultRequestsPerSecond;
+    private final int defaultConcurrentQueries;
+    private final double defaultWriteStatementsPerSecond;
+
+    private final Map<String, Limits> limits = new ConcurrentHashMap<>();
+
+    // the number of changes of each application, limits resolved before the last change are replaced
+    private final Map<String, Long> changes = new ConcurrentHashMap<>();
+
+    // lazy, since the applications are stored in a repository which asks the quotas before writing
+    public ApplicationQuotas(@Lazy ApplicationsService applicationsService,
+                             @Value("${application.features.modules.applications.quotas.requestsPerSecond:0}") double defaultRequestsPerSecond,
+                             @Value("${application.features.modules.applications.quotas.concurrentQueries:0}") int defaultConcurrentQueries,
+                             @Value("${application.features.modules.applications.quotas.writeStatementsPerSecond:0}") double defaultWriteStatementsPerSecond) {
+        this.applicationsService = applicationsService;
+        this.defaultRequestsPerSecond = defaultRequestsPerSecond;
+        this.defaultConcurrentQueries = defaultConcurrentQueries;
+        this.defaultWriteStatementsPerSecond = defaultWriteStatementsPerSecond;
+
+        ConfigurationKeysRegistry.add(CONFIG_KEY_REQUESTS_PER_SECOND, "Maximum number of requests per second to this application, no limit if 0.");
+        ConfigurationKeysRegistry.add(CONFIG_KEY_CONCURRENT_QUERIES, "Maximum number of queries running at the same time in this application, no limit if 0.");
+        ConfigurationKeysRegistry.add(CONFIG_KEY_WRITE_STATEMENTS_PER_SECOND, "Maximum number of inserted and removed statements per second in this application, no limit if 0.");
+        ConfigurationKeysRegistry.add(CONFIG_KEY_SCHEDULING_WEIGHT, "Share of the store threads of this application relative to the other applications (default 1).");
+    }
+
+    /**
+     * @param applicationLabel the label of the requested application
+     * @return the limits of the application, without any limits if the application doesn't exist
+     */
+    public Mono<Limits> getLimits(String applicationLabel) {
+        long generation = this.changes.getOrDefault(applicationLabel, 0L);
+        Limits cached = this.limits.get(applicationLabel);
+        if (Objects.nonNull(cached) && cached.generation == generation) return Mono.just(cached);
+
+        return this.applicationsService.getApplicationByLabel(applicationLabel, SessionContext.SYSTEM)
+                .map(application -> this.limits.compute(applicationLabel, (label, current) -> {
+                    // concurrent requests share the limits of the first one
+                    if (Objects.nonNull(current) && current.generation >= generation) return current;
+
+                    // if the application is changed meanwhile, the limits are replaced again with the next request
+                    return new Limits(application.label(), generation,
+                            this.getValue(application.configuration(), CONFIG_KEY_REQUESTS_PER_SECOND, this.defaultRequestsPerSecond),
+                            (int) this.getValue(application.configuration(), CONFIG_KEY_CONCURRENT_QUERIES, this.defaultConcurrentQueries),
+                            this.getValue(application.configuration(), CONFIG_KEY_WRITE_STATEMENTS_PER_SECOND, this.defaultWriteStatementsPerSecond),
+                            current);
+                }))
+                // unknown applications are rejected later on
+                .onErrorResume(error -> Mono.empty())
+                .defaultIfEmpty(Limits.NONE);
+    }
+
+    @Override
+    public void acquire(Transaction transaction, Environment environment) throws QuotaExceeded {
+        if (environment.getRepositoryType() != RepositoryType.ENTITIES || !environment.hasScope()) return;
+
+        Limits applicationLimits = this.limits.get(environment.getScope().label());
+        if (Objects.nonNull(applicationLimits)) {
+            applicationLimits.acquireWrites(transaction.getInsertedStatements().size() + transaction.getRemovedStatements().size());
+        }
+    }
+
+    @Override
+    public void onApplicationEvent(GraphApplicationEvent event) {
+        this.changes.merge(event.getLabel(), 1L, Long::sum);
+        if (event instanceof ApplicationDeletedEvent) this.limits.remove(event.getLabel());
+    }
+
+    private double getValue(Map<String, Serializable> configuration, String key, double defaultValue) {
+        Serializable value = configuration.get(key);
+        if (Objects.isNull(value)) return defaultValue;
+        try {
+            return Double.parseDouble(value.toString().trim());
+        } catch (NumberFormatException e) {
+            log.warn("Invalid value '{}' for quota '{}', using the default {}", value, key, defaultValue);
+            return defaultValue;
+        }
+    }
+}
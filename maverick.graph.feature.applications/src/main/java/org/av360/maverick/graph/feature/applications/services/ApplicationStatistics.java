@@ -0,0 +1,358 @@
+package org.av360.maverick.graph.feature.applications.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.av360.maverick.graph.feature.applications.model.domain.Application;
+import org.av360.maverick.graph.feature.applications.model.domain.Metrics;
+import org.av360.maverick.graph.feature.applications.model.events.ApplicationCreatedEvent;
+import org.av360.maverick.graph.feature.applications.model.events.ApplicationDeletedEvent;
+import org.av360.maverick.graph.model.context.Environment;
+import org.av360.maverick.graph.model.context.SessionContext;
+import org.av360.maverick.graph.model.entities.Transaction;
+import org.av360.maverick.graph.model.enums.RepositoryType;
+import org.av360.maverick.graph.model.events.StatementsImportedEvent;
+import org.av360.maverick.graph.model.vocabulary.meg.Metadata;
+import org.av360.maverick.graph.model.vocabulary.meg.Transactions;
+import org.av360.maverick.graph.services.QueryServices;
+import org.av360.maverick.graph.store.CommitListener;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.util.Models;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.Nullable;
+import java.io.Serializable;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Statistics of the entities in each application (the number of entities per type, the number of values and links,
+ * and the time of the last change). The statistics are maintained from the statements of all transactions committed to
+ * the entities (including the transactions of jobs and postprocessors), and are reconciled with a full recount by the {@link org.av360.maverick.graph.feature.applications.jobs.ComputeStatisticsJob},
+ * which also stores them as metrics of the application. Changed statistics are stored as metrics after
+ * <code>application.features.modules.applications.statistics.persistDelay</code> as well (at most once within the
+ * delay, PT0S to store them with the job only).
+ * <p>
+ * The changes of a transaction are counted while the repository is locked for commits, before they are committed. A
+ * recount started afterwards includes them, a recount which started before is detected as overlapping. A failed commit
+ * lets the statistics drift until the next recount.
+ * <p>
+ * The statistics of an application are only maintained after they have been recounted or loaded from the stored
+ * metrics. Loaded statistics are not verified (changes might have been missed before), and are recounted with the next
+ * run of the job. Imported statements are not tracked, the statistics are recounted after an import. Statements which
+ * were inserted although they existed already (or removed although they didn't exist) let the statistics drift, the
+ * differences are corrected with the next recount. A recount which overlapped with changes of the application is
+ * applied, but not verified (it is unknown which of the changes it includes).
+ */
+@Component
+@Slf4j(topic = "graph.feat.apps.statistics")
+public class ApplicationStatistics implements CommitListener {
+
+    public static final String METRIC_VALUES = "count_values";
+    public static final String METRIC_LINKS = "count_links";
+    public static final String METRIC_LAST_MODIFIED = "last_modified";
+    public static final String METRIC_LAST_RECONCILED = "last_reconciled";
+    public static final String METRIC_TYPE_PREFIX = "count_type:";
+    public static final String METRIC_INDIVIDUALS = "count_individuals";
+    public static final String METRIC_CLASSIFIERS = "count_classifiers";
+
+    private static final String TYPE_INDIVIDUAL = "urn:pwid:meg:e:Individual";
+    private static final String TYPE_CLASSIFIER = "urn:pwid:meg:e:Classifier";
+
+    /**
+     * The statistics of one application at a point in time.
+     *
+     * @param types        number of entities (or rather type statements) per type
+     * @param values       number of statements with a literal
+     * @param links        number of statements with a resource, except the types
+     * @param lastModified time of the last tracked change
+     * @param reconciled   time of the last recount, null if the statistics haven't been verified yet
+     */
+    public record Snapshot(Map<String, Long> types, long values, long links, @Nullable Instant lastModified, @Nullable Instant reconciled) {
+
+        public static final Snapshot EMPTY = new Snapshot(Map.of(), 0, 0, null, null);
+
+        public Map<String, Serializable> toMetrics() {
+            Map<String, Serializable> metrics = new HashMap<>();
+            this.types.forEach((type, count) -> metrics.put(METRIC_TYPE_PREFIX + type, count));
+            // kept for the clients of the previous statistics
+            metrics.put(METRIC_INDIVIDUALS, this.types.getOrDefault(TYPE_INDIVIDUAL, 0L));
+            metrics.put(METRIC_CLASSIFIERS, this.types.getOrDefault(TYPE_CLASSIFIER, 0L));
+            metrics.put(METRIC_VALUES, this.values);
+            metrics.put(METRIC_LINKS, this.links);
+            if (Objects.nonNull(this.lastModified)) metrics.put(METRIC_LAST_MODIFIED, this.lastModified.toString());
+            if (Objects.nonNull(this.reconciled)) metrics.put(METRIC_LAST_RECONCILED, this.reconciled.toString());
+            return metrics;
+        }
+
+        public static Snapshot fromMetrics(Map<String, Serializable> metrics) {
+            Map<String, Long> types = metrics.entrySet().stream()
+                    .filter(entry -> entry.getKey().startsWith(METRIC_TYPE_PREFIX))
+                    .collect(Collectors.toMap(entry -> entry.getKey().substring(METRIC_TYPE_PREFIX.length()), entry -> asLong(entry.getValue())));
+            return new Snapshot(types, asLong(metrics.get(METRIC_VALUES)), asLong(metrics.get(METRIC_LINKS)),
+                    asInstant(metrics.get(METRIC_LAST_MODIFIED)), asInstant(metrics.get(METRIC_LAST_RECONCILED)));
+        }
+
+        boolean differs(Snapshot other) {
+            return this.values != other.values || this.links != other.links || !this.types.equals(other.types);
+        }
+    }
+
+    private static final class Counts {
+        private final Map<String, LongAdder> types = new ConcurrentHashMap<>();
+        private final LongAdder values = new LongAdder();
+        private final LongAdder links = new LongAdder();
+        private volatile Instant lastModified;
+        private final boolean verified;
+        @Nullable
+        private final Instant reconciled;
+
+        private Counts(Snapshot snapshot, boolean verified) {
+            snapshot.types().forEach((type, count) -> this.types.computeIfAbsent(type, key -> new LongAdder()).add(count));
+            this.values.add(snapshot.values());
+            this.links.add(snapshot.links());
+            this.lastModified = snapshot.lastModified();
+            this.verified = verified;
+            this.reconciled = snapshot.reconciled();
+        }
+
+        private void apply(Model statements, int delta) {
+            for (Statement statement : statements) {
+                // the versions are not counted as values
+                if (statement.getPredicate().equals(Metadata.VERSION)) continue;
+
+                if (statement.getPredicate().equals(RDF.TYPE)) {
+                    this.types.computeIfAbsent(statement.getObject().stringValue(), key -> new LongAdder()).add(delta);
+                } else if (statement.getObject().isLiteral()) {
+                    this.values.add(delta);
+                } else {
+                    this.links.add(delta);
+                }
+            }
+        }
+
+        private Snapshot snapshot() {
+            Map<String, Long> typeCounts = this.types.entrySet().stream()
+                    .filter(entry -> entry.getValue().sum() != 0)
+                    .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().sum()));
+            return new Snapshot(typeCounts, this.values.sum(), this.links.sum(), this.lastModified, this.reconciled);
+        }
+    }
+
+    private final QueryServices queryServices;
+    private final ApplicationsService applicationsService;
+    private final Duration persistDelay;
+
+    private final Map<String, Counts> statistics = new ConcurrentHashMap<>();
+
+    // the number of commits and imports of each application, to detect changes during a recount
+    private final Map<String, AtomicLong> changes = new ConcurrentHashMap<>();
+
+    // the applications whose statistics are about to be stored
+    private final Set<String> pendingPersists = ConcurrentHashMap.newKeySet();
+
+    // lazy, since the stores notify the statistics about their commits
+    public ApplicationStatistics(@Lazy QueryServices queryServices, @Lazy ApplicationsService applicationsService,
+                                 @Value("${application.features.modules.applications.statistics.persistDelay:PT1M}") Duration persistDelay) {
+        this.queryServices = queryServices;
+        this.applicationsService = applicationsService;
+        this.persistDelay = persistDelay;
+    }
+
+    /**
+     * @return the current statistics of the application, or empty if they are neither tracked nor stored
+     */
+    public Mono<Snapshot> getStatistics(Application application, SessionContext ctx) {
+        Counts counts = this.statistics.get(application.label());
+        if (Objects.nonNull(counts)) return Mono.just(counts.snapshot());
+
+        return this.applicationsService.listMetrics(application, ctx)
+                .collectMap(Metrics::key, Metrics::value)
+                .filter(metrics -> !metrics.isEmpty())
+                .map(Snapshot::fromMetrics)
+                .map(snapshot -> this.statistics.computeIfAbsent(application.label(), label -> new Counts(snapshot, false)).snapshot());
+    }
+
+    /**
+     * @param interval the maximum time between two recounts
+     * @return true if the statistics of the application have to be recounted
+     */
+    public boolean requiresRecount(String applicationLabel, Duration interval) {
+        Counts counts = this.statistics.get(applicationLabel);
+        return Objects.isNull(counts) || !counts.verified || Objects.isNull(counts.reconciled) || counts.reconciled.plus(interval).isBefore(Instant.now());
+    }
+
+    /**
+     * @return the number of changes of the application, to be passed to {@link #reconcile(String, Snapshot, long)}
+     * together with the recount which was started afterwards
+     */
+    public long getChanges(String applicationLabel) {
+        AtomicLong count = this.changes.get(applicationLabel);
+        return Objects.isNull(count) ? 0 : count.get();
+    }
+
+    /**
+     * Counts all types, values and links in the entities of the application.
+     */
+    public Mono<Snapshot> recount(SessionContext ctx) {
+        String types = """
+                SELECT ?type (COUNT(?entity) AS ?count) WHERE { ?entity a ?type } GROUP BY ?type
+                """;
+        // the versions of the entities are stored with the entities, but are not part of their transactions
+        String values = """
+                SELECT (COUNT(*) AS ?count) WHERE { ?s ?p ?o . FILTER(isLiteral(?o) && ?p != <%s>) }
+                """.formatted(Metadata.VERSION);
+        String links = """
+                SELECT (COUNT(*) AS ?count) WHERE { ?s ?p ?o . FILTER(!isLiteral(?o) && ?p != <%s>) }
+                """.formatted(RDF.TYPE);
+
+        Mono<Map<String, Long>> typeCounts = this.queryServices.queryValues(types, RepositoryType.ENTITIES, ctx)
+                .filter(bindings -> bindings.hasBinding("type") && bindings.hasBinding("count"))
+                .collectMap(bindings -> bindings.getValue("type").stringValue(), bindings -> ((Literal) bindings.getValue("count")).longValue());
+
+        return Mono.zip(typeCounts, this.count(values, ctx), this.count(links, ctx))
+                .map(counts -> new Snapshot(counts.getT1(), counts.getT2(), counts.getT3(), null, Instant.now()));
+    }
+
+    /**
+     * Replaces the statistics of the application with the recounted statistics. If the application has changed since
+     * the recount was started, the recount is kept as unverified statistics and repeated with the next run.
+     *
+     * @param changesBefore the changes of the application (see {@link #getChanges(String)}) before the recount
+     * @return true if the tracked statistics differed from the recount
+     */
+    public boolean reconcile(String applicationLabel, Snapshot recounted, long changesBefore) {
+        boolean[] differs = new boolean[1];
+        // the commits of the application are applied to the statistics within the same lock
+        this.statistics.compute(applicationLabel, (label, previous) -> {
+            boolean verified = this.getChanges(label) == changesBefore;
+            Snapshot tracked = Objects.nonNull(previous) ? previous.snapshot() : Snapshot.EMPTY;
+            differs[0] = verified && Objects.nonNull(previous) && previous.verified && tracked.differs(recounted);
+            if (differs[0]) {
+                log.info("Corrected statistics of application '{}' after recount: {} values (tracked {}), {} links (tracked {}), types {} (tracked {})",
+                        label, recounted.values(), tracked.values(), recounted.links(), tracked.links(), recounted.types(), tracked.types());
+            }
+            if (!verified) {
+                log.debug("Application '{}' has changed during the recount of its statistics, recounting again with the next run", label);
+            }
+
+            Instant lastModified = Objects.nonNull(tracked.lastModified()) ? tracked.lastModified() : recounted.lastModified();
+            return new Counts(new Snapshot(recounted.types(), recounted.values(), recounted.links(), lastModified, recounted.reconciled()), verified);
+        });
+        return differs[0];
+    }
+
+    @Override
+    public void onCommit(Transaction transaction, Environment environment) {
+        if (!environment.hasScope() || environment.getRepositoryType() != RepositoryType.ENTITIES) return;
+        String label = environment.getScope().label();
+
+        SimpleValueFactory vf = SimpleValueFactory.getInstance();
+        Model model = transaction.getModel();
+        // within the same lock as the recounts are reconciled
+        Counts tracked = this.statistics.compute(label, (key, counts) -> {
+            this.changes.computeIfAbsent(key, k -> new AtomicLong()).incrementAndGet();
+            if (Objects.isNull(counts)) return null;
+
+            // details are stored as reified statements
+            counts.apply(Models.convertRDFStarToReification(vf, model.filter(null, null, null, Transactions.GRAPH_DELETED)), -1);
+            counts.apply(Models.convertRDFStarToReification(vf, model.filter(null, null, null, Transactions.GRAPH_CREATED)), 1);
+            counts.apply(Models.convertRDFStarToReification(vf, model.filter(null, null, null, Transactions.GRAPH_UPDATED)), 1);
+            counts.lastModified = Instant.now();
+            return counts;
+        });
+        if (Objects.nonNull(tracked)) this.persistLater(label);
+    }
+
+    @EventListener
+    public void handleStatementsImported(StatementsImportedEvent event) {
+        // recounted even if the import targeted another repository of the application
+        if (!event.getEnvironment().hasScope()) return;
+        this.changes.computeIfAbsent(event.getEnvironment().getScope().label(), key -> new AtomicLong()).incrementAndGet();
+        Counts counts = this.statistics.get(event.getEnvironment().getScope().label());
+        if (Objects.isNull(counts)) return;
+
+        // imported statements are unknown, the statistics are recounted with the next run of the job
+        Counts unverified = new Counts(counts.snapshot(), false);
+        unverified.lastModified = Instant.now();
+        this.statistics.put(event.getEnvironment().getScope().label(), unverified);
+        this.persistLater(event.getEnvironment().getScope().label());
+    }
+
+    @EventListener
+    public void handleApplicationCreated(ApplicationCreatedEvent event) {
+        // a new application is empty
+        this.statistics.put(event.getApplication().label(), new Counts(new Snapshot(Map.of(), 0, 0, null, Instant.now()), true));
+    }
+
+    @EventListener
+    public void handleApplicationDeleted(ApplicationDeletedEvent event) {
+        this.statistics.remove(event.getApplicationLabel());
+        this.changes.remove(event.getApplicationLabel());
+    }
+
+    /**
+     * Stores the statistics of the application as its metrics after the configured delay, changes within the delay are
+     * stored with them.
+     */
+    private void persistLater(String applicationLabel) {
+        if (this.persistDelay.isZero() || this.persistDelay.isNegative() || !this.pendingPersists.add(applicationLabel)) return;
+
+        Mono.delay(this.persistDelay)
+                .then(Mono.defer(() -> {
+                    // changes from now on are stored with the next run
+                    this.pendingPersists.remove(applicationLabel);
+                    Counts counts = this.statistics.get(applicationLabel);
+                    if (Objects.isNull(counts)) return Mono.empty();
+
+                    SessionContext ctx = new SessionContext().setSystemAuthentication();
+                    return this.applicationsService.getApplicationByLabel(applicationLabel, ctx)
+                            .flatMap(application -> this.applicationsService.setMetrics(application, counts.snapshot().toMetrics(), ctx));
+                }))
+                .subscribe(null, error -> log.warn("Failed to store statistics of application '{}': {}", applicationLabel, error.getMessage()));
+    }
+
+    private Mono<Long> count(String query, SessionContext ctx) {
+        return this.queryServices.queryValues(query, RepositoryType.ENTITIES, ctx)
+                .map(bindings -> bindings.getValue("count"))
+                .filter(value -> Objects.nonNull(value) && value.isLiteral())
+                .map(value -> ((Literal) value).longValue())
+                .next()
+                .defaultIfEmpty(0L);
+    }
+
+    private static long asLong(@Nullable Serializable value) {
+        if (Objects.isNull(value)) return 0;
+        if (value instanceof Number number) return number.longValue();
+        try {
+            return Long.parseLong(value.toString());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    @Nullable
+    private static Instant asInstant(@Nullable Serializable value) {
+        if (Objects.isNull(value)) return null;
+        try {
+            return Instant.parse(value.toString());
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
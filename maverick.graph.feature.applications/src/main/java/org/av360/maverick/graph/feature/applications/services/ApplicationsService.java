@@ -195,18 +195,44 @@ public class ApplicationsService implements ApplicationListener<GraphApplication
                 .doOnSubscribe(StreamsLogger.debug(log, "Updating configuration key '{}' for application with label '{}'", configKey, application.label()));
     }
 
+    /**
+     * Replaces all metrics of the application.
+     */
     @RequiresPrivilege(Authorities.MAINTAINER_VALUE)
     @OnRepositoryType(RepositoryType.APPLICATION)
-    public Mono<Void> setMetric(Application application, String key, Serializable value, SessionContext ctx) {
-        ModelBuilder m = this.buildMetricsItem(key, value, application.iri(), null);
-
-        return this.store.commit(new RdfTransaction().inserts(m.build()), ctx.getEnvironment().setRepositoryType(RepositoryType.APPLICATION))
+    public Mono<Void> setMetrics(Application application, Map<String, Serializable> metrics, SessionContext ctx) {
+        ModelBuilder m = new ModelBuilder();
+        metrics.forEach((key, value) -> this.buildMetricsItem(key, value, application.iri(), m));
+
+        return this.listMetrics(application, ctx)
+                .flatMap(metric -> this.store.listStatements(metric.node(), null, null, ctx.getEnvironment()))
+                .collectList()
+                .map(previous -> {
+                    Transaction transaction = new RdfTransaction().inserts(m.build());
+                    previous.forEach(transaction::removes);
+                    return transaction;
+                })
+                .flatMap(transaction -> this.store.commit(transaction, ctx.getEnvironment().setRepositoryType(RepositoryType.APPLICATION)))
                 .filter(Transaction::isCompleted)
                 .then()
-                .doOnSuccess(app -> {
-                    log.trace("Updated metrics '{}' of application with label '{}'", application.key(), application.label());
+                .doOnSuccess(suc -> {
+                    log.trace("Updated {} metrics of application with label '{}'", metrics.size(), application.label());
                 })
-                .doOnSubscribe(StreamsLogger.debug(log, "Updating metrics '{}' for node with label '{}'", key, application.label()));
+                .doOnSubscribe(StreamsLogger.debug(log, "Updating metrics for application with label '{}'", application.label()));
+    }
+
+    @RequiresPrivilege(Authorities.READER_VALUE)
+    @OnRepositoryType(RepositoryType.APPLICATION)
+    public Flux<Metrics> listMetrics(Application application, SessionContext ctx) {
+        SelectQuery listMetricsQuery = Queries.SELECT()
+                .where(QueryVariables.varNodeMetric.isA(SDO.QUANTITATIVE_VALUE)
+                        .andHas(SDO.NAME, QueryVariables.varMetricKey)
+                        .andHas(SDO.VALUE, QueryVariables.varMetricValue)
+                        .and(QueryVariables.varNodeMetric.has(ApplicationTerms.METRIC_FOR, application.iri()))
+                );
+        return this.store.query(listMetricsQuery, ctx.getEnvironment().setRepositoryType(RepositoryType.APPLICATION))
+                .map(BindingsAccessor::new)
+                .flatMap(ba -> QueryVariables.buildMetricsFromBindings(ba, application.iri()));
     }
 
     @RequiresPrivilege(Authorities.MAINTAINER_VALUE)
@@ -0,0 +1,54 @@
+package org.av360.maverick.graph.feature.applications.services;
+
+import javax.annotation.Nullable;
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Permits per second, with bursts of up to one second. Permits are only granted if the bucket holds enough of them. A
+ * request for more permits than the capacity of the bucket is granted once the bucket is full, the bucket is then in
+ * debt until the additional permits have been refilled.
+ */
+final class TokenBucket {
+
+    private final double rate;
+    private final double capacity;
+    private double tokens;
+    private long updated;
+
+    /**
+     * @param previous the bucket replaced by this one (e.g. with a changed rate), its permits (or debt) are kept
+     */
+    TokenBucket(double permitsPerSecond, @Nullable TokenBucket previous) {
+        this.rate = permitsPerSecond;
+        this.capacity = Math.max(1, permitsPerSecond);
+        this.tokens = Objects.nonNull(previous) ? Math.min(this.capacity, previous.getTokens()) : this.capacity;
+        this.updated = System.nanoTime();
+    }
+
+    /**
+     * @return zero if the permits have been granted, otherwise the time until the permits are available
+     */
+    synchronized Duration tryAcquire(long permits) {
+        this.refill();
+
+        // more permits than the capacity are granted with a full bucket
+        double required = Math.min(permits, this.capacity);
+        if (this.tokens < required) {
+            return Duration.ofNanos((long) ((required - this.tokens) / this.rate * 1_000_000_000d));
+        }
+        this.tokens -= permits;
+        return Duration.ZERO;
+    }
+
+    private synchronized double getTokens() {
+        this.refill();
+        return this.tokens;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        this.tokens = Math.min(this.capacity, this.tokens + (now - this.updated) * this.rate / 1_000_000_000d);
+        this.updated = now;
+    }
+}
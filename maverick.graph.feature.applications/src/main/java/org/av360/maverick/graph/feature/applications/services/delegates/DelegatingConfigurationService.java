@@ -19,8 +19,10 @@ public class DelegatingConfigurationService implements ConfigurationService {
     @Override
     public Mono<String> getValue(String key, SessionContext ctx) {
         String applicationLabel = ctx.getEnvironment().getScope().label();
-        return applicationsService.getApplication(applicationLabel, ctx)
-                .flatMap(application -> Mono.justOrEmpty(application.configuration().get(key).toString()))
+        // the scope is the label of the application, not its key
+        return applicationsService.getApplicationByLabel(applicationLabel, ctx)
+                .flatMap(application -> Mono.justOrEmpty(application.configuration().get(key)).map(Object::toString))
+                .switchIfEmpty(Mono.defer(() -> delegate.getValue(key, ctx)))
                 .onErrorResume(e -> delegate.getValue(key, ctx));
     }
 }
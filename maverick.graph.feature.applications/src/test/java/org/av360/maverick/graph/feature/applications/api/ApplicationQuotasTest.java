@@ -0,0 +1,65 @@
+package org.av360.maverick.graph.feature.applications.api;
+
+import org.av360.maverick.graph.feature.applications.config.ApplicationsTestsBase;
+import org.av360.maverick.graph.feature.applications.controller.dto.Responses;
+import org.av360.maverick.graph.feature.applications.model.domain.ApplicationFlags;
+import org.av360.maverick.graph.feature.applications.services.ApplicationQuotas;
+import org.av360.maverick.graph.tests.config.TestSecurityConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.web.reactive.server.EntityExchangeResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ContextConfiguration(classes = TestSecurityConfig.class)
+@ActiveProfiles({"test", "api"})
+public class ApplicationQuotasTest extends ApplicationsTestsBase {
+
+    @AfterEach
+    public void resetRepository() {
+        super.resetRepository("limited_app");
+        super.resetRepository("unlimited_app");
+    }
+
+    @Test
+    public void rejectRequestsExceedingQuota() {
+        super.printStart("Reject requests exceeding the quota of an application");
+
+        super.printStep("Create a limited and an unlimited application");
+        Responses.ApplicationResponse limited = super.applicationsTestClient.createApplication("limited_app", new ApplicationFlags(false, true))
+                .expectStatus().isCreated()
+                .expectBody(Responses.ApplicationResponse.class)
+                .returnResult()
+                .getResponseBody();
+        Assertions.assertNotNull(limited);
+        super.applicationsTestClient.createApplication("unlimited_app", new ApplicationFlags(false, true)).expectStatus().isCreated();
+        super.applicationsTestClient.setConfiguration(limited.key(), ApplicationQuotas.CONFIG_KEY_REQUESTS_PER_SECOND, "1").expectStatus().isOk();
+
+        super.printStep("Send requests to both applications");
+        List<EntityExchangeResult<byte[]>> limitedResults = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            limitedResults.add(super.webClient.get().uri("/api/s/limited_app/entities").exchange().expectBody().returnResult());
+            super.webClient.get().uri("/api/s/unlimited_app/entities").exchange().expectStatus().isOk();
+        }
+
+        Assertions.assertEquals(HttpStatus.OK, limitedResults.get(0).getStatus());
+        EntityExchangeResult<byte[]> rejected = limitedResults.stream()
+                .filter(result -> result.getStatus() == HttpStatus.TOO_MANY_REQUESTS)
+                .findFirst().orElseThrow(() -> new AssertionError("No request to the limited application was rejected"));
+        String retryAfter = rejected.getResponseHeaders().getFirst(HttpHeaders.RETRY_AFTER);
+        Assertions.assertNotNull(retryAfter);
+        Assertions.assertTrue(Integer.parseInt(retryAfter) >= 1);
+
+        super.printStep("Remove the quota");
+        super.applicationsTestClient.removeConfiguration(limited.key(), ApplicationQuotas.CONFIG_KEY_REQUESTS_PER_SECOND).expectStatus().isNoContent();
+        super.webClient.get().uri("/api/s/limited_app/entities").exchange().expectStatus().isOk();
+    }
+}
@@ -0,0 +1,149 @@
+package org.av360.maverick.graph.feature.applications.api;
+
+import org.av360.maverick.graph.feature.applications.config.ApplicationsTestsBase;
+import org.av360.maverick.graph.feature.applications.controller.dto.Responses;
+import org.av360.maverick.graph.feature.applications.model.domain.Application;
+import org.av360.maverick.graph.feature.applications.model.domain.ApplicationFlags;
+import org.av360.maverick.graph.feature.applications.model.domain.Metrics;
+import org.av360.maverick.graph.feature.applications.services.ApplicationContextBuilder;
+import org.av360.maverick.graph.feature.applications.services.ApplicationStatistics;
+import org.av360.maverick.graph.feature.applications.services.ApplicationsService;
+import org.av360.maverick.graph.model.context.SessionContext;
+import org.av360.maverick.graph.model.vocabulary.SDO;
+import org.av360.maverick.graph.services.EntityServices;
+import org.av360.maverick.graph.store.rdf.fragments.TripleModel;
+import org.av360.maverick.graph.tests.config.TestSecurityConfig;
+import org.av360.maverick.graph.tests.generator.EntitiesGenerator;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ContextConfiguration(classes = TestSecurityConfig.class)
+@ActiveProfiles({"test", "api"})
+@TestPropertySource(properties = "application.features.modules.applications.statistics.persistDelay=PT0.2S")
+public class ApplicationStatisticsTest extends ApplicationsTestsBase {
+
+    @Autowired
+    EntityServices entityServices;
+
+    @Autowired
+    ApplicationContextBuilder applicationContextBuilder;
+
+    @Autowired
+    ApplicationStatistics applicationStatistics;
+
+    @Autowired
+    ApplicationsService applicationsService;
+
+    // the application created by the test
+    private String application;
+
+    @AfterEach
+    public void resetRepository() {
+        super.resetRepository(this.application);
+    }
+
+    @Test
+    public void countsStayCorrectUnderConcurrentWritesAndDeletes() throws InterruptedException {
+        super.printStart("Maintain statistics under concurrent writes and deletes");
+        this.application = "stats_app";
+
+        Responses.ApplicationResponse app = super.applicationsTestClient.createApplication("stats_app", new ApplicationFlags(false, true))
+                .expectStatus().isCreated()
+                .expectBody(Responses.ApplicationResponse.class)
+                .returnResult()
+                .getResponseBody();
+        Assertions.assertNotNull(app);
+
+        SessionContext ctx = this.applicationContextBuilder.build(TestSecurityConfig.createTestContext().updateEnvironment(env -> env.setScope("stats_app"))).block();
+        Assertions.assertNotNull(ctx);
+
+        super.printStep("Creating entities");
+        List<IRI> created = Flux.range(0, 20).flatMap(i -> this.create(ctx), 8).collectList().block();
+        Assertions.assertNotNull(created);
+
+        super.printStep("Creating and deleting entities at the same time");
+        Flux.merge(
+                Flux.range(0, 20).flatMap(i -> this.create(ctx), 8),
+                Flux.fromIterable(created.subList(0, 10)).flatMap(id -> this.entityServices.remove(id, ctx).subscribeOn(Schedulers.boundedElastic()), 8)
+        ).blockLast();
+
+        super.printStep("Comparing the statistics with a recount");
+        // the creation dates are added asynchronously, we wait until no more statements are written
+        Responses.ApplicationMetricsResponse tracked = null;
+        ApplicationStatistics.Snapshot recounted = null;
+        long changes = 0;
+        for (int attempt = 0; attempt < 20; attempt++) {
+            tracked = this.getMetrics(app.key());
+            changes = this.applicationStatistics.getChanges("stats_app");
+            recounted = this.applicationStatistics.recount(ctx).block();
+            if (Objects.nonNull(tracked) && Objects.nonNull(recounted) && tracked.values() == recounted.values() && tracked.links() == recounted.links()) break;
+            Thread.sleep(250);
+        }
+
+        Assertions.assertNotNull(tracked);
+        Assertions.assertNotNull(recounted);
+        Assertions.assertEquals(30L, tracked.types().get(SDO.CREATIVE_WORK.stringValue()));
+        Assertions.assertEquals(recounted.types(), tracked.types());
+        Assertions.assertEquals(recounted.values(), tracked.values());
+        Assertions.assertEquals(recounted.links(), tracked.links());
+        Assertions.assertNotNull(tracked.lastModified());
+        Assertions.assertFalse(this.applicationStatistics.reconcile("stats_app", recounted, changes), "The tracked statistics differ from the recount");
+    }
+
+    @Test
+    public void storeStatisticsAfterChanges() throws InterruptedException {
+        super.printStart("Store the statistics as metrics after changes, without running the job");
+        this.application = "stored_stats_app";
+
+        super.applicationsTestClient.createApplication("stored_stats_app", new ApplicationFlags(false, true)).expectStatus().isCreated();
+        SessionContext ctx = this.applicationContextBuilder.build(TestSecurityConfig.createTestContext().updateEnvironment(env -> env.setScope("stored_stats_app"))).block();
+        Assertions.assertNotNull(ctx);
+        // the metrics are stored with the application
+        SessionContext applicationsCtx = TestSecurityConfig.createTestContext();
+        Application application = this.applicationsService.getApplicationByLabel("stored_stats_app", applicationsCtx).block();
+        Assertions.assertNotNull(application);
+
+        super.printStep("Creating entities");
+        Flux.range(0, 3).flatMap(i -> this.create(ctx), 3).blockLast();
+
+        super.printStep("Waiting for the stored metrics");
+        Map<String, Serializable> stored = Map.of();
+        for (int attempt = 0; attempt < 20 && !stored.containsKey(ApplicationStatistics.METRIC_TYPE_PREFIX + SDO.CREATIVE_WORK); attempt++) {
+            Thread.sleep(250);
+            stored = this.applicationsService.listMetrics(application, applicationsCtx).collectMap(Metrics::key, Metrics::value).block();
+        }
+        Assertions.assertEquals("3", String.valueOf(stored.get(ApplicationStatistics.METRIC_TYPE_PREFIX + SDO.CREATIVE_WORK)));
+    }
+
+    private Responses.ApplicationMetricsResponse getMetrics(String applicationKey) {
+        return super.webClient.get().uri("/api/applications/{key}/metrics", applicationKey)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(Responses.ApplicationMetricsResponse.class)
+                .returnResult()
+                .getResponseBody();
+    }
+
+    private Mono<IRI> create(SessionContext ctx) {
+        return this.entityServices.create(new TripleModel(EntitiesGenerator.generateCreativeWork()), Map.of(), ctx)
+                .map(transaction -> (IRI) transaction.getInsertedStatements().filter(null, RDF.TYPE, SDO.CREATIVE_WORK).subjects().iterator().next())
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+}
@@ -0,0 +1,68 @@
+package org.av360.maverick.graph.feature.applications.api;
+
+import org.av360.maverick.graph.feature.applications.config.ApplicationsTestsBase;
+import org.av360.maverick.graph.feature.applications.controller.dto.Responses;
+import org.av360.maverick.graph.feature.applications.model.domain.ApplicationFlags;
+import org.av360.maverick.graph.feature.applications.services.ApplicationQuotas;
+import org.av360.maverick.graph.tests.config.TestSecurityConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ContextConfiguration(classes = TestSecurityConfig.class)
+@ActiveProfiles({"test", "api"})
+public class ApplicationWriteQuotasTest extends ApplicationsTestsBase {
+
+    @AfterEach
+    public void resetRepository() {
+        super.resetRepository("writing_app");
+    }
+
+    @Test
+    public void debitWritesLargerThanQuota() {
+        super.printStart("Accept writes with more statements than the quota allows per second, and delay the following writes");
+
+        super.printStep("Create an application which can write 50 statements per second");
+        Responses.ApplicationResponse application = super.applicationsTestClient.createApplication("writing_app", new ApplicationFlags(false, true))
+                .expectStatus().isCreated()
+                .expectBody(Responses.ApplicationResponse.class)
+                .returnResult()
+                .getResponseBody();
+        Assertions.assertNotNull(application);
+        super.applicationsTestClient.setConfiguration(application.key(), ApplicationQuotas.CONFIG_KEY_WRITE_STATEMENTS_PER_SECOND, "50").expectStatus().isOk();
+
+        super.printStep("Create an entity with more statements than the quota");
+        String keywords = IntStream.range(0, 100).mapToObj(i -> "\"Keyword %d\"".formatted(i)).collect(Collectors.joining(", "));
+        this.createEntity("[] a <https://schema.org/CreativeWork> ; <https://schema.org/keywords> %s .".formatted(keywords))
+                .expectStatus().isAccepted();
+
+        super.printStep("Create another entity, which has to wait until the statements of the first one are within the quota");
+        String retryAfter = this.createEntity("[] a <https://schema.org/CreativeWork> ; <https://schema.org/title> \"Title\" .")
+                .expectStatus().isEqualTo(HttpStatus.TOO_MANY_REQUESTS)
+                .returnResult(String.class)
+                .getResponseHeaders().getFirst(HttpHeaders.RETRY_AFTER);
+        Assertions.assertNotNull(retryAfter);
+        Assertions.assertTrue(Integer.parseInt(retryAfter) >= 1);
+    }
+
+    private WebTestClient.ResponseSpec createEntity(String turtle) {
+        return super.webClient.post()
+                .uri("/api/entities")
+                .contentType(MediaType.parseMediaType("text/turtle"))
+                .accept(MediaType.parseMediaType("text/turtle"))
+                .header("X-Application", "writing_app")
+                .bodyValue(turtle)
+                .exchange();
+    }
+}
@@ -52,6 +52,25 @@ public class ApplicationsTestClient {
                 .exchange();
     }
 
+    public WebTestClient.ResponseSpec setConfiguration(String applicationKey, String configurationKey, String value) {
+        return webClient.post()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/api/applications/{id}/configuration/{key}")
+                        .build(applicationKey, configurationKey)
+                )
+                .body(BodyInserters.fromValue(value))
+                .exchange();
+    }
+
+    public WebTestClient.ResponseSpec removeConfiguration(String applicationKey, String configurationKey) {
+        return webClient.delete()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/api/applications/{id}/configuration/{key}")
+                        .build(applicationKey, configurationKey)
+                )
+                .exchange();
+    }
+
     public WebTestClient.ResponseSpec getApplication(String applicationKey) {
         return webClient.get()
                 .uri(uriBuilder -> uriBuilder
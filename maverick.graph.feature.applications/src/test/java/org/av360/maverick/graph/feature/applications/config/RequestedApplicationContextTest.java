@@ -0,0 +1,86 @@
+package org.av360.maverick.graph.feature.applications.config;
+
+import org.av360.maverick.graph.feature.applications.model.domain.ApplicationFlags;
+import org.av360.maverick.graph.feature.applications.services.ApplicationContextBuilder;
+import org.av360.maverick.graph.feature.applications.services.ApplicationsService;
+import org.av360.maverick.graph.model.context.Environment;
+import org.av360.maverick.graph.model.context.SessionContext;
+import org.av360.maverick.graph.tests.config.TestSecurityConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Resolves the requested application of a request through the filter extracting the label and the builder applying
+ * the configuration of the application to the session, and compares the session with looking up the application
+ * through the applications service.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ContextConfiguration(classes = TestSecurityConfig.class)
+@ActiveProfiles({"test", "api"})
+public class RequestedApplicationContextTest extends ApplicationsTestsBase {
+
+    @Autowired
+    RequestedApplicationFilter filter;
+
+    @Autowired
+    ApplicationContextBuilder applicationContextBuilder;
+
+    @Autowired
+    ApplicationsService applicationsService;
+
+    @AfterEach
+    public void resetRepository() {
+        super.resetRepository("bench_app");
+    }
+
+    @Test
+    public void resolveRequestedApplication() {
+        super.printStart("resolveRequestedApplication");
+        applicationsTestClient.createApplication("bench_app", new ApplicationFlags(false, true)).expectStatus().isCreated();
+
+        Function<SessionContext, Mono<SessionContext>> lookup = context -> ReactiveApplicationContextHolder.getRequestedApplicationLabel()
+                .map(label -> context.updateEnvironment(env -> env.setScope(label)))
+                .flatMap(ctx -> this.applicationsService.getApplicationByLabel(ctx.getEnvironment().getScope().label(), SessionContext.SYSTEM)
+                        .map(application -> ctx.updateEnvironment(env -> {
+                            env.setConfiguration(Environment.RepositoryConfigurationKey.FLAG_PERSISTENT, application.flags().isPersistent());
+                            env.setConfiguration(Environment.RepositoryConfigurationKey.FLAG_PUBLIC, application.flags().isPublic());
+                            env.setConfiguration(Environment.RepositoryConfigurationKey.KEY, application.key());
+                        })));
+
+        // resolved repeatedly, the builder has to keep returning the configuration of the application
+        for (int i = 0; i < 3; i++) {
+            Environment built = this.resolve(applicationContextBuilder::build).getEnvironment();
+            Environment lookedUp = this.resolve(lookup).getEnvironment();
+
+            Assertions.assertEquals("bench_app", built.getScope().label());
+            Assertions.assertEquals(lookedUp.getScope().label(), built.getScope().label());
+            Assertions.assertTrue(built.getConfiguration(Environment.RepositoryConfigurationKey.KEY).isPresent());
+            for (Environment.RepositoryConfigurationKey key : List.of(Environment.RepositoryConfigurationKey.KEY, Environment.RepositoryConfigurationKey.FLAG_PERSISTENT, Environment.RepositoryConfigurationKey.FLAG_PUBLIC)) {
+                Assertions.assertEquals(lookedUp.getConfiguration(key), built.getConfiguration(key), key.name());
+            }
+        }
+    }
+
+    private SessionContext resolve(Function<SessionContext, Mono<SessionContext>> builder) {
+        AtomicReference<SessionContext> resolved = new AtomicReference<>();
+        WebFilterChain chain = exchange -> builder.apply(new SessionContext()).doOnNext(resolved::set).then();
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/s/bench_app/entities"));
+
+        this.filter.filter(exchange, chain).block();
+        Assertions.assertNotNull(resolved.get());
+        return resolved.get();
+    }
+}
@@ -0,0 +1,139 @@
+package org.av360.maverick.graph.feature.applications.jobs;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.av360.maverick.graph.feature.applications.services.ApplicationChanges;
+import org.av360.maverick.graph.model.context.Environment;
+import org.av360.maverick.graph.model.context.SessionContext;
+import org.av360.maverick.graph.model.events.EntityCreatedEvent;
+import org.av360.maverick.graph.model.events.JobCompletedEvent;
+import org.av360.maverick.graph.model.events.JobScheduledEvent;
+import org.av360.maverick.graph.model.events.StatementsImportedEvent;
+import org.av360.maverick.graph.store.rdf.fragments.RdfTransaction;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Requests the scoped jobs of many applications, of which only a few are changed between the runs. The requested jobs
+ * complete immediately, unless a test fails them.
+ */
+class ScopedJobSchedulerTest {
+
+    private static final int APPLICATIONS = 100;
+    private static final int RUNS = 10;
+    private static final int CHANGED_PER_RUN = 5;
+
+    private final List<JobScheduledEvent> requested = new ArrayList<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ApplicationChanges changes;
+    private ScopedJobScheduler scheduler;
+
+    @BeforeEach
+    public void setup() {
+        this.changes = new ApplicationChanges();
+        this.scheduler = new ScopedJobScheduler() {
+            @Override
+            String getFrequencyConfigurationKey() {
+                return "test_frequency";
+            }
+
+            @Override
+            String getJobLabel() {
+                return "testJob";
+            }
+
+            @Override
+            String getDefaultFrequency() {
+                return "@midnight";
+            }
+        };
+        this.scheduler.setApplicationChanges(this.changes);
+        this.scheduler.setMeterRegistry(this.meterRegistry);
+        this.scheduler.setJitter(Duration.ZERO);
+        this.scheduler.setEventPublisher(event -> this.requested.add((JobScheduledEvent) event));
+    }
+
+    @Test
+    public void skipApplicationsWithoutChanges() {
+        this.requestAndComplete("app");
+        Assertions.assertEquals(1, this.requested.size(), "The first run after a start should always request the job");
+        Assertions.assertEquals("app", this.requested.get(0).getScope());
+
+        this.requestAndComplete("app");
+        Assertions.assertEquals(1, this.requested.size());
+
+        this.changes.handleEntityChanged(new EntityCreatedEvent(new RdfTransaction(), this.scoped("app")));
+        this.requestAndComplete("app");
+        Assertions.assertEquals(2, this.requested.size());
+
+        this.changes.handleStatementsImported(new StatementsImportedEvent(this.scoped("app")));
+        this.requestAndComplete("app");
+        Assertions.assertEquals(3, this.requested.size());
+
+        // changes in other applications don't matter
+        this.changes.handleEntityChanged(new EntityCreatedEvent(new RdfTransaction(), this.scoped("other")));
+        this.requestAndComplete("app");
+        Assertions.assertEquals(3, this.requested.size());
+
+        Assertions.assertEquals(3, this.meterRegistry.counter("graph.jobs.scoped.counter", "name", "testJob", "scope", "app", "status", "queued").count());
+        Assertions.assertEquals(2, this.meterRegistry.counter("graph.jobs.scoped.counter", "name", "testJob", "scope", "app", "status", "skipped").count());
+    }
+
+    @Test
+    public void repeatFailedJobs() {
+        this.changes.handleEntityChanged(new EntityCreatedEvent(new RdfTransaction(), this.scoped("app")));
+        this.scheduler.requestJob("app");
+        Assertions.assertEquals(1, this.requested.size());
+
+        // the job failed (or hasn't completed yet), the changes are not processed
+        this.scheduler.requestJob("app");
+        Assertions.assertEquals(2, this.requested.size());
+        Assertions.assertEquals(this.requested.get(0).getVersion(), this.requested.get(1).getVersion());
+
+        // the job completes, but was requested before the latest change
+        JobScheduledEvent outdated = this.requested.get(1);
+        this.changes.handleEntityChanged(new EntityCreatedEvent(new RdfTransaction(), this.scoped("app")));
+        this.scheduler.handleJobCompleted(new JobCompletedEvent(outdated));
+        this.requestAndComplete("app");
+        Assertions.assertEquals(3, this.requested.size());
+
+        this.requestAndComplete("app");
+        Assertions.assertEquals(3, this.requested.size());
+
+        // jobs with another label don't count
+        this.changes.handleEntityChanged(new EntityCreatedEvent(new RdfTransaction(), this.scoped("app")));
+        this.scheduler.handleJobCompleted(new JobCompletedEvent(new JobScheduledEvent("otherJob", new SessionContext().updateEnvironment(env -> env.withScope("app")), Long.MAX_VALUE)));
+        this.requestAndComplete("app");
+        Assertions.assertEquals(4, this.requested.size());
+    }
+
+    @Test
+    public void requestedJobsWithManyApplications() {
+        for (int run = 0; run < RUNS; run++) {
+            for (int changed = 0; changed < CHANGED_PER_RUN; changed++) {
+                String label = "app_" + ((run * CHANGED_PER_RUN + changed) % APPLICATIONS);
+                this.changes.handleEntityChanged(new EntityCreatedEvent(new RdfTransaction(), this.scoped(label)));
+            }
+            for (int app = 0; app < APPLICATIONS; app++) {
+                this.requestAndComplete("app_" + app);
+            }
+        }
+
+        // instead of a job for every application in every run
+        Assertions.assertEquals(APPLICATIONS + (RUNS - 1) * CHANGED_PER_RUN, this.requested.size());
+    }
+
+    private void requestAndComplete(String label) {
+        int requests = this.requested.size();
+        this.scheduler.requestJob(label);
+        this.requested.subList(requests, this.requested.size()).forEach(event -> this.scheduler.handleJobCompleted(new JobCompletedEvent(event)));
+    }
+
+    private Environment scoped(String label) {
+        return new SessionContext().getEnvironment().withScope(label);
+    }
+}
@@ -0,0 +1,58 @@
+package org.av360.maverick.graph.feature.applications.services;
+
+import org.av360.maverick.graph.model.context.Environment;
+import org.av360.maverick.graph.model.context.SessionContext;
+import org.av360.maverick.graph.model.enums.RepositoryType;
+import org.av360.maverick.graph.model.vocabulary.SDO;
+import org.av360.maverick.graph.store.rdf.fragments.RdfTransaction;
+import org.eclipse.rdf4j.model.util.Statements;
+import org.eclipse.rdf4j.model.util.Values;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reconciles the tracked statistics with recounts which overlap with commits to the application.
+ */
+class ApplicationStatisticsReconcileTest {
+
+    private final ApplicationStatistics statistics = new ApplicationStatistics(null, null, Duration.ZERO);
+
+    @Test
+    public void keepRecountUnverifiedAfterConcurrentCommit() {
+        this.statistics.reconcile("app", this.recount(1), this.statistics.getChanges("app"));
+        Assertions.assertFalse(this.statistics.requiresRecount("app", Duration.ofDays(1)));
+
+        // a value is committed while the recount is running, it might be missing in the recount
+        long changes = this.statistics.getChanges("app");
+        this.commitValue("app");
+        Assertions.assertFalse(this.statistics.reconcile("app", this.recount(3), changes), "A recount overlapping with a commit can't be compared");
+        Assertions.assertTrue(this.statistics.requiresRecount("app", Duration.ofDays(1)));
+
+        // the next recount without concurrent commits verifies the statistics again
+        this.statistics.reconcile("app", this.recount(3), this.statistics.getChanges("app"));
+        Assertions.assertFalse(this.statistics.requiresRecount("app", Duration.ofDays(1)));
+
+        // commits after the recount are applied to the recounted statistics
+        this.commitValue("app");
+        this.commitValue("other");
+        Assertions.assertTrue(this.statistics.reconcile("app", this.recount(3), this.statistics.getChanges("app")), "The committed value is missing in the recount");
+    }
+
+    private ApplicationStatistics.Snapshot recount(long values) {
+        return new ApplicationStatistics.Snapshot(Map.of(), values, 0, null, Instant.now());
+    }
+
+    private void commitValue(String label) {
+        RdfTransaction transaction = new RdfTransaction();
+        transaction.inserts(List.of(Statements.statement(Values.iri("http://example.org/", label), SDO.NAME, Values.literal("Value"), null)));
+
+        Environment environment = new SessionContext().getEnvironment().withScope(label);
+        environment.setRepositoryType(RepositoryType.ENTITIES);
+        this.statistics.onCommit(transaction, environment);
+    }
+}
@@ -65,4 +65,9 @@ public interface JobsWebApi {
     @ResponseStatus(HttpStatus.ACCEPTED)
     Mono<Void> execExportJob(@RequestParam(required = false, defaultValue = "entities", value = "entities") @Parameter(name = "repository", description = "The repository type in which the query should search.")
                              RepositoryType repositoryType);
+
+    @PostMapping(value = "/execute/identifyValues")
+    @Operation(summary = "Executes the job for storing the identifiers of the values in the repository which have none yet (e.g. after an import). The identifiers are used to address single values, new values are identified when they are committed.")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    Mono<Void> execIdentifyValuesJob();
 }
@@ -78,5 +78,14 @@ public class JobsCtrl extends AbstractController implements org.av360.maverick.g
 
     }
 
+    @Override
+    @PostMapping(value = "/execute/identifyValues")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public Mono<Void> execIdentifyValuesJob() {
+        return super.acquireContext()
+                .flatMap(ctx -> this.jobsService.scheduleJob(IdentifyValuesJob.NAME, ctx))
+                .doOnSubscribe(subscription -> log.info("Request to execute job: Identify values"));
+    }
+
 
 }
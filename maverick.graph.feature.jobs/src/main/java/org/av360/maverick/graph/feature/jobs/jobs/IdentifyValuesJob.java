@@ -0,0 +1,49 @@
+package org.av360.maverick.graph.feature.jobs.jobs;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.av360.maverick.graph.model.annotations.Job;
+import org.av360.maverick.graph.model.context.SessionContext;
+import org.av360.maverick.graph.model.entities.ScheduledJob;
+import org.av360.maverick.graph.services.ValueServices;
+import reactor.core.publisher.Mono;
+
+/**
+ * Stores the identifiers of the values which have been written before the identifiers were stored by the entity store,
+ * or which have been written bypassing the transactions (imports, queries). New values are identified when they are
+ * committed, without the job the identifiers of the existing values are computed with every request addressing them.
+ */
+@Job
+@Slf4j(topic = "graph.feat.jobs.values")
+public class IdentifyValuesJob implements ScheduledJob {
+
+    public static String NAME = "identifyValues";
+
+    private final ValueServices valueServices;
+    private final Counter identifiedValues;
+
+    public IdentifyValuesJob(ValueServices valueServices, MeterRegistry meterRegistry) {
+        this.valueServices = valueServices;
+        this.identifiedValues = Counter.builder("graph.jobs.values.identified").register(meterRegistry);
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public Mono<Void> run(SessionContext ctx) {
+        return this.valueServices.identifyValues(ctx)
+                .doOnNext(count -> {
+                    if (count < 0) {
+                        log.debug("Values in scope '{}' are not identified by the entity store", ctx.getEnvironment().getScope());
+                    } else {
+                        log.info("Identified {} values in scope '{}'", count, ctx.getEnvironment().getScope());
+                        this.identifiedValues.increment(count);
+                    }
+                })
+                .then();
+    }
+}
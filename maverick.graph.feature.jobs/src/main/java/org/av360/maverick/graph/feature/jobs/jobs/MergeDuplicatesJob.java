@@ -25,6 +25,7 @@ import org.av360.maverick.graph.model.enums.RepositoryType;
 import org.av360.maverick.graph.services.EntityServices;
 import org.av360.maverick.graph.services.QueryServices;
 import org.av360.maverick.graph.services.ValueServices;
+import org.av360.maverick.graph.store.StoreSchedulers;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Value;
 import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
@@ -36,7 +37,6 @@ import org.eclipse.rdf4j.sparqlbuilder.core.query.SelectQuery;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Scheduler;
-import reactor.core.scheduler.Schedulers;
 
 import java.time.Duration;
 import java.time.temporal.ChronoUnit;
@@ -83,6 +83,7 @@ public class MergeDuplicatesJob implements ScheduledJob {
     private final QueryServices queryServices;
     private final ValueServices valueServices;
     private final SimpleValueFactory valueFactory;
+    private final StoreSchedulers schedulers;
 
     private final int limit = 100;
 
@@ -96,11 +97,12 @@ public class MergeDuplicatesJob implements ScheduledJob {
 
     private record MislinkedStatement(IRI subject, IRI predicate, IRI object) {  }
 
-    public MergeDuplicatesJob(EntityServices service, QueryServices queryServices, ValueServices valueServices) {
+    public MergeDuplicatesJob(EntityServices service, QueryServices queryServices, ValueServices valueServices, StoreSchedulers schedulers) {
         this.entityServices = service;
         this.queryServices = queryServices;
         this.valueServices = valueServices;
         this.valueFactory = SimpleValueFactory.getInstance();
+        this.schedulers = schedulers;
     }
 
     @Override
@@ -122,7 +124,7 @@ public class MergeDuplicatesJob implements ScheduledJob {
     }
 
     private Mono<Void> checkForDuplicates(SessionContext ctx) {
-        Scheduler scheduler = Schedulers.newSingle("duplicates");
+        Scheduler scheduler = this.schedulers.forRepository(RepositoryType.ENTITIES);
 
         return this.findCandidates(ctx)
                 .subscribeOn(scheduler)
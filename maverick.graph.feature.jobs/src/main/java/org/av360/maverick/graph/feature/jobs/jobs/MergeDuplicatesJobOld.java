@@ -24,6 +24,7 @@ import org.av360.maverick.graph.model.enums.RepositoryType;
 import org.av360.maverick.graph.services.EntityServices;
 import org.av360.maverick.graph.services.QueryServices;
 import org.av360.maverick.graph.services.ValueServices;
+import org.av360.maverick.graph.store.StoreSchedulers;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Value;
 import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
@@ -38,7 +39,6 @@ import org.eclipse.rdf4j.sparqlbuilder.rdf.Rdf;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Scheduler;
-import reactor.core.scheduler.Schedulers;
 
 import java.time.Duration;
 import java.time.temporal.ChronoUnit;
@@ -85,14 +85,16 @@ public class MergeDuplicatesJobOld implements ScheduledJob {
     private final QueryServices queryServices;
     private final ValueServices valueServices;
     private final SimpleValueFactory valueFactory;
+    private final StoreSchedulers schedulers;
 
     private final int limit = 10;
 
-    public MergeDuplicatesJobOld(EntityServices service, QueryServices queryServices, ValueServices valueServices) {
+    public MergeDuplicatesJobOld(EntityServices service, QueryServices queryServices, ValueServices valueServices, StoreSchedulers schedulers) {
         this.entityServices = service;
         this.queryServices = queryServices;
         this.valueServices = valueServices;
         this.valueFactory = SimpleValueFactory.getInstance();
+        this.schedulers = schedulers;
     }
 
     @Override
@@ -130,7 +132,7 @@ public class MergeDuplicatesJobOld implements ScheduledJob {
     }
 
     private Mono<Void> checkForDuplicates(IRI characteristicProperty, SessionContext ctx) {
-        Scheduler scheduler = Schedulers.newSingle("duplicates_" + characteristicProperty.getLocalName());
+        Scheduler scheduler = this.schedulers.forRepository(RepositoryType.ENTITIES);
 
         return this.findCandidates(characteristicProperty, ctx)
                 .subscribeOn(scheduler)
@@ -0,0 +1,44 @@
+package org.av360.maverick.graph.feature.jobs.jobs;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.av360.maverick.graph.model.annotations.Job;
+import org.av360.maverick.graph.model.context.SessionContext;
+import org.av360.maverick.graph.model.entities.ScheduledJob;
+import org.av360.maverick.graph.services.SearchServices;
+import reactor.core.publisher.Mono;
+
+/**
+ * Rebuilds the search index of a scope from the entities store. The index is updated with every transaction, a rebuild
+ * is only needed if the index has been lost or the indexed properties have changed.
+ */
+@Job
+@Slf4j(topic = "graph.feat.jobs.search")
+public class RebuildSearchIndexJob implements ScheduledJob {
+
+    public static String NAME = "rebuildSearchIndex";
+
+    private final SearchServices searchServices;
+    private final Counter indexedEntities;
+
+    public RebuildSearchIndexJob(SearchServices searchServices, MeterRegistry meterRegistry) {
+        this.searchServices = searchServices;
+        this.indexedEntities = Counter.builder("graph.jobs.search.indexed").register(meterRegistry);
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public Mono<Void> run(SessionContext ctx) {
+        return this.searchServices.rebuild(ctx)
+                .doOnNext(count -> {
+                    log.info("Indexed {} entities in scope '{}'", count, ctx.getEnvironment().getScope());
+                    this.indexedEntities.increment(count);
+                })
+                .then();
+    }
+}
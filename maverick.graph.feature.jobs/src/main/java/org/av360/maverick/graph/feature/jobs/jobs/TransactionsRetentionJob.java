@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2024.
+ *
+ *  Licensed under the EUPL, Version 1.2 or – as soon they will be approved by the
+ *  European Commission - subsequent versions of the EUPL (the "Licence");
+ *
+ *  You may not use this work except in compliance with the Licence.
+ *  You may obtain a copy of the Licence at:
+ *
+ *  https://joinup.ec.europa.eu/software/page/eupl5
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the Licence is distributed on an "AS IS" basis,  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the Licence for the specific language governing permissions and limitations under the Licence.
+ *
+ */
+
+package org.av360.maverick.graph.feature.jobs.jobs;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.av360.maverick.graph.model.annotations.Job;
+import org.av360.maverick.graph.model.context.SessionContext;
+import org.av360.maverick.graph.model.entities.ScheduledJob;
+import org.av360.maverick.graph.model.enums.ConfigurationKeysRegistry;
+import org.av360.maverick.graph.services.ConfigurationService;
+import org.av360.maverick.graph.services.TransactionsService;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Applies the retention policy to the transaction history of a scope. Transactions can be removed by age and by the
+ * number of transactions kept for each subject. In "summarize" mode, the affected subjects are removed from old
+ * transactions, but the transactions themselves (with their status and commit time) are kept.
+ * <p>
+ * The underlying storage can optionally be compacted afterward to return the space of the removed transactions.
+ */
+@Job
+@Slf4j(topic = "graph.feat.jobs.retention")
+public class TransactionsRetentionJob implements ScheduledJob {
+
+    public static String NAME = "transactionsRetention";
+
+    public static final String CONFIG_KEY_MAX_AGE = "transactions_retention_max_age";
+    public static final String CONFIG_KEY_MAX_PER_SUBJECT = "transactions_retention_max_per_subject";
+    public static final String CONFIG_KEY_MODE = "transactions_retention_mode";
+    public static final String CONFIG_KEY_COMPACT = "transactions_retention_compact";
+
+    private static final String MODE_SUMMARIZE = "summarize";
+
+    private final TransactionsService transactionsService;
+    private final ConfigurationService configurationService;
+    private final Counter removedTransactions;
+    private final Counter reclaimedBytes;
+
+    public TransactionsRetentionJob(TransactionsService transactionsService, ConfigurationService configurationService, MeterRegistry meterRegistry) {
+        this.transactionsService = transactionsService;
+        this.configurationService = configurationService;
+        this.removedTransactions = Counter.builder("graph.jobs.retention.transactions.removed").register(meterRegistry);
+        this.reclaimedBytes = Counter.builder("graph.jobs.retention.reclaimed").baseUnit("bytes").register(meterRegistry);
+        ConfigurationKeysRegistry.add(CONFIG_KEY_MAX_AGE, "Maximum age of recorded transactions as ISO-8601 duration (e.g. P90D), transactions are kept forever if empty.");
+        ConfigurationKeysRegistry.add(CONFIG_KEY_MAX_PER_SUBJECT, "Number of transactions kept for each entity, no limit if empty.");
+        ConfigurationKeysRegistry.add(CONFIG_KEY_MODE, "Either 'delete' to remove old transactions, or 'summarize' to keep them without the affected entities.");
+        ConfigurationKeysRegistry.add(CONFIG_KEY_COMPACT, "Set to 'true' to compact the transactions storage after old transactions have been removed.");
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public Mono<Void> run(SessionContext ctx) {
+        return Mono.zip(
+                        this.readValue(CONFIG_KEY_MAX_AGE, ctx),
+                        this.readValue(CONFIG_KEY_MAX_PER_SUBJECT, ctx),
+                        this.readValue(CONFIG_KEY_MODE, ctx),
+                        this.readValue(CONFIG_KEY_COMPACT, ctx))
+                .flatMap(config -> {
+                    Duration maxAge = config.getT1().map(Duration::parse).orElse(null);
+                    Integer maxPerSubject = config.getT2().map(Integer::parseInt).orElse(null);
+                    boolean summarize = config.getT3().map(MODE_SUMMARIZE::equalsIgnoreCase).orElse(false);
+                    boolean compact = config.getT4().map(Boolean::parseBoolean).orElse(false);
+
+                    if (maxAge == null && maxPerSubject == null) {
+                        log.debug("No retention policy configured for transactions in scope '{}'", ctx.getEnvironment().getScope());
+                        return Mono.empty();
+                    }
+
+                    return this.transactionsService.applyRetention(maxAge, maxPerSubject, summarize, ctx)
+                            .doOnNext(removed -> {
+                                log.info("Removed {} transactions in scope '{}' (max age: {}, max per entity: {}, summarize: {})", removed, ctx.getEnvironment().getScope(), maxAge, maxPerSubject, summarize);
+                                this.removedTransactions.increment(removed);
+                            })
+                            .filter(removed -> compact && removed > 0)
+                            .flatMap(removed -> this.transactionsService.compact(ctx))
+                            .doOnNext(reclaimed -> {
+                                log.info("Compacted transactions storage in scope '{}', reclaimed {} bytes", ctx.getEnvironment().getScope(), reclaimed);
+                                this.reclaimedBytes.increment(reclaimed);
+                            });
+                })
+                .then();
+    }
+
+    private Mono<Optional<String>> readValue(String key, SessionContext ctx) {
+        return this.configurationService.getValue(key, ctx)
+                .filter(StringUtils::hasText)
+                .map(String::trim)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty());
+    }
+}
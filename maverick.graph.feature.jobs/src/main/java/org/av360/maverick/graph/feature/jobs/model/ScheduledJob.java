@@ -25,6 +25,8 @@ public class ScheduledJob implements Runnable {
 
     private Instant completionTime;
 
+    private Runnable onCompleted = () -> { };
+
     public String getName() {
         return this.job.getName();
     }
@@ -50,6 +52,7 @@ public class ScheduledJob implements Runnable {
                     this.isActive = false;
                     this.isFailed = false;
                     this.completionTime = Instant.now();
+                    this.onCompleted.run();
                 })
                 .doOnError(error -> {
                     this.isFailed = true;
@@ -64,10 +67,25 @@ public class ScheduledJob implements Runnable {
 
 
 
+    /**
+     * @param onCompleted called when the job has run successfully (the job itself runs asynchronously)
+     */
+    public void setOnCompleted(Runnable onCompleted) {
+        this.onCompleted = onCompleted;
+    }
+
     public String getIdentifier() {
         return identifier;
     }
 
+    public String getScope() {
+        return this.context.getEnvironment().getScope().label();
+    }
+
+    public boolean isScoped() {
+        return this.context.getEnvironment().hasScope();
+    }
+
     public Instant getCompletionTime() {
         return completionTime;
     }
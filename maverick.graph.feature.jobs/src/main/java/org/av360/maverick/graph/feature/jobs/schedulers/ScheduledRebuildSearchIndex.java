@@ -0,0 +1,28 @@
+package org.av360.maverick.graph.feature.jobs.schedulers;
+
+import lombok.extern.slf4j.Slf4j;
+import org.av360.maverick.graph.feature.jobs.jobs.RebuildSearchIndexJob;
+import org.av360.maverick.graph.model.context.SessionContext;
+import org.av360.maverick.graph.model.events.JobScheduledEvent;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@Slf4j(topic = "graph.jobs.search")
+@ConditionalOnProperty(name = "application.features.modules.jobs.scheduled.rebuildSearchIndex.enabled", havingValue = "true")
+public class ScheduledRebuildSearchIndex {
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ScheduledRebuildSearchIndex(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+
+    @Scheduled(cron = "${application.features.modules.jobs.scheduled.rebuildSearchIndex.defaultFrequency:0 0 5 * * SUN}")
+    public void scheduled() {
+        JobScheduledEvent event = new JobScheduledEvent(RebuildSearchIndexJob.NAME, new SessionContext().setSystemAuthentication());
+        eventPublisher.publishEvent(event);
+    }
+}
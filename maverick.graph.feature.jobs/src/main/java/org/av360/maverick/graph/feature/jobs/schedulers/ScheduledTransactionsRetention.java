@@ -0,0 +1,28 @@
+package org.av360.maverick.graph.feature.jobs.schedulers;
+
+import lombok.extern.slf4j.Slf4j;
+import org.av360.maverick.graph.feature.jobs.jobs.TransactionsRetentionJob;
+import org.av360.maverick.graph.model.context.SessionContext;
+import org.av360.maverick.graph.model.events.JobScheduledEvent;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@Slf4j(topic = "graph.jobs.retention")
+@ConditionalOnProperty(name = "application.features.modules.jobs.scheduled.transactionsRetention.enabled", havingValue = "true")
+public class ScheduledTransactionsRetention {
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ScheduledTransactionsRetention(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+
+    @Scheduled(cron = "${application.features.modules.jobs.scheduled.transactionsRetention.defaultFrequency:0 0 3 * * ?}")
+    public void scheduled() {
+        JobScheduledEvent event = new JobScheduledEvent(TransactionsRetentionJob.NAME, new SessionContext().setSystemAuthentication());
+        eventPublisher.publishEvent(event);
+    }
+}
@@ -17,12 +17,33 @@ public class DefaultConfigurationService implements ConfigurationService {
 
     @Value("${application.features.modules.jobs.scheduled.exportApplication.defaultS3BucketId:}")
     private String defaultS3BucketId;
+
+    @Value("${application.features.modules.jobs.scheduled.transactionsRetention.maxAge:}")
+    private String defaultRetentionMaxAge;
+
+    @Value("${application.features.modules.jobs.scheduled.transactionsRetention.maxPerSubject:}")
+    private String defaultRetentionMaxPerSubject;
+
+    @Value("${application.features.modules.jobs.scheduled.transactionsRetention.mode:delete}")
+    private String defaultRetentionMode;
+
+    @Value("${application.features.modules.jobs.scheduled.transactionsRetention.compact:false}")
+    private String defaultRetentionCompact;
+
+    @Value("${application.features.modules.jobs.jobSlots:0}")
+    private String defaultJobSlots;
+
     @Override
     public Mono<String> getValue(String key, SessionContext context) {
         return switch (key) {
             case "export_local_path" -> Mono.just(defaultLocalPath);
             case "export_s3_host" -> Mono.just(defaultS3Host);
             case "export_s3_bucket" -> Mono.just(defaultS3BucketId);
+            case "transactions_retention_max_age" -> Mono.just(defaultRetentionMaxAge);
+            case "transactions_retention_max_per_subject" -> Mono.just(defaultRetentionMaxPerSubject);
+            case "transactions_retention_mode" -> Mono.just(defaultRetentionMode);
+            case "transactions_retention_compact" -> Mono.just(defaultRetentionCompact);
+            case "quota_job_slots" -> Mono.just(defaultJobSlots);
             default -> Mono.empty();
         };
     }
@@ -36,6 +36,15 @@ public class JobQueue implements ApplicationListener<JobScheduledEvent> {
         }
     }
 
+    /**
+     * Adds an accepted job back to the end of the queue, e.g. if it cannot be scheduled yet
+     */
+    public void requeue(JobScheduledEvent event) {
+        if(! this.publishedJobs.contains(event)) {
+            this.publishedJobs.addLast(event);
+        }
+    }
+
     public List<JobScheduledEvent> list() {
         return publishedJobs.stream().toList();
     }
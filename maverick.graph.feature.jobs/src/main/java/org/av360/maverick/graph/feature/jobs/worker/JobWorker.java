@@ -3,10 +3,16 @@ package org.av360.maverick.graph.feature.jobs.worker;
 import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.av360.maverick.graph.model.annotations.Job;
+import org.av360.maverick.graph.model.context.SessionContext;
 import org.av360.maverick.graph.model.entities.ScheduledJob;
+import org.av360.maverick.graph.model.enums.ConfigurationKeysRegistry;
+import org.av360.maverick.graph.model.events.JobCompletedEvent;
 import org.av360.maverick.graph.model.events.JobScheduledEvent;
 import org.av360.maverick.graph.model.security.Authorities;
+import org.av360.maverick.graph.services.ConfigurationService;
 import org.av360.maverick.graph.services.SessionContextBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import reactor.core.publisher.Flux;
@@ -20,6 +26,8 @@ import java.util.stream.Collectors;
 @Job
 public class JobWorker {
 
+    public static final String CONFIG_KEY_JOB_SLOTS = "quota_job_slots";
+
     private final Set<SessionContextBuilder> builders;
 
     private final JobQueue requestedJobs;
@@ -30,9 +38,20 @@ public class JobWorker {
     private final MeterRegistry meterRegistry;
     private final ThreadPoolTaskScheduler taskScheduler;
 
+    private final ConfigurationService configurationService;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final int maxScopedJobs;
 
-    public JobWorker(Set<SessionContextBuilder> builders, JobQueue eventListener, List<ScheduledJob> jobs, MeterRegistry meterRegistry) {
+
+    public JobWorker(Set<SessionContextBuilder> builders, JobQueue eventListener, List<ScheduledJob> jobs, MeterRegistry meterRegistry, ConfigurationService configurationService,
+                     ApplicationEventPublisher eventPublisher,
+                     @Value("${application.features.modules.jobs.maxScopedJobs:0}") int maxScopedJobs) {
         this.builders = builders;
+        this.configurationService = configurationService;
+        this.eventPublisher = eventPublisher;
+        this.maxScopedJobs = maxScopedJobs;
         this.requestedJobs = eventListener;
         this.registeredJobs = jobs;
         this.submittedJobs = new ArrayDeque<>();
@@ -42,6 +61,8 @@ public class JobWorker {
         this.taskScheduler.setThreadGroupName("jobs");
 
         this.taskScheduler.initialize();
+
+        ConfigurationKeysRegistry.add(CONFIG_KEY_JOB_SLOTS, "Maximum number of jobs of this application waiting or running at the same time, no limit if 0.");
     }
 
     @Scheduled(fixedRate = 2, timeUnit = TimeUnit.MINUTES)
@@ -55,6 +76,14 @@ public class JobWorker {
 
             JobScheduledEvent event = requestedJobs.accept().orElseThrow();
 
+            // limit the jobs running at the same time in all applications
+            if(this.maxScopedJobs > 0 && event.getSessionContext().getEnvironment().hasScope() && this.countRunningScopedJobs() >= this.maxScopedJobs) {
+                log.debug("All {} slots for scoped jobs are taken, delaying job '{}'.", this.maxScopedJobs, event.getJobIdentifier());
+                meterRegistry.counter("graph.jobs.counter", "name", jobIdentifier.name(), "scope", jobIdentifier.scope(), "status", "delayed").increment();
+                this.requestedJobs.requeue(event);
+                return;
+            }
+
             // check if job with this identifier is already scheduled or active
             Optional<org.av360.maverick.graph.feature.jobs.model.ScheduledJob> alreadyScheduledJob = this.submittedJobs.stream()
                     .filter(scheduledJob -> ! scheduledJob.isCompleted())
@@ -73,12 +102,14 @@ public class JobWorker {
                     .reduceWith(() -> Mono.just(event.getSessionContext()), (update, builderService) -> update.flatMap(builderService::build)).flatMap(mono -> mono)
                     // jobs always run with System authentication
                     .doOnNext(ctx -> ctx.withAuthority(Authorities.MAINTAINER))
+                    .filterWhen(context -> this.hasFreeJobSlot(event, context))
                     .doOnNext(context -> {
 
 
                         // else create a new scheduled Job
                         log.debug("Scheduling job '{}' in {}.", event.getJobIdentifier(), event.getSessionContext().getEnvironment());
                         org.av360.maverick.graph.feature.jobs.model.ScheduledJob scheduledJob = new org.av360.maverick.graph.feature.jobs.model.ScheduledJob(requestedJob, context, event.getJobIdentifier());
+                        scheduledJob.setOnCompleted(() -> this.eventPublisher.publishEvent(new JobCompletedEvent(event)));
 
 
 
@@ -107,6 +138,42 @@ public class JobWorker {
 
 
 
+    private long countRunningScopedJobs() {
+        return this.submittedJobs.stream()
+                .filter(scheduledJob -> !scheduledJob.isCompleted())
+                .filter(scheduledJob -> !scheduledJob.isFailed())
+                .filter(org.av360.maverick.graph.feature.jobs.model.ScheduledJob::isScoped)
+                .count();
+    }
+
+    /**
+     * Checks the job slots of the scope. If all slots are taken, the job is moved back to the end of the queue.
+     */
+    private Mono<Boolean> hasFreeJobSlot(JobScheduledEvent event, SessionContext context) {
+        return this.configurationService.getValue(CONFIG_KEY_JOB_SLOTS, context)
+                .filter(value -> !value.isBlank())
+                .map(value -> Integer.parseInt(value.trim()))
+                .onErrorResume(NumberFormatException.class, e -> {
+                    log.warn("Invalid value for '{}' in scope '{}', jobs are not limited.", CONFIG_KEY_JOB_SLOTS, event.getScope());
+                    return Mono.empty();
+                })
+                .map(slots -> {
+                    if (slots <= 0) return true;
+
+                    long taken = this.submittedJobs.stream()
+                            .filter(scheduledJob -> !scheduledJob.isCompleted())
+                            .filter(scheduledJob -> !scheduledJob.isFailed())
+                            .filter(scheduledJob -> scheduledJob.getScope().equals(event.getScope()))
+                            .count();
+                    if (taken < slots) return true;
+
+                    log.debug("All {} job slots in scope '{}' are taken, delaying job '{}'.", slots, event.getScope(), event.getJobName());
+                    this.requestedJobs.requeue(event);
+                    return false;
+                })
+                .defaultIfEmpty(true);
+    }
+
     public List<ScheduledJob> getRegisteredJobs() {
         return registeredJobs;
     }
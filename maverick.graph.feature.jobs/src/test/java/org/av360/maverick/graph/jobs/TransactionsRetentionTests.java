@@ -0,0 +1,109 @@
+package org.av360.maverick.graph.jobs;
+
+import org.av360.maverick.graph.feature.jobs.jobs.TransactionsRetentionJob;
+import org.av360.maverick.graph.model.context.SessionContext;
+import org.av360.maverick.graph.model.entities.Transaction;
+import org.av360.maverick.graph.model.enums.Activity;
+import org.av360.maverick.graph.model.identifier.DefaultIdentifierFactory;
+import org.av360.maverick.graph.model.vocabulary.SDO;
+import org.av360.maverick.graph.model.vocabulary.meg.Local;
+import org.av360.maverick.graph.services.TransactionsService;
+import org.av360.maverick.graph.store.TransactionsStore;
+import org.av360.maverick.graph.store.rdf.fragments.RdfTransaction;
+import org.av360.maverick.graph.tests.config.TestRepositoryConfig;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.util.Values;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+
+@SpringBootTest
+@ContextConfiguration(classes = TestRepositoryConfig.class)
+@ActiveProfiles("test")
+class TransactionsRetentionTests {
+
+    @Autowired
+    TransactionsService transactionsService;
+
+    @Autowired
+    TransactionsRetentionJob job;
+
+    @Test
+    void trimPerSubject() {
+        SessionContext ctx = this.createContext("retention_trim");
+        List<IRI> subjects = this.record(2, 10, ctx);
+
+        StepVerifier.create(transactionsService.applyRetention(null, 3, false, ctx))
+                .assertNext(removed -> Assertions.assertEquals(14L, removed))
+                .verifyComplete();
+
+        Assertions.assertEquals(3, this.history(subjects.get(0), ctx).size());
+        Assertions.assertEquals(3, this.history(subjects.get(1), ctx).size());
+        Assertions.assertEquals(6, this.history(null, ctx).size());
+    }
+
+    @Test
+    void summarizeExpired() {
+        SessionContext ctx = this.createContext("retention_expire");
+        List<IRI> subjects = this.record(2, 5, ctx);
+
+        // commit times are strictly increasing and might be slightly ahead of the clock
+        StepVerifier.create(Mono.delay(Duration.ofMillis(50)).then(Mono.defer(() -> transactionsService.applyRetention(Duration.ZERO, null, true, ctx))))
+                .assertNext(removed -> Assertions.assertEquals(10L, removed))
+                .verifyComplete();
+
+        // the transactions are kept, but are not linked to the entities anymore
+        List<Transaction> all = this.history(null, ctx);
+        Assertions.assertEquals(10, all.size());
+        Assertions.assertTrue(all.stream().allMatch(transaction -> transaction.affectedSubjects(Activity.INSERTED).isEmpty()));
+        Assertions.assertEquals(0, this.history(subjects.get(0), ctx).size());
+
+        StepVerifier.create(transactionsService.applyRetention(Duration.ZERO, null, false, ctx))
+                .assertNext(removed -> Assertions.assertEquals(10L, removed))
+                .verifyComplete();
+        Assertions.assertEquals(0, this.history(null, ctx).size());
+    }
+
+    @Test
+    void skipWithoutPolicy() {
+        SessionContext ctx = this.createContext("retention_none");
+        this.record(1, 3, ctx);
+
+        StepVerifier.create(job.run(ctx)).verifyComplete();
+        Assertions.assertEquals(3, this.history(null, ctx).size());
+    }
+
+    private List<IRI> record(int subjectCount, int transactionsPerSubject, SessionContext ctx) {
+        List<IRI> subjects = Flux.range(0, subjectCount)
+                .map(i -> (IRI) DefaultIdentifierFactory.getInstance().createRandomIdentifier(Local.Entities.NAME))
+                .collectList().block();
+
+        Flux<Transaction> saved = Flux.range(0, subjectCount * transactionsPerSubject)
+                .map(i -> (Transaction) new RdfTransaction().inserts(subjects.get(i % subjectCount), SDO.NAME, Values.literal("name " + i)))
+                .doOnNext(Transaction::setCompleted)
+                .collectList()
+                .flatMapMany(transactions -> transactionsService.save(transactions, ctx));
+
+        StepVerifier.create(saved).expectNextCount((long) subjectCount * transactionsPerSubject).verifyComplete();
+        return subjects;
+    }
+
+    private List<Transaction> history(IRI subject, SessionContext ctx) {
+        return transactionsService.list(TransactionsStore.Filter.ALL.forSubject(subject), null, 1000, ctx).collectList().block();
+    }
+
+    private SessionContext createContext(String scope) {
+        SessionContext context = new SessionContext().setSystemAuthentication();
+        context.getEnvironment().withScope(scope);
+        return context;
+    }
+}
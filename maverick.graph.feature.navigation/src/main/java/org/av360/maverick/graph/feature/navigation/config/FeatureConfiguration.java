@@ -1,7 +1,9 @@
 package org.av360.maverick.graph.feature.navigation.config;
 
 import org.av360.maverick.graph.feature.navigation.controller.encoder.JsonLdEncoder;
+import org.av360.maverick.graph.feature.navigation.controller.encoder.TrigHtmlEncoder;
 import org.av360.maverick.graph.store.SchemaStore;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.codec.ServerCodecConfigurer;
@@ -14,9 +16,11 @@ public class FeatureConfiguration implements WebFluxConfigurer {
 
 
     private final SchemaStore schemaStore;
+    private final String renderer;
 
-    public FeatureConfiguration(SchemaStore schemaStore) {
+    public FeatureConfiguration(SchemaStore schemaStore, @Value("${application.features.modules.navigation.configuration.renderer:jsonld}") String renderer) {
         this.schemaStore = schemaStore;
+        this.renderer = renderer;
     }
 
     @Bean
@@ -29,6 +33,11 @@ public class FeatureConfiguration implements WebFluxConfigurer {
     }
 
     public void configureHttpMessageCodecs(ServerCodecConfigurer configurer) {
-        configurer.customCodecs().register(new JsonLdEncoder(this.schemaStore));
+        // the turtle view is streamed, the json-ld view needs the complete model
+        if ("trig".equalsIgnoreCase(this.renderer)) {
+            configurer.customCodecs().register(new TrigHtmlEncoder(this.schemaStore));
+        } else {
+            configurer.customCodecs().register(new JsonLdEncoder(this.schemaStore));
+        }
     }
 }
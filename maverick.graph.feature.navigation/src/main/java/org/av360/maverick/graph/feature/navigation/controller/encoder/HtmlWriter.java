@@ -2,95 +2,56 @@ package org.av360.maverick.graph.feature.navigation.controller.encoder;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import org.apache.commons.io.IOUtils;
 import org.av360.maverick.graph.model.vocabulary.DC;
 import org.av360.maverick.graph.model.vocabulary.DCTERMS;
-import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.*;
 import org.eclipse.rdf4j.model.vocabulary.FOAF;
 import org.eclipse.rdf4j.model.vocabulary.SKOS;
 import org.eclipse.rdf4j.model.vocabulary.SKOSXL;
-import org.eclipse.rdf4j.rio.*;
-import org.eclipse.rdf4j.rio.helpers.BasicWriterSettings;
+import org.eclipse.rdf4j.model.vocabulary.XSD;
+import org.eclipse.rdf4j.rio.RDFHandler;
+import org.eclipse.rdf4j.rio.RDFHandlerException;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
-import java.io.StringWriter;
-import java.net.URI;
-import java.nio.charset.Charset;
-import java.util.Collection;
+import java.io.Writer;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.regex.Pattern;
 
-public class HtmlWriter implements RDFWriter {
+/**
+ * Writes statements as navigable HTML page. The statements are streamed as Turtle into the script element "rdf", which
+ * is rendered by "/script.js". They are grouped by subject as long as they arrive in order, and are written as soon as
+ * they are handled: nothing but the current subject and the prefixes is kept in memory. Prefixes are declared before
+ * the next subject once their namespace has been seen.
+ */
+public class HtmlWriter implements RDFHandler {
 
+    private static final Pattern LOCAL_NAME = Pattern.compile("[A-Za-z0-9_]([A-Za-z0-9_.-]*[A-Za-z0-9_-])?");
 
-    private final RDFWriter delegate;
-    private final OutputStream out;
-    private final URI requestURI;
+    private final Writer out;
 
+    private final Map<String, String> prefixDeclarations = new LinkedHashMap<>();
+    private final Map<String, String> pendingPrefixes = new LinkedHashMap<>();
+    private final Map<String, String> prefixesByNamespace = new HashMap<>();
+    private Resource currentSubject;
 
-    private void appendLine(String line) {
-        try {
-            out.write(line.getBytes());
-            out.write('\n');
-        } catch (IOException e) {
-            throw new RDFHandlerException(e);
-        }
-    }
-
-    public HtmlWriter(RDFWriter writer, OutputStream out, URI requestURI) throws IOException {
-        delegate = writer;
+    public HtmlWriter(Writer out) {
         this.out = out;
-        this.requestURI = requestURI;
-
-
-        WriterConfig config = new WriterConfig();
-        config.set(BasicWriterSettings.INLINE_BLANK_NODES, true);
-        delegate.set(BasicWriterSettings.INLINE_BLANK_NODES, true);
-        delegate.set(BasicWriterSettings.PRETTY_PRINT, true);
-
-
-    }
-    @Override
-    public RDFFormat getRDFFormat() {
-        return delegate.getRDFFormat();
-    }
-
-    @Override
-    public RDFWriter setWriterConfig(WriterConfig config) {
-        return delegate.setWriterConfig(config);
-    }
-
-    @Override
-    public WriterConfig getWriterConfig() {
-        return delegate.getWriterConfig();
-    }
-
-    @Override
-    public Collection<RioSetting<?>> getSupportedSettings() {
-        return delegate.getSupportedSettings();
-    }
-
-    @Override
-    public <T> RDFWriter set(RioSetting<T> setting, T value) {
-        return delegate.set(setting, value);
     }
 
     @Override
     public void startRDF() throws RDFHandlerException {
-        String header = """
+        this.write("""
                 <!doctype html>
                 <html lang="en">
                 <head>
                     <title>Maverick Entity Graph Navigation</title>
                     <meta charset="UTF-8">
-                    
                     <link rel="stylesheet" href="/style.css"></link>
                 </head>
                 <body>
                 <div class="box">
-                    
                     <div id="header_box">
                         <div id="header"></div>
                     </div>
@@ -103,47 +64,130 @@ public class HtmlWriter implements RDFWriter {
                     <span id="session" class="hidden"></span>
                 </div>
                 <div id="rdf_box"><script type="text/turtle" id="rdf">
-                """;
-
-        appendLine(header);
-        delegate.startRDF();
+                """);
     }
 
     @Override
     public void endRDF() throws RDFHandlerException {
-        String footer = """
-                    </script></div>
-                    <script id="ns" type="application/json">%s</script>
-                    <!-- <script src="https://unpkg.com/vue@3/dist/vue.global.js"></script> -->
-                    <script src="/script.js"></script>
+        if (this.currentSubject != null) this.write(" .\n");
+
+        // the prefixes end up in a script element, which must not be closed by any of the values
+        String prefixes = this.getPrefixes().replace("</", "<\\/");
+        this.write("""
+                </script></div>
+                <script id="ns" type="application/json">%s</script>
+                <script src="/script.js"></script>
                 </body>
                 </html>
-                """.formatted(this.getPrefixes());
+                """.formatted(prefixes));
+    }
 
-        delegate.endRDF();
-        appendLine(footer);
+    @Override
+    public void handleNamespace(String prefix, String uri) throws RDFHandlerException {
+        if (this.prefixDeclarations.containsKey(prefix) || this.prefixDeclarations.containsValue(uri)) return;
+        this.prefixDeclarations.put(prefix, uri);
+        this.pendingPrefixes.put(prefix, uri);
     }
 
+    @Override
+    public void handleStatement(Statement st) throws RDFHandlerException {
+        StringBuilder sb = new StringBuilder();
+        if (st.getSubject().equals(this.currentSubject)) {
+            sb.append(" ;\n    ");
+        } else {
+            if (this.currentSubject != null) sb.append(" .\n\n");
+            this.appendPendingPrefixes(sb);
+            this.appendValue(sb, st.getSubject());
+            sb.append(' ');
+            this.currentSubject = st.getSubject();
+        }
+        this.appendValue(sb, st.getPredicate());
+        sb.append(' ');
+        this.appendValue(sb, st.getObject());
+        this.write(sb);
+    }
 
+    @Override
+    public void handleComment(String comment) throws RDFHandlerException {
+        this.write("# " + escapeString(comment.replace('\n', ' ').replace('\r', ' ')) + "\n");
+    }
 
+    public void flush() throws RDFHandlerException {
+        try {
+            this.out.flush();
+        } catch (IOException e) {
+            throw new RDFHandlerException(e);
+        }
+    }
 
+    /**
+     * The prefixes are a fragment of their own (separated by an empty line), as expected by the script.
+     */
+    private void appendPendingPrefixes(StringBuilder sb) {
+        if (this.pendingPrefixes.isEmpty()) return;
+        this.pendingPrefixes.forEach((prefix, namespace) -> {
+            sb.append("@prefix ").append(prefix).append(": <").append(escapeIri(namespace)).append("> .\n");
+            this.prefixesByNamespace.put(namespace, prefix);
+        });
+        sb.append('\n');
+        this.pendingPrefixes.clear();
+    }
 
-    private String printFile(String name) {
-        StringWriter sw = new StringWriter();
-        try(InputStream is = this.getClass().getClassLoader().getResourceAsStream(name)) {
-            IOUtils.copy(is, sw, Charset.defaultCharset());
-            return sw.toString();
-        } catch (IOException | NullPointerException e) {
-            return "";
+    private void appendValue(StringBuilder sb, Value value) {
+        if (value instanceof IRI iri) {
+            String prefix = this.prefixesByNamespace.get(iri.getNamespace());
+            if (prefix != null && LOCAL_NAME.matcher(iri.getLocalName()).matches()) {
+                sb.append(prefix).append(':').append(iri.getLocalName());
+            } else {
+                sb.append('<').append(escapeIri(iri.stringValue())).append('>');
+            }
+        } else if (value instanceof Literal literal) {
+            sb.append('"').append(escapeString(literal.getLabel())).append('"');
+            if (literal.getLanguage().isPresent()) {
+                sb.append('@').append(literal.getLanguage().get());
+            } else if (!XSD.STRING.equals(literal.getDatatype())) {
+                sb.append("^^");
+                this.appendValue(sb, literal.getDatatype());
+            }
+        } else if (value instanceof BNode bnode) {
+            sb.append("_:").append(bnode.getID());
+        } else if (value instanceof Triple triple) {
+            sb.append("<< ");
+            this.appendValue(sb, triple.getSubject());
+            sb.append(' ');
+            this.appendValue(sb, triple.getPredicate());
+            sb.append(' ');
+            this.appendValue(sb, triple.getObject());
+            sb.append(" >>");
         }
     }
 
+    /**
+     * Escapes a Turtle string. {@code <} is escaped as well, nothing in the listing may close its script element.
+     */
+    private static String escapeString(String text) {
+        return text.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n").replace("\r", "\\r").replace("<", "\\u003C");
+    }
 
-    private Map<String, String> prefixDeclarations = new HashMap<>();
-    @Override
-    public void handleNamespace(String prefix, String uri) throws RDFHandlerException {
-        prefixDeclarations.put(prefix, uri);
-        delegate.handleNamespace(prefix, uri);
+    /**
+     * Escapes the characters which are not allowed in Turtle IRIs (including {@code <} and {@code >}) as unicode sequences.
+     */
+    private static String escapeIri(String iri) {
+        StringBuilder sb = new StringBuilder(iri.length());
+        for (int i = 0; i < iri.length(); i++) {
+            char c = iri.charAt(i);
+            if (c <= 0x20 || "<>\"{}|^`\\".indexOf(c) >= 0) sb.append("\\u%04X".formatted((int) c));
+            else sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    private void write(CharSequence text) {
+        try {
+            this.out.append(text);
+        } catch (IOException e) {
+            throw new RDFHandlerException(e);
+        }
     }
 
     private String getPrefixes() {
@@ -174,16 +218,4 @@ public class HtmlWriter implements RDFWriter {
             default: yield url;
         };
     }
-
-
-    @Override
-    public void handleStatement(Statement st) throws RDFHandlerException {
-        delegate.handleStatement(st);
-
-    }
-
-    @Override
-    public void handleComment(String comment) throws RDFHandlerException {
-        delegate.handleComment(comment);
-    }
 }
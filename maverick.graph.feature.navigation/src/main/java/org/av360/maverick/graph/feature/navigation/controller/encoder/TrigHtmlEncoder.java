@@ -5,40 +5,38 @@ import org.av360.maverick.graph.api.config.ReactiveRequestUriContextHolder;
 import org.av360.maverick.graph.model.vocabulary.meg.Local;
 import org.av360.maverick.graph.services.NavigationServices;
 import org.av360.maverick.graph.store.SchemaStore;
-import org.av360.maverick.graph.store.rdf.helpers.RdfUtils;
 import org.eclipse.rdf4j.model.*;
 import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
-import org.eclipse.rdf4j.model.util.ModelCollector;
-import org.eclipse.rdf4j.rio.RDFFormat;
-import org.eclipse.rdf4j.rio.RDFWriter;
 import org.reactivestreams.Publisher;
 import org.springframework.core.ResolvableType;
 import org.springframework.core.codec.Encoder;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.io.buffer.DataBufferFactory;
-import org.springframework.http.HttpStatus;
 import org.springframework.util.MimeType;
 import org.springframework.util.MimeTypeUtils;
-import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.util.UriComponentsBuilder;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.io.ByteArrayOutputStream;
-import java.io.IOException;
-import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.Set;
 
 /**
- * Transforms a set of statements to navigable HTML
+ * Transforms a stream of statements to navigable HTML. The page header is written immediately, the statements follow in
+ * chunks as they arrive. Only the current chunk is buffered.
  */
 @Slf4j(topic = "graph.ctrl.io.encoder.html")
 public class TrigHtmlEncoder implements Encoder<Statement> {
 
+    static final int CHUNK_SIZE = 256;
+    static final Duration CHUNK_TIMEOUT = Duration.ofMillis(100);
 
     private final SimpleValueFactory vf;
 
@@ -51,87 +49,85 @@ public class TrigHtmlEncoder implements Encoder<Statement> {
 
     @Override
     public boolean canEncode(ResolvableType elementType, MimeType mimeType) {
-        return false;
-        // return mimeType != null && mimeType.equals(MimeTypeUtils.TEXT_HTML);
+        return mimeType != null && mimeType.equals(MimeTypeUtils.TEXT_HTML);
     }
 
     @Override
     public Flux<DataBuffer> encode(Publisher<? extends Statement> inputStream, DataBufferFactory bufferFactory, ResolvableType elementType, MimeType mimeType, Map<String, Object> hints) {
 
-        return Flux.from(inputStream)
-                .doOnSubscribe(c -> {
-                    if (log.isTraceEnabled()) {
-                        log.trace("Setting up buffered statements stream for response with mimetype '{}'", mimeType != null ? mimeType.toString() : "unset");
-                    }
-                })
-                .map(statement -> (Statement) statement)
-                .collect(ModelCollector.toTreeModel())
-                .map(EncoderFilters::convertCompositesToBlankNodes)
-                .map(EncoderFilters::filterInternalTypeStatements)
-                .map(this::extractNamespaces)
-                .flatMap(model ->  Mono.zip(Mono.just(model), ReactiveRequestUriContextHolder.getURI()))
-                .flatMapMany(tuple -> {
-                    Model model = tuple.getT1();
-
-                    URI requestURI = tuple.getT2(); // we need the request to resolve the current request url
-
-                    try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-
-                        RDFWriter writer = getWriter(baos, requestURI);
+        return ReactiveRequestUriContextHolder.getURI()  // we need the request to resolve the current request url
+                .flatMapMany(requestURI -> {
+                    ByteArrayOutputStream buffer = new ByteArrayOutputStream(8192);
+                    HtmlWriter writer = new HtmlWriter(new OutputStreamWriter(buffer, StandardCharsets.UTF_8));
+                    Set<String> namespaces = new HashSet<>();
 
+                    Mono<DataBuffer> header = Mono.fromCallable(() -> {
                         writer.startRDF();
-
-                        model.getNamespaces().forEach(namespace -> writer.handleNamespace(namespace.getPrefix(), namespace.getName()));
-
-                        for (Statement st : model) {
-                            this.handleStatement(st, writer, requestURI);
-
-                        }
+                        return this.drain(writer, buffer, bufferFactory);
+                    });
+
+                    Flux<DataBuffer> statements = Flux.from(inputStream)
+                            .map(statement -> (Statement) statement)
+                            .filter(EncoderFilters::filterInternalTypeStatements)
+                            .bufferTimeout(CHUNK_SIZE, CHUNK_TIMEOUT, true)
+                            .map(chunk -> {
+                                for (Statement st : chunk) {
+                                    this.handleNamespaces(writer, st, namespaces, requestURI);
+                                    this.handleStatement(st, writer, requestURI);
+                                }
+                                return this.drain(writer, buffer, bufferFactory);
+                            });
+
+                    Mono<DataBuffer> footer = Mono.fromCallable(() -> {
                         writer.endRDF();
+                        return this.drain(writer, buffer, bufferFactory);
+                    });
 
-                        return Flux.just(bufferFactory.wrap(baos.toByteArray()));
-                    } catch (IOException e) {
-                        log.error("Failed to write response of mimetype '{}'", mimeType.toString(), e);
-                        return Flux.error(new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to write response"));
-                    } finally {
-                        if (log.isTraceEnabled()) {
-                            log.trace("Completed writing buffered statements response with mimetype '{}'", mimeType != null ? mimeType.toString() : "unset");
-                        }
+                    return Flux.concat(header, statements, footer);
+                })
+                .doOnSubscribe(c -> {
+                    if (log.isTraceEnabled()) {
+                        log.trace("Setting up streamed statements response with mimetype '{}'", mimeType != null ? mimeType.toString() : "unset");
+                    }
+                })
+                .doOnError(error -> log.error("Failed to write response of mimetype '{}'", mimeType, error))
+                .doOnComplete(() -> {
+                    if (log.isTraceEnabled()) {
+                        log.trace("Completed writing streamed statements response with mimetype '{}'", mimeType != null ? mimeType.toString() : "unset");
                     }
                 });
     }
 
-
-    private Model extractNamespaces(Model model) {
-        model.forEach(statement -> {
-            this.handleNamespace(statement, model);
-        });
-        return model;
+    private DataBuffer drain(HtmlWriter writer, ByteArrayOutputStream buffer, DataBufferFactory bufferFactory) {
+        writer.flush();
+        DataBuffer dataBuffer = bufferFactory.wrap(buffer.toByteArray());
+        buffer.reset();
+        return dataBuffer;
     }
 
-    private void handleNamespace(Statement s, Model m) {
-        if(s.getSubject() instanceof IRI iri) {
-            this.handleNamespaceIRI(iri, m);
+    private void handleNamespaces(HtmlWriter writer, Statement s, Set<String> namespaces, URI requestURI) {
+        if (s instanceof NamespaceAware) {
+            this.handleNamespaces(writer, s, requestURI);
         }
-        if(s.getObject() instanceof IRI iri) {
-            this.handleNamespaceIRI(iri, m);
+        if (s.getSubject() instanceof IRI iri) {
+            this.handleNamespaceIRI(writer, iri, namespaces);
         }
-        this.handleNamespaceIRI(s.getPredicate(), m);
+        if (s.getObject() instanceof IRI iri) {
+            this.handleNamespaceIRI(writer, iri, namespaces);
+        }
+        this.handleNamespaceIRI(writer, s.getPredicate(), namespaces);
     }
 
-    private void handleNamespaceIRI(IRI iri, Model m) {
-        Optional<String> prefixForNamespace = this.schemaStore.getPrefixForNamespace(iri.getNamespace());
-        prefixForNamespace.ifPresent(s -> m.setNamespace(s, iri.getNamespace()));
+    private void handleNamespaceIRI(HtmlWriter writer, IRI iri, Set<String> namespaces) {
+        if (namespaces.add(iri.getNamespace())) {
+            this.schemaStore.getPrefixForNamespace(iri.getNamespace()).ifPresent(prefix -> writer.handleNamespace(prefix, iri.getNamespace()));
+        }
     }
 
-
-
-
-
     /** for navigational purposes, we convert the embedded objects (as long as there's only one fragment pointing to it) to an embedded object */
 
 
-    private void handleStatement(Statement st, RDFWriter writer, URI requestURI) {
+    private void handleStatement(Statement st, HtmlWriter writer, URI requestURI) {
 
         Resource subject = convertLocalIRI(st.getSubject(), requestURI);
         IRI predicate = convertLocalIRI(st.getPredicate(), requestURI);
@@ -213,15 +209,7 @@ public class TrigHtmlEncoder implements Encoder<Statement> {
     }
 
 
-    private RDFWriter getWriter(OutputStream out, URI requestURI) throws IOException {
-        MimeType mime = MimeType.valueOf(RDFFormat.TURTLESTAR.getDefaultMIMEType());
-        RDFWriter writer = RdfUtils.getWriterFactory(mime).orElseThrow().getWriter(out);
-        return new HtmlWriter(writer, out, requestURI);
-    }
-
-
-
-    private boolean handleNamespaces(RDFWriter writer, Statement statement, URI requestURI) {
+    private boolean handleNamespaces(HtmlWriter writer, Statement statement, URI requestURI) {
 
         if (NamespaceAware.class.isAssignableFrom(statement.getClass())) {
             Set<Namespace> namespaces = ((NamespaceAware) statement).getNamespaces();
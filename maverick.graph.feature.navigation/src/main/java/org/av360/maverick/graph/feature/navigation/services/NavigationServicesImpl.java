@@ -28,8 +28,10 @@ import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.function.Tuples;
 
 import java.net.URI;
+import java.time.Duration;
 import java.util.*;
 
 @Service
@@ -40,8 +42,15 @@ public class NavigationServicesImpl implements NavigationServices {
     int defaultLimit = 100;
     private EntityServices entityServices;
 
+    private final SessionHistory history;
+    private final NavigationViews views;
 
-    private Map<UUID, List<String>> history = new HashMap<>();
+    public NavigationServicesImpl(@Value("${application.features.modules.navigation.configuration.sessions.maximum:10000}") long maximumSessions,
+                                  @Value("${application.features.modules.navigation.configuration.sessions.expiry:30m}") Duration sessionExpiry,
+                                  NavigationViews views) {
+        this.history = new SessionHistory(maximumSessions, sessionExpiry, 50);
+        this.views = views;
+    }
 
     @Override
     @RequiresPrivilege(Authorities.READER_VALUE)
@@ -84,8 +93,7 @@ public class NavigationServicesImpl implements NavigationServices {
                             .add(HYDRA.VIEW, navView);
 
                     // we start a new session
-                    UUID sessionId = UUID.randomUUID();
-                    this.history.put(sessionId, new ArrayList<>());
+                    UUID sessionId = this.history.start();
                     builder.subject(Values.bnode()).add(Values.iri("urn:session"), sessionId);
 
                     builder.subject(navView)
@@ -190,10 +198,19 @@ public class NavigationServicesImpl implements NavigationServices {
         params.put("limit", limit.toString());
         params.put("offset", offset.toString());
 
-        return Mono.zip(
-                        this.entityServices.count(ctx),
-                        this.entityServices.list(limit, offset, ctx, query).collectList()
-                )
+        NavigationViews.Key key = new NavigationViews.Key(ctx.getEnvironment().getScope().label(), ctx.getEnvironment().getStage(), Objects.requireNonNullElse(query, ""), params);
+        return this.views.get(key, () -> this.renderList(params, limit, offset, ctx, query));
+    }
+
+    private Flux<AnnotatedStatement> renderList(Map<String, String> params, Integer limit, Integer offset, SessionContext ctx, String query) {
+        return this.entityServices.list(limit, offset, ctx, query).collectList()
+                .flatMap(list -> {
+                    // the total is only unknown if the page is full (or beyond the last one)
+                    if (list.size() < limit && (offset == 0 || !list.isEmpty())) {
+                        return Mono.just(Tuples.of((long) offset + list.size(), list));
+                    }
+                    return this.entityServices.count(ctx).map(count -> Tuples.of(count, list));
+                })
                 .map(tuple -> {
                     Long count = tuple.getT1();
                     List<RdfFragment> list = tuple.getT2();
@@ -296,6 +313,14 @@ public class NavigationServicesImpl implements NavigationServices {
     }
 
 
+    SessionHistory getHistory() {
+        return history;
+    }
+
+    NavigationViews getViews() {
+        return views;
+    }
+
     @Autowired
     public void setEntityServices(EntityServices entityServices) {
         this.entityServices = entityServices;
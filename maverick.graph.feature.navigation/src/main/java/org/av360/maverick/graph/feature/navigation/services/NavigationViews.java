@@ -0,0 +1,84 @@
+package org.av360.maverick.graph.feature.navigation.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.av360.maverick.graph.model.events.EntityEvent;
+import org.av360.maverick.graph.model.rdf.AnnotatedStatement;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * The rendered pages of the navigation, keyed by scope, stage, query and the request parameters (which include the
+ * page). All pages of a scope (in all its stages) are dropped as soon as an entity in the scope changes. The expiry covers changes which don't publish
+ * events (e.g. imports).
+ */
+@Component
+public class NavigationViews {
+
+    public record Key(String scope, String stage, String query, Map<String, String> parameters) {
+        public Key {
+            stage = Objects.requireNonNullElse(stage, "");
+            parameters = Map.copyOf(parameters);
+        }
+    }
+
+    private final Cache<Key, List<AnnotatedStatement>> views;
+
+    // incremented with every change of a scope, a page rendered while its scope was changed is not cached
+    private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    public NavigationViews(@Value("${application.features.modules.navigation.configuration.views.maximum:1000}") long maximumViews,
+                           @Value("${application.features.modules.navigation.configuration.views.expiry:5m}") Duration expiry) {
+        this.views = Caffeine.newBuilder()
+                .maximumSize(maximumViews)
+                .expireAfterWrite(expiry)
+                .recordStats()
+                .build();
+    }
+
+    public Flux<AnnotatedStatement> get(Key key, Supplier<Flux<AnnotatedStatement>> renderer) {
+        return Flux.defer(() -> {
+            List<AnnotatedStatement> cached = this.views.getIfPresent(key);
+            if (cached != null) return Flux.fromIterable(cached);
+
+            long generation = this.generation(key.scope()).get();
+            return renderer.get()
+                    .collectList()
+                    .doOnNext(statements -> {
+                        if (this.generation(key.scope()).get() == generation) {
+                            this.views.put(key, statements);
+                        }
+                    })
+                    .flatMapMany(Flux::fromIterable);
+        });
+    }
+
+    public void invalidate(String scope) {
+        this.generation(scope).incrementAndGet();
+        this.views.asMap().keySet().removeIf(key -> key.scope().equals(scope));
+    }
+
+    @EventListener
+    public void handleEntityChanged(EntityEvent event) {
+        this.invalidate(event.getEnvironment().getScope().label());
+    }
+
+    public CacheStats stats() {
+        return this.views.stats();
+    }
+
+    private AtomicLong generation(String scope) {
+        return this.generations.computeIfAbsent(scope, label -> new AtomicLong());
+    }
+}
@@ -0,0 +1,65 @@
+package org.av360.maverick.graph.feature.navigation.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * The paths visited within the navigation sessions. Sessions which haven't been used for a while are dropped, and both
+ * the number of sessions and the number of paths kept for a session are bounded.
+ */
+public class SessionHistory {
+
+    private final Cache<UUID, Deque<String>> sessions;
+    private final int maximumPaths;
+
+    public SessionHistory(long maximumSessions, Duration expiry, int maximumPaths) {
+        this.maximumPaths = maximumPaths;
+        this.sessions = Caffeine.newBuilder()
+                .maximumSize(maximumSessions)
+                .expireAfterAccess(expiry)
+                .build();
+    }
+
+    public UUID start() {
+        UUID sessionId = UUID.randomUUID();
+        this.sessions.put(sessionId, new ArrayDeque<>());
+        return sessionId;
+    }
+
+    public void add(UUID sessionId, String path) {
+        Deque<String> paths = this.sessions.getIfPresent(sessionId);
+        if (paths == null) return;
+
+        synchronized (paths) {
+            paths.addLast(path);
+            if (paths.size() > this.maximumPaths) paths.removeFirst();
+        }
+    }
+
+    /**
+     * @return the path visited before the current one, or empty if the session is unknown or expired
+     */
+    public Optional<String> previous(UUID sessionId) {
+        Deque<String> paths = this.sessions.getIfPresent(sessionId);
+        if (paths == null) return Optional.empty();
+
+        synchronized (paths) {
+            if (paths.size() < 2) return Optional.empty();
+            String current = paths.removeLast();
+            String previous = paths.peekLast();
+            paths.addLast(current);
+            return Optional.ofNullable(previous);
+        }
+    }
+
+    public long size() {
+        this.sessions.cleanUp();
+        return this.sessions.estimatedSize();
+    }
+}
@@ -0,0 +1,130 @@
+package org.av360.maverick.graph.feature.navigation.controller.encoder;
+
+import lombok.extern.slf4j.Slf4j;
+import org.av360.maverick.graph.api.config.ReactiveRequestUriContextHolder;
+import org.av360.maverick.graph.model.vocabulary.SDO;
+import org.av360.maverick.graph.store.SchemaStore;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.util.Statements;
+import org.eclipse.rdf4j.model.util.Values;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.util.MimeTypeUtils;
+import reactor.core.publisher.Flux;
+import reactor.util.context.Context;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tests the streamed navigation page. Rendering a model much larger than the heap is opt-in, it runs with the profile
+ * "rendering-benchmark" (with a heap of 256 MB). The number of statements can be changed with the system property
+ * "benchmark.statements".
+ */
+@Slf4j(topic = "graph.test.perf")
+class StreamingHtmlRenderingTest {
+
+    private static final int STATEMENTS = Integer.getInteger("benchmark.statements", 3000000);
+    private static final URI REQUEST = URI.create("http://localhost:8080/nav/entities");
+
+    private TrigHtmlEncoder encoder;
+
+    @BeforeEach
+    void createEncoder() {
+        SchemaStore schemaStore = Mockito.mock(SchemaStore.class);
+        Mockito.when(schemaStore.getPrefixForNamespace(ArgumentMatchers.anyString())).thenReturn(Optional.empty());
+        Mockito.when(schemaStore.getPrefixForNamespace(SDO.NAMESPACE)).thenReturn(Optional.of(SDO.PREFIX));
+        this.encoder = new TrigHtmlEncoder(schemaStore);
+    }
+
+    @Test
+    void renderLargeModel() {
+        Assumptions.assumeTrue(Boolean.getBoolean("benchmark.rendering"), "Rendering benchmark is not enabled");
+
+        Flux<Statement> statements = Flux.range(0, STATEMENTS).map(i -> i % 10 == 0
+                ? Statements.statement(entity(i / 10), RDF.TYPE, SDO.CREATIVE_WORK, null)
+                : Statements.statement(entity(i / 10), SDO.NAME, Values.literal("Name of the entity with the number " + i), null));
+
+        long start = System.nanoTime();
+        AtomicLong firstByte = new AtomicLong();
+        AtomicLong bytes = new AtomicLong();
+        AtomicLong largestChunk = new AtomicLong();
+
+        this.render(statements)
+                .doOnNext(buffer -> {
+                    firstByte.compareAndSet(0, System.nanoTime() - start);
+                    bytes.addAndGet(buffer.readableByteCount());
+                    largestChunk.accumulateAndGet(buffer.readableByteCount(), Math::max);
+                    DataBufferUtils.release(buffer);
+                })
+                .blockLast();
+        long total = System.nanoTime() - start;
+
+        log.info("Rendered {} statements ({} MB) with a heap of {} MB: first byte after {} ms, last byte after {} ms, largest chunk {} KB",
+                STATEMENTS, bytes.get() / 1024 / 1024, Runtime.getRuntime().maxMemory() / 1024 / 1024,
+                Duration.ofNanos(firstByte.get()).toMillis(), Duration.ofNanos(total).toMillis(), largestChunk.get() / 1024);
+
+        Assertions.assertTrue(firstByte.get() < total / 10);
+        Assertions.assertTrue(largestChunk.get() < 1024 * 1024);
+    }
+
+    @Test
+    void writeHeaderBeforeStatements() {
+        // the statements never arrive, the header is written anyway
+        String header = this.render(Flux.never()).map(this::read).blockFirst(Duration.ofSeconds(5));
+        Assertions.assertNotNull(header);
+        Assertions.assertTrue(header.startsWith("<!doctype html>"));
+        Assertions.assertTrue(header.contains("id=\"navigation\""));
+        Assertions.assertTrue(header.trim().endsWith("<script type=\"text/turtle\" id=\"rdf\">"));
+    }
+
+    @Test
+    void escapeValues() {
+        IRI subject = Values.iri("http://localhost:8080/api/entities/e1?a=1&b=2");
+        Flux<Statement> statements = Flux.just(
+                Statements.statement(subject, SDO.NAME, Values.literal("</script><script>alert(1)</script>"), null),
+                Statements.statement(subject, SDO.DESCRIPTION, Values.literal("Tom & \"Jerry\"", "en"), null)
+        );
+
+        String html = this.render(statements).map(this::read).reduce(String::concat).block();
+        Assertions.assertNotNull(html);
+        Assertions.assertTrue(html.trim().endsWith("</html>"));
+        Assertions.assertTrue(html.contains("<script src=\"/script.js\"></script>"));
+
+        // the listing is the content of the script element, none of the values may close it
+        int start = html.indexOf("<script type=\"text/turtle\" id=\"rdf\">");
+        String turtle = html.substring(start, html.indexOf("</script>", start));
+        Assertions.assertTrue(turtle.contains("@prefix sdo: <https://schema.org/> ."));
+        Assertions.assertTrue(turtle.contains("<http://localhost:8080/api/entities/e1?a=1&b=2> sdo:name \"\\u003C/script>\\u003Cscript>alert(1)\\u003C/script>\" ;"));
+        Assertions.assertTrue(turtle.contains("sdo:description \"Tom & \\\"Jerry\\\"\"@en ."));
+    }
+
+    private Flux<DataBuffer> render(Flux<Statement> statements) {
+        return this.encoder.encode(statements, DefaultDataBufferFactory.sharedInstance, ResolvableType.forClass(Statement.class), MimeTypeUtils.TEXT_HTML, Map.of())
+                .contextWrite(Context.of(ReactiveRequestUriContextHolder.CONTEXT_URI_KEY, REQUEST));
+    }
+
+    private String read(DataBuffer buffer) {
+        String text = buffer.toString(StandardCharsets.UTF_8);
+        DataBufferUtils.release(buffer);
+        return text;
+    }
+
+    private static IRI entity(int i) {
+        return Values.iri("http://localhost:8080/api/entities/e" + i);
+    }
+}
@@ -0,0 +1,131 @@
+package org.av360.maverick.graph.feature.navigation.services;
+
+import org.av360.maverick.graph.api.config.ReactiveRequestUriContextHolder;
+import org.av360.maverick.graph.model.context.SessionContext;
+import org.av360.maverick.graph.model.events.EntityCreatedEvent;
+import org.av360.maverick.graph.model.rdf.AnnotatedStatement;
+import org.av360.maverick.graph.model.vocabulary.SDO;
+import org.av360.maverick.graph.services.EntityServices;
+import org.av360.maverick.graph.store.rdf.fragments.RdfFragment;
+import org.av360.maverick.graph.store.rdf.fragments.RdfTransaction;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.util.ModelBuilder;
+import org.eclipse.rdf4j.model.util.Values;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Tests for the session history (which has to stay bounded with many distinct sessions) and the cache of the
+ * navigation pages.
+ */
+class NavigationCacheTest {
+
+    private static final int SESSIONS = 10000;
+    private static final int MAXIMUM_SESSIONS = 1000;
+
+    private EntityServices entityServices;
+    private NavigationServicesImpl navigationServices;
+
+    @BeforeEach
+    void createServices() {
+        this.entityServices = Mockito.mock(EntityServices.class);
+        this.navigationServices = new NavigationServicesImpl(MAXIMUM_SESSIONS, Duration.ofMinutes(30), new NavigationViews(100, Duration.ofMinutes(5)));
+        this.navigationServices.setEntityServices(this.entityServices);
+    }
+
+    @Test
+    void sessionHistoryStaysBounded() {
+        // sessions are started with the entry point of the navigation
+        List<AnnotatedStatement> start = this.navigationServices.start(new SessionContext().setSystemAuthentication())
+                .contextWrite(Context.of(ReactiveRequestUriContextHolder.CONTEXT_URI_KEY, URI.create("http://localhost/nav")))
+                .collectList().block();
+        Assertions.assertNotNull(start);
+        Assertions.assertTrue(start.stream().anyMatch(statement -> statement.getPredicate().equals(Values.iri("urn:session"))));
+
+        SessionHistory history = this.navigationServices.getHistory();
+        for (int i = 1; i <= SESSIONS; i++) {
+            UUID session = history.start();
+            history.add(session, "/nav/entities");
+            history.add(session, "/nav/entities?offset=100");
+        }
+        Assertions.assertTrue(history.size() <= MAXIMUM_SESSIONS);
+    }
+
+    @Test
+    void sessionHistoryKeepsPreviousPath() {
+        SessionHistory history = new SessionHistory(10, Duration.ofMinutes(1), 2);
+        UUID session = history.start();
+        Assertions.assertTrue(history.previous(session).isEmpty());
+
+        history.add(session, "/nav/entities");
+        history.add(session, "/nav/entities?offset=100");
+        history.add(session, "/nav/entities?offset=200");
+        Assertions.assertEquals(Optional.of("/nav/entities?offset=100"), history.previous(session));
+        Assertions.assertTrue(history.previous(UUID.randomUUID()).isEmpty());
+    }
+
+    @Test
+    void repeatedPagesServedFromCache() {
+        List<RdfFragment> fragments = IntStream.range(0, 3).mapToObj(this::fragment).toList();
+        Mockito.when(entityServices.list(ArgumentMatchers.anyInt(), ArgumentMatchers.anyInt(), ArgumentMatchers.any(), ArgumentMatchers.any()))
+                .thenAnswer(invocation -> Flux.fromIterable(fragments));
+        Mockito.when(entityServices.count(ArgumentMatchers.any())).thenReturn(Mono.just(3L));
+
+        SessionContext ctx = new SessionContext().setSystemAuthentication();
+        List<AnnotatedStatement> first = this.list(ctx, 10);
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertEquals(first.size(), this.list(ctx, 10).size());
+        }
+        Mockito.verify(entityServices, Mockito.times(1)).list(ArgumentMatchers.anyInt(), ArgumentMatchers.anyInt(), ArgumentMatchers.any(), ArgumentMatchers.any());
+        Assertions.assertEquals(100, this.navigationServices.getViews().stats().hitCount());
+
+        // the total of a page which isn't full is known without counting
+        Mockito.verify(entityServices, Mockito.never()).count(ArgumentMatchers.any());
+        this.list(ctx, 2);
+        Mockito.verify(entityServices, Mockito.times(1)).count(ArgumentMatchers.any());
+
+        // changes in another scope keep the pages
+        SessionContext other = new SessionContext().setSystemAuthentication();
+        other.getEnvironment().setScope("other");
+        this.navigationServices.getViews().handleEntityChanged(new EntityCreatedEvent(new RdfTransaction(), other.getEnvironment()));
+        this.list(ctx, 10);
+        Mockito.verify(entityServices, Mockito.times(2)).list(ArgumentMatchers.anyInt(), ArgumentMatchers.anyInt(), ArgumentMatchers.any(), ArgumentMatchers.any());
+
+        // pages of another stage of the same scope are cached separately
+        SessionContext staged = new SessionContext().setSystemAuthentication();
+        staged.getEnvironment().setStage("test");
+        this.list(staged, 10);
+        Mockito.verify(entityServices, Mockito.times(3)).list(ArgumentMatchers.anyInt(), ArgumentMatchers.anyInt(), ArgumentMatchers.any(), ArgumentMatchers.any());
+
+        this.navigationServices.getViews().handleEntityChanged(new EntityCreatedEvent(new RdfTransaction(), ctx.getEnvironment()));
+        this.list(ctx, 10);
+        this.list(staged, 10);
+        Mockito.verify(entityServices, Mockito.times(5)).list(ArgumentMatchers.anyInt(), ArgumentMatchers.anyInt(), ArgumentMatchers.any(), ArgumentMatchers.any());
+    }
+
+    private List<AnnotatedStatement> list(SessionContext ctx, int limit) {
+        Map<String, String> params = new HashMap<>(Map.of("limit", String.valueOf(limit)));
+        return this.navigationServices.list(params, ctx, null).collectList().block();
+    }
+
+    private RdfFragment fragment(int i) {
+        IRI subject = Values.iri("urn:pwid:meg:e:entity" + i);
+        return new RdfFragment(subject, new ModelBuilder()
+                .subject(subject)
+                .add(RDF.TYPE, SDO.CREATIVE_WORK)
+                .add(SDO.NAME, "Entity " + i)
+                .build());
+    }
+}
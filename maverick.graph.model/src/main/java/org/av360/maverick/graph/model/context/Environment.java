@@ -23,7 +23,11 @@ public class Environment implements  Serializable{
         LABEL,
         KEY,
         FLAG_PUBLIC,
-        FLAG_PERSISTENT
+        FLAG_PERSISTENT,
+        /**
+         * Share of the store threads for this scope, relative to the other scopes (1 if not set)
+         */
+        SCHEDULING_WEIGHT
     }
 
 
@@ -35,8 +39,11 @@ public class Environment implements  Serializable{
     private Map<RepositoryConfigurationKey, Serializable>  configuration;
     private Scope scope;
 
+    private final Map<String, String> expectedVersions;
+
     public Environment(SessionContext parent) {
         this.configuration = new HashMap<>();
+        this.expectedVersions = new HashMap<>();
         this.parent = parent;
     }
 
@@ -100,6 +107,39 @@ public class Environment implements  Serializable{
 
 
 
+    /**
+     * Changes of the entity within this request are only committed if the entity is still in the given version (e.g.
+     * from the If-Match header of the request).
+     *
+     * @param entityKey the key (local name) of the entity
+     * @param version   the expected version
+     * @return this environment
+     */
+    public Environment withExpectedVersion(String entityKey, String version) {
+        this.expectedVersions.put(entityKey, version);
+        return this;
+    }
+
+    public Optional<String> getExpectedVersion(String entityKey) {
+        return Optional.ofNullable(this.expectedVersions.get(entityKey));
+    }
+
+
+    /**
+     * Copies scope, stage, repository type and the repository configuration from the given environment.
+     *
+     * @param source the environment to copy from
+     * @return this environment
+     */
+    public Environment inherit(Environment source) {
+        this.scope = source.scope;
+        this.stage = source.stage;
+        this.repositoryType = source.repositoryType;
+        this.configuration.putAll(source.configuration);
+        return this;
+    }
+
+
     public boolean isAuthorized() {
         return Objects.nonNull(this.parent) && Objects.nonNull(this.parent.getDecision()) && this.parent.getDecision().isGranted();
     }
@@ -1,12 +1,15 @@
 package org.av360.maverick.graph.model.context;
 
+import org.av360.maverick.graph.model.enums.RepositoryType;
 import org.av360.maverick.graph.model.security.Authorities;
 import org.av360.maverick.graph.model.security.SystemAuthentication;
 import org.springframework.security.authorization.AuthorizationDecision;
 import org.springframework.security.core.Authentication;
 
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 
 public class SessionContext {
@@ -18,11 +21,41 @@ public class SessionContext {
     Scope scope;
     private AuthorizationDecision decision;
 
+    // decisions of earlier authorizations, only valid for the authentication they have been made for
+    private final Map<String, AuthorizationDecision> grantedPrivileges = new ConcurrentHashMap<>(4);
+    private Authentication authorizedAuthentication;
+
 
     public SessionContext() {
     }
 
 
+    /**
+     * Creates a new system context for the same scope as the given environment. Event listeners should use it instead of
+     * the environment of the event, since the aspects modify the environment of the context they are called with.
+     *
+     * @param environment the environment to inherit from
+     * @return a new session context with system authentication
+     */
+    public static SessionContext systemContextFor(Environment environment) {
+        SessionContext context = new SessionContext().setSystemAuthentication();
+        context.getEnvironment().inherit(environment);
+        return context;
+    }
+
+    /**
+     * Creates an authorized copy of the given environment for asynchronous listeners. The environment of an event is
+     * shared with its publisher, which might switch the repository type while the listener is still running.
+     *
+     * @param environment    the environment to copy
+     * @param repositoryType the repository type of the copy
+     * @return the environment of a new, authorized system context
+     */
+    public static Environment systemEnvironmentFor(Environment environment, RepositoryType repositoryType) {
+        return systemContextFor(environment).setAuthorized().getEnvironment().setRepositoryType(repositoryType);
+    }
+
+
     public Optional<RequestDetails> getRequestDetails() {
         return Optional.ofNullable(this.requestDetails);
     }
@@ -106,6 +139,29 @@ public class SessionContext {
         return decision;
     }
 
+    /**
+     * Returns the decision of an earlier authorization of this context for the given privilege. Decisions are dropped
+     * as soon as the authentication of the context is replaced or no longer authenticated.
+     *
+     * @param privilege the required privilege
+     * @return the granted decision, or empty if the privilege has to be checked (again)
+     */
+    public Optional<AuthorizationDecision> getGrantedDecision(String privilege) {
+        if (Objects.isNull(this.authentication) || this.authentication != this.authorizedAuthentication || !this.authentication.isAuthenticated()) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(this.grantedPrivileges.get(privilege));
+    }
+
+    public SessionContext rememberGrantedDecision(String privilege, AuthorizationDecision decision) {
+        if (this.authentication != this.authorizedAuthentication) {
+            this.grantedPrivileges.clear();
+            this.authorizedAuthentication = this.authentication;
+        }
+        this.grantedPrivileges.put(privilege, decision);
+        return this;
+    }
+
 
     public SessionContext withRequestDetails(RequestDetails requestDetails) {
         this.requestDetails = requestDetails;
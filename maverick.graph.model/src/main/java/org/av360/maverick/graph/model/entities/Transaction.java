@@ -12,6 +12,8 @@ import reactor.core.publisher.Mono;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 public interface Transaction extends Triples {
 
@@ -103,6 +105,30 @@ public interface Transaction extends Triples {
 
     }
 
+    /**
+     * The transaction is only committed if the entity is still in the given version (e.g. the version the changes
+     * are based on). Stores which keep versions reject the transaction otherwise, and count the entity as changed by
+     * the transaction.
+     *
+     * @param entity  the entity
+     * @param version the expected version
+     * @return this transaction
+     */
+    Transaction expects(Resource entity, String version);
+
+    Map<Resource, String> getExpectedVersions();
+
+    /**
+     * Called by the store with the new versions of the entities changed by this transaction.
+     */
+    void setVersion(Resource entity, String version);
+
+    /**
+     * @return the version of the entity after this transaction has been committed, or empty if the entity was not
+     * changed or the store doesn't keep versions
+     */
+    Optional<String> getVersion(Resource entity);
+
 
 
 
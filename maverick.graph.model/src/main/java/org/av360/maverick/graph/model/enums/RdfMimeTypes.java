@@ -14,6 +14,7 @@ public class RdfMimeTypes  {
     public static final MediaType TURTLESTAR;
     public static final MediaType JSONLD;
     public static final MediaType BINARY;
+    public static final MediaType RDFPATCH;
     public static final String TURTLE_VALUE = "text/turtle";
     public static final String TURTLESTAR_VALUE = "text/x-turtlestar";
     public static final String RDFXML_VALUE = "application/rdf+xml";
@@ -23,6 +24,7 @@ public class RdfMimeTypes  {
     public static final String BINARY_VALUE = "application/x-binary-rdf";
     public static final String NQUADS_VALUE = "application/n-quads";
     public static final String N3_VALUE = "text/n3";
+    public static final String RDFPATCH_VALUE = "application/rdf-patch";
 
     static {
         RDFJSON = from(RDFFormat.RDFJSON);
@@ -34,6 +36,8 @@ public class RdfMimeTypes  {
         BINARY = from(RDFFormat.BINARY);
         NQUADS = from(RDFFormat.NQUADS);
         N3 = from(RDFFormat.N3);
+        // not supported by rdf4j, see https://afs.github.io/rdf-patch/
+        RDFPATCH = MediaType.parseMediaType(RDFPATCH_VALUE);
     }
 
     private static MediaType from(RDFFormat rdfFormat) {
@@ -7,7 +7,8 @@ public enum RepositoryType {
     SCHEMA,
     TRANSACTIONS,
     APPLICATION,
-    CLASSIFIER, UNSET;
+    CLASSIFIER,
+    VALUES, UNSET;
 
 
     @Override
@@ -0,0 +1,34 @@
+package org.av360.maverick.graph.model.errors.requests;
+
+import org.av360.maverick.graph.model.errors.InvalidRequest;
+import org.springframework.http.HttpStatus;
+
+/**
+ * The entity was changed since the client has read it (the version in the If-Match header is outdated), or is being
+ * changed by a concurrent request.
+ */
+public class EntityVersionMismatch extends InvalidRequest {
+
+    private final String key;
+    private final String version;
+
+    public EntityVersionMismatch(String entityKey, String version) {
+        this.key = entityKey;
+        this.version = version;
+    }
+
+    @Override
+    public String getMessage() {
+        return "Precondition failed: Entity with id '" + key + "' is not in version '" + version + "' (anymore).";
+    }
+
+    @Override
+    public HttpStatus getStatusCode() {
+        return HttpStatus.PRECONDITION_FAILED;
+    }
+
+    @Override
+    public String getReasonPhrase() {
+        return this.getStatusCode().getReasonPhrase();
+    }
+}
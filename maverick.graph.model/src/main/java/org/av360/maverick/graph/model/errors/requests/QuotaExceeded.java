@@ -0,0 +1,40 @@
+package org.av360.maverick.graph.model.errors.requests;
+
+import org.av360.maverick.graph.model.errors.InvalidRequest;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+
+/**
+ * A quota of the application (e.g. the number of requests or written statements per second) is exhausted. The request
+ * can be repeated after the given duration.
+ */
+public class QuotaExceeded extends InvalidRequest {
+
+    private final String scope;
+    private final String quota;
+    private final Duration retryAfter;
+
+    public QuotaExceeded(String scope, String quota, Duration retryAfter) {
+        this.scope = scope;
+        this.quota = quota;
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * @return the duration to wait before the request is repeated, in full seconds (at least one)
+     */
+    public Duration getRetryAfter() {
+        return Duration.ofSeconds(Math.max(1, (retryAfter.toMillis() + 999) / 1000));
+    }
+
+    @Override
+    public String getMessage() {
+        return "Quota '%s' of application '%s' exceeded, retry after %d seconds.".formatted(quota, scope, this.getRetryAfter().toSeconds());
+    }
+
+    @Override
+    public HttpStatus getStatusCode() {
+        return HttpStatus.TOO_MANY_REQUESTS;
+    }
+}
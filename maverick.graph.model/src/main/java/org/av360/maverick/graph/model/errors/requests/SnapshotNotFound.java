@@ -0,0 +1,22 @@
+package org.av360.maverick.graph.model.errors.requests;
+
+import org.av360.maverick.graph.model.errors.InvalidRequest;
+import org.springframework.http.HttpStatus;
+
+public class SnapshotNotFound extends InvalidRequest {
+    private final String identifier;
+
+    public SnapshotNotFound(String identifier) {
+        this.identifier = identifier;
+    }
+
+    @Override
+    public String getMessage() {
+        return "Snapshot with id '" + identifier + "' does not exist.";
+    }
+
+    @Override
+    public HttpStatus getStatusCode() {
+        return HttpStatus.NOT_FOUND;
+    }
+}
@@ -0,0 +1,24 @@
+package org.av360.maverick.graph.model.errors.requests;
+
+import org.av360.maverick.graph.model.errors.InvalidRequest;
+import org.springframework.http.HttpStatus;
+
+public class TransactionNotFound extends InvalidRequest {
+    private final String identifier;
+
+    public TransactionNotFound(String key) {
+        this.identifier = key;
+    }
+
+    @Override
+    public String getMessage() {
+        return "Transaction with id '" + identifier + "' does not exist.";
+    }
+
+    @Override
+    public HttpStatus getStatusCode() {
+        return HttpStatus.NOT_FOUND;
+    }
+
+
+}
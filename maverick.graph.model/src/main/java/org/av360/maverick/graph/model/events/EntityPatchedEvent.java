@@ -0,0 +1,21 @@
+package org.av360.maverick.graph.model.events;
+
+import org.av360.maverick.graph.model.context.Environment;
+import org.av360.maverick.graph.model.entities.Transaction;
+
+public class EntityPatchedEvent extends EntityUpdatedEvent {
+
+    public EntityPatchedEvent(Transaction trx, Environment environment) {
+        super(trx, environment);
+    }
+
+    @Override
+    public String getType() {
+        return "maverick.graph.entity.patched";
+    }
+
+    @Override
+    public String getPath() {
+        return "api/entities";
+    }
+}
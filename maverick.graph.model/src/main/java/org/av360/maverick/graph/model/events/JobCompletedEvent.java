@@ -0,0 +1,17 @@
+package org.av360.maverick.graph.model.events;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * A job requested with a {@link JobScheduledEvent} has run successfully (failed jobs are not announced).
+ */
+public class JobCompletedEvent extends ApplicationEvent {
+
+    public JobCompletedEvent(JobScheduledEvent request) {
+        super(request);
+    }
+
+    public JobScheduledEvent getRequest() {
+        return (JobScheduledEvent) super.getSource();
+    }
+}
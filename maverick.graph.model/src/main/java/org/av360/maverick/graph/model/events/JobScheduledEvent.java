@@ -6,14 +6,25 @@ import org.springframework.context.ApplicationEvent;
 
 import javax.annotation.Nonnull;
 import java.util.Objects;
+import java.util.OptionalLong;
 
 public class JobScheduledEvent extends ApplicationEvent {
     private final SessionContext ctx;
+    private final long version;
 
     public JobScheduledEvent(@Nonnull String name, SessionContext ctx) {
+        this(name, ctx, -1);
+    }
+
+    /**
+     * @param version of the scope the job is requested for (e.g. the number of changes), which is passed on with the
+     *                {@link JobCompletedEvent} to keep track of the processed versions
+     */
+    public JobScheduledEvent(@Nonnull String name, SessionContext ctx, long version) {
         super(name);
 
         this.ctx = ctx;
+        this.version = version;
 
         Validate.notNull(ctx);
         Validate.notNull(ctx.getEnvironment());
@@ -37,6 +48,10 @@ public class JobScheduledEvent extends ApplicationEvent {
         return ctx;
     }
 
+    public OptionalLong getVersion() {
+        return this.version >= 0 ? OptionalLong.of(this.version) : OptionalLong.empty();
+    }
+
 
     @Override
     public String toString() {
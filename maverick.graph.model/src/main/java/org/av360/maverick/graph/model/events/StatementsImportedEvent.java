@@ -0,0 +1,19 @@
+package org.av360.maverick.graph.model.events;
+
+import org.av360.maverick.graph.model.context.Environment;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Statements have been imported into a repository. Imports bypass the entity services, no entity events are published
+ * for the imported statements.
+ */
+public class StatementsImportedEvent extends ApplicationEvent {
+
+    public StatementsImportedEvent(Environment environment) {
+        super(environment);
+    }
+
+    public Environment getEnvironment() {
+        return (Environment) super.getSource();
+    }
+}
@@ -1,57 +1,51 @@
 package org.av360.maverick.graph.model.identifier;
 
-import java.math.BigInteger;
-import java.util.Stack;
 import java.util.zip.CRC32C;
-import java.util.zip.Checksum;
 
+/**
+ * Generates reproducible keys from the CRC32C checksum of a value, encoded with an alphabet of 36 characters.
+ * <p>
+ * The generator is stateless and can be called concurrently: the checksum is computed with a new instance for every
+ * call (which is cheap, it only holds the current crc), and the encoding is written directly into a char array.
+ */
 public class ChecksumGenerator {
 
-    private static final Checksum checksum = new CRC32C();
     private static final char[] alphabet = "abcdefghijklmnopqrstuvwyz0123456789_".toCharArray();
 
+    // 2^32 - 1 has 7 digits in base 36
+    private static final int MAX_DIGITS = 7;
+
 
     public static String generateChecksum(String val, int length, char paddingChar) {
-        checksum.reset();
+        CRC32C checksum = new CRC32C();
+        // only the first val.length() bytes are hashed, which is kept to generate the same identifiers as before
         checksum.update(val.getBytes(), 0, val.length());
 
-        return dec2Base(BigInteger.valueOf(checksum.getValue()), length, paddingChar);
-
+        return dec2Base(checksum.getValue(), length, paddingChar);
     }
 
 
-    private static String dec2Base(BigInteger number, int length, char paddingChar) {
-        Stack<Integer> stack = new Stack<>();
-
+    /**
+     * Encodes the unsigned 32-bit number with the most significant digit first. Shorter keys are padded at the end, longer
+     * keys are truncated to length - 1 (as the former implementation did).
+     */
+    static String dec2Base(long number, int length, char paddingChar) {
+        char[] digits = new char[MAX_DIGITS];
+        int start = MAX_DIGITS;
         do {
-            BigInteger[] divisionResultAndReminder = number.divideAndRemainder( BigInteger.valueOf(alphabet.length) );
-            stack.push(divisionResultAndReminder[1].intValue());
-            number = divisionResultAndReminder[0];
-        } while(!number.equals(BigInteger.ZERO));
-
-        StringBuilder result = new StringBuilder();
-        while(! stack.empty()) {
-            result.append(alphabet[stack.pop()]);
-        }
-        String ser = result.toString();
-        if(ser.length() > length) return ser.substring(0, length-1);
-        if(ser.length() < length) return normalize(ser, length, paddingChar);
-        else return ser;
+            digits[--start] = alphabet[(int) (number % alphabet.length)];
+            number /= alphabet.length;
+        } while (number != 0);
 
+        int count = MAX_DIGITS - start;
+        if (count > length) return new String(digits, start, length - 1);
 
-    }
-
-    private static String normalize(String str, int length, char paddingChar) {
-        if (str.length() >= length) {
-            return str;
-        }
-
-        StringBuilder sb = new StringBuilder(str);
-        while (sb.length() < length) {
-            sb.append(paddingChar);
+        char[] result = new char[length];
+        System.arraycopy(digits, start, result, 0, count);
+        for (int i = count; i < length; i++) {
+            result[i] = paddingChar;
         }
-
-        return sb.toString();
+        return new String(result);
     }
 
 }
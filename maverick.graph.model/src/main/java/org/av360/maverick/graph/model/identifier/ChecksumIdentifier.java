@@ -8,8 +8,6 @@ import java.io.Serializable;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.stream.Collectors;
-import java.util.zip.CRC32C;
-import java.util.zip.Checksum;
 
 /**
  * The generated entity identifier needs to resolve, it should be in the form
@@ -22,9 +20,6 @@ import java.util.zip.Checksum;
  */
 @Slf4j
 public class ChecksumIdentifier extends LocalIRI implements LocalIdentifier  {
-    private static final char[][] range = {{'a', 'z'}, {'0', '9'}};
-
-    private static final Checksum checksum = new CRC32C();
 
 
     /**
@@ -1,13 +1,13 @@
 package org.av360.maverick.graph.model.identifier;
 
 import com.google.common.hash.Hashing;
-import org.apache.commons.text.RandomStringGenerator;
 import org.av360.maverick.graph.model.rdf.LocalIRI;
 import org.eclipse.rdf4j.model.IRI;
 
 import java.nio.charset.StandardCharsets;
 import java.security.SecureRandom;
 import java.util.Base64;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * The generated entity identifier needs to resolve, it should be in the form
@@ -20,15 +20,11 @@ import java.util.Base64;
  */
 public class RandomIdentifier extends LocalIRI implements LocalIdentifier {
     private static final SecureRandom secureRandom;
-    private static final RandomStringGenerator randomStringGenerator;
-    private static final char[][] range = {{'a', 'z'}, {'0', '9'}};
+    private static final char[] alphabet = "abcdefghijklmnopqrstuvwxyz0123456789".toCharArray();
 
 
     static {
         secureRandom = new SecureRandom();
-        randomStringGenerator = new RandomStringGenerator.Builder()
-                .withinRange(range)
-                .build();
     }
 
     public RandomIdentifier(String namespace) {
@@ -55,15 +51,24 @@ public class RandomIdentifier extends LocalIRI implements LocalIdentifier {
         return Base64.getUrlEncoder().withoutPadding().encodeToString(token); //base64 encoding
     }
 
-    public synchronized static String generateRandomKey() {
-        return randomStringGenerator.generate(LENGTH);
+    public static String generateRandomKey() {
+        return generateRandomKey(LENGTH);
     }
 
-    public synchronized static String generateRandomKey(int length) {
-        return randomStringGenerator.generate(length);
+    /**
+     * Generates a random key of lowercase letters and digits. Uses the random generator of the current thread, keys can
+     * be generated concurrently without contention.
+     */
+    public static String generateRandomKey(int length) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        char[] key = new char[length];
+        for (int i = 0; i < length; i++) {
+            key[i] = alphabet[random.nextInt(alphabet.length)];
+        }
+        return new String(key);
     }
 
-    public synchronized static String generateDerivedIdentifier(String localName) {
+    public static String generateDerivedIdentifier(String localName) {
         String s = Hashing.fingerprint2011().hashString(localName, StandardCharsets.UTF_8).toString();
 
         if (s.length() < LENGTH) s = s.concat(s);
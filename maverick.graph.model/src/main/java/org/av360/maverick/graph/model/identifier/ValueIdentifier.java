@@ -0,0 +1,74 @@
+package org.av360.maverick.graph.model.identifier;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Value;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Identifier of a single value of a property, which is used to address one of multiple values of an entity. The
+ * identifier is the SHA-256 hash of the property and the value (its label, ignoring datatype and language), and encoded
+ * as lower case hex string.
+ * <p>
+ * The hash is kept as four longs, it is only encoded when requested. Instances can therefore be held in large numbers
+ * (e.g. in an index of all values).
+ */
+public record ValueIdentifier(long h0, long h1, long h2, long h3) {
+
+    private static final HexFormat HEX = HexFormat.of();
+    private static final int LENGTH = 64;
+
+    // creating a digest is not for free, every thread keeps one
+    private static final ThreadLocal<MessageDigest> DIGEST = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported by this runtime", e);
+        }
+    });
+
+    public static ValueIdentifier of(IRI predicate, Value value) {
+        return of(predicate.stringValue(), value.stringValue());
+    }
+
+    public static ValueIdentifier of(String predicate, String value) {
+        MessageDigest digest = DIGEST.get();
+        digest.reset();
+        digest.update(predicate.getBytes(StandardCharsets.UTF_8));
+        byte[] hash = digest.digest(value.getBytes(StandardCharsets.UTF_8));
+        return new ValueIdentifier(toLong(hash, 0), toLong(hash, 8), toLong(hash, 16), toLong(hash, 24));
+    }
+
+    /**
+     * @return the identifier encoded in the hex string (in upper or lower case), or empty if it isn't a valid identifier
+     */
+    public static Optional<ValueIdentifier> parse(String identifier) {
+        if (identifier == null || identifier.length() != LENGTH) return Optional.empty();
+        try {
+            return Optional.of(new ValueIdentifier(
+                    HexFormat.fromHexDigitsToLong(identifier, 0, 16),
+                    HexFormat.fromHexDigitsToLong(identifier, 16, 32),
+                    HexFormat.fromHexDigitsToLong(identifier, 32, 48),
+                    HexFormat.fromHexDigitsToLong(identifier, 48, 64)));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return HEX.toHexDigits(this.h0) + HEX.toHexDigits(this.h1) + HEX.toHexDigits(this.h2) + HEX.toHexDigits(this.h3);
+    }
+
+    private static long toLong(byte[] bytes, int offset) {
+        long result = 0;
+        for (int i = offset; i < offset + 8; i++) {
+            result = (result << 8) | (bytes[i] & 0xff);
+        }
+        return result;
+    }
+}
@@ -25,4 +25,16 @@ public class DC extends org.eclipse.rdf4j.model.vocabulary.DC {
         );
     }
 
+    public static Set<IRI> getLabelProperties() {
+        return Set.of(
+                DC.TITLE
+        );
+    }
+
+    public static Set<IRI> getDescriptionProperties() {
+        return Set.of(
+                DC.DESCRIPTION,
+                DC.SUBJECT
+        );
+    }
 }
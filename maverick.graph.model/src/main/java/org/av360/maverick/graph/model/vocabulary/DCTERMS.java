@@ -24,4 +24,19 @@ public class DCTERMS extends org.eclipse.rdf4j.model.vocabulary.DCTERMS implemen
                 DCTERMS.TITLE
         );
     }
+
+    public static Set<IRI> getLabelProperties() {
+        return Set.of(
+                DCTERMS.TITLE,
+                DCTERMS.ALTERNATIVE
+        );
+    }
+
+    public static Set<IRI> getDescriptionProperties() {
+        return Set.of(
+                DCTERMS.DESCRIPTION,
+                DCTERMS.ABSTRACT,
+                DCTERMS.SUBJECT
+        );
+    }
 }
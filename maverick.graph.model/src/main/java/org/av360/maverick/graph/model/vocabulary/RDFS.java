@@ -19,4 +19,16 @@ public class RDFS extends org.eclipse.rdf4j.model.vocabulary.RDFS {
                 RDFS.LABEL
         );
     }
+
+    public static Set<IRI> getLabelProperties() {
+        return Set.of(
+                RDFS.LABEL
+        );
+    }
+
+    public static Set<IRI> getDescriptionProperties() {
+        return Set.of(
+                RDFS.COMMENT
+        );
+    }
 }
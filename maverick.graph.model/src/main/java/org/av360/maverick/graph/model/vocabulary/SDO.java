@@ -26,12 +26,16 @@ public class SDO {
     public static final IRI TEACHES = vf.createIRI(NAMESPACE, "teaches");
 
     public static final IRI KEYWORDS = vf.createIRI(NAMESPACE, "keywords");
+    public static final IRI DESCRIPTION = vf.createIRI(NAMESPACE, "description");
+    public static final IRI HEADLINE = vf.createIRI(NAMESPACE, "headline");
+    public static final IRI ALTERNATE_NAME = vf.createIRI(NAMESPACE, "alternateName");
     public static final IRI AUTHOR = vf.createIRI(NAMESPACE, "author");
     public static final IRI VALUE = vf.createIRI(NAMESPACE, "value");
     public static final IRI DATASET = vf.createIRI(NAMESPACE, "Dataset");;
     public static final IRI CONTENT_URL = vf.createIRI(NAMESPACE, "contentUrl");
     public static final IRI CONTENT_SIZE = vf.createIRI(NAMESPACE, "contentSize");
     public static final IRI UPLOAD_DATE = vf.createIRI(NAMESPACE, "uploadDate");
+    public static final IRI SHA256 = vf.createIRI(NAMESPACE, "sha256");
     public static final IRI NAME = vf.createIRI(NAMESPACE, "name");
     public static final IRI MEDIA_OBJECT = vf.createIRI(NAMESPACE, "MediaObject");
     public static final IRI DEFINED_TERM = vf.createIRI(NAMESPACE, "DefinedTerm");
@@ -84,4 +88,23 @@ public class SDO {
                 URL
         );
     }
+
+    /**
+     * @return the properties holding the labels of an entity, which are indexed for the full-text search
+     */
+    public static Set<IRI> getLabelProperties() {
+        return Set.of(
+                NAME,
+                TITLE,
+                HEADLINE,
+                ALTERNATE_NAME
+        );
+    }
+
+    public static Set<IRI> getDescriptionProperties() {
+        return Set.of(
+                DESCRIPTION,
+                KEYWORDS
+        );
+    }
 }
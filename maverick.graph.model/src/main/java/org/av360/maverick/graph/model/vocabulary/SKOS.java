@@ -27,4 +27,19 @@ public class SKOS extends org.eclipse.rdf4j.model.vocabulary.SKOS {
                 SKOS.DEFINITION
         );
     }
+
+    public static Set<IRI> getLabelProperties() {
+        return Set.of(
+                SKOS.PREF_LABEL,
+                SKOS.ALT_LABEL,
+                SKOS.HIDDEN_LABEL
+        );
+    }
+
+    public static Set<IRI> getDescriptionProperties() {
+        return Set.of(
+                SKOS.DEFINITION,
+                SKOS.SCOPE_NOTE
+        );
+    }
 }
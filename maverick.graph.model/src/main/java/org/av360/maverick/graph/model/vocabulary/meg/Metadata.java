@@ -34,6 +34,9 @@ public class Metadata {
     public static final IRI CREATED = LocalIRI.from(NAMESPACE, "created");
 
 
+    /* Version of the entity (set by the entity store) */
+    public static final IRI VERSION = LocalIRI.from(NAMESPACE, "version");
+
     /* Hash identifier */
     public static final IRI HASH_IDENTIFIER = LocalIRI.from(NAMESPACE, "hash");
 }
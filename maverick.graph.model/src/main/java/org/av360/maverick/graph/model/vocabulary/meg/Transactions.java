@@ -40,6 +40,9 @@ public class Transactions {
 
     public static final IRI AT = PROV.AT_TIME;
 
+    // time at which the transaction was recorded, defines the position of the transaction within the change feed
+    public static final IRI COMMITTED = PROV.ENDED_AT_TIME;
+
     public static final IRI BY = PROV.WAS_ATTRIBUTED_TO;
 
     public static final IRI STATUS = LocalIRI.from(NAMESPACE, "status");
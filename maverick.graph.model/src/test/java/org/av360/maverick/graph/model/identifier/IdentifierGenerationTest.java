@@ -0,0 +1,132 @@
+package org.av360.maverick.graph.model.identifier;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.Stack;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32C;
+
+class IdentifierGenerationTest {
+
+    private static final int THREADS = 8;
+    private static final int PER_THREAD = 50000;
+
+    @Test
+    void checksumsMatchFormerImplementation() {
+        List<String> values = this.values(THREADS * PER_THREAD);
+
+        for (String value : values) {
+            Assertions.assertEquals(legacyChecksum(value, LocalIdentifier.LENGTH, LocalIdentifier.PADDING_CHAR), ChecksumGenerator.generateChecksum(value, LocalIdentifier.LENGTH, LocalIdentifier.PADDING_CHAR), value);
+        }
+
+        // keys shorter than the encoded checksum
+        for (String value : values.subList(0, 1000)) {
+            Assertions.assertEquals(legacyChecksum(value, 4, 'x'), ChecksumGenerator.generateChecksum(value, 4, 'x'), value);
+        }
+
+        Assertions.assertEquals(legacyChecksum("", 8, 'x'), ChecksumGenerator.generateChecksum("", 8, 'x'));
+    }
+
+    @Test
+    void concurrentChecksums() throws Exception {
+        List<String> values = this.values(PER_THREAD);
+        List<String> expected = values.stream().map(value -> legacyChecksum(value, LocalIdentifier.LENGTH, LocalIdentifier.PADDING_CHAR)).toList();
+        AtomicInteger mismatches = new AtomicInteger();
+
+        this.runConcurrently(() -> {
+            for (int i = 0; i < values.size(); i++) {
+                if (!expected.get(i).equals(ChecksumGenerator.generateChecksum(values.get(i), LocalIdentifier.LENGTH, LocalIdentifier.PADDING_CHAR))) {
+                    mismatches.incrementAndGet();
+                }
+            }
+        });
+
+        Assertions.assertEquals(0, mismatches.get());
+    }
+
+    @Test
+    void concurrentRandomKeys() throws Exception {
+        Set<String> keys = ConcurrentHashMap.newKeySet();
+        Pattern format = Pattern.compile("[a-z0-9]{%d}".formatted(LocalIdentifier.LENGTH));
+
+        this.runConcurrently(() -> {
+            for (int i = 0; i < PER_THREAD; i++) {
+                keys.add(RandomIdentifier.generateRandomKey());
+            }
+        });
+
+        // collisions are possible, but very unlikely with 36^8 possible keys
+        Assertions.assertTrue(keys.size() > THREADS * PER_THREAD - 5);
+        Assertions.assertTrue(keys.stream().allMatch(key -> format.matcher(key).matches()));
+        Assertions.assertEquals(16, RandomIdentifier.generateRandomKey(16).length());
+    }
+
+    private void runConcurrently(Runnable task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    task.run();
+                    return null;
+                }));
+            }
+
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private List<String> values(int count) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<String> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(switch (i % 3) {
+                case 0 -> "https://example.org/entities/" + i;
+                case 1 -> Long.toString(random.nextLong(), 36) + "Video " + i;
+                default -> "Überschrift %d – %s".formatted(i, random.nextInt());
+            });
+        }
+        return values;
+    }
+
+    /**
+     * The implementation before it has been made thread-safe, the generated identifiers must not change.
+     */
+    private static String legacyChecksum(String val, int length, char paddingChar) {
+        char[] alphabet = "abcdefghijklmnopqrstuvwyz0123456789_".toCharArray();
+        CRC32C checksum = new CRC32C();
+        checksum.update(val.getBytes(), 0, val.length());
+        BigInteger number = BigInteger.valueOf(checksum.getValue());
+
+        Stack<Integer> stack = new Stack<>();
+        do {
+            BigInteger[] divisionResultAndReminder = number.divideAndRemainder(BigInteger.valueOf(alphabet.length));
+            stack.push(divisionResultAndReminder[1].intValue());
+            number = divisionResultAndReminder[0];
+        } while (!number.equals(BigInteger.ZERO));
+
+        StringBuilder result = new StringBuilder();
+        while (!stack.empty()) {
+            result.append(alphabet[stack.pop()]);
+        }
+        String ser = result.toString();
+        if (ser.length() > length) return ser.substring(0, length - 1);
+        StringBuilder padded = new StringBuilder(ser);
+        while (padded.length() < length) padded.append(paddingChar);
+        return padded.toString();
+    }
+}
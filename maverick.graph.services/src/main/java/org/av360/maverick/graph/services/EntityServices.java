@@ -1,6 +1,7 @@
 package org.av360.maverick.graph.services;
 
 import jakarta.annotation.Nullable;
+import org.apache.commons.lang3.tuple.Pair;
 import org.av360.maverick.graph.model.annotations.OnRepositoryType;
 import org.av360.maverick.graph.model.annotations.RequiresPrivilege;
 import org.av360.maverick.graph.model.context.SessionContext;
@@ -8,6 +9,7 @@ import org.av360.maverick.graph.model.entities.Transaction;
 import org.av360.maverick.graph.model.enums.RepositoryType;
 import org.av360.maverick.graph.model.rdf.Triples;
 import org.av360.maverick.graph.model.security.Authorities;
+import org.av360.maverick.graph.services.api.entities.BatchResult;
 import org.av360.maverick.graph.store.IndividualsStore;
 import org.av360.maverick.graph.store.rdf.fragments.RdfFragment;
 import org.eclipse.rdf4j.model.IRI;
@@ -96,9 +98,48 @@ public interface EntityServices {
      */
     Mono<Transaction> create(Triples triples, Map<String, String> parameters, SessionContext ctx);
 
+    /**
+     * Creates (or merges) a stream of entities. Every document describes one entity (with its embedded objects) and
+     * is preprocessed individually. The entities are committed in chunks (one transaction per chunk), with a bounded
+     * number of chunks processed in parallel. Failing entities don't affect the other entities of the chunk.
+     *
+     * @param documents  The documents, one per entity
+     * @param format     The format of the documents
+     * @param parameters Additional parameters coming through the request.
+     * @param ctx        The current session
+     * @return the outcome for every document, in the order of the documents
+     */
+    Flux<BatchResult> createAll(Flux<String> documents, RDFFormat format, Map<String, String> parameters, SessionContext ctx);
+
 
     Mono<Transaction> linkEntityTo(String entityKey, IRI predicate, Triples linkedEntities, SessionContext ctx);
 
+    /**
+     * Applies the changes of an RDF Patch document to an entity (its values, relations, details and embedded objects) in
+     * one transaction. The patch is rejected as a whole if any of its statements is not about the entity, or if the
+     * patched entity is not valid.
+     *
+     * @param entityKey The unique entity identifier as String
+     * @param patch     The RDF patch document
+     * @param version   The version the patch is based on (see {@link #version(String, SessionContext)}), or null to
+     *                  apply the patch to the current version
+     * @param ctx       The current session
+     * @return Transaction with affected statements, and the version of the patched entity
+     */
+    Mono<Pair<Transaction, String>> patch(String entityKey, String patch, @Nullable String version, SessionContext ctx);
+
+    /**
+     * Returns the current version of an entity, which changes with every change of its values, relations and details,
+     * or with patches of its embedded objects (but not with changes of the metadata). Changes of the entity within a
+     * request are rejected if the version expected by the request (see
+     * {@link org.av360.maverick.graph.model.context.Environment#withExpectedVersion(String, String)}) is outdated.
+     *
+     * @param entityKey The unique entity identifier as String
+     * @param ctx       The current session
+     * @return the version
+     */
+    Mono<String> version(String entityKey, SessionContext ctx);
+
 
 
     Mono<RdfFragment> find(String entityKey, @Nullable String property, boolean details, int depth, SessionContext ctx);
@@ -32,4 +32,9 @@ public interface SchemaServices {
     boolean isClassifierType(IRI iri);
 
     boolean isCharacteristicProperty(IRI iri);
+
+    /**
+     * @return true, if the local name of the property suggests a characteristic property (e.g. an id, key or code)
+     */
+    boolean isPotentialCharacteristicProperty(IRI iri);
 }
@@ -0,0 +1,47 @@
+package org.av360.maverick.graph.services;
+
+import org.av360.maverick.graph.model.context.SessionContext;
+import org.av360.maverick.graph.store.SearchIndex;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Resource;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Full-text search over the labels and descriptions of the entities in the current scope.
+ */
+public interface SearchServices {
+
+    /**
+     * Searches the entities by their labels (names, titles) and descriptions, ordered by relevance.
+     *
+     * @param query   the search terms with the requested page
+     * @param context the current session context
+     * @return the matching entities of the requested page and the number of all matches
+     */
+    Mono<SearchIndex.Result> search(SearchIndex.Query query, SessionContext context);
+
+    /**
+     * Updates the index entries of the given entities from their current values in the entities store. Entities without
+     * any labels or descriptions (or which have been deleted) are removed from the index.
+     *
+     * @param subjects the changed entities
+     * @param context  the current session context
+     */
+    Mono<Void> update(Collection<Resource> subjects, SessionContext context);
+
+    /**
+     * Clears the index of the current scope and indexes all entities again.
+     *
+     * @param context the current session context
+     * @return the number of indexed entities
+     */
+    Mono<Long> rebuild(SessionContext context);
+
+    /**
+     * @return the properties which are indexed as labels or descriptions
+     */
+    Set<IRI> getIndexedProperties();
+}
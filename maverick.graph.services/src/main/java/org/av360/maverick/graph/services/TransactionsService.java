@@ -2,10 +2,15 @@ package org.av360.maverick.graph.services;
 
 import org.av360.maverick.graph.model.context.SessionContext;
 import org.av360.maverick.graph.model.entities.Transaction;
+import org.av360.maverick.graph.model.enums.Activity;
+import org.av360.maverick.graph.store.TransactionsStore;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import javax.annotation.Nullable;
+import java.time.Duration;
 import java.util.Collection;
+import java.util.Set;
 
 public interface TransactionsService {
 
@@ -15,9 +20,63 @@ public interface TransactionsService {
     Flux<Transaction> list(Integer limit, Integer offset, SessionContext context);
 
 
+    /**
+     * Lists the transactions matching the filter in the order of their commit time.
+     *
+     * @param filter  restricts the transactions by affected subject and commit time
+     * @param after   position of the last transaction of the previous page, or null for the first page
+     * @param limit   the page size
+     * @param context the current session context
+     */
+    Flux<Transaction> list(TransactionsStore.Filter filter, @Nullable TransactionsStore.Position after, int limit, SessionContext context);
+
+    /**
+     * Lists the transactions which changed the entity with the given key, in the order of their commit time.
+     *
+     * @param key     the local identifier of the entity
+     * @param filter  restricts the transactions by commit time
+     * @param after   position of the last transaction of the previous page, or null for the first page
+     * @param limit   the page size
+     * @param context the current session context
+     */
+    Flux<Transaction> listForEntity(String key, TransactionsStore.Filter filter, @Nullable TransactionsStore.Position after, int limit, SessionContext context);
+
+
     Mono<Transaction> find(String identifier, SessionContext context);
 
 
     Flux<Transaction> save(Collection<Transaction> transactions, SessionContext context);
 
+
+    /**
+     * Streams the completed transactions of the current scope, first the recorded transactions after the given position,
+     * then all transactions as they are recorded. The stream never completes.
+     *
+     * @param after      position of the last transaction seen by the client, or null to only receive new transactions
+     * @param activities only transactions with at least one of these activities are returned, all if empty
+     * @param context    the current session context
+     * @return the stream of transactions
+     */
+    Flux<Transaction> listChanges(@Nullable TransactionsStore.Position after, Set<Activity> activities, SessionContext context);
+
+
+    /**
+     * Removes old transactions from the history of the current scope.
+     *
+     * @param maxAge        transactions committed before now minus this duration are removed, no limit if null
+     * @param maxPerSubject only the latest transactions of each subject are kept, no limit if null
+     * @param keepMetadata  summarize instead of deleting: removed transactions are kept with their status and commit time
+     * @param context       the current session context
+     * @return the number of removed (or summarized) transactions
+     */
+    Mono<Long> applyRetention(@Nullable Duration maxAge, @Nullable Integer maxPerSubject, boolean keepMetadata, SessionContext context);
+
+    /**
+     * Reclaims the space of removed transactions in the underlying storage.
+     *
+     * @param context the current session context
+     * @return the number of reclaimed bytes
+     */
+    Mono<Long> compact(SessionContext context);
+
 }
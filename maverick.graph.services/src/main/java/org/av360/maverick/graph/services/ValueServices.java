@@ -159,4 +159,14 @@ public interface ValueServices {
     Flux<Pair<IRI, Value>> listDetails(String key, String prefixedProperty, String valueIdentifier, SessionContext ctx);
 
     Mono<Triples> getValue(String key, String prefixedProperty, String languageTag, String valueIdentifier, SessionContext ctx);
+
+    /**
+     * Stores the identifiers of all values in the current scope which have none yet, if the store keeps them. New values
+     * are identified when they are committed, the identifiers of the values which existed before (or have been imported)
+     * are computed with every request until they are identified with this call.
+     *
+     * @param ctx the current session context
+     * @return the number of identified values, or -1 if the store doesn't keep the identifiers
+     */
+    Mono<Long> identifyValues(SessionContext ctx);
 }
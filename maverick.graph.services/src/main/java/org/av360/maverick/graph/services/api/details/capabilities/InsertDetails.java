@@ -45,7 +45,7 @@ public class InsertDetails {
 
 
     public Mono<Transaction> insert(IRI entityIdentifier, IRI valuePredicate, IRI detailPredicate, String detailValue, String valueIdentifier, SessionContext ctx) {
-        return api.entities().select().get(entityIdentifier, true, 0, ctx)
+        return api.entities().select().get(entityIdentifier, valuePredicate, null, true, ctx)
                 .flatMap(entityFragment -> {
                     if (Objects.isNull(valueIdentifier)) {
                         return this.insertWithoutHash(entityFragment, valuePredicate, detailPredicate, detailValue, ctx);
@@ -58,7 +58,7 @@ public class InsertDetails {
     }
 
     private Mono<Transaction> insertWithHash(RdfFragment entity, IRI valuePredicate, IRI detailPredicate, String value, String hash, SessionContext ctx) {
-        return this.buildDetailStatementForValueWithHash(entity, valuePredicate, detailPredicate, value, hash)
+        return this.buildDetailStatementForValueWithHash(entity, valuePredicate, detailPredicate, value, hash, ctx)
                 .map(statement -> {
                     // check if we already have a statement
                     api.details().selects().hasDetail((IRI) entity.getIdentifier(), valuePredicate, detailPredicate);
@@ -96,14 +96,10 @@ public class InsertDetails {
     }
 
 
-    Mono<Statement> buildDetailStatementForValueWithHash(RdfFragment entity, IRI valuePredicate, IRI detailPredicate, String value, String valueHash) {
-        Optional<Triple> requestedTriple =  this.api.values().read().findValueTripleByHash(entity, valuePredicate, valueHash);
-
-        if (requestedTriple.isEmpty())
-            return Mono.error(new InvalidEntityUpdate(entity.getIdentifier(), "No value exists in entity <%s> for predicate <%s> and hash '%s'".formatted(entity.getIdentifier(), valuePredicate, valueHash)));
-
-        Statement annotationStatement = Statements.statement(requestedTriple.get(), detailPredicate, Values.literal(value), null);
-        return Mono.just(annotationStatement);
+    Mono<Statement> buildDetailStatementForValueWithHash(RdfFragment entity, IRI valuePredicate, IRI detailPredicate, String value, String valueHash, SessionContext ctx) {
+        return this.api.values().read().findValueTripleByHash(entity, valuePredicate, valueHash, ctx)
+                .switchIfEmpty(Mono.error(new InvalidEntityUpdate(entity.getIdentifier(), "No value exists in entity <%s> for predicate <%s> and hash '%s'".formatted(entity.getIdentifier(), valuePredicate, valueHash))))
+                .map(requestedTriple -> Statements.statement(requestedTriple, detailPredicate, Values.literal(value), null));
     }
 
     Mono<Statement> buildDetailStatementForSingleValue(RdfFragment entity, IRI valuePredicate, IRI detailPredicate) {
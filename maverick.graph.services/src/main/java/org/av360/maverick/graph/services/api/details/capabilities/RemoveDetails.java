@@ -24,7 +24,6 @@ import org.av360.maverick.graph.model.errors.requests.InvalidEntityUpdate;
 import org.av360.maverick.graph.model.errors.store.InvalidEntityModelException;
 import org.av360.maverick.graph.model.events.DetailRemovedEvent;
 import org.av360.maverick.graph.services.api.Api;
-import org.av360.maverick.graph.services.api.values.ValuesUtils;
 import org.av360.maverick.graph.store.rdf.fragments.RdfFragment;
 import org.av360.maverick.graph.store.rdf.fragments.RdfTransaction;
 import org.eclipse.rdf4j.model.IRI;
@@ -74,19 +73,18 @@ public class RemoveDetails {
      */
     public Mono<Transaction> remove(String entityKey, String prefixedValuePredicate, String prefixedDetailPredicate, String valueIdentifier, SessionContext ctx) {
         return Mono.zip(
-                        this.api.identifiers().localIdentifiers().asLocalIRI(entityKey, ctx.getEnvironment())
-                                .flatMap(entityIdentifier -> api.entities().select().get(entityIdentifier, true, 0, ctx)),
+                        this.api.identifiers().localIdentifiers().asLocalIRI(entityKey, ctx.getEnvironment()),
                         api.identifiers().prefixes().resolvePrefixedName(prefixedValuePredicate),
                         api.identifiers().prefixes().resolvePrefixedName(prefixedDetailPredicate)
                 ).flatMap(tuple -> {
-                    RdfFragment entity = tuple.getT1();
                     IRI valuePredicate = tuple.getT2();
                     IRI detailPredicate = tuple.getT3();
 
-                    if (Objects.nonNull(valueIdentifier)) {
-                        return this.removeWithHash(entity, valuePredicate, detailPredicate, valueIdentifier, ctx);
-                    } else return this.remove(entity, valuePredicate, detailPredicate, ctx);
-
+                    return api.entities().select().get(tuple.getT1(), valuePredicate, null, true, ctx).flatMap(entity -> {
+                        if (Objects.nonNull(valueIdentifier)) {
+                            return this.removeWithHash(entity, valuePredicate, detailPredicate, valueIdentifier, ctx);
+                        } else return this.remove(entity, valuePredicate, detailPredicate, ctx);
+                    });
                 })
                 .doOnSuccess(trx -> {
                     api.publishEvent(new DetailRemovedEvent(trx, ctx.getEnvironment()));
@@ -107,17 +105,12 @@ public class RemoveDetails {
     }
 
     private Mono<Transaction> removeAllDetailsUsingValueIdentifier(IRI entityIdentifier, IRI predicate, String valueIdentifier, Transaction trx, SessionContext ctx) {
-        return this.api.entities().getStore().asStatementsAware().listStatements(null, RDF.SUBJECT, entityIdentifier, ctx.getEnvironment()) // returns all details for all values of the current entity
-                .flatMapMany(Flux::fromIterable)
-                .flatMap(detailsStatement ->
-                        this.api.entities().getStore().asStatementsAware().listStatements(detailsStatement.getSubject(), RDF.OBJECT, null, ctx.getEnvironment()) // returns only details affecting the value property (can still be multiple)
-                                .map(statements -> statements.stream()
-                                        .filter(statement -> ValuesUtils.generateHashForValue(predicate, statement.getObject()).equalsIgnoreCase(valueIdentifier))
-                                        .collect(Collectors.toSet())
-                                        .stream()
-                                        .findFirst())  // compute value identifier and compare with parameter value
-                                .map(optionalStatement -> optionalStatement.map(Statement::getSubject))
-                                .flatMap(optionalSubject -> optionalSubject.map(resource -> this.api.entities().getStore().asStatementsAware().listStatements(resource, null, null, ctx.getEnvironment())).orElseGet(() -> Mono.just(Set.of()))))
+        return this.api.values().read().findValue(entityIdentifier, predicate, valueIdentifier, ctx) // looks up the value with the identifier
+                .flatMapMany(value -> this.api.entities().getStore().asStatementsAware().listStatements(null, RDF.SUBJECT, entityIdentifier, ctx.getEnvironment()) // returns all details for all values of the current entity
+                        .flatMapMany(Flux::fromIterable)
+                        .filterWhen(detailsStatement -> this.api.entities().getStore().asStatementsAware().hasStatement(detailsStatement.getSubject(), RDF.PREDICATE, predicate, ctx.getEnvironment()))
+                        .filterWhen(detailsStatement -> this.api.entities().getStore().asStatementsAware().hasStatement(detailsStatement.getSubject(), RDF.OBJECT, value, ctx.getEnvironment())))
+                .flatMap(detailsStatement -> this.api.entities().getStore().asStatementsAware().listStatements(detailsStatement.getSubject(), null, null, ctx.getEnvironment()))
                 .flatMapIterable(set -> set)
                 .collectList()
                 .map(trx::removes);
@@ -141,12 +134,10 @@ public class RemoveDetails {
 
 
     private Mono<Transaction> removeWithHash(RdfFragment entity, IRI valuePredicate, IRI detailPredicate, String valueHash, SessionContext ctx) {
-        Optional<Triple> requestedTriple = api.values().read().findValueTripleByHash(entity, valuePredicate, valueHash);
-        if (requestedTriple.isEmpty())
-            return Mono.error(new InvalidEntityUpdate(entity.getIdentifier(), "No value exists in entity <%s> for predicate <%s> and hash '%s'".formatted(entity.getIdentifier(), valuePredicate, valueHash)));
-
-        Transaction trx = new RdfTransaction().removes(entity.listStatements(requestedTriple.get(), detailPredicate, null));
-        return api.entities().getStore().asCommitable().commit(trx, ctx.getEnvironment());
+        return api.values().read().findValueTripleByHash(entity, valuePredicate, valueHash, ctx)
+                .switchIfEmpty(Mono.error(new InvalidEntityUpdate(entity.getIdentifier(), "No value exists in entity <%s> for predicate <%s> and hash '%s'".formatted(entity.getIdentifier(), valuePredicate, valueHash))))
+                .map(requestedTriple -> new RdfTransaction().removes(entity.listStatements(requestedTriple, detailPredicate, null)))
+                .flatMap(trx -> api.entities().getStore().asCommitable().commit(trx, ctx.getEnvironment()));
     }
 
 
@@ -0,0 +1,26 @@
+package org.av360.maverick.graph.services.api.entities;
+
+import org.eclipse.rdf4j.model.Resource;
+
+import javax.annotation.Nullable;
+
+/**
+ * The outcome for one entity of a batch request.
+ *
+ * @param index      the position of the entity in the request (starting with 0)
+ * @param outcome    whether the entity was created, merged into an existing entity or failed
+ * @param identifier the identifier of the entity, unless it failed before it was identified
+ * @param reason     why the entity failed
+ */
+public record BatchResult(long index, Outcome outcome, @Nullable Resource identifier, @Nullable String reason) {
+
+    public enum Outcome {
+        CREATED,
+        MERGED,
+        FAILED
+    }
+
+    public static BatchResult failed(long index, @Nullable Resource identifier, String reason) {
+        return new BatchResult(index, Outcome.FAILED, identifier, reason);
+    }
+}
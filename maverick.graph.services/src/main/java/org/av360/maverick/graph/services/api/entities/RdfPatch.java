@@ -0,0 +1,90 @@
+package org.av360.maverick.graph.services.api.entities;
+
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.RDFParseException;
+import org.eclipse.rdf4j.rio.Rio;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+/**
+ * The changes of an <a href="https://afs.github.io/rdf-patch/">RDF Patch</a> document, parsed into the statements to
+ * add and to delete.
+ * <p>
+ * Only the subset of RDF Patch is supported which makes sense for a single entity: triples (in Turtle-star syntax, to
+ * address the details of values), prefix declarations and comments. Headers and transaction markers are ignored, since
+ * the patch is always applied as one transaction. Quads and aborted transactions are rejected. Prefixes are declared
+ * without colon (as in RDF Patch), the colon of the Turtle syntax is accepted as well.
+ * <pre>
+ * PA sdo &lt;https://schema.org/&gt; .
+ * D &lt;http://localhost/api/entities/abc&gt; sdo:name "Old name" .
+ * A &lt;http://localhost/api/entities/abc&gt; sdo:name "New name" .
+ * </pre>
+ */
+public record RdfPatch(Model additions, Model deletions) {
+
+    /**
+     * @param document the patch
+     * @param baseUri  to resolve relative IRIs
+     * @return the parsed patch
+     * @throws IllegalArgumentException if the document is not a valid patch, the message has the line
+     */
+    public static RdfPatch parse(String document, String baseUri) throws IllegalArgumentException {
+        // both documents keep the line numbers of the patch for the error messages of the parser
+        StringBuilder additions = new StringBuilder();
+        StringBuilder deletions = new StringBuilder();
+
+        String[] lines = document.split("\\R", -1);
+        for (int i = 0; i < lines.length; i++) {
+            String line = lines[i].strip();
+            int separator = line.indexOf(' ');
+            String operation = separator < 0 ? line : line.substring(0, separator);
+            String content = separator < 0 ? "" : line.substring(separator + 1).strip();
+
+            switch (operation) {
+                case "", "H", "TX", "TC", "PD" -> { }
+                case "A" -> additions.append(statement(content));
+                case "D" -> deletions.append(statement(content));
+                case "PA" -> {
+                    String declaration = prefix(content);
+                    additions.append(declaration);
+                    deletions.append(declaration);
+                }
+                case "TA" -> throw new IllegalArgumentException("Line %d: The patch was aborted.".formatted(i + 1));
+                default -> {
+                    if (!operation.startsWith("#"))
+                        throw new IllegalArgumentException("Line %d: Unsupported operation '%s'.".formatted(i + 1, operation));
+                }
+            }
+            additions.append('\n');
+            deletions.append('\n');
+        }
+
+        return new RdfPatch(parseStatements(additions.toString(), baseUri), parseStatements(deletions.toString(), baseUri));
+    }
+
+    public boolean isEmpty() {
+        return this.additions.isEmpty() && this.deletions.isEmpty();
+    }
+
+    private static String statement(String content) {
+        return content.endsWith(".") ? content : content + " .";
+    }
+
+    private static String prefix(String content) {
+        String[] declaration = content.split("\\s+", 2);
+        String name = declaration[0].endsWith(":") ? declaration[0] : declaration[0] + ":";
+        return "@prefix " + name + " " + statement(declaration.length > 1 ? declaration[1] : "");
+    }
+
+    private static Model parseStatements(String turtle, String baseUri) {
+        try {
+            return Rio.parse(new StringReader(turtle), baseUri, RDFFormat.TURTLESTAR);
+        } catch (RDFParseException e) {
+            throw new IllegalArgumentException("Line %d: %s".formatted(e.getLineNumber(), e.getMessage()), e);
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+    }
+}
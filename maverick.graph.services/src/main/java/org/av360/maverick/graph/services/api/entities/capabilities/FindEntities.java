@@ -20,6 +20,7 @@ import org.av360.maverick.graph.model.errors.InconsistentModelException;
 import org.av360.maverick.graph.model.vocabulary.SDO;
 import org.av360.maverick.graph.services.api.Api;
 import org.av360.maverick.graph.store.IndividualsStore;
+import org.av360.maverick.graph.store.behaviours.ValueIndexed;
 import org.av360.maverick.graph.store.rdf.fragments.RdfFragment;
 import org.av360.maverick.graph.store.rdf.helpers.BindingsAccessor;
 import org.eclipse.rdf4j.model.IRI;
@@ -41,6 +42,10 @@ import org.springframework.util.StringUtils;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.Set;
+
 public class FindEntities {
 
     private final Api api;
@@ -122,19 +127,35 @@ public class FindEntities {
     }
 
 
+    /**
+     * Finds the entity with the given value of the property. Indexed properties are matched by the normalized value
+     * stored in the value index (see {@link ValueIndexed#normalize(Value)}), all other properties by the exact value. If
+     * several entities share the value, the entity with the lowest identifier is returned.
+     */
     public Mono<RdfFragment> findByProperty(String identifier, IRI predicate, boolean details, int depth, SessionContext ctx) {
         Literal identifierLit = Values.literal(identifier);
 
-        Variable idVariable = SparqlBuilder.var("id");
+        Optional<Set<Resource>> indexed = this.individualsStore.isValueIndexed()
+                ? this.individualsStore.asValueIndexed().lookup(predicate, identifierLit, ctx.getEnvironment())
+                : Optional.empty();
+
+        Mono<Resource> candidate = indexed.isPresent()
+                ? Mono.justOrEmpty(indexed.get().stream().min(Comparator.comparing(Value::stringValue)))
+                : this.queryByProperty(identifierLit, predicate, ctx);
 
+        return candidate.flatMap(entityIdentifier -> api.entities().select().get(entityIdentifier, details, depth, ctx));
+    }
+
+    private Mono<Resource> queryByProperty(Literal value, IRI predicate, SessionContext ctx) {
+        Variable idVariable = SparqlBuilder.var("id");
         SelectQuery query = Queries.SELECT(idVariable).where(
-                idVariable.has(predicate, identifierLit));
+                idVariable.has(predicate, value));
 
         return this.individualsStore.asSearchable().query(query, ctx.getEnvironment())
-                .next()
                 .map(bindings -> bindings.getValue(idVariable.getVarName()))
                 .filter(Value::isResource)
-                .flatMap(entityIdentifier -> api.entities().select().get((Resource) entityIdentifier, details, depth, ctx));
+                .map(Resource.class::cast)
+                .reduce((first, second) -> first.stringValue().compareTo(second.stringValue()) <= 0 ? first : second);
     }
 
     public Mono<Long> count(SessionContext ctx) {
@@ -25,6 +25,8 @@ import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Resource;
 import reactor.core.publisher.Mono;
 
+import javax.annotation.Nullable;
+
 @Slf4j
 public class ReadEntities {
     private final Api api;
@@ -60,6 +62,21 @@ public class ReadEntities {
         return this.get(entityIri, false, 1, ctx);
     }
 
+    /**
+     * Retrieves only the values of an entity with the given predicate (with their embedded objects), without loading the
+     * complete entity.
+     *
+     * @param entityIri   The unique entity URI
+     * @param predicate   The predicate of the values
+     * @param languageTag Optional language tag, to include only the literals in this language
+     * @param details     whether to include the details of the values
+     * @return Entity with the requested values as Mono, fails if the entity doesn't exist
+     */
+    public Mono<RdfFragment> get(Resource entityIri, IRI predicate, @Nullable String languageTag, boolean details, SessionContext ctx) {
+        return entityStore.asFragmentable().getFragment(entityIri, predicate, languageTag, details, ctx.getEnvironment())
+                .switchIfEmpty(Mono.error(new EntityNotFound(entityIri)));
+    }
+
 
 
     public Mono<IRI> resolveAndVerify(String key, SessionContext ctx) {
@@ -32,20 +32,27 @@ public class ReadRelations {
 
     public Mono<Triples> list(String entityKey, String prefixedPoperty, SessionContext ctx) {
         return Mono.zip(
-                api.identifiers().localIdentifiers().asLocalIRI(entityKey, ctx.getEnvironment())
-                        .flatMap(entityIdentifier -> api.entities().select().get(entityIdentifier, true, 0, ctx)),
+                api.identifiers().localIdentifiers().asLocalIRI(entityKey, ctx.getEnvironment()),
                 api.identifiers().prefixes().resolvePrefixedName(prefixedPoperty)
-        ).map(pair -> {
-            RdfFragment entity = pair.getT1();
+        ).flatMap(pair -> {
             IRI property = pair.getT2();
 
-            entity.reduce((st) -> {
-                boolean isTypeDefinition = st.getSubject().equals(entity.getIdentifier()) && st.getPredicate().equals(RDF.TYPE);
-                boolean isProperty = st.getPredicate().equals(property);
-                return isTypeDefinition || isProperty;
-            });
+            // the type definitions and the links for the property are loaded separately, instead of the complete entity
+            return Mono.zip(
+                    api.entities().select().get(pair.getT1(), RDF.TYPE, null, false, ctx),
+                    api.entities().select().get(pair.getT1(), property, null, true, ctx)
+            ).map(fragments -> {
+                RdfFragment entity = fragments.getT1();
+                entity.getModel().addAll(fragments.getT2().getModel());
+
+                entity.reduce((st) -> {
+                    boolean isTypeDefinition = st.getSubject().equals(entity.getIdentifier()) && st.getPredicate().equals(RDF.TYPE);
+                    boolean isProperty = st.getPredicate().equals(property);
+                    return isTypeDefinition || isProperty;
+                });
 
-            return entity;
+                return entity;
+            });
         });
     }
 }
@@ -16,6 +16,7 @@
 package org.av360.maverick.graph.services.api.values;
 
 import org.apache.commons.lang3.StringUtils;
+import org.av360.maverick.graph.model.identifier.ValueIdentifier;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Value;
 import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
@@ -25,9 +26,6 @@ import reactor.core.publisher.Mono;
 
 import javax.annotation.Nullable;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 
 public class ValuesUtils {
 
@@ -73,27 +71,11 @@ public class ValuesUtils {
         return generateHashForValue(predicate.stringValue(), value.stringValue());
     }
 
+    /**
+     * @see ValueIdentifier
+     */
     public static String generateHashForValue(String predicate, String value) {
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest((predicate+value).getBytes(StandardCharsets.UTF_8));
-            StringBuilder hexString = new StringBuilder();
-
-            for (byte b : hash) {
-                String hex = Integer.toHexString(0xff & b);
-                if (hex.length() == 1) {
-                    hexString.append('0');
-                }
-                hexString.append(hex);
-            }
-
-
-
-            return hexString.toString();
-        } catch (NoSuchAlgorithmException e) {
-            e.printStackTrace();
-            return "";
-        }
+        return ValueIdentifier.of(predicate, value).toString();
     }
 
 }
@@ -22,7 +22,6 @@ import org.av360.maverick.graph.model.entities.Transaction;
 import org.av360.maverick.graph.model.errors.requests.InvalidEntityUpdate;
 import org.av360.maverick.graph.model.events.ValueRemovedEvent;
 import org.av360.maverick.graph.services.api.Api;
-import org.av360.maverick.graph.services.api.values.ValuesUtils;
 import org.av360.maverick.graph.store.rdf.fragments.RdfTransaction;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Literal;
@@ -80,14 +79,18 @@ public class DeleteValue {
                             return Mono.error(new InvalidEntityUpdate(entityIdentifier, "Multiple values for given predicate detected, but no language tag or hash identifier in request."));
                         }
 
+                        if (StringUtils.isNotBlank(valueIdentifier)) {
+                            // the value is looked up by its identifier
+                            return api.values().read().findValue(entityIdentifier, predicate, valueIdentifier, ctx)
+                                    .map(value -> statements.stream().filter(st -> st.getObject().equals(value)).toList())
+                                    .filter(found -> !found.isEmpty())
+                                    .switchIfEmpty(Mono.error(new InvalidEntityUpdate(entityIdentifier, "No value found with requested value identifier '%s'".formatted(valueIdentifier))))
+                                    .map(transaction::removes);
+                        }
+
                         for (Statement st : statements) {
                             Value object = st.getObject();
-                            if (StringUtils.isNotBlank(valueIdentifier)) {
-                                String hash = ValuesUtils.generateHashForValue(predicate.stringValue(), object.stringValue());
-                                if (hash.equalsIgnoreCase(valueIdentifier)) {
-                                    statementsToRemove.add(st);
-                                }
-                            } else if (StringUtils.isNotBlank(languageTag)) {
+                            if (StringUtils.isNotBlank(languageTag)) {
                                 Literal currentLiteral = (Literal) object;
                                 if (StringUtils.equals(currentLiteral.getLanguage().orElse("invalid"), languageTag)) {
                                     statementsToRemove.add(st);
@@ -95,9 +98,6 @@ public class DeleteValue {
                             }
                         }
 
-                        if (statementsToRemove.isEmpty() && StringUtils.isNotBlank(valueIdentifier)) {
-                            return Mono.error(new InvalidEntityUpdate(entityIdentifier, "No value found with requested value identifier '%s'".formatted(valueIdentifier)));
-                        }
                         if (statementsToRemove.isEmpty() && StringUtils.isNotBlank(languageTag)) {
                             return Mono.error(new InvalidEntityUpdate(entityIdentifier, "No value found with requested language tag '%s'".formatted(languageTag)));
                         }
@@ -16,25 +16,29 @@
 package org.av360.maverick.graph.services.api.values.capabilities;
 
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
 import org.av360.maverick.graph.model.context.SessionContext;
 import org.av360.maverick.graph.model.errors.store.InvalidEntityModelException;
+import org.av360.maverick.graph.model.identifier.ValueIdentifier;
 import org.av360.maverick.graph.model.rdf.Triples;
 import org.av360.maverick.graph.model.vocabulary.meg.Metadata;
 import org.av360.maverick.graph.services.api.Api;
 import org.av360.maverick.graph.services.api.values.ValuesUtils;
+import org.av360.maverick.graph.store.IndividualsStore;
 import org.av360.maverick.graph.store.rdf.fragments.RdfFragment;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
 import org.eclipse.rdf4j.model.Triple;
 import org.eclipse.rdf4j.model.Value;
 import org.eclipse.rdf4j.model.util.Values;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import javax.annotation.Nullable;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Objects;
-import java.util.Optional;
+import java.util.*;
+import java.util.stream.Collectors;
 
 @Slf4j(topic = "graph.svc.value.read")
 public class ReadValues {
@@ -51,58 +55,116 @@ public class ReadValues {
     }
 
     public Mono<Triples> listValues(String entityKey, @Nullable String prefixedValuePredicate, SessionContext ctx) {
+        if(Objects.isNull(prefixedValuePredicate)) {
+            return api.identifiers().localIdentifiers().asLocalIRI(entityKey, ctx.getEnvironment())
+                    .flatMap(entityIdentifier -> api.entities().select().get(entityIdentifier, true, 0, ctx))
+                    .flatMap(entity -> {
+                        entity.reduce(statement -> statement.getObject().isLiteral());
+                        return this.insertValueIdentifiers(entity, ctx);
+                    });
+        } else {
+            // only the values (and their details) for the given predicate are loaded
+            return Mono.zip(
+                            api.identifiers().localIdentifiers().asLocalIRI(entityKey, ctx.getEnvironment()),
+                            this.api.identifiers().prefixes().resolvePrefixedName(prefixedValuePredicate)
+                    )
+                    .flatMap(pair -> api.entities().select().get(pair.getT1(), pair.getT2(), null, true, ctx)
+                            .map(entity -> filterValues(entity, pair.getT2())))
+                    .flatMap(values -> this.insertValueIdentifiers(values, ctx));
+        }
+    }
 
-        return api.identifiers().localIdentifiers().asLocalIRI(entityKey, ctx.getEnvironment())
-                .flatMap(entityIdentifier -> api.entities().select().get(entityIdentifier, true, 0, ctx))
+
+    public Mono<Triples> getValue(IRI entityIdentifier, IRI predicate, @Nullable String languageTag, @Nullable String valueIdentifier, SessionContext ctx) {
+        return api.entities().select().get(entityIdentifier, predicate, languageTag, true, ctx)
                 .flatMap(entity -> {
-                    if(Objects.isNull(prefixedValuePredicate)) {
-                        entity.reduce(statement -> statement.getObject().isLiteral());
-                        return this.insertValueIdentifiers(entity);
-                    } else {
-                        return this.api.identifiers().prefixes().resolvePrefixedName(prefixedValuePredicate)
-                                .map(valuePredicate -> entity.filter(st -> {
-                                    if(st.getSubject().isTriple()) {
-                                        // include details for the given value predicate
-                                        return ((Triple) st.getSubject()).getPredicate().equals(valuePredicate);
-                                    } else {
-                                        // include the value statements
-                                        return st.getPredicate().equals(valuePredicate);
-                                    }
-                                }))
-                                .flatMap(triples -> this.insertValueIdentifiers(triples));
-                    }
-                });
+                    if (StringUtils.isBlank(valueIdentifier)) return Mono.just(entity);
+
+                    // drop the other values (and their details) for the predicate
+                    return this.findValue(entity.getIdentifier(), predicate, valueIdentifier, ctx)
+                            .map(Optional::of)
+                            .defaultIfEmpty(Optional.empty())
+                            .map(value -> {
+                                entity.reduce(st -> {
+                                    Value object = st.getSubject().isTriple() ? ((Triple) st.getSubject()).getObject() : st.getObject();
+                                    return value.isPresent() && value.get().equals(object);
+                                });
+                                return entity;
+                            });
+                })
+                .map(entity -> filterValues(entity, predicate))
+                .flatMap(values -> this.insertValueIdentifiers(values, ctx));
+    }
+
+    /**
+     * Looks up the value with the identifier in the entity store, the identifiers are only computed for the values of
+     * the subject and predicate if the store doesn't know them.
+     */
+    public Mono<Value> findValue(Resource subject, IRI predicate, String valueIdentifier, SessionContext ctx) {
+        Optional<ValueIdentifier> identifier = ValueIdentifier.parse(valueIdentifier);
+        if (identifier.isEmpty()) return Mono.empty();
+
+        IndividualsStore store = this.api.entities().getStore();
+        if (store.isValueIdentified()) {
+            return store.asValueIdentified().findValue(subject, predicate, identifier.get(), ctx.getEnvironment());
+        }
+        return store.asStatementsAware().listStatements(subject, predicate, null, ctx.getEnvironment())
+                .flatMapIterable(statements -> statements)
+                .map(Statement::getObject)
+                .filter(value -> identifier.get().equals(ValueIdentifier.of(predicate, value)))
+                .next();
     }
 
 
-    public Mono<Triples> getValue(IRI entityIdentifier, IRI predicate, String languageTag, String valueIdentifier, SessionContext ctx) {
-        return api.entities().select().get(entityIdentifier, true, 0, ctx)
-                .map(entity -> entity.filter(st -> {
-                    if (st.getSubject().isTriple()) {
-                        // include details for the given value predicate
-                        return ((Triple) st.getSubject()).getPredicate().equals(predicate);
-                    } else {
-                        // include the value statements
-                        return st.getPredicate().equals(predicate);
-                    }
-                }));
+    private static Triples filterValues(RdfFragment entity, IRI valuePredicate) {
+        return entity.filter(st -> {
+            if (st.getSubject().isTriple()) {
+                // include details for the given value predicate
+                return ((Triple) st.getSubject()).getPredicate().equals(valuePredicate);
+            } else {
+                // include the value statements
+                return st.getPredicate().equals(valuePredicate);
+            }
+        });
     }
 
 
 
+    /**
+     * Adds the identifiers of the values as details, the identifiers stored by the entity store are looked up and only
+     * computed here for the values without stored identifier.
+     */
+    private Mono<Triples> insertValueIdentifiers(Triples entity, SessionContext ctx) {
+        Set<Statement> values = entity.getModel().stream().filter(statement -> statement.getSubject().isIRI()).collect(Collectors.toSet());
 
-    private Mono<Triples> insertValueIdentifiers(Triples entity) {
-        new HashSet<>(entity.getModel())
-                .stream().filter(statement -> statement.getSubject().isIRI())
-                .forEach(statement -> {
-                    Triple triple = Values.triple(statement);
-                    String hash = ValuesUtils.generateHashForValue(statement.getPredicate().stringValue(), statement.getObject().stringValue());
-                    entity.getModel().add(triple, Metadata.HASH_IDENTIFIER, Values.literal(hash));
+        return Flux.fromIterable(values.stream().map(Statement::getSubject).collect(Collectors.toSet()))
+                .flatMap(subject -> this.getValueIdentifiers(subject, ctx))
+                .reduce(new HashMap<Triple, ValueIdentifier>(), (all, identifiers) -> {
+                    all.putAll(identifiers);
+                    return all;
+                })
+                .map(identifiers -> {
+                    values.forEach(statement -> {
+                        Triple triple = Values.triple(statement);
+                        String hash = Optional.ofNullable(identifiers.get(triple))
+                                .map(ValueIdentifier::toString)
+                                .orElseGet(() -> ValuesUtils.generateHashForValue(statement.getPredicate(), statement.getObject()));
+                        entity.getModel().add(triple, Metadata.HASH_IDENTIFIER, Values.literal(hash));
+                    });
+                    return entity;
                 });
-        return Mono.just(entity);
     }
 
+    private Mono<Map<Triple, ValueIdentifier>> getValueIdentifiers(Resource subject, SessionContext ctx) {
+        IndividualsStore store = this.api.entities().getStore();
+        if (!store.isValueIdentified()) return Mono.just(Map.of());
 
+        return store.asValueIdentified().getValueIdentifiers(subject, null, ctx.getEnvironment())
+                .onErrorResume(error -> {
+                    log.warn("Failed to look up value identifiers of subject '{}': {}", subject, error.getMessage());
+                    return Mono.just(Map.of());
+                });
+    }
 
 
     public Optional<Triple> findValueTripleByLanguageTag(RdfFragment entity, IRI valuePredicate, String languageTag) {
@@ -115,14 +177,10 @@ public class ReadValues {
     }
 
 
-    public Optional<Triple> findValueTripleByHash(RdfFragment entity, IRI valuePredicate, String hash) {
-        return entity.streamValues(entity.getIdentifier(), valuePredicate)
-                .filter(literal -> {
-                    String generatedHash = ValuesUtils.generateHashForValue(valuePredicate.stringValue(), literal.stringValue());
-                    return hash.equalsIgnoreCase(generatedHash);
-                })
-                .map(requestedLiteral -> Values.triple(entity.getIdentifier(), valuePredicate, requestedLiteral))
-                .findFirst();
+    public Mono<Triple> findValueTripleByHash(RdfFragment entity, IRI valuePredicate, String hash, SessionContext ctx) {
+        return this.findValue(entity.getIdentifier(), valuePredicate, hash, ctx)
+                .filter(value -> entity.hasStatement(entity.getIdentifier(), valuePredicate, value))
+                .map(value -> Values.triple(entity.getIdentifier(), valuePredicate, value));
     }
 
     public Optional<Triple> findSingleValueTriple(RdfFragment entity, IRI valuePredicate) throws InvalidEntityModelException {
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2024.
+ *
+ *  Licensed under the EUPL, Version 1.2 or – as soon they will be approved by the
+ *  European Commission - subsequent versions of the EUPL (the "Licence");
+ *
+ *  You may not use this work except in compliance with the Licence.
+ *  You may obtain a copy of the Licence at:
+ *
+ *  https://joinup.ec.europa.eu/software/page/eupl5
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the Licence is distributed on an "AS IS" basis,  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the Licence for the specific language governing permissions and limitations under the Licence.
+ *
+ */
+
+package org.av360.maverick.graph.services.aspects;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.av360.maverick.graph.model.context.SessionContext;
+import org.springframework.core.annotation.AnnotationUtils;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Inspects the methods intercepted by an aspect only once: the annotation and the position of the session context
+ * within the arguments are kept for every method, instead of looking them up again with each call.
+ *
+ * @param <A> the annotation the aspect is bound to
+ */
+final class AnnotatedMethods<A extends Annotation> {
+
+    private static final int UNKNOWN_POSITION = -1;
+
+    record Metadata<A>(A annotation, int contextPosition) {
+    }
+
+    private final Class<A> annotationType;
+    private final Map<Method, Metadata<A>> methods = new ConcurrentHashMap<>();
+
+    AnnotatedMethods(Class<A> annotationType) {
+        this.annotationType = annotationType;
+    }
+
+    Metadata<A> metadata(ProceedingJoinPoint joinPoint) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        return this.methods.computeIfAbsent(method, this::inspect);
+    }
+
+    /**
+     * @return the session context within the arguments of the join point, or empty if there is none
+     */
+    Optional<SessionContext> sessionContext(ProceedingJoinPoint joinPoint, Metadata<A> metadata) {
+        Object[] args = joinPoint.getArgs();
+        if (metadata.contextPosition() != UNKNOWN_POSITION) {
+            return Optional.ofNullable((SessionContext) args[metadata.contextPosition()]);
+        }
+
+        // the parameter is not declared as session context, we have to check the actual arguments
+        for (Object arg : args) {
+            if (arg instanceof SessionContext ctx) return Optional.of(ctx);
+        }
+        return Optional.empty();
+    }
+
+    private Metadata<A> inspect(Method method) {
+        A annotation = AnnotationUtils.findAnnotation(method, this.annotationType);
+
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        for (int i = 0; i < parameterTypes.length; i++) {
+            if (SessionContext.class.isAssignableFrom(parameterTypes[i])) {
+                return new Metadata<>(annotation, i);
+            }
+        }
+        return new Metadata<>(annotation, UNKNOWN_POSITION);
+    }
+}
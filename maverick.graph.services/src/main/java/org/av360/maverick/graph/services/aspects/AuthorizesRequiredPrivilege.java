@@ -4,7 +4,6 @@ import org.apache.commons.lang3.StringUtils;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
-import org.aspectj.lang.reflect.MethodSignature;
 import org.av360.maverick.graph.model.annotations.RequiresPrivilege;
 import org.av360.maverick.graph.model.context.SessionContext;
 import org.av360.maverick.graph.model.errors.InsufficientPrivilegeException;
@@ -14,7 +13,6 @@ import org.springframework.security.authorization.AuthorizationDecision;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Component;
 
-import java.util.Arrays;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -24,16 +22,25 @@ import java.util.stream.Collectors;
 public class AuthorizesRequiredPrivilege {
 
 
+    private final AnnotatedMethods<RequiresPrivilege> annotatedMethods = new AnnotatedMethods<>(RequiresPrivilege.class);
+
     @Around("@annotation(org.av360.maverick.graph.model.annotations.RequiresPrivilege)")
     public Object authorize(ProceedingJoinPoint joinPoint) throws Throwable {
 
-        Optional<SessionContext> sessionContextOptional = Arrays.stream(joinPoint.getArgs()).filter(o -> o instanceof SessionContext).findFirst().map(obk -> (SessionContext) obk);
+        AnnotatedMethods.Metadata<RequiresPrivilege> metadata = this.annotatedMethods.metadata(joinPoint);
+
+        Optional<SessionContext> sessionContextOptional = this.annotatedMethods.sessionContext(joinPoint, metadata);
         if(sessionContextOptional.isEmpty()) throw new IllegalArgumentException("Missing Session Context while running authorization");
         SessionContext ctx = sessionContextOptional.get();
 
+        String requiredAuthority = metadata.annotation().value();
 
-        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
-        String requiredAuthority = signature.getMethod().getAnnotation(RequiresPrivilege.class).value();
+        // services call each other with the same context, we only have to check a privilege once
+        Optional<AuthorizationDecision> cached = ctx.getGrantedDecision(requiredAuthority);
+        if (cached.isPresent()) {
+            ctx.withAuthorization(cached.get());
+            return joinPoint.proceed();
+        }
 
         if (StringUtils.isEmpty(requiredAuthority)) {
             ctx.withAuthorization(new AuthorizationDecision(false));
@@ -52,7 +59,8 @@ public class AuthorizesRequiredPrivilege {
                 throw new InsufficientPrivilegeException(msg);
             } else {
                 Set<GrantedAuthority> granted = ctx.getAuthentication().get().getAuthorities().stream().map(grantedAuthority -> (GrantedAuthority) grantedAuthority).collect(Collectors.toSet());
-                ctx.withAuthorization(new AuthorityAuthorizationDecision(true, granted));
+                AuthorizationDecision decision = new AuthorityAuthorizationDecision(true, granted);
+                ctx.withAuthorization(decision).rememberGrantedDecision(requiredAuthority, decision);
             }
         } else {
             ctx.withAuthorization(new AuthorizationDecision(false));
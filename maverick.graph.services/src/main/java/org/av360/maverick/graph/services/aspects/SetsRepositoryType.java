@@ -18,7 +18,6 @@ package org.av360.maverick.graph.services.aspects;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
-import org.aspectj.lang.reflect.MethodSignature;
 import org.av360.maverick.graph.model.annotations.OnRepositoryType;
 import org.av360.maverick.graph.model.context.Environment;
 import org.av360.maverick.graph.model.context.SessionContext;
@@ -27,7 +26,6 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
-import java.util.Arrays;
 import java.util.Objects;
 import java.util.Optional;
 
@@ -64,16 +62,18 @@ public class SetsRepositoryType {
     @Value("${application.storage.system.persistent:false}")
     boolean system_persistence;
 
+    private final AnnotatedMethods<OnRepositoryType> annotatedMethods = new AnnotatedMethods<>(OnRepositoryType.class);
+
     @Around("@annotation(org.av360.maverick.graph.model.annotations.OnRepositoryType)")
     public Object addRepositoryTypeToEnvironment(ProceedingJoinPoint joinPoint) throws Throwable {
 
-        Optional<SessionContext> sessionContextOptional = Arrays.stream(joinPoint.getArgs()).filter(o -> o instanceof SessionContext).findFirst().map(obk -> (SessionContext) obk);
+        AnnotatedMethods.Metadata<OnRepositoryType> metadata = this.annotatedMethods.metadata(joinPoint);
+
+        Optional<SessionContext> sessionContextOptional = this.annotatedMethods.sessionContext(joinPoint, metadata);
         if(sessionContextOptional.isEmpty()) throw new IllegalArgumentException("Missing Session Context while resolving environment");
         SessionContext ctx = sessionContextOptional.get();
 
-
-        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
-        RepositoryType onRepositoryType = signature.getMethod().getAnnotation(OnRepositoryType.class).value();
+        RepositoryType onRepositoryType = metadata.annotation().value();
 
         if (Objects.isNull(onRepositoryType)) {
             throw new UnsupportedOperationException("Missing target repository type while accessing a repository.");
@@ -91,7 +91,11 @@ public class SetsRepositoryType {
         return joinPoint.proceed();
     }
 
-    private void setDefaultConfigurations(Environment environment) {
+    /**
+     * Sets the configured persistence of the repository type in the environment, for operations on repositories which
+     * are not covered by this aspect (e.g. by the admin services).
+     */
+    public void setDefaultConfigurations(Environment environment) {
 
         switch (environment.getRepositoryType()) {
             case APPLICATION:
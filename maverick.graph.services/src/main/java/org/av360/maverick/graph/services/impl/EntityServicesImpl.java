@@ -2,40 +2,50 @@ package org.av360.maverick.graph.services.impl;
 
 import jakarta.annotation.Nullable;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.tuple.Pair;
 import org.av360.maverick.graph.model.annotations.OnRepositoryType;
 import org.av360.maverick.graph.model.annotations.RequiresPrivilege;
 import org.av360.maverick.graph.model.context.SessionContext;
 import org.av360.maverick.graph.model.entities.Transaction;
 import org.av360.maverick.graph.model.enums.Activity;
+import org.av360.maverick.graph.model.enums.ConfigurationKeysRegistry;
 import org.av360.maverick.graph.model.enums.RepositoryType;
 import org.av360.maverick.graph.model.errors.requests.EntityNotFound;
+import org.av360.maverick.graph.model.errors.requests.EntityVersionMismatch;
+import org.av360.maverick.graph.model.errors.requests.InvalidEntityUpdate;
 import org.av360.maverick.graph.model.events.EntityCreatedEvent;
+import org.av360.maverick.graph.model.events.EntityPatchedEvent;
 import org.av360.maverick.graph.model.rdf.LocalIRI;
 import org.av360.maverick.graph.model.rdf.Triples;
 import org.av360.maverick.graph.model.security.Authorities;
 import org.av360.maverick.graph.model.util.ValidateReactive;
 import org.av360.maverick.graph.model.vocabulary.meg.Local;
+import org.av360.maverick.graph.model.vocabulary.meg.Metadata;
+import org.av360.maverick.graph.services.ConfigurationService;
 import org.av360.maverick.graph.services.EntityServices;
 import org.av360.maverick.graph.services.IdentifierServices;
 import org.av360.maverick.graph.services.QueryServices;
 import org.av360.maverick.graph.services.SchemaServices;
 import org.av360.maverick.graph.services.api.Api;
+import org.av360.maverick.graph.services.api.entities.BatchResult;
+import org.av360.maverick.graph.services.api.entities.RdfPatch;
 import org.av360.maverick.graph.services.preprocessors.DelegatingPreprocessor;
 import org.av360.maverick.graph.store.IndividualsStore;
 import org.av360.maverick.graph.store.rdf.fragments.RdfFragment;
 import org.av360.maverick.graph.store.rdf.fragments.RdfTransaction;
 import org.av360.maverick.graph.store.rdf.helpers.RdfUtils;
 import org.av360.maverick.graph.store.rdf.helpers.TriplesCollector;
-import org.eclipse.rdf4j.model.IRI;
-import org.eclipse.rdf4j.model.Model;
-import org.eclipse.rdf4j.model.Resource;
-import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.*;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
 import org.eclipse.rdf4j.model.util.ModelCollector;
+import org.eclipse.rdf4j.model.util.Statements;
+import org.eclipse.rdf4j.model.util.Values;
 import org.eclipse.rdf4j.model.vocabulary.RDF;
 import org.eclipse.rdf4j.rio.RDFFormat;
 import org.eclipse.rdf4j.rio.RDFParser;
 import org.eclipse.rdf4j.rio.RDFParserRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.io.buffer.DataBufferUtils;
@@ -44,11 +54,14 @@ import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.io.InputStream;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Set;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
 import java.util.stream.Collectors;
 
 @Slf4j(topic = "graph.srvc.entity")
@@ -63,8 +76,18 @@ public class EntityServicesImpl implements EntityServices {
     private DelegatingPreprocessor preprocessor;
 
     private final Api api;
+    private final ValueIndexDeclarations valueIndexDeclarations;
+
+    @Value("${application.storage.entities.batch.chunkSize:100}")
+    private int batchChunkSize = 100;
+
+    @Value("${application.storage.entities.batch.parallelism:4}")
+    private int batchParallelism = 4;
+
     public EntityServicesImpl(IndividualsStore graph,
-                              SchemaServices schemaServices, QueryServices queryServices, IdentifierServices identifierServices, ApplicationEventPublisher eventPublisher, Api api) {
+                              SchemaServices schemaServices, QueryServices queryServices, IdentifierServices identifierServices, ApplicationEventPublisher eventPublisher, Api api,
+                              @Autowired(required = false) @Nullable ConfigurationService configurationService,
+                              @Value("${application.storage.entities.index.properties:}") String indexedProperties) {
         this.entityStore = graph;
         this.schemaServices = schemaServices;
         this.queryServices = queryServices;
@@ -72,6 +95,8 @@ public class EntityServicesImpl implements EntityServices {
         this.eventPublisher = eventPublisher;
 
         this.api = api;
+        this.valueIndexDeclarations = new ValueIndexDeclarations(graph, api.identifiers().prefixes(), configurationService, indexedProperties);
+        ConfigurationKeysRegistry.add(ValueIndexDeclarations.CONFIG_KEY_INDEXED_PROPERTIES, "Comma-separated list of properties (qualified or prefixed names) with an index for lookups of entities by value, e.g. 'sdo.identifier'.");
     }
 
 
@@ -109,7 +134,8 @@ public class EntityServicesImpl implements EntityServices {
 
 
     private Mono<RdfFragment> findByProperty(String identifier, IRI predicate, boolean details, int depth, SessionContext ctx) {
-        return api.entities().find().findByProperty(identifier, predicate, details, depth, ctx);
+        return this.valueIndexDeclarations.declare(ctx)
+                .then(api.entities().find().findByProperty(identifier, predicate, details, depth, ctx));
     }
 
     @Override
@@ -231,20 +257,256 @@ public class EntityServicesImpl implements EntityServices {
                 .map(Triples::getModel)
                 .flatMap(model -> preprocessor.handle(model, parameters, context.getEnvironment()))
                 // .flatMap(model -> entityStore.asCommitable().insertStatements(model, transaction))
-                .map(model -> {
-                    Transaction trx = new RdfTransaction().inserts(model);
+                .map(model -> insertInto(new RdfTransaction(), model));
+    }
+
+    private static Transaction insertInto(Transaction trx, Model model) {
+        trx.inserts(model);
+
+        Set<Statement> affectedTypeStatements = model.filter(null, RDF.TYPE, null)
+                .stream()
+                .filter(statement -> !statement.getObject().stringValue().startsWith(Local.URN_PREFIX))
+                .collect(Collectors.toSet());
+        trx.affects(affectedTypeStatements);
+
 
-                    Set<Statement> affectedTypeStatements = model.filter(null, RDF.TYPE, null)
-                            .stream()
-                            .filter(statement -> !statement.getObject().stringValue().startsWith(Local.URN_PREFIX))
-                            .collect(Collectors.toSet());
-                    trx.affects(affectedTypeStatements);
+        return trx;
+    }
 
+    /**
+     * An entity of a batch request after preprocessing, either with its model or with the reason why it failed.
+     */
+    private record BatchItem(long index, @Nullable Resource identifier, @Nullable Model model, boolean exists, @Nullable String failure) {
+        private static BatchItem failed(long index, String failure) {
+            return new BatchItem(index, null, null, false, failure);
+        }
+    }
 
-                    return trx;
+    @Override
+    @RequiresPrivilege(Authorities.CONTRIBUTOR_VALUE)
+    @OnRepositoryType(RepositoryType.ENTITIES)
+    public Flux<BatchResult> createAll(Flux<String> documents, RDFFormat format, Map<String, String> parameters, SessionContext ctx) {
+        // the chunks are emitted in order, while the following chunks are already prepared
+        return documents
+                .filter(StringUtils::hasText)
+                .index()
+                .buffer(this.batchChunkSize)
+                .flatMapSequential(chunk -> Flux.fromIterable(chunk)
+                                .concatMap(document -> this.prepareBatchItem(document.getT1(), document.getT2(), format, parameters, ctx))
+                                .collectList()
+                                .flatMapMany(items -> this.commitBatchItems(items, ctx))
+                                .subscribeOn(Schedulers.boundedElastic()),
+                        this.batchParallelism)
+                .doOnSubscribe(subscription -> {
+                    log.info("Creating batch of entities in scope '{}'.", ctx.getEnvironment().getScope());
                 });
     }
 
+    private Mono<BatchItem> prepareBatchItem(long index, String document, RDFFormat format, Map<String, String> parameters, SessionContext ctx) {
+        Model model;
+        try {
+            RDFParser parser = RDFParserRegistry.getInstance().get(format).orElseThrow().getParser();
+            TriplesCollector handler = RdfUtils.getTriplesCollector();
+            parser.setRDFHandler(handler);
+            parser.parse(new StringReader(document));
+            model = handler.getTriples().getModel();
+        } catch (Exception e) {
+            return Mono.just(BatchItem.failed(index, "Invalid document: " + e.getMessage()));
+        }
+        if (model.isEmpty()) return Mono.just(BatchItem.failed(index, "No statements in document detected."));
+
+        return this.preprocessor.handle(model, parameters, ctx.getEnvironment())
+                .flatMap(preprocessed -> {
+                    // the entity is the subject which is not embedded in another subject of the document (the lowest, if there are several)
+                    Optional<Resource> identifier = preprocessed.filter(null, RDF.TYPE, null).subjects().stream()
+                            .filter(subject -> !preprocessed.contains(null, null, subject))
+                            .min(Comparator.comparing(Resource::stringValue));
+                    if (identifier.isEmpty()) return Mono.just(BatchItem.failed(index, "No entity with a type in document detected."));
+
+                    return this.entityStore.asFragmentable().exists(identifier.get(), ctx.getEnvironment())
+                            .map(exists -> new BatchItem(index, identifier.get(), (Model) preprocessed, exists, null));
+                })
+                .onErrorResume(error -> Mono.just(BatchItem.failed(index, Objects.nonNull(error.getMessage()) ? error.getMessage() : error.getClass().getSimpleName())));
+    }
+
+    private Flux<BatchResult> commitBatchItems(List<BatchItem> items, SessionContext ctx) {
+        Transaction transaction = new RdfTransaction();
+        items.stream().filter(item -> Objects.isNull(item.failure())).forEach(item -> insertInto(transaction, item.model()));
+
+        Mono<Optional<String>> committed = transaction.getInsertedStatements().isEmpty() ? Mono.just(Optional.empty()) :
+                this.entityStore.asCommitable().commit(transaction, ctx.getEnvironment())
+                        .doOnSuccess(trx -> {
+                            if (trx.isCompleted()) eventPublisher.publishEvent(new EntityCreatedEvent(trx, ctx.getEnvironment()));
+                        })
+                        .map(trx -> trx.isCompleted() ? Optional.<String>empty() : Optional.of("The transaction failed."))
+                        .onErrorResume(error -> Mono.just(Optional.of("The transaction failed: " + error.getMessage())));
+
+        return committed.flatMapIterable(failure -> {
+            // entities which are repeated within the chunk are merged as well
+            Set<Resource> created = new HashSet<>();
+            return items.stream()
+                    .map(item -> {
+                        if (Objects.nonNull(item.failure())) return BatchResult.failed(item.index(), item.identifier(), item.failure());
+                        if (failure.isPresent()) return BatchResult.failed(item.index(), item.identifier(), failure.get());
+                        boolean merged = item.exists() || !created.add(item.identifier());
+                        return new BatchResult(item.index(), merged ? BatchResult.Outcome.MERGED : BatchResult.Outcome.CREATED, item.identifier(), null);
+                    })
+                    .toList();
+        });
+    }
+
+
+    @Override
+    @RequiresPrivilege(Authorities.CONTRIBUTOR_VALUE)
+    @OnRepositoryType(RepositoryType.ENTITIES)
+    public Mono<Pair<Transaction, String>> patch(String entityKey, String patch, @Nullable String version, SessionContext ctx) {
+        return api.identifiers().localIdentifiers().asLocalIRI(entityKey, ctx.getEnvironment())
+                .flatMap(entityIdentifier -> {
+                    // the version is read before the entity, the changes are rejected if the entity is changed in the meantime
+                    Mono<Optional<String>> storedVersion = this.entityStore.isVersioned() ? this.entityStore.asVersioned().getVersion(entityIdentifier, ctx.getEnvironment()).map(Optional::of) : Mono.just(Optional.empty());
+                    return storedVersion.flatMap(stored -> this.entityStore.asFragmentable().getFragment(entityIdentifier, 0, true, ctx.getEnvironment())
+                            .switchIfEmpty(Mono.error(new EntityNotFound(entityKey)))
+                            .flatMap(fragment -> {
+                                Model current = withoutContexts(fragment.getModel());
+                                return this.applyPatch(entityIdentifier, current, stored.orElseGet(() -> version(current)), patch, version, ctx);
+                            }));
+                })
+                .doOnSubscribe(subscription -> {
+                    log.info("Patching entity with key '{}' in scope '{}'. Version: {}", entityKey, ctx.getEnvironment().getScope(), Objects.nonNull(version) ? version : "any");
+                });
+    }
+
+    @Override
+    @RequiresPrivilege(Authorities.READER_VALUE)
+    @OnRepositoryType(RepositoryType.ENTITIES)
+    public Mono<String> version(String entityKey, SessionContext ctx) {
+        return api.identifiers().localIdentifiers().asLocalIRI(entityKey, ctx.getEnvironment())
+                .flatMap(entityIdentifier -> {
+                    if (this.entityStore.isVersioned()) {
+                        return this.entityStore.asFragmentable().exists(entityIdentifier, ctx.getEnvironment())
+                                .filter(Boolean::booleanValue)
+                                .flatMap(exists -> this.entityStore.asVersioned().getVersion(entityIdentifier, ctx.getEnvironment()));
+                    } else {
+                        return this.entityStore.asFragmentable().getFragment(entityIdentifier, 0, true, ctx.getEnvironment())
+                                .map(fragment -> version(withoutContexts(fragment.getModel())));
+                    }
+                })
+                .switchIfEmpty(Mono.error(new EntityNotFound(entityKey)));
+    }
+
+    private Mono<Pair<Transaction, String>> applyPatch(IRI entityIdentifier, Model current, String currentVersion, String patch, @Nullable String version, SessionContext ctx) {
+        if (Objects.nonNull(version) && !version.equals(currentVersion)) {
+            return Mono.error(new EntityVersionMismatch(entityIdentifier.getLocalName(), version));
+        }
+
+        RdfPatch rdfPatch;
+        try {
+            rdfPatch = RdfPatch.parse(patch, entityIdentifier.stringValue());
+        } catch (IllegalArgumentException e) {
+            return Mono.error(new InvalidEntityUpdate(entityIdentifier, "Invalid patch. " + e.getMessage()));
+        }
+        if (rdfPatch.isEmpty()) {
+            return Mono.error(new InvalidEntityUpdate(entityIdentifier, "No statements in patch detected."));
+        }
+
+        Optional<Statement> foreign = rdfPatch.additions().stream().filter(statement -> !isPartOfEntity(entityIdentifier, statement.getSubject(), current, true)).findFirst()
+                .or(() -> rdfPatch.deletions().stream().filter(statement -> !isPartOfEntity(entityIdentifier, statement.getSubject(), current, false)).findFirst());
+        if (foreign.isPresent()) {
+            return Mono.error(new InvalidEntityUpdate(entityIdentifier, "The patch contains statements which are not about the entity, like: " + foreign.get()));
+        }
+
+        // the preprocessors need the types of all subjects, but the details of values are not preprocessed
+        Model values = rdfPatch.additions().stream().filter(statement -> !statement.getSubject().isTriple()).collect(new ModelCollector());
+        Model details = rdfPatch.additions().stream().filter(statement -> statement.getSubject().isTriple()).collect(new ModelCollector());
+        Model types = values.subjects().stream().flatMap(subject -> current.filter(subject, RDF.TYPE, null).stream()).collect(new ModelCollector());
+        Model input = new LinkedHashModel(values);
+        input.addAll(types);
+
+        return this.preprocessor.handle(input, Map.of(), ctx.getEnvironment())
+                .flatMap(preprocessed -> {
+                    Model processed = preprocessed.stream().filter(statement -> !types.contains(statement) || values.contains(statement)).collect(new ModelCollector());
+                    Model inserts = new LinkedHashModel();
+                    processed.stream().filter(statement -> !current.contains(statement.getSubject(), statement.getPredicate(), statement.getObject())).forEach(inserts::add);
+                    details.stream().filter(statement -> !current.contains(statement.getSubject(), statement.getPredicate(), statement.getObject())).forEach(inserts::add);
+
+                    // statements which are deleted and added again are kept (with their details)
+                    Model removals = new LinkedHashModel();
+                    rdfPatch.deletions().stream()
+                            .filter(statement -> current.contains(statement.getSubject(), statement.getPredicate(), statement.getObject()))
+                            .filter(statement -> !processed.contains(statement.getSubject(), statement.getPredicate(), statement.getObject()) && !details.contains(statement.getSubject(), statement.getPredicate(), statement.getObject()))
+                            .forEach(statement -> {
+                                removals.add(statement);
+                                removals.addAll(current.filter(Values.triple(statement), null, null));
+                            });
+
+                    Model patched = new LinkedHashModel(current);
+                    patched.removeAll(removals);
+                    patched.addAll(inserts);
+                    if (patched.filter(entityIdentifier, RDF.TYPE, null).objects().stream().allMatch(type -> type.stringValue().startsWith(Local.URN_PREFIX))) {
+                        return Mono.error(new InvalidEntityUpdate(entityIdentifier, "The type of the entity can't be removed."));
+                    }
+
+                    RdfTransaction transaction = new RdfTransaction();
+                    transaction.removes(removals);
+                    transaction.inserts(inserts);
+                    transaction.affects(current.stream().filter(statement -> !removals.contains(statement)).toList());
+                    // the changes are computed from the current entity, the store rejects them if the entity has been changed in the meantime
+                    transaction.expects(entityIdentifier, currentVersion);
+                    return Mono.just((Transaction) transaction);
+                })
+                .flatMap(transaction -> {
+                    if (transaction.getRemovedStatements().isEmpty() && transaction.getInsertedStatements().isEmpty()) {
+                        return Mono.just(Pair.of(transaction, currentVersion));
+                    }
+                    // a failed commit is rolled back as whole, the patch fails without event
+                    return entityStore.asCommitable().commit(transaction, ctx.getEnvironment())
+                            .flatMap(Transaction::verifyCompleted)
+                            .doOnSuccess(committed -> eventPublisher.publishEvent(new EntityPatchedEvent(committed, ctx.getEnvironment())))
+                            .flatMap(committed -> {
+                                if (committed.getVersion(entityIdentifier).isPresent()) {
+                                    return Mono.just(Pair.of(committed, committed.getVersion(entityIdentifier).get()));
+                                }
+                                // new objects might not be embedded, the version is taken from the entity as stored
+                                return this.entityStore.asFragmentable().getFragment(entityIdentifier, 0, true, ctx.getEnvironment())
+                                        .map(fragment -> Pair.of(committed, version(withoutContexts(fragment.getModel()))));
+                            });
+                });
+    }
+
+    /**
+     * Only the statements about the entity itself, its embedded objects and the details of their values can be
+     * patched. New embedded objects are anonymous.
+     */
+    private static boolean isPartOfEntity(IRI entityIdentifier, Resource subject, Model entity, boolean isAddition) {
+        if (subject.equals(entityIdentifier)) return true;
+        if (subject instanceof Triple triple) return isPartOfEntity(entityIdentifier, triple.getSubject(), entity, false);
+        if (subject.isBNode()) return isAddition;
+        return entity.contains(subject, null, null);
+    }
+
+    /**
+     * The version of an entity in stores which don't keep versions is a hash of its statements (without the metadata,
+     * which is updated asynchronously)
+     */
+    private static String version(Model entity) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            entity.stream()
+                    .filter(statement -> !statement.getPredicate().getNamespace().equals(Metadata.NAMESPACE))
+                    .map(statement -> statement.getSubject() + " " + statement.getPredicate() + " " + statement.getObject())
+                    .sorted()
+                    .forEach(line -> digest.update((line + "\n").getBytes(StandardCharsets.UTF_8)));
+            return HexFormat.of().formatHex(digest.digest(), 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported by this runtime", e);
+        }
+    }
+
+    private static Model withoutContexts(Model model) {
+        return model.stream()
+                .map(statement -> Statements.statement(statement.getSubject(), statement.getPredicate(), statement.getObject(), null))
+                .collect(new ModelCollector());
+    }
 
     private Mono<RdfFragment> findByKey(String entityKey, boolean details, int depth, SessionContext ctx) {
         return api.identifiers().localIdentifiers().asLocalIRI(entityKey, ctx.getEnvironment())
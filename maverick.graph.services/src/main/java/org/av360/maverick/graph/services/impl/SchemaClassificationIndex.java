@@ -0,0 +1,75 @@
+package org.av360.maverick.graph.services.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.av360.maverick.graph.model.vocabulary.*;
+import org.eclipse.rdf4j.model.IRI;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Classifies types and properties of the supported vocabularies. The classification of every known term is compiled into
+ * a single map when the index is created, a lookup requires one hash lookup instead of checking the term sets of every
+ * vocabulary. The terms are defined by the vocabulary classes, the namespaces loaded by the schema store don't change
+ * the classification.
+ * <p>
+ * The classification of unknown terms (which only depends on their local name) is memoized in a bounded cache.
+ */
+final class SchemaClassificationIndex {
+
+    static final int INDIVIDUAL_TYPE = 1;
+    static final int CLASSIFIER_TYPE = 1 << 1;
+    static final int CHARACTERISTIC_PROPERTY = 1 << 2;
+    static final int POTENTIAL_CHARACTERISTIC_PROPERTY = 1 << 3;
+
+    private static final Pattern POTENTIAL_CHARACTERISTIC_NAME = Pattern.compile("(?i).*(id|key|code).*");
+
+    private final Map<String, Integer> known;
+    private final Cache<String, Integer> unknown;
+
+    private SchemaClassificationIndex(Map<String, Integer> known, long maximumSize) {
+        this.known = known;
+        this.unknown = Caffeine.newBuilder().maximumSize(maximumSize).build();
+    }
+
+    static SchemaClassificationIndex build(long maximumSize) {
+        Map<String, Integer> known = new HashMap<>();
+
+        register(known, INDIVIDUAL_TYPE, List.of(
+                SDO::getIndividualTypes, SCHEMA::getIndividualTypes, RDFS::getIndividualTypes, DC::getIndividualTypes, DCTERMS::getIndividualTypes,
+                SKOS::getIndividualTypes, ICAL::getIndividualTypes, ESCO::getIndividualTypes, FOAF::getIndividualTypes));
+        register(known, CLASSIFIER_TYPE, List.of(
+                SDO::getClassifierTypes, SCHEMA::getClassifierTypes, RDFS::getClassifierTypes, DC::getClassifierTypes, DCTERMS::getClassifierTypes,
+                SKOS::getClassifierTypes, SKOSXL::getClassifierTypes, ICAL::getClassifierTypes, ESCO::getClassifierTypes, FOAF::getClassifierTypes));
+        register(known, CHARACTERISTIC_PROPERTY, List.of(
+                SDO::getCharacteristicProperties, SCHEMA::getCharacteristicProperties, RDFS::getCharacteristicProperties, DC::getCharacteristicProperties,
+                DCTERMS::getCharacteristicProperties, SKOS::getCharacteristicProperties, ICAL::getCharacteristicProperties, ESCO::getCharacteristicProperties,
+                FOAF::getCharacteristicProperties));
+
+        return new SchemaClassificationIndex(known, maximumSize);
+    }
+
+    private static void register(Map<String, Integer> known, int flag, List<Supplier<Set<IRI>>> vocabularies) {
+        vocabularies.forEach(terms -> terms.get().forEach(term ->
+                known.merge(term.stringValue(), flag | classifyName(term), (current, update) -> current | update)));
+    }
+
+    private static int classifyName(IRI iri) {
+        return POTENTIAL_CHARACTERISTIC_NAME.matcher(iri.getLocalName()).matches() ? POTENTIAL_CHARACTERISTIC_PROPERTY : 0;
+    }
+
+    boolean is(IRI iri, int flag) {
+        return (this.classify(iri) & flag) != 0;
+    }
+
+    int classify(IRI iri) {
+        Integer flags = this.known.get(iri.stringValue());
+        if (flags != null) return flags;
+        return this.unknown.get(iri.stringValue(), key -> classifyName(iri));
+    }
+}
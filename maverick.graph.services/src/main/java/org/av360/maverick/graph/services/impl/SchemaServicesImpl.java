@@ -3,12 +3,12 @@ package org.av360.maverick.graph.services.impl;
 import lombok.extern.slf4j.Slf4j;
 import org.av360.maverick.graph.model.errors.requests.UnknownPrefix;
 import org.av360.maverick.graph.model.rdf.LocalIRI;
-import org.av360.maverick.graph.model.vocabulary.*;
 import org.av360.maverick.graph.services.SchemaServices;
 import org.av360.maverick.graph.store.SchemaStore;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Namespace;
 import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.util.Assert;
 import reactor.core.publisher.Mono;
@@ -17,9 +17,11 @@ import reactor.core.publisher.Mono;
 @Slf4j(topic = "graph.srvc.schema")
 public class SchemaServicesImpl implements SchemaServices {
     private final SchemaStore schemaStore;
+    private final SchemaClassificationIndex index;
 
-    public SchemaServicesImpl(SchemaStore schemaStore) {
+    public SchemaServicesImpl(SchemaStore schemaStore, @Value("${application.features.schema.classificationCacheSize:10000}") long cacheSize) {
         this.schemaStore = schemaStore;
+        this.index = SchemaClassificationIndex.build(cacheSize);
     }
 
     @Override
@@ -44,50 +46,22 @@ public class SchemaServicesImpl implements SchemaServices {
 
     @Override
     public boolean isIndividualType(IRI iri) {
-        boolean res =
-                SDO.getIndividualTypes().contains(iri)
-                        || SCHEMA.getIndividualTypes().contains(iri)
-                        || RDFS.getIndividualTypes().contains(iri)
-                        || DC.getIndividualTypes().contains(iri)
-                        || DCTERMS.getIndividualTypes().contains(iri)
-                        || SKOS.getIndividualTypes().contains(iri)
-                        || ICAL.getIndividualTypes().contains(iri)
-                        || ESCO.getIndividualTypes().contains(iri)
-                        || FOAF.getIndividualTypes().contains(iri)
-                ;
-        return res;
-
+        return this.index.is(iri, SchemaClassificationIndex.INDIVIDUAL_TYPE);
     }
 
     @Override
     public boolean isClassifierType(IRI iri) {
-        return
-                SDO.getClassifierTypes().contains(iri)
-                        || SCHEMA.getClassifierTypes().contains(iri)
-                        || RDFS.getClassifierTypes().contains(iri)
-                        || DC.getClassifierTypes().contains(iri)
-                        || DCTERMS.getClassifierTypes().contains(iri)
-                        || SKOS.getClassifierTypes().contains(iri)
-                        || SKOSXL.getClassifierTypes().contains(iri)
-                        || ICAL.getClassifierTypes().contains(iri)
-                        || ESCO.getClassifierTypes().contains(iri)
-                        || FOAF.getClassifierTypes().contains(iri)
-                ;
+        return this.index.is(iri, SchemaClassificationIndex.CLASSIFIER_TYPE);
     }
 
     @Override
     public boolean isCharacteristicProperty(IRI iri) {
-        return
-                SDO.getCharacteristicProperties().contains(iri)
-                        || SCHEMA.getCharacteristicProperties().contains(iri)
-                        || RDFS.getCharacteristicProperties().contains(iri)
-                        || DC.getCharacteristicProperties().contains(iri)
-                        || DCTERMS.getCharacteristicProperties().contains(iri)
-                        || SKOS.getCharacteristicProperties().contains(iri)
-                        || ICAL.getCharacteristicProperties().contains(iri)
-                        || ESCO.getCharacteristicProperties().contains(iri)
-                        || FOAF.getCharacteristicProperties().contains(iri)
-        ;
+        return this.index.is(iri, SchemaClassificationIndex.CHARACTERISTIC_PROPERTY);
+    }
+
+    @Override
+    public boolean isPotentialCharacteristicProperty(IRI iri) {
+        return this.index.is(iri, SchemaClassificationIndex.POTENTIAL_CHARACTERISTIC_PROPERTY);
     }
 
     @Deprecated(forRemoval = true)
@@ -0,0 +1,174 @@
+package org.av360.maverick.graph.services.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.av360.maverick.graph.model.annotations.OnRepositoryType;
+import org.av360.maverick.graph.model.annotations.RequiresPrivilege;
+import org.av360.maverick.graph.model.context.SessionContext;
+import org.av360.maverick.graph.model.enums.RepositoryType;
+import org.av360.maverick.graph.model.security.Authorities;
+import org.av360.maverick.graph.model.vocabulary.*;
+import org.av360.maverick.graph.services.SearchServices;
+import org.av360.maverick.graph.store.IndividualsStore;
+import org.av360.maverick.graph.store.SearchIndex;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.*;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Service
+@Slf4j(topic = "graph.srvc.search")
+public class SearchServicesImpl implements SearchServices {
+
+    private static final Set<IRI> LABEL_PROPERTIES = Stream.of(
+                    SDO.getLabelProperties(), DC.getLabelProperties(), DCTERMS.getLabelProperties(), SKOS.getLabelProperties(), RDFS.getLabelProperties())
+            .flatMap(Set::stream)
+            .collect(Collectors.toUnmodifiableSet());
+
+    private static final Set<IRI> DESCRIPTION_PROPERTIES = Stream.of(
+                    SDO.getDescriptionProperties(), DC.getDescriptionProperties(), DCTERMS.getDescriptionProperties(), SKOS.getDescriptionProperties(), RDFS.getDescriptionProperties())
+            .flatMap(Set::stream)
+            .collect(Collectors.toUnmodifiableSet());
+
+    private static final Set<IRI> INDEXED_PROPERTIES = Stream.concat(LABEL_PROPERTIES.stream(), DESCRIPTION_PROPERTIES.stream())
+            .collect(Collectors.toUnmodifiableSet());
+
+    private static final Pattern INVALID_IRI_CHARACTERS = Pattern.compile("[\\x00-\\x20<>\"{}|^`\\\\]");
+
+    private final IndividualsStore entityStore;
+    private final SearchIndex searchIndex;
+    private final int batchSize;
+
+    public SearchServicesImpl(IndividualsStore entityStore, SearchIndex searchIndex,
+                              @Value("${application.storage.search.batchSize:500}") int batchSize) {
+        this.entityStore = entityStore;
+        this.searchIndex = searchIndex;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    @RequiresPrivilege(Authorities.READER_VALUE)
+    @OnRepositoryType(RepositoryType.ENTITIES)
+    public Mono<SearchIndex.Result> search(SearchIndex.Query query, SessionContext context) {
+        return this.searchIndex.search(query, context.getEnvironment());
+    }
+
+    @Override
+    @RequiresPrivilege(Authorities.MAINTAINER_VALUE)
+    @OnRepositoryType(RepositoryType.ENTITIES)
+    public Mono<Void> update(Collection<Resource> subjects, SessionContext context) {
+        return this.reindex(subjects, context).then();
+    }
+
+    @Override
+    @RequiresPrivilege(Authorities.MAINTAINER_VALUE)
+    @OnRepositoryType(RepositoryType.ENTITIES)
+    public Mono<Long> rebuild(SessionContext context) {
+        return this.searchIndex.clear(context.getEnvironment())
+                .then(this.rebuildFrom(0, 0L, context))
+                .doOnSuccess(count -> log.info("Rebuilt search index in scope '{}' with {} entities", context.getEnvironment().getScope().label(), count));
+    }
+
+    @Override
+    public Set<IRI> getIndexedProperties() {
+        return INDEXED_PROPERTIES;
+    }
+
+    /**
+     * Pages through all entities with indexed values, the entities of every page are indexed before the next page is
+     * requested.
+     */
+    private Mono<Long> rebuildFrom(int offset, long indexed, SessionContext context) {
+        String query = """
+                SELECT DISTINCT ?s WHERE {
+                  VALUES ?p { %s }
+                  ?s ?p ?o .
+                  FILTER(isIRI(?s) && isLiteral(?o))
+                }
+                ORDER BY ?s
+                LIMIT %d
+                OFFSET %d
+                """.formatted(asValues(INDEXED_PROPERTIES), this.batchSize, offset);
+
+        return this.entityStore.asSearchable().query(query, context.getEnvironment())
+                .map(bindings -> (Resource) bindings.getValue("s"))
+                .collectList()
+                .flatMap(subjects -> {
+                    if (subjects.isEmpty()) return Mono.just(indexed);
+                    return this.reindex(subjects, context)
+                            .flatMap(count -> subjects.size() < this.batchSize
+                                    ? Mono.just(indexed + count)
+                                    : this.rebuildFrom(offset + this.batchSize, indexed + count, context));
+                });
+    }
+
+    /**
+     * @return the number of indexed entities (entities without indexed values are removed from the index)
+     */
+    private Mono<Long> reindex(Collection<Resource> subjects, SessionContext context) {
+        return Flux.fromIterable(subjects)
+                .filter(Resource::isIRI)
+                .distinct()
+                .buffer(this.batchSize)
+                .concatMap(batch -> this.loadEntries(batch, context)
+                        .flatMap(entries -> this.searchIndex.index(entries, context.getEnvironment())
+                                .thenReturn(entries.stream().filter(entry -> !entry.isEmpty()).count())))
+                .reduce(0L, Long::sum);
+    }
+
+    private Mono<List<SearchIndex.Entry>> loadEntries(List<Resource> subjects, SessionContext context) {
+        String query = """
+                SELECT ?s ?p ?o WHERE {
+                  VALUES ?s { %s }
+                  VALUES ?p { %s }
+                  ?s ?p ?o .
+                  FILTER(isLiteral(?o))
+                }
+                """.formatted(asValues(subjects), asValues(INDEXED_PROPERTIES));
+
+        return this.entityStore.asSearchable().query(query, context.getEnvironment())
+                .collectMultimap(bindings -> (Resource) bindings.getValue("s"))
+                .map(values -> subjects.stream()
+                        .map(subject -> toEntry(subject, values.getOrDefault(subject, List.of())))
+                        .toList());
+    }
+
+    private static SearchIndex.Entry toEntry(Resource subject, Collection<BindingSet> values) {
+        List<Literal> labels = new ArrayList<>();
+        List<Literal> descriptions = new ArrayList<>();
+        values.forEach(bindings -> {
+            IRI predicate = (IRI) bindings.getValue("p");
+            Literal literal = (Literal) bindings.getValue("o");
+            if (LABEL_PROPERTIES.contains(predicate)) labels.add(literal);
+            else descriptions.add(literal);
+        });
+        return new SearchIndex.Entry(subject, labels, descriptions);
+    }
+
+    /**
+     * Serializes the IRIs for a VALUES clause. IRIs with characters which are not allowed in a SPARQL IRI reference
+     * (e.g. from imported data) are skipped, they would otherwise break or change the query.
+     */
+    private static String asValues(Collection<? extends Resource> resources) {
+        return resources.stream()
+                .filter(Resource::isIRI)
+                .map(Resource::stringValue)
+                .filter(iri -> {
+                    if (INVALID_IRI_CHARACTERS.matcher(iri).find()) {
+                        log.warn("Skipping IRI '{}' with invalid characters in search index", iri);
+                        return false;
+                    }
+                    return true;
+                })
+                .map(iri -> "<" + iri + ">")
+                .collect(Collectors.joining(" "));
+    }
+}
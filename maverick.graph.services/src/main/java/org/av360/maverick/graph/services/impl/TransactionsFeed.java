@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2024.
+ *
+ *  Licensed under the EUPL, Version 1.2 or – as soon they will be approved by the
+ *  European Commission - subsequent versions of the EUPL (the "Licence");
+ *
+ *  You may not use this work except in compliance with the Licence.
+ *  You may obtain a copy of the Licence at:
+ *
+ *  https://joinup.ec.europa.eu/software/page/eupl5
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the Licence is distributed on an "AS IS" basis,  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the Licence for the specific language governing permissions and limitations under the Licence.
+ *
+ */
+
+package org.av360.maverick.graph.services.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.av360.maverick.graph.model.context.Environment;
+import org.av360.maverick.graph.model.context.SessionContext;
+import org.av360.maverick.graph.model.entities.Transaction;
+import org.av360.maverick.graph.model.vocabulary.meg.Transactions;
+import org.av360.maverick.graph.store.TransactionsStore;
+import org.av360.maverick.graph.store.rdf.fragments.RdfTransaction;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.XSD;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+import javax.annotation.Nullable;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Records transactions in the transactions store and distributes them to the subscribers of the change feed.
+ * <p>
+ * Transactions are recorded one batch at a time per scope: every transaction is stamped with a strictly increasing
+ * commit time before it is stored, and published to the live subscribers only after it has been stored. Transactions
+ * submitted while a batch is being stored are written together with the next batch. Subscribers therefore see
+ * the transactions in the same order as they are returned when reading the history from the store, which is what makes
+ * the position tokens resumable.
+ * <p>
+ * Every live subscriber has a bounded buffer. A subscriber which can't keep up is terminated with an overflow error, it
+ * is expected to reconnect with the position of the last transaction it has received.
+ */
+@Slf4j(topic = "graph.srvc.trx.feed")
+class TransactionsFeed {
+
+    private static final int REPLAY_PAGE_SIZE = 100;
+    private static final int MAX_BATCH_SIZE = 100;
+
+    private final TransactionsStore transactionsStore;
+    private final int bufferSize;
+    private final Map<String, Channel> channels;
+
+    TransactionsFeed(TransactionsStore transactionsStore, int bufferSize) {
+        this.transactionsStore = transactionsStore;
+        this.bufferSize = bufferSize;
+        this.channels = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Stamps and stores the given transactions, and publishes them to the subscribers of the scope.
+     */
+    Mono<List<Transaction>> record(Collection<Transaction> transactions, Environment environment) {
+        if (transactions.isEmpty()) return Mono.just(List.of());
+
+        Sinks.One<List<Transaction>> result = Sinks.one();
+        this.channelFor(environment).submit(new Pending(List.copyOf(transactions), snapshot(environment), result));
+        return result.asMono();
+    }
+
+    /**
+     * Returns the transactions recorded after the given position, followed by all transactions recorded from now on.
+     *
+     * @param after the position of the last transaction seen by the client, only transactions recorded from now on are returned if null
+     */
+    Flux<Transaction> subscribe(@Nullable TransactionsStore.Position after, Environment environment) {
+        Environment stable = snapshot(environment);
+
+        return Flux.defer(() -> {
+            Channel channel = this.channelFor(stable);
+            Sinks.Many<Transaction> live = Sinks.many().unicast().onBackpressureBuffer(Queues.<Transaction>get(this.bufferSize).get());
+            channel.subscribers.add(live);
+
+            AtomicReference<TransactionsStore.Position> last = new AtomicReference<>(after);
+            Flux<Transaction> replay = Objects.isNull(after) ? Flux.empty() : this.replay(after, stable);
+
+            return Flux.concat(replay, live.asFlux())
+                    .filter(transaction -> {
+                        // transactions published while replaying are also part of the replay
+                        TransactionsStore.Position position = TransactionsStore.Position.of(transaction);
+                        if (Objects.nonNull(last.get()) && position.compareTo(last.get()) <= 0) return false;
+                        last.set(position);
+                        return true;
+                    })
+                    .doFinally(signalType -> channel.subscribers.remove(live));
+        });
+    }
+
+    private Flux<Transaction> replay(TransactionsStore.Position after, Environment environment) {
+        return this.transactionsStore.listTransactions(after, REPLAY_PAGE_SIZE, environment).collectList()
+                .expand(page -> page.size() < REPLAY_PAGE_SIZE
+                        ? Mono.empty()
+                        : this.transactionsStore.listTransactions(TransactionsStore.Position.of(page.get(page.size() - 1)), REPLAY_PAGE_SIZE, environment).collectList())
+                .flatMapIterable(page -> page);
+    }
+
+    private Channel channelFor(Environment environment) {
+        return this.channels.computeIfAbsent(environment.getScope().label(), Channel::new);
+    }
+
+    /**
+     * The environment of the session context is modified by the aspects, we keep our own copy for the deferred operations.
+     */
+    private static Environment snapshot(Environment environment) {
+        return SessionContext.systemContextFor(environment).setAuthorized().getEnvironment();
+    }
+
+    private record Pending(List<Transaction> transactions, Environment environment, Sinks.One<List<Transaction>> result) {
+    }
+
+    private class Channel {
+        private final String scope;
+        private final Queue<Pending> queue;
+        private final AtomicInteger wip;
+        private final List<Sinks.Many<Transaction>> subscribers;
+        private volatile boolean busy;
+        private long lastCommitted;
+
+        Channel(String scope) {
+            this.scope = scope;
+            this.queue = new ConcurrentLinkedQueue<>();
+            this.wip = new AtomicInteger();
+            this.subscribers = new CopyOnWriteArrayList<>();
+        }
+
+        void submit(Pending pending) {
+            this.queue.offer(pending);
+            this.drain();
+        }
+
+        /**
+         * Only one batch is stored at a time, everything submitted in the meantime is collected into the next batch.
+         */
+        private void drain() {
+            if (this.wip.getAndIncrement() != 0) return;
+
+            int missed = 1;
+            do {
+                if (!this.busy) {
+                    List<Pending> batch = new ArrayList<>();
+                    Pending next;
+                    while (batch.size() < MAX_BATCH_SIZE && Objects.nonNull(next = this.queue.poll())) {
+                        batch.add(next);
+                    }
+
+                    if (!batch.isEmpty()) {
+                        this.busy = true;
+                        this.process(batch).subscribe(null, null, () -> {
+                            this.busy = false;
+                            this.drain();
+                        });
+                    }
+                }
+                missed = this.wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private Mono<Void> process(List<Pending> batch) {
+            // the transactions are shared with the other listeners of their events, only copies are stamped
+            List<List<Transaction>> stamped = batch.stream().map(pending -> pending.transactions().stream().map(this::stamp).toList()).toList();
+            List<Transaction> transactions = stamped.stream().flatMap(List::stream).toList();
+
+            return transactionsStore.store(transactions, batch.get(0).environment())
+                    .collectList()
+                    .doOnNext(this::publish)
+                    .doOnNext(stored -> {
+                        for (int i = 0; i < batch.size(); i++) {
+                            batch.get(i).result().tryEmitValue(stamped.get(i));
+                        }
+                    })
+                    .doOnError(error -> {
+                        log.warn("Failed to record {} transactions in scope '{}': {}", transactions.size(), this.scope, error.getMessage());
+                        batch.forEach(pending -> pending.result().tryEmitError(error));
+                    })
+                    .then()
+                    .onErrorResume(error -> Mono.empty());
+        }
+
+        private Transaction stamp(Transaction transaction) {
+            Transaction stamped = transaction instanceof RdfTransaction rdfTransaction ? rdfTransaction.copy() : transaction;
+            this.lastCommitted = Math.max(System.currentTimeMillis(), this.lastCommitted + 1);
+            stamped.getModel().remove(stamped.getIdentifier(), Transactions.COMMITTED, null);
+            stamped.getModel().add(stamped.getIdentifier(), Transactions.COMMITTED,
+                    SimpleValueFactory.getInstance().createLiteral(Instant.ofEpochMilli(this.lastCommitted).toString(), XSD.DATETIME),
+                    Transactions.GRAPH_PROVENANCE);
+            return stamped;
+        }
+
+        private void publish(List<Transaction> transactions) {
+            this.subscribers.forEach(subscriber -> {
+                for (Transaction transaction : transactions) {
+                    Sinks.EmitResult emitResult = subscriber.tryEmitNext(transaction);
+                    if (emitResult == Sinks.EmitResult.FAIL_OVERFLOW) {
+                        log.debug("Terminating slow subscriber of change feed in scope '{}'", this.scope);
+                        subscriber.tryEmitError(Exceptions.failWithOverflow("Subscriber of change feed is too slow, resume from the last received position."));
+                        this.subscribers.remove(subscriber);
+                        break;
+                    } else if (emitResult.isFailure()) {
+                        this.subscribers.remove(subscriber);
+                        break;
+                    }
+                }
+            });
+        }
+    }
+}
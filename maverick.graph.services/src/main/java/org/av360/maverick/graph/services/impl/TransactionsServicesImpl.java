@@ -1,43 +1,75 @@
 package org.av360.maverick.graph.services.impl;
 
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.lang3.NotImplementedException;
 import org.av360.maverick.graph.model.annotations.OnRepositoryType;
 import org.av360.maverick.graph.model.annotations.RequiresPrivilege;
 import org.av360.maverick.graph.model.context.SessionContext;
 import org.av360.maverick.graph.model.entities.Transaction;
+import org.av360.maverick.graph.model.enums.Activity;
 import org.av360.maverick.graph.model.enums.RepositoryType;
+import org.av360.maverick.graph.model.errors.requests.TransactionNotFound;
+import org.av360.maverick.graph.model.rdf.LocalIRI;
 import org.av360.maverick.graph.model.security.Authorities;
+import org.av360.maverick.graph.model.vocabulary.meg.Local;
+import org.av360.maverick.graph.services.IdentifierServices;
 import org.av360.maverick.graph.services.TransactionsService;
 import org.av360.maverick.graph.store.TransactionsStore;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import javax.annotation.Nullable;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Collection;
+import java.util.Objects;
+import java.util.Set;
 
 @Service
 @Slf4j(topic = "graph.srvc.trx")
 public class TransactionsServicesImpl implements TransactionsService {
 
     private final TransactionsStore transactionsStore;
+    private final IdentifierServices identifierServices;
+    private final TransactionsFeed feed;
 
-    public TransactionsServicesImpl(TransactionsStore transactionsStore) {
+    public TransactionsServicesImpl(TransactionsStore transactionsStore, IdentifierServices identifierServices,
+                                    @Value("${application.storage.transactions.feed.buffer:256}") int feedBufferSize) {
         this.transactionsStore = transactionsStore;
+        this.identifierServices = identifierServices;
+        this.feed = new TransactionsFeed(transactionsStore, feedBufferSize);
     }
 
     @Override
     @RequiresPrivilege(Authorities.MAINTAINER_VALUE)
     @OnRepositoryType(RepositoryType.TRANSACTIONS)
     public Flux<Transaction> list(Integer limit, Integer offset, SessionContext authentication) {
-        return Flux.error(NotImplementedException::new);
+        return this.transactionsStore.listTransactions(TransactionsStore.Filter.ALL, null, limit + offset, authentication.getEnvironment())
+                .skip(offset);
+    }
+
+    @Override
+    @RequiresPrivilege(Authorities.MAINTAINER_VALUE)
+    @OnRepositoryType(RepositoryType.TRANSACTIONS)
+    public Flux<Transaction> list(TransactionsStore.Filter filter, @Nullable TransactionsStore.Position after, int limit, SessionContext context) {
+        return this.transactionsStore.listTransactions(filter, after, limit, context.getEnvironment());
+    }
+
+    @Override
+    @RequiresPrivilege(Authorities.MAINTAINER_VALUE)
+    @OnRepositoryType(RepositoryType.TRANSACTIONS)
+    public Flux<Transaction> listForEntity(String key, TransactionsStore.Filter filter, @Nullable TransactionsStore.Position after, int limit, SessionContext context) {
+        return this.identifierServices.asLocalIRI(key, context.getEnvironment())
+                .flatMapMany(subject -> this.transactionsStore.listTransactions(filter.forSubject(subject), after, limit, context.getEnvironment()));
     }
 
     @Override
     @RequiresPrivilege(Authorities.MAINTAINER_VALUE)
     @OnRepositoryType(RepositoryType.TRANSACTIONS)
     public Mono<Transaction> find(String identifier, SessionContext authentication) {
-        return Mono.error(NotImplementedException::new);
+        return this.transactionsStore.getTransaction(LocalIRI.from(Local.Transactions.NAME, identifier), authentication.getEnvironment())
+                .switchIfEmpty(Mono.error(new TransactionNotFound(identifier)));
     }
 
 
@@ -46,6 +78,35 @@ public class TransactionsServicesImpl implements TransactionsService {
     @RequiresPrivilege(Authorities.MAINTAINER_VALUE)
     @OnRepositoryType(RepositoryType.TRANSACTIONS)
     public Flux<Transaction> save(Collection<Transaction> transactions, SessionContext context) {
-        return this.transactionsStore.store(transactions, context.getEnvironment());
+        return this.feed.record(transactions, context.getEnvironment()).flatMapIterable(stored -> stored);
+    }
+
+    @Override
+    @RequiresPrivilege(Authorities.READER_VALUE)
+    @OnRepositoryType(RepositoryType.TRANSACTIONS)
+    public Flux<Transaction> listChanges(@Nullable TransactionsStore.Position after, Set<Activity> activities, SessionContext context) {
+        return this.feed.subscribe(after, context.getEnvironment())
+                .filter(Transaction::isCompleted)
+                .filter(transaction -> activities.isEmpty() || activities.stream().anyMatch(activity -> !transaction.affectedSubjects(activity).isEmpty()));
+    }
+
+    @Override
+    @RequiresPrivilege(Authorities.MAINTAINER_VALUE)
+    @OnRepositoryType(RepositoryType.TRANSACTIONS)
+    public Mono<Long> applyRetention(@Nullable Duration maxAge, @Nullable Integer maxPerSubject, boolean keepMetadata, SessionContext context) {
+        Mono<Long> expired = Objects.isNull(maxAge) ? Mono.just(0L)
+                : this.transactionsStore.expireTransactions(Instant.now().minus(maxAge), keepMetadata, context.getEnvironment());
+        Mono<Long> trimmed = Objects.isNull(maxPerSubject) ? Mono.just(0L)
+                : this.transactionsStore.trimTransactions(maxPerSubject, keepMetadata, context.getEnvironment());
+
+        return expired.zipWith(trimmed, Long::sum)
+                .doOnNext(count -> log.debug("Applied retention policy to transactions in scope '{}', {} transactions removed", context.getEnvironment().getScope(), count));
+    }
+
+    @Override
+    @RequiresPrivilege(Authorities.MAINTAINER_VALUE)
+    @OnRepositoryType(RepositoryType.TRANSACTIONS)
+    public Mono<Long> compact(SessionContext context) {
+        return this.transactionsStore.asMaintainable().compact(context.getEnvironment());
     }
 }
@@ -0,0 +1,84 @@
+package org.av360.maverick.graph.services.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.av360.maverick.graph.model.context.SessionContext;
+import org.av360.maverick.graph.services.ConfigurationService;
+import org.av360.maverick.graph.services.api.identifiers.PrefixResolver;
+import org.av360.maverick.graph.store.IndividualsStore;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.Nullable;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Declares the properties of the value index for the current scope. The properties are configured for each application
+ * (with the configuration key "indexed_properties"), or globally as default. Both are comma-separated lists of
+ * qualified IRIs or prefixed names (e.g. "sdo.identifier").
+ */
+@Slf4j(topic = "graph.srvc.entity")
+final class ValueIndexDeclarations {
+
+    static final String CONFIG_KEY_INDEXED_PROPERTIES = "indexed_properties";
+
+    private final IndividualsStore entityStore;
+    private final PrefixResolver prefixResolver;
+    @Nullable
+    private final ConfigurationService configurationService;
+    private final String defaultProperties;
+
+    // resolved properties by configured value, the prefixes of the namespaces are not expected to change
+    private final Map<String, Set<IRI>> resolved = new ConcurrentHashMap<>();
+
+    ValueIndexDeclarations(IndividualsStore entityStore, PrefixResolver prefixResolver, @Nullable ConfigurationService configurationService, String defaultProperties) {
+        this.entityStore = entityStore;
+        this.prefixResolver = prefixResolver;
+        this.configurationService = configurationService;
+        this.defaultProperties = defaultProperties;
+    }
+
+    /**
+     * Declares the configured properties for the scope of the context, which builds the index if required. Errors are
+     * only logged, lookups fall back to queries if the index is not available.
+     */
+    Mono<Void> declare(SessionContext ctx) {
+        if (!this.entityStore.isValueIndexed()) return Mono.empty();
+
+        Mono<String> configured = Objects.isNull(this.configurationService) ? Mono.empty()
+                : this.configurationService.getValue(CONFIG_KEY_INDEXED_PROPERTIES, ctx).filter(StringUtils::hasText);
+
+        return configured.defaultIfEmpty(this.defaultProperties)
+                .filter(StringUtils::hasText)
+                .flatMap(this::resolve)
+                .filter(properties -> !properties.isEmpty())
+                .flatMap(properties -> this.entityStore.asValueIndexed().declareIndexedProperties(properties, ctx.getEnvironment()))
+                .onErrorResume(error -> {
+                    log.warn("Failed to declare indexed properties in scope '{}': {}", ctx.getEnvironment().getScope().label(), error.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<Set<IRI>> resolve(String properties) {
+        Set<IRI> cached = this.resolved.get(properties);
+        if (Objects.nonNull(cached)) return Mono.just(cached);
+
+        return Flux.fromArray(properties.split(","))
+                .map(String::trim)
+                .filter(StringUtils::hasText)
+                .flatMap(property -> property.contains(":")
+                        ? Mono.just(SimpleValueFactory.getInstance().createIRI(property))
+                        : this.prefixResolver.resolvePrefixedName(property))
+                .collect(Collectors.toUnmodifiableSet())
+                .doOnNext(iris -> {
+                    this.resolved.put(properties, iris);
+                    log.debug("Resolved indexed properties '{}' to {}", properties, iris);
+                });
+    }
+}
@@ -242,12 +242,15 @@ public class ValueServicesImpl implements ValueServices {
     }
 
     @Override
+    @RequiresPrivilege(Authorities.READER_VALUE)
     @OnRepositoryType(RepositoryType.ENTITIES)
     public Flux<Pair<IRI, Value>> listDetails(String entityKey, String prefixedProperty, String valueIdentifier, SessionContext ctx) {
         return this.api.details().selects().listDetails(entityKey, prefixedProperty, valueIdentifier, ctx);
     }
 
     @Override
+    @RequiresPrivilege(Authorities.READER_VALUE)
+    @OnRepositoryType(RepositoryType.ENTITIES)
     public Mono<Triples> getValue(String entityKey, String prefixedProperty, @Nullable String languageTag, @Nullable String valueIdentifier, SessionContext ctx) {
         return Mono.zip(
                         api.identifiers().localIdentifiers().asLocalIRI(entityKey, ctx.getEnvironment()),
@@ -256,5 +259,11 @@ public class ValueServicesImpl implements ValueServices {
                 .flatMap(pair -> this.api.values().read().getValue(pair.getT1(), pair.getT2(), languageTag, valueIdentifier, ctx));
     }
 
-
+    @Override
+    @RequiresPrivilege(Authorities.MAINTAINER_VALUE)
+    @OnRepositoryType(RepositoryType.ENTITIES)
+    public Mono<Long> identifyValues(SessionContext ctx) {
+        if (!this.api.entities().getStore().isValueIdentified()) return Mono.just(-1L);
+        return this.api.entities().getStore().asValueIdentified().identifyValues(ctx.getEnvironment());
+    }
 }
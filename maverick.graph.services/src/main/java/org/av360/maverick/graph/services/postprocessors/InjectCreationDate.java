@@ -17,6 +17,8 @@ package org.av360.maverick.graph.services.postprocessors;
 
 import lombok.extern.slf4j.Slf4j;
 import org.av360.maverick.graph.model.context.Environment;
+import org.av360.maverick.graph.model.context.SessionContext;
+import org.av360.maverick.graph.model.enums.RepositoryType;
 import org.av360.maverick.graph.model.events.EntityCreatedEvent;
 import org.av360.maverick.graph.model.vocabulary.meg.Metadata;
 import org.av360.maverick.graph.services.EntityServices;
@@ -50,8 +52,9 @@ public class InjectCreationDate {
     @Async
     @EventListener
     void handleEntitiesCreatedForInjectCreateDate(EntityCreatedEvent event) {
+        Environment environment = SessionContext.systemEnvironmentFor(event.getEnvironment(), RepositoryType.ENTITIES);
         Flux.fromIterable(event.listInsertedFragmentSubjects())
-                .flatMap(iri -> handleEntityCreated(iri, event.getEnvironment()))
+                .flatMap(iri -> handleEntityCreated(iri, environment))
                 .doOnSubscribe(subscription -> log.info("Postprocessing: Injecting creation date (if not yet present)"))
                 .subscribe();
     }
@@ -18,6 +18,8 @@ package org.av360.maverick.graph.services.postprocessors;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.tuple.Pair;
 import org.av360.maverick.graph.model.context.Environment;
+import org.av360.maverick.graph.model.context.SessionContext;
+import org.av360.maverick.graph.model.enums.RepositoryType;
 import org.av360.maverick.graph.model.entities.Transaction;
 import org.av360.maverick.graph.model.events.EntityCreatedEvent;
 import org.av360.maverick.graph.model.events.EntityUpdatedEvent;
@@ -51,8 +53,9 @@ public class MergeDuplicateEmbeddedObjects {
     @Async
     @EventListener
     void handleEntitiesUpdatedForDuplicateMerge(EntityUpdatedEvent event) {
+        Environment environment = SessionContext.systemEnvironmentFor(event.getEnvironment(), RepositoryType.ENTITIES);
         Flux.fromIterable(event.listUpdatedEntityIdentifiers())
-                .flatMap(iri -> handleEntityCreated(iri, event.getEnvironment()))
+                .flatMap(iri -> handleEntityCreated(iri, environment))
                 .doOnSubscribe(subscription -> log.debug("Postprocessing: Merge duplicate embedded objects"))
                 .subscribe();
     }
@@ -60,8 +63,9 @@ public class MergeDuplicateEmbeddedObjects {
     @Async
     @EventListener
     void handleEntitiesCreatedForDuplicateMerge(EntityCreatedEvent event) {
+        Environment environment = SessionContext.systemEnvironmentFor(event.getEnvironment(), RepositoryType.ENTITIES);
         Flux.fromIterable(event.listInsertedFragmentSubjects())
-                .flatMap(iri -> handleEntityCreated(iri, event.getEnvironment()))
+                .flatMap(iri -> handleEntityCreated(iri, environment))
                 .doOnSubscribe(subscription -> log.debug("Postprocessing: Merge duplicate embedded objects"))
                 .subscribe();
     }
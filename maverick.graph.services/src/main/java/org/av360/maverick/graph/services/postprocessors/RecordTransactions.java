@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2024.
+ *
+ *  Licensed under the EUPL, Version 1.2 or – as soon they will be approved by the
+ *  European Commission - subsequent versions of the EUPL (the "Licence");
+ *
+ *  You may not use this work except in compliance with the Licence.
+ *  You may obtain a copy of the Licence at:
+ *
+ *  https://joinup.ec.europa.eu/software/page/eupl5
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the Licence is distributed on an "AS IS" basis,  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the Licence for the specific language governing permissions and limitations under the Licence.
+ *
+ */
+
+package org.av360.maverick.graph.services.postprocessors;
+
+import lombok.extern.slf4j.Slf4j;
+import org.av360.maverick.graph.model.context.SessionContext;
+import org.av360.maverick.graph.model.events.EntityEvent;
+import org.av360.maverick.graph.services.TransactionsService;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Records the transaction of every successful change in the transactions store, which feeds the transaction history
+ * and the change feed.
+ */
+@Component
+@Slf4j(topic = "graph.srvc.trx")
+public class RecordTransactions {
+
+    private final TransactionsService transactionsService;
+
+    public RecordTransactions(TransactionsService transactionsService) {
+        this.transactionsService = transactionsService;
+    }
+
+    @Async
+    @EventListener
+    void handleEntityEvent(EntityEvent event) {
+        if (!event.getTransaction().isCompleted()) return;
+
+        // we don't reuse the environment of the event, the other listeners rely on its repository type
+        SessionContext ctx = SessionContext.systemContextFor(event.getEnvironment());
+        this.transactionsService.save(List.of(event.getTransaction()), ctx)
+                .subscribe(
+                        transaction -> log.trace("Recorded transaction '{}'", transaction.getIdentifier().getLocalName()),
+                        error -> log.warn("Failed to record transaction '{}': {}", event.getTransaction().getIdentifier().getLocalName(), error.getMessage())
+                );
+    }
+}
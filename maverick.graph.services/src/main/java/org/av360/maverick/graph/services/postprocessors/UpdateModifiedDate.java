@@ -16,6 +16,8 @@
 package org.av360.maverick.graph.services.postprocessors;
 
 import org.av360.maverick.graph.model.context.Environment;
+import org.av360.maverick.graph.model.context.SessionContext;
+import org.av360.maverick.graph.model.enums.RepositoryType;
 import org.av360.maverick.graph.model.events.EntityUpdatedEvent;
 import org.av360.maverick.graph.model.vocabulary.meg.Metadata;
 import org.av360.maverick.graph.store.IndividualsStore;
@@ -44,8 +46,9 @@ public class UpdateModifiedDate {
     @Async
     @EventListener
     void handleEntitiesCreated(EntityUpdatedEvent event) {
+        Environment environment = SessionContext.systemEnvironmentFor(event.getEnvironment(), RepositoryType.ENTITIES);
         Flux.fromIterable(event.listUpdatedEntityIdentifiers())
-                .flatMap(iri -> handleEntityUpdated(iri, event.getEnvironment()))
+                .flatMap(iri -> handleEntityUpdated(iri, environment))
                 .subscribe();
     }
 
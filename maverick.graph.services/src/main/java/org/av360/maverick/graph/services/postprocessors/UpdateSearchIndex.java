@@ -0,0 +1,52 @@
+package org.av360.maverick.graph.services.postprocessors;
+
+import lombok.extern.slf4j.Slf4j;
+import org.av360.maverick.graph.model.context.SessionContext;
+import org.av360.maverick.graph.model.entities.Transaction;
+import org.av360.maverick.graph.model.events.EntityEvent;
+import org.av360.maverick.graph.services.SearchServices;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the search index in sync with the entities store: the entities with changed labels or descriptions in a
+ * completed transaction are indexed again with their current values.
+ */
+@Component
+@Slf4j(topic = "graph.srvc.search")
+public class UpdateSearchIndex {
+
+    private final SearchServices searchServices;
+
+    public UpdateSearchIndex(SearchServices searchServices) {
+        this.searchServices = searchServices;
+    }
+
+    @Async
+    @EventListener
+    void handleEntityEvent(EntityEvent event) {
+        Transaction transaction = event.getTransaction();
+        if (!transaction.isCompleted()) return;
+
+        Set<Resource> subjects = Stream.concat(transaction.getInsertedStatements().stream(), transaction.getRemovedStatements().stream())
+                .filter(statement -> this.searchServices.getIndexedProperties().contains(statement.getPredicate()))
+                .map(Statement::getSubject)
+                .collect(Collectors.toSet());
+        if (subjects.isEmpty()) return;
+
+        SessionContext ctx = SessionContext.systemContextFor(event.getEnvironment());
+        this.searchServices.update(subjects, ctx)
+                .subscribe(
+                        unused -> { },
+                        error -> log.warn("Failed to update search index for transaction '{}': {}", transaction.getIdentifier().getLocalName(), error.getMessage()),
+                        () -> log.trace("Updated search index for {} entities of transaction '{}'", subjects.size(), transaction.getIdentifier().getLocalName())
+                );
+    }
+}
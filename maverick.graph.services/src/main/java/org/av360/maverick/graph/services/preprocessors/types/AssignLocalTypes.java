@@ -17,7 +17,6 @@ import reactor.core.publisher.Mono;
 import java.util.Collections;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.StreamSupport;
 
 @Slf4j(topic = "graph.srvc.trans.types")
 @Component
@@ -127,11 +126,11 @@ public class AssignLocalTypes implements ModelPreprocessor {
     }
 
     private boolean hasPotentialCharacteristicProperty(Resource subject, Model fragment) {
-        return fragment.filter(subject, null, null).predicates().stream().anyMatch(iri -> iri.getLocalName().matches("(?i).*(id|key|code).*"));
+        return fragment.filter(subject, null, null).predicates().stream().anyMatch(this.schemaServices::isPotentialCharacteristicProperty);
     }
 
     private boolean hasClassifierType(Resource subject, Model fragment) {
-        return StreamSupport.stream(fragment.getStatements(subject, RDF.TYPE, null).spliterator(), true)
+        return fragment.filter(subject, RDF.TYPE, null).stream()
                 .map(Statement::getObject)
                 .filter(Value::isIRI)
                 .map(value -> (IRI) value)
@@ -139,7 +138,7 @@ public class AssignLocalTypes implements ModelPreprocessor {
     }
 
     private boolean hasTypeDefinition(Resource subject, Model fragment) {
-        return StreamSupport.stream(fragment.getStatements(subject, RDF.TYPE, null).spliterator(), true)
+        return fragment.filter(subject, RDF.TYPE, null).stream()
                 .map(Statement::getObject)
                 .filter(Value::isIRI)
                 .map(value -> (IRI) value)
@@ -148,7 +147,7 @@ public class AssignLocalTypes implements ModelPreprocessor {
     }
 
     private boolean hasIndividualsType(Resource subject, Model fragment) {
-        return StreamSupport.stream(fragment.getStatements(subject, RDF.TYPE, null).spliterator(), true)
+        return fragment.filter(subject, RDF.TYPE, null).stream()
                 .map(Statement::getObject)
                 .filter(Value::isIRI)
                 .map(value -> (IRI) value)
@@ -156,7 +155,7 @@ public class AssignLocalTypes implements ModelPreprocessor {
     }
 
     private boolean hasKnownCharacteristicProperty(Resource subject, Model fragment) {
-        return StreamSupport.stream(fragment.getStatements(subject, null, null).spliterator(), true)
+        return fragment.filter(subject, null, null).stream()
                 .map(Statement::getPredicate)
                 .filter(Value::isIRI)
                 .anyMatch(this.schemaServices::isCharacteristicProperty);
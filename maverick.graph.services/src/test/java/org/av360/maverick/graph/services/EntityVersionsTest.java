@@ -0,0 +1,129 @@
+package org.av360.maverick.graph.services;
+
+import org.av360.maverick.graph.model.context.Environment;
+import org.av360.maverick.graph.model.context.SessionContext;
+import org.av360.maverick.graph.model.entities.Transaction;
+import org.av360.maverick.graph.model.enums.RepositoryType;
+import org.av360.maverick.graph.model.errors.requests.EntityVersionMismatch;
+import org.av360.maverick.graph.model.identifier.DefaultIdentifierFactory;
+import org.av360.maverick.graph.model.vocabulary.SDO;
+import org.av360.maverick.graph.model.vocabulary.meg.Local;
+import org.av360.maverick.graph.model.vocabulary.meg.Metadata;
+import org.av360.maverick.graph.store.IndividualsStore;
+import org.av360.maverick.graph.store.rdf.fragments.RdfTransaction;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.util.Values;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Concurrent transactions expecting the same version of an entity, only one of them is committed.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class EntityVersionsTest {
+
+    private static final int THREADS = 8;
+
+    @Autowired
+    IndividualsStore entityStore;
+
+    @Test
+    void rejectStaleTransactions() throws Exception {
+        Environment environment = this.createContext("versions").getEnvironment();
+        IRI entity = DefaultIdentifierFactory.getInstance().createRandomIdentifier(Local.Entities.NAME);
+        entityStore.asCommitable().commit(new RdfTransaction().inserts(entity, RDF.TYPE, SDO.THING), environment).block();
+
+        Assertions.assertTrue(entityStore.isVersioned());
+        String version = entityStore.asVersioned().getVersion(entity, environment).block();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Callable<Boolean>> commits = IntStream.range(0, THREADS)
+                    .<Callable<Boolean>>mapToObj(i -> () -> {
+                        Transaction transaction = new RdfTransaction().inserts(entity, SDO.DESCRIPTION, Values.literal("Description " + i)).expects(entity, version);
+                        try {
+                            entityStore.asCommitable().commit(transaction, environment).block();
+                            return true;
+                        } catch (Exception e) {
+                            Assertions.assertInstanceOf(EntityVersionMismatch.class, e.getCause());
+                            Assertions.assertFalse(transaction.isCompleted());
+                            return false;
+                        }
+                    })
+                    .toList();
+            List<Boolean> committed = executor.invokeAll(commits).stream().map(this::get).toList();
+            Assertions.assertEquals(1, committed.stream().filter(Boolean::booleanValue).count());
+        } finally {
+            executor.shutdown();
+        }
+
+        Assertions.assertEquals(1, entityStore.asStatementsAware().listStatements(entity, SDO.DESCRIPTION, null, environment).block().size());
+        Assertions.assertNotEquals(version, entityStore.asVersioned().getVersion(entity, environment).block());
+    }
+
+    @Test
+    void keepVersionWithMetadata() {
+        Environment environment = this.createContext("versions").getEnvironment();
+        IRI entity = DefaultIdentifierFactory.getInstance().createRandomIdentifier(Local.Entities.NAME);
+        Transaction created = entityStore.asCommitable().commit(new RdfTransaction().inserts(entity, RDF.TYPE, SDO.THING), environment).block();
+        String version = entityStore.asVersioned().getVersion(entity, environment).block();
+        Assertions.assertEquals(version, created.getVersion(entity).orElseThrow());
+
+        // the modification date is updated asynchronously
+        entityStore.asCommitable().commit(new RdfTransaction().inserts(entity, Metadata.MODIFIED, Values.literal("2024-01-01")), environment).block();
+        Assertions.assertEquals(version, entityStore.asVersioned().getVersion(entity, environment).block());
+
+        // updates with queries bypass the transactions, all versions change
+        entityStore.asSearchable().update("DELETE WHERE { <%s> <%s> ?o }".formatted(entity, Metadata.MODIFIED), environment).block();
+        Assertions.assertNotEquals(version, entityStore.asVersioned().getVersion(entity, environment).block());
+    }
+
+    @Test
+    void storeVersionWithEntity() {
+        Environment environment = this.createContext("versions").getEnvironment();
+        IRI entity = DefaultIdentifierFactory.getInstance().createRandomIdentifier(Local.Entities.NAME);
+        Transaction created = entityStore.asCommitable().commit(new RdfTransaction().inserts(entity, RDF.TYPE, SDO.THING), environment).block();
+
+        // the stamp of the transaction is stored with the entity, the version is read from the repository
+        Assertions.assertEquals(Boolean.TRUE, entityStore.asStatementsAware().hasStatement(entity, Metadata.VERSION, Values.literal(created.getIdentifier().getLocalName()), environment).block());
+        Assertions.assertTrue(created.getVersion(entity).orElseThrow().endsWith(created.getIdentifier().getLocalName()));
+
+        // but it isn't part of the entity
+        Set<Statement> statements = entityStore.asStatementsAware().listStatements(entity, null, null, environment).block();
+        Assertions.assertEquals(Set.of(RDF.TYPE), statements.stream().map(Statement::getPredicate).collect(Collectors.toSet()));
+
+        // no stamp is left for removed entities
+        entityStore.asCommitable().commit(new RdfTransaction().removes(entity, RDF.TYPE, SDO.THING), environment).block();
+        Assertions.assertEquals(Boolean.FALSE, entityStore.asStatementsAware().hasStatement(entity, null, null, environment).block());
+    }
+
+    private Boolean get(Future<Boolean> future) {
+        try {
+            return future.get();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private SessionContext createContext(String scope) {
+        SessionContext context = new SessionContext().setSystemAuthentication().setAuthorized();
+        context.getEnvironment().setRepositoryType(RepositoryType.ENTITIES);
+        context.getEnvironment().withScope(scope);
+        return context;
+    }
+}
@@ -0,0 +1,192 @@
+package org.av360.maverick.graph.services;
+
+import org.av360.maverick.graph.model.context.Environment;
+import org.av360.maverick.graph.model.context.SessionContext;
+import org.av360.maverick.graph.model.entities.Transaction;
+import org.av360.maverick.graph.model.enums.RepositoryType;
+import org.av360.maverick.graph.model.identifier.DefaultIdentifierFactory;
+import org.av360.maverick.graph.model.vocabulary.SDO;
+import org.av360.maverick.graph.model.vocabulary.meg.Local;
+import org.av360.maverick.graph.services.api.Api;
+import org.av360.maverick.graph.store.IndividualsStore;
+import org.av360.maverick.graph.store.rdf.fragments.RdfFragment;
+import org.av360.maverick.graph.store.rdf.fragments.RdfTransaction;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.util.Values;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import reactor.core.publisher.Flux;
+
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Compares the lookups in the value index with the queries against the repository, and the lookups of entities by
+ * property with and without the index. The number of entities can be raised with the system property
+ * "benchmark.entities".
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PropertyValueIndexTest {
+
+    private static final int ENTITIES = Integer.getInteger("benchmark.entities", 2000);
+    private static final int BATCH_SIZE = 500;
+
+    @Autowired
+    IndividualsStore entityStore;
+
+    @Autowired
+    Api api;
+
+    private final List<IRI> subjects = new ArrayList<>();
+
+    @BeforeAll
+    void importEntities() {
+        IntStream.range(0, ENTITIES).forEach(i -> subjects.add(DefaultIdentifierFactory.getInstance().createRandomIdentifier(Local.Entities.NAME)));
+
+        Assertions.assertTrue(entityStore.isValueIndexed());
+        entityStore.asValueIndexed().declareIndexedProperties(Set.of(SDO.IDENTIFIER), this.environment("indexed")).block();
+
+        this.importInto("plain");
+        this.importInto("indexed");
+    }
+
+    @Test
+    void lookupLikeQueries() {
+        Environment environment = this.environment("indexed");
+        for (int i = 0; i < ENTITIES; i += Math.max(1, ENTITIES / 100)) {
+            Optional<Set<Resource>> indexed = entityStore.asValueIndexed().lookup(SDO.IDENTIFIER, Values.literal(identifier(i)), environment);
+            Assertions.assertTrue(indexed.isPresent());
+            Assertions.assertEquals(this.query(identifier(i), environment), indexed.get());
+            Assertions.assertEquals(Set.of(subjects.get(i)), indexed.get());
+        }
+
+        Assertions.assertEquals(Optional.of(Set.of()), entityStore.asValueIndexed().lookup(SDO.IDENTIFIER, Values.literal("unknown"), environment));
+        Assertions.assertTrue(entityStore.asValueIndexed().lookup(SDO.NAME, Values.literal("Entity 1"), environment).isEmpty());
+        Assertions.assertTrue(entityStore.asValueIndexed().lookup(SDO.IDENTIFIER, Values.literal(identifier(1)), this.environment("plain")).isEmpty());
+    }
+
+    @Test
+    void normalizeValues() {
+        Environment environment = this.environment("indexed");
+        Optional<Set<Resource>> lookup = entityStore.asValueIndexed().lookup(SDO.IDENTIFIER, Values.literal("  " + identifier(3).toUpperCase() + " "), environment);
+        Assertions.assertEquals(Optional.of(Set.of(subjects.get(3))), lookup);
+    }
+
+    @Test
+    void applyCommittedChanges() {
+        Environment environment = this.environment("indexed");
+        IRI subject = subjects.get(5);
+
+        Transaction update = new RdfTransaction()
+                .removes(subject, SDO.IDENTIFIER, Values.literal(identifier(5)))
+                .inserts(subject, SDO.IDENTIFIER, Values.literal("changed-5"));
+        entityStore.asCommitable().commit(update, environment).block();
+
+        Assertions.assertEquals(Optional.of(Set.of()), entityStore.asValueIndexed().lookup(SDO.IDENTIFIER, Values.literal(identifier(5)), environment));
+        Assertions.assertEquals(Optional.of(Set.of(subject)), entityStore.asValueIndexed().lookup(SDO.IDENTIFIER, Values.literal("changed-5"), environment));
+
+        // a second subject with the same value
+        IRI duplicate = DefaultIdentifierFactory.getInstance().createRandomIdentifier(Local.Entities.NAME);
+        entityStore.asCommitable().commit(new RdfTransaction().inserts(duplicate, SDO.IDENTIFIER, Values.literal("changed-5")), environment).block();
+        Assertions.assertEquals(Optional.of(Set.of(subject, duplicate)), entityStore.asValueIndexed().lookup(SDO.IDENTIFIER, Values.literal("changed-5"), environment));
+        Assertions.assertEquals(this.query("changed-5", environment), Set.of(subject, duplicate));
+    }
+
+    @Test
+    void rebuildAfterInvalidation() {
+        Environment environment = this.environment("rebuilt");
+        IRI subject = DefaultIdentifierFactory.getInstance().createRandomIdentifier(Local.Entities.NAME);
+        entityStore.asCommitable().commit(new RdfTransaction().inserts(subject, SDO.IDENTIFIER, Values.literal("rebuilt-1")), environment).block();
+
+        entityStore.asValueIndexed().declareIndexedProperties(Set.of(SDO.IDENTIFIER), environment).block();
+        Assertions.assertEquals(Optional.of(Set.of(subject)), entityStore.asValueIndexed().lookup(SDO.IDENTIFIER, Values.literal("rebuilt-1"), environment));
+
+        // updates with queries bypass the transactions
+        entityStore.asSearchable().update("DELETE WHERE { ?s <%s> \"rebuilt-1\" }".formatted(SDO.IDENTIFIER), environment).block();
+        Assertions.assertTrue(entityStore.asValueIndexed().lookup(SDO.IDENTIFIER, Values.literal("rebuilt-1"), environment).isEmpty());
+
+        entityStore.asValueIndexed().declareIndexedProperties(Set.of(SDO.IDENTIFIER), environment).block();
+        Assertions.assertEquals(Optional.of(Set.of()), entityStore.asValueIndexed().lookup(SDO.IDENTIFIER, Values.literal("rebuilt-1"), environment));
+    }
+
+    @Test
+    void findByPropertyWithAndWithoutIndex() {
+        SessionContext plain = this.context("plain");
+        SessionContext indexed = this.context("indexed");
+
+        RdfFragment withoutIndex = api.entities().find().findByProperty(identifier(7), SDO.IDENTIFIER, false, 0, plain).block();
+        RdfFragment withIndex = api.entities().find().findByProperty(identifier(7), SDO.IDENTIFIER, false, 0, indexed).block();
+        Assertions.assertNotNull(withoutIndex);
+        Assertions.assertNotNull(withIndex);
+        Assertions.assertEquals(subjects.get(7), withoutIndex.getIdentifier());
+        Assertions.assertEquals(subjects.get(7), withIndex.getIdentifier());
+
+        // only the index keeps the normalized values
+        String normalized = "  " + identifier(7).toUpperCase() + " ";
+        Assertions.assertNull(api.entities().find().findByProperty(normalized, SDO.IDENTIFIER, false, 0, plain).block());
+        RdfFragment normalizedWithIndex = api.entities().find().findByProperty(normalized, SDO.IDENTIFIER, false, 0, indexed).block();
+        Assertions.assertNotNull(normalizedWithIndex);
+        Assertions.assertEquals(subjects.get(7), normalizedWithIndex.getIdentifier());
+    }
+
+    @Test
+    void findLowestOfSharedValues() {
+        List<IRI> shared = IntStream.range(0, 5).<IRI>mapToObj(i -> DefaultIdentifierFactory.getInstance().createRandomIdentifier(Local.Entities.NAME)).toList();
+        IRI lowest = shared.stream().min(Comparator.comparing(IRI::stringValue)).orElseThrow();
+
+        for (String scope : List.of("plain", "indexed")) {
+            Transaction transaction = new RdfTransaction();
+            shared.forEach(subject -> transaction.inserts(subject, RDF.TYPE, SDO.THING).inserts(subject, SDO.IDENTIFIER, Values.literal("shared")));
+            entityStore.asCommitable().commit(transaction, this.environment(scope)).block();
+
+            RdfFragment found = api.entities().find().findByProperty("shared", SDO.IDENTIFIER, false, 0, this.context(scope)).block();
+            Assertions.assertNotNull(found);
+            Assertions.assertEquals(lowest, found.getIdentifier(), scope);
+        }
+    }
+
+    private void importInto(String scope) {
+        Environment environment = this.environment(scope);
+        Flux.range(0, ENTITIES)
+                .map(i -> (Transaction) new RdfTransaction()
+                        .inserts(subjects.get(i), RDF.TYPE, SDO.THING)
+                        .inserts(subjects.get(i), SDO.NAME, Values.literal("Entity " + i))
+                        .inserts(subjects.get(i), SDO.IDENTIFIER, Values.literal(identifier(i))))
+                .buffer(BATCH_SIZE)
+                .concatMap(batch -> entityStore.asCommitable().commit(batch, environment))
+                .blockLast();
+    }
+
+    private Set<Resource> query(String value, Environment environment) {
+        String query = "SELECT ?s WHERE { ?s <%s> \"%s\" }".formatted(SDO.IDENTIFIER, value);
+        return entityStore.asSearchable().query(query, environment)
+                .map(bindings -> (Resource) bindings.getValue("s"))
+                .collect(Collectors.toSet())
+                .block();
+    }
+
+    private static String identifier(int i) {
+        return "id-" + i;
+    }
+
+    private Environment environment(String scope) {
+        return this.context(scope).getEnvironment();
+    }
+
+    private SessionContext context(String scope) {
+        SessionContext context = new SessionContext().setSystemAuthentication().setAuthorized();
+        context.getEnvironment().setRepositoryType(RepositoryType.ENTITIES);
+        context.getEnvironment().withScope(scope);
+        return context;
+    }
+}
@@ -0,0 +1,196 @@
+package org.av360.maverick.graph.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.av360.maverick.graph.model.context.Environment;
+import org.av360.maverick.graph.model.context.SessionContext;
+import org.av360.maverick.graph.model.enums.RepositoryType;
+import org.av360.maverick.graph.model.errors.requests.EntityVersionMismatch;
+import org.av360.maverick.graph.model.errors.requests.SnapshotNotFound;
+import org.av360.maverick.graph.model.identifier.DefaultIdentifierFactory;
+import org.av360.maverick.graph.model.vocabulary.SDO;
+import org.av360.maverick.graph.model.vocabulary.meg.Local;
+import org.av360.maverick.graph.model.vocabulary.meg.Metadata;
+import org.av360.maverick.graph.store.IndividualsStore;
+import org.av360.maverick.graph.store.RepositorySnapshot;
+import org.av360.maverick.graph.store.rdf.fragments.RdfTransaction;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.util.Statements;
+import org.eclipse.rdf4j.model.util.Values;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Takes and restores snapshots of a persistent entity repository, and compares the time to restore a snapshot with the
+ * time to import the same statements again (both are logged). The number of statements can be raised with the system
+ * property "benchmark.snapshots.statements".
+ */
+@Slf4j(topic = "graph.test.perf")
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@TestPropertySource(properties = {
+        "application.storage.entities.path=${java.io.tmpdir}/maverick-snapshots-test",
+        "application.storage.snapshots.retain=3"
+})
+class RepositorySnapshotsTest {
+
+    private static final int STATEMENTS = Integer.getInteger("benchmark.snapshots.statements", 30000);
+    private static final int BATCH_SIZE = 10000;
+
+    @Autowired
+    IndividualsStore entityStore;
+
+    @Value("${application.storage.entities.path}")
+    String path;
+
+    @AfterAll
+    void removeStorage() throws IOException {
+        FileSystemUtils.deleteRecursively(Path.of(this.path));
+        FileSystemUtils.deleteRecursively(Path.of(this.path + ".snapshots"));
+    }
+
+    @Test
+    void restoreSnapshotAfterChanges() {
+        Environment environment = this.environment();
+        List<Statement> statements = this.generate(STATEMENTS);
+        this.importStatements(statements, environment);
+        long count = this.count(environment);
+
+        RepositorySnapshot snapshot = entityStore.asMaintainable().createSnapshot(environment).block();
+        Assertions.assertNotNull(snapshot);
+        Assertions.assertTrue(snapshot.size() > 0);
+
+        this.importStatements(this.generate(300), environment);
+        Assertions.assertEquals(count + 300, this.count(environment));
+
+        long restoreStart = System.nanoTime();
+        RepositorySnapshot restored = entityStore.asMaintainable().restoreSnapshot(snapshot.id(), environment).block();
+        long restoreMillis = (System.nanoTime() - restoreStart) / 1_000_000;
+        Assertions.assertEquals(snapshot, restored);
+        Assertions.assertEquals(count, this.count(environment));
+
+        // the repository is still writable after the restore
+        this.importStatements(this.generate(4), environment);
+        Assertions.assertEquals(count + 4, this.count(environment));
+
+        long importStart = System.nanoTime();
+        entityStore.asMaintainable().purge(environment).block();
+        this.importStatements(statements, environment);
+        long importMillis = (System.nanoTime() - importStart) / 1_000_000;
+        Assertions.assertEquals(statements.size(), this.count(environment));
+
+        log.info("Restored {} statements ({} bytes) in {} ms, imported {} statements in {} ms", count, snapshot.size(), restoreMillis, statements.size(), importMillis);
+    }
+
+    @Test
+    void refreshIndexesAfterRestore() {
+        Environment environment = this.environment();
+        IRI entity = DefaultIdentifierFactory.getInstance().createRandomIdentifier(Local.Entities.NAME);
+        entityStore.asCommitable().commit(new RdfTransaction()
+                .inserts(entity, RDF.TYPE, SDO.CREATIVE_WORK)
+                .inserts(entity, SDO.IDENTIFIER, Values.literal("before restore")), environment).block();
+        entityStore.asValueIndexed().declareIndexedProperties(Set.of(SDO.IDENTIFIER), environment).block();
+
+        RepositorySnapshot snapshot = entityStore.asMaintainable().createSnapshot(environment).block();
+        Assertions.assertNotNull(snapshot);
+
+        entityStore.asCommitable().commit(new RdfTransaction()
+                .removes(entity, SDO.IDENTIFIER, Values.literal("before restore"))
+                .inserts(entity, SDO.IDENTIFIER, Values.literal("after restore")), environment).block();
+        String changed = entityStore.asVersioned().getVersion(entity, environment).block();
+        Assertions.assertEquals(Optional.of(Set.<Resource>of(entity)), entityStore.asValueIndexed().lookup(SDO.IDENTIFIER, Values.literal("after restore"), environment));
+
+        entityStore.asMaintainable().restoreSnapshot(snapshot.id(), environment).block();
+
+        // the values are looked up in the restored repository
+        entityStore.asValueIndexed().declareIndexedProperties(Set.of(SDO.IDENTIFIER), environment).block();
+        Assertions.assertEquals(Optional.of(Set.<Resource>of(entity)), entityStore.asValueIndexed().lookup(SDO.IDENTIFIER, Values.literal("before restore"), environment));
+        Assertions.assertEquals(Optional.of(Set.<Resource>of()), entityStore.asValueIndexed().lookup(SDO.IDENTIFIER, Values.literal("after restore"), environment));
+
+        // changes based on the version before the restore are rejected (If-Match)
+        Assertions.assertNotEquals(changed, entityStore.asVersioned().getVersion(entity, environment).block());
+        Assertions.assertThrows(EntityVersionMismatch.class, () -> {
+            try {
+                entityStore.asCommitable().commit(new RdfTransaction().inserts(entity, SDO.NAME, Values.literal("Name")).expects(entity, changed), environment).block();
+            } catch (RuntimeException e) {
+                throw e.getCause();
+            }
+        });
+    }
+
+    @Test
+    void keepConfiguredNumberOfSnapshots() {
+        Environment environment = this.environment();
+        List<String> created = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            this.importStatements(this.generate(10), environment);
+            created.add(entityStore.asMaintainable().createSnapshot(environment).block().id());
+        }
+
+        List<String> listed = entityStore.asMaintainable().listSnapshots(environment).map(RepositorySnapshot::id).collectList().block();
+        Assertions.assertEquals(List.of(created.get(4), created.get(3), created.get(2)), listed);
+    }
+
+    @Test
+    void rejectUnknownSnapshot() {
+        Assertions.assertThrows(SnapshotNotFound.class, () -> {
+            try {
+                entityStore.asMaintainable().restoreSnapshot("../entities", this.environment()).block();
+            } catch (RuntimeException e) {
+                throw e.getCause();
+            }
+        });
+    }
+
+    private void importStatements(List<Statement> statements, Environment environment) {
+        for (int i = 0; i < statements.size(); i += BATCH_SIZE) {
+            entityStore.asMaintainable().importStatements(statements.subList(i, Math.min(statements.size(), i + BATCH_SIZE)), environment).block();
+        }
+    }
+
+    private List<Statement> generate(int count) {
+        List<Statement> statements = new ArrayList<>(count);
+        for (int i = 0; i < count; i += 2) {
+            IRI entity = DefaultIdentifierFactory.getInstance().createRandomIdentifier(Local.Entities.NAME);
+            statements.add(Statements.statement(entity, RDF.TYPE, SDO.CREATIVE_WORK, null));
+            statements.add(Statements.statement(entity, SDO.IDENTIFIER, Values.literal("Entity " + i), null));
+        }
+        return statements;
+    }
+
+    /**
+     * Counts the statements without the versions of the entities (which are stored with the committed entities).
+     */
+    private long count(Environment environment) {
+        String query = "SELECT (COUNT(*) AS ?count) WHERE { ?s ?p ?o FILTER(?p != <%s>) }".formatted(Metadata.VERSION);
+        return entityStore.asSearchable().query(query, environment)
+                .map(bindings -> ((Literal) bindings.getValue("count")).longValue())
+                .blockFirst();
+    }
+
+    private Environment environment() {
+        SessionContext context = new SessionContext().setSystemAuthentication().setAuthorized();
+        context.getEnvironment().setRepositoryType(RepositoryType.ENTITIES);
+        context.getEnvironment().setConfiguration(Environment.RepositoryConfigurationKey.FLAG_PERSISTENT, true);
+        return context.getEnvironment();
+    }
+}
@@ -0,0 +1,137 @@
+package org.av360.maverick.graph.services;
+
+import org.av360.maverick.graph.model.context.SessionContext;
+import org.av360.maverick.graph.model.vocabulary.*;
+import org.av360.maverick.graph.services.impl.SchemaServicesImpl;
+import org.av360.maverick.graph.services.preprocessors.types.AssignLocalTypes;
+import org.av360.maverick.graph.store.SchemaStore;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.Namespace;
+import org.eclipse.rdf4j.model.util.ModelBuilder;
+import org.eclipse.rdf4j.model.util.Values;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares the classification index with the former lookups in the term sets of every vocabulary, in single lookups and
+ * in the type assignment of imported models.
+ */
+class SchemaClassificationTest {
+
+    private static final int MODELS = 2000;
+    private static final int SUBJECTS_PER_MODEL = 50;
+
+    @Test
+    void classifyLikeVocabularies() {
+        SchemaServices indexed = new SchemaServicesImpl(Mockito.mock(SchemaStore.class), 1000);
+        SchemaServices legacy = new LegacySchemaServices();
+
+        List<IRI> terms = new ArrayList<>(List.of(SDO.VIDEO_OBJECT, SDO.PERSON, SDO.DEFINED_TERM, SKOS.CONCEPT, SKOS.COLLECTION, SKOSXL.LABEL, SDO.IDENTIFIER,
+                SDO.TITLE, SKOS.PREF_LABEL, DC.IDENTIFIER, DCTERMS.TITLE, FOAF.PERSON, RDF.TYPE, SDO.SUBJECT_OF, SDO.TERM_CODE));
+        for (int i = 0; i < 100; i++) {
+            terms.add(Values.iri("http://example.org/vocab#term" + i));
+            terms.add(Values.iri("http://example.org/vocab#productCode" + i));
+        }
+
+        for (IRI term : terms) {
+            Assertions.assertEquals(legacy.isIndividualType(term), indexed.isIndividualType(term), term.stringValue());
+            Assertions.assertEquals(legacy.isClassifierType(term), indexed.isClassifierType(term), term.stringValue());
+            Assertions.assertEquals(legacy.isCharacteristicProperty(term), indexed.isCharacteristicProperty(term), term.stringValue());
+            Assertions.assertEquals(legacy.isPotentialCharacteristicProperty(term), indexed.isPotentialCharacteristicProperty(term), term.stringValue());
+        }
+    }
+
+    @Test
+    void assignTypesLikeVocabularies() {
+        List<Model> models = new ArrayList<>();
+        for (int m = 0; m < MODELS; m++) {
+            ModelBuilder builder = new ModelBuilder();
+            for (int s = 0; s < SUBJECTS_PER_MODEL; s++) {
+                String subject = "http://example.org/import/%d/%d".formatted(m, s);
+                switch (s % 4) {
+                    case 0 -> builder.subject(subject).add(RDF.TYPE, SDO.VIDEO_OBJECT).add(SDO.TITLE, "Video " + s).add("http://example.org/vocab#duration", s);
+                    case 1 -> builder.subject(subject).add(RDF.TYPE, SKOS.CONCEPT).add(SKOS.PREF_LABEL, "Concept " + s);
+                    case 2 -> builder.subject(subject).add(RDF.TYPE, SDO.PERSON).add(SDO.NAME, "Person " + s);
+                    default -> builder.subject(subject).add("http://example.org/vocab#productCode", "p" + s).add("http://example.org/vocab#weight", s);
+                }
+            }
+            models.add(builder.build());
+        }
+
+        long legacy = this.countTypes(new LegacySchemaServices(), models);
+        long indexed = this.countTypes(new SchemaServicesImpl(Mockito.mock(SchemaStore.class), 10000), models);
+
+        Assertions.assertTrue(legacy > 0);
+        Assertions.assertEquals(legacy, indexed);
+    }
+
+    /**
+     * @return the number of type statements after preprocessing
+     */
+    private long countTypes(SchemaServices schemaServices, List<Model> models) {
+        AssignLocalTypes preprocessor = new AssignLocalTypes();
+        preprocessor.registerSchemaService(schemaServices);
+
+        return models.stream()
+                .map(model -> (Model) preprocessor.handle(model, Map.of(), new SessionContext().getEnvironment()).block())
+                .mapToLong(model -> model.filter(null, RDF.TYPE, null).size())
+                .sum();
+    }
+
+
+    /**
+     * The classification before it has been compiled into an index.
+     */
+    private static class LegacySchemaServices implements SchemaServices {
+
+        @Override
+        public boolean isIndividualType(IRI iri) {
+            return SDO.getIndividualTypes().contains(iri) || SCHEMA.getIndividualTypes().contains(iri) || RDFS.getIndividualTypes().contains(iri)
+                    || DC.getIndividualTypes().contains(iri) || DCTERMS.getIndividualTypes().contains(iri) || SKOS.getIndividualTypes().contains(iri)
+                    || ICAL.getIndividualTypes().contains(iri) || ESCO.getIndividualTypes().contains(iri) || FOAF.getIndividualTypes().contains(iri);
+        }
+
+        @Override
+        public boolean isClassifierType(IRI iri) {
+            return SDO.getClassifierTypes().contains(iri) || SCHEMA.getClassifierTypes().contains(iri) || RDFS.getClassifierTypes().contains(iri)
+                    || DC.getClassifierTypes().contains(iri) || DCTERMS.getClassifierTypes().contains(iri) || SKOS.getClassifierTypes().contains(iri)
+                    || SKOSXL.getClassifierTypes().contains(iri) || ICAL.getClassifierTypes().contains(iri) || ESCO.getClassifierTypes().contains(iri)
+                    || FOAF.getClassifierTypes().contains(iri);
+        }
+
+        @Override
+        public boolean isCharacteristicProperty(IRI iri) {
+            return SDO.getCharacteristicProperties().contains(iri) || SCHEMA.getCharacteristicProperties().contains(iri) || RDFS.getCharacteristicProperties().contains(iri)
+                    || DC.getCharacteristicProperties().contains(iri) || DCTERMS.getCharacteristicProperties().contains(iri) || SKOS.getCharacteristicProperties().contains(iri)
+                    || ICAL.getCharacteristicProperties().contains(iri) || ESCO.getCharacteristicProperties().contains(iri) || FOAF.getCharacteristicProperties().contains(iri);
+        }
+
+        @Override
+        public boolean isPotentialCharacteristicProperty(IRI iri) {
+            return iri.getLocalName().matches("(?i).*(id|key|code).*");
+        }
+
+        @Override
+        public Mono<IRI> resolvePrefixedName(String prefixedName) {
+            return Mono.empty();
+        }
+
+        @Override
+        public Mono<IRI> resolveLocalName(String name) {
+            return Mono.empty();
+        }
+
+        @Override
+        public Mono<Namespace> getNamespaceFor(String prefix) {
+            return Mono.empty();
+        }
+    }
+}
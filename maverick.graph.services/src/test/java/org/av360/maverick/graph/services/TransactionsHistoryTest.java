@@ -0,0 +1,149 @@
+package org.av360.maverick.graph.services;
+
+import org.av360.maverick.graph.model.context.SessionContext;
+import org.av360.maverick.graph.model.entities.Transaction;
+import org.av360.maverick.graph.model.enums.Activity;
+import org.av360.maverick.graph.model.enums.RepositoryType;
+import org.av360.maverick.graph.model.identifier.DefaultIdentifierFactory;
+import org.av360.maverick.graph.model.vocabulary.SDO;
+import org.av360.maverick.graph.model.vocabulary.meg.Local;
+import org.av360.maverick.graph.model.vocabulary.meg.Transactions;
+import org.av360.maverick.graph.store.TransactionsStore;
+import org.av360.maverick.graph.store.rdf.fragments.RdfTransaction;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.util.Values;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class TransactionsHistoryTest {
+
+    private static final int TRANSACTIONS = 5000;
+    private static final int SUBJECTS = 50;
+    private static final int PAGE_SIZE = 250;
+
+    @Autowired
+    TransactionsService transactionsService;
+
+    @Autowired
+    TransactionsStore transactionsStore;
+
+    private final List<IRI> subjects = new ArrayList<>();
+    private final List<Transaction> recorded = new ArrayList<>();
+
+    @BeforeAll
+    void recordTransactions() {
+        IntStream.range(0, SUBJECTS).forEach(i -> subjects.add(DefaultIdentifierFactory.getInstance().createRandomIdentifier(Local.Entities.NAME)));
+
+        Flux<Transaction> saved = Flux.range(0, TRANSACTIONS)
+                .map(i -> (Transaction) new RdfTransaction().inserts(subjects.get(i % SUBJECTS), SDO.NAME, Values.literal("name " + i)))
+                .doOnNext(Transaction::setCompleted)
+                .buffer(100)
+                .concatMap(batch -> transactionsService.save(batch, this.createContext()));
+
+        StepVerifier.create(saved.doOnNext(recorded::add)).expectNextCount(TRANSACTIONS).verifyComplete();
+    }
+
+    @Test
+    void pageThroughHistory() {
+        List<Transaction> result = this.readAll(TransactionsStore.Filter.ALL, null);
+
+        Assertions.assertEquals(TRANSACTIONS, result.size());
+        for (int i = 1; i < result.size(); i++) {
+            Assertions.assertTrue(TransactionsStore.Position.of(result.get(i - 1)).compareTo(TransactionsStore.Position.of(result.get(i))) < 0);
+        }
+        Assertions.assertEquals(recorded.get(0).getIdentifier(), result.get(0).getIdentifier());
+        Assertions.assertEquals(recorded.get(TRANSACTIONS - 1).getIdentifier(), result.get(TRANSACTIONS - 1).getIdentifier());
+    }
+
+    @Test
+    void historyOfEntity() {
+        IRI subject = subjects.get(7);
+        List<Transaction> result = this.readAll(TransactionsStore.Filter.ALL, subject.getLocalName());
+
+        Assertions.assertEquals(TRANSACTIONS / SUBJECTS, result.size());
+        Assertions.assertTrue(result.stream().allMatch(transaction -> transaction.affectedSubjects(Activity.INSERTED).contains(subject)));
+    }
+
+    @Test
+    void historyInTimeRange() {
+        TransactionsStore.Position from = TransactionsStore.Position.of(recorded.get(1000));
+        TransactionsStore.Position until = TransactionsStore.Position.of(recorded.get(2000));
+
+        // commit times are unique within a scope
+        List<Transaction> result = this.readAll(TransactionsStore.Filter.ALL.between(from.committed(), until.committed()), null);
+        Assertions.assertEquals(1000, result.size());
+        Assertions.assertEquals(recorded.get(1000).getIdentifier(), result.get(0).getIdentifier());
+
+        List<Transaction> ofEntity = this.readAll(TransactionsStore.Filter.ALL.between(from.committed(), until.committed()), subjects.get(0).getLocalName());
+        Assertions.assertEquals(1000 / SUBJECTS, ofEntity.size());
+    }
+
+    @Test
+    void findById() {
+        Transaction expected = recorded.get(4321);
+
+        StepVerifier.create(transactionsService.find(expected.getIdentifier().getLocalName(), this.createContext()))
+                .assertNext(transaction -> {
+                    Assertions.assertEquals(expected.getIdentifier(), transaction.getIdentifier());
+                    Assertions.assertTrue(transaction.isCompleted());
+                    Assertions.assertEquals(TransactionsStore.Position.of(expected), TransactionsStore.Position.of(transaction));
+                })
+                .verifyComplete();
+
+        StepVerifier.create(transactionsService.find("xxxxxxxx", this.createContext())).verifyError();
+    }
+
+    @Test
+    void includeTransactionsWithoutCommitTime() {
+        SessionContext context = new SessionContext().setSystemAuthentication().setAuthorized();
+        context.getEnvironment().setRepositoryType(RepositoryType.TRANSACTIONS);
+        context.getEnvironment().withScope("legacy");
+
+        // recorded before the commit time was stamped, the commit time is backfilled with the first listing
+        Transaction legacy = new RdfTransaction().inserts(subjects.get(0), SDO.NAME, Values.literal("legacy"));
+        legacy.setCompleted();
+        transactionsStore.asMaintainable().importStatements(legacy.getModel(Transactions.GRAPH_PROVENANCE), context.getEnvironment()).block();
+        Transaction recent = transactionsService.save(List.of(new RdfTransaction().inserts(subjects.get(0), SDO.NAME, Values.literal("recent"))), context).blockLast();
+
+        List<Transaction> result = transactionsService.list(TransactionsStore.Filter.ALL, null, PAGE_SIZE, context).collectList().block();
+        Assertions.assertNotNull(result);
+        Assertions.assertEquals(List.of(legacy.getIdentifier(), recent.getIdentifier()), result.stream().map(Transaction::getIdentifier).toList());
+
+        List<Transaction> after = transactionsService.list(TransactionsStore.Filter.ALL, TransactionsStore.Position.of(result.get(0)), PAGE_SIZE, context).collectList().block();
+        Assertions.assertEquals(List.of(recent.getIdentifier()), after.stream().map(Transaction::getIdentifier).toList());
+    }
+
+    private List<Transaction> readAll(TransactionsStore.Filter filter, String entity) {
+        List<Transaction> result = new ArrayList<>();
+        List<Transaction> page;
+        do {
+            TransactionsStore.Position after = result.isEmpty() ? null : TransactionsStore.Position.of(result.get(result.size() - 1));
+            Flux<Transaction> next = entity == null
+                    ? transactionsService.list(filter, after, PAGE_SIZE, this.createContext())
+                    : transactionsService.listForEntity(entity, filter, after, PAGE_SIZE, this.createContext());
+            page = next.collectList().blockOptional().orElse(List.of());
+            result.addAll(page);
+        } while (page.size() == PAGE_SIZE);
+        return result;
+    }
+
+    private SessionContext createContext() {
+        SessionContext context = new SessionContext().setSystemAuthentication();
+        context.getEnvironment().withScope("history");
+        return context;
+    }
+}
@@ -0,0 +1,195 @@
+package org.av360.maverick.graph.services;
+
+import org.av360.maverick.graph.model.context.Environment;
+import org.av360.maverick.graph.model.context.SessionContext;
+import org.av360.maverick.graph.model.entities.Transaction;
+import org.av360.maverick.graph.model.enums.RepositoryType;
+import org.av360.maverick.graph.model.identifier.DefaultIdentifierFactory;
+import org.av360.maverick.graph.model.identifier.ValueIdentifier;
+import org.av360.maverick.graph.model.rdf.Triples;
+import org.av360.maverick.graph.model.vocabulary.SDO;
+import org.av360.maverick.graph.model.vocabulary.meg.Local;
+import org.av360.maverick.graph.services.api.Api;
+import org.av360.maverick.graph.services.api.values.ValuesUtils;
+import org.av360.maverick.graph.store.IndividualsStore;
+import org.av360.maverick.graph.store.rdf.fragments.RdfFragment;
+import org.av360.maverick.graph.store.rdf.fragments.RdfTransaction;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Triple;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.util.Values;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import reactor.core.publisher.Flux;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Compares the value identifiers stored by the entity store (for entities with large literals) with computed identifiers.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ValueIdentifiersTest {
+
+    private static final int ENTITIES = 200;
+    private static final int VALUES = 10;
+    private static final int VALUE_SIZE = 20000;
+
+    @Autowired
+    IndividualsStore entityStore;
+
+    @Autowired
+    ValueServices valueServices;
+
+    @Autowired
+    Api api;
+
+    private final List<IRI> subjects = new ArrayList<>();
+
+    @BeforeAll
+    void importEntities() {
+        IntStream.range(0, ENTITIES).forEach(i -> subjects.add(DefaultIdentifierFactory.getInstance().createRandomIdentifier(Local.Entities.NAME)));
+        Assertions.assertTrue(entityStore.isValueIdentified());
+
+        SessionContext ctx = this.createContext("identified");
+        Assertions.assertEquals(0L, valueServices.identifyValues(ctx).block());
+
+        Flux.range(0, ENTITIES)
+                .map(i -> {
+                    RdfTransaction transaction = new RdfTransaction();
+                    transaction.inserts(subjects.get(i), RDF.TYPE, SDO.THING);
+                    IntStream.range(0, VALUES).forEach(v -> transaction.inserts(subjects.get(i), SDO.DESCRIPTION, Values.literal(value(i, v))));
+                    return (Transaction) transaction;
+                })
+                .buffer(50)
+                .concatMap(batch -> entityStore.asCommitable().commit(batch, ctx.getEnvironment()))
+                .blockLast();
+    }
+
+    @Test
+    void identifiersLikeComputed() {
+        Environment environment = this.createContext("identified").getEnvironment();
+        for (int i = 0; i < ENTITIES; i += Math.max(1, ENTITIES / 50)) {
+            Map<Triple, ValueIdentifier> identifiers = entityStore.asValueIdentified().getValueIdentifiers(subjects.get(i), SDO.DESCRIPTION, environment).block();
+            Assertions.assertNotNull(identifiers);
+            Assertions.assertEquals(VALUES, identifiers.size());
+            for (int v = 0; v < VALUES; v++) {
+                Value value = Values.literal(value(i, v));
+                ValueIdentifier identifier = identifiers.get(Values.triple(subjects.get(i), SDO.DESCRIPTION, value));
+                Assertions.assertNotNull(identifier);
+                Assertions.assertEquals(ValuesUtils.generateHashForValue(SDO.DESCRIPTION, value), identifier.toString());
+                Assertions.assertEquals(Optional.of(identifier), ValueIdentifier.parse(identifier.toString().toUpperCase()));
+            }
+        }
+
+        Assertions.assertEquals(Map.of(), entityStore.asValueIdentified().getValueIdentifiers(subjects.get(0), SDO.NAME, environment).block());
+        Assertions.assertTrue(ValueIdentifier.parse("no identifier").isEmpty());
+    }
+
+    @Test
+    void findValuesByIdentifier() {
+        SessionContext ctx = this.createContext("identified");
+        IRI subject = subjects.get(2);
+        Value value = Values.literal(value(2, 3));
+        ValueIdentifier identifier = ValueIdentifier.of(SDO.DESCRIPTION, value);
+
+        Assertions.assertEquals(value, entityStore.asValueIdentified().findValue(subject, SDO.DESCRIPTION, identifier, ctx.getEnvironment()).block());
+        Assertions.assertNull(entityStore.asValueIdentified().findValue(subject, SDO.NAME, identifier, ctx.getEnvironment()).block());
+        Assertions.assertNull(entityStore.asValueIdentified().findValue(subjects.get(3), SDO.DESCRIPTION, identifier, ctx.getEnvironment()).block());
+
+        Triples selected = api.values().read().getValue(subject, SDO.DESCRIPTION, null, identifier.toString().toUpperCase(), ctx).block();
+        Assertions.assertNotNull(selected);
+        Assertions.assertEquals(Set.of(value), selected.getModel().filter(subject, SDO.DESCRIPTION, null).objects());
+
+        Triples unknown = api.values().read().getValue(subject, SDO.DESCRIPTION, null, ValueIdentifier.of(SDO.DESCRIPTION, Values.literal("unknown")).toString(), ctx).block();
+        Assertions.assertNotNull(unknown);
+        Assertions.assertTrue(unknown.getModel().filter(subject, SDO.DESCRIPTION, null).isEmpty());
+    }
+
+    @Test
+    void identifyValuesOnCommit() {
+        SessionContext ctx = this.createContext("identified");
+        IRI subject = subjects.get(1);
+        Value changed = Values.literal("changed value");
+
+        entityStore.asCommitable().commit(new RdfTransaction().removes(subject, SDO.DESCRIPTION, Values.literal(value(1, 0))).inserts(subject, SDO.DESCRIPTION, changed), ctx.getEnvironment()).block();
+        Map<Triple, ValueIdentifier> identifiers = entityStore.asValueIdentified().getValueIdentifiers(subject, SDO.DESCRIPTION, ctx.getEnvironment()).block();
+        Assertions.assertNotNull(identifiers);
+        Assertions.assertFalse(identifiers.containsKey(Values.triple(subject, SDO.DESCRIPTION, Values.literal(value(1, 0)))));
+        Assertions.assertEquals(ValueIdentifier.of(SDO.DESCRIPTION, changed), identifiers.get(Values.triple(subject, SDO.DESCRIPTION, changed)));
+
+        // removed through the services, which look up the value by its identifier
+        valueServices.removeValue(subject, SDO.DESCRIPTION, null, ValueIdentifier.of(SDO.DESCRIPTION, changed).toString(), ctx).block();
+        identifiers = entityStore.asValueIdentified().getValueIdentifiers(subject, SDO.DESCRIPTION, ctx.getEnvironment()).block();
+        Assertions.assertNotNull(identifiers);
+        Assertions.assertFalse(identifiers.containsKey(Values.triple(subject, SDO.DESCRIPTION, changed)));
+        Assertions.assertEquals(Boolean.FALSE, entityStore.asStatementsAware().hasStatement(subject, SDO.DESCRIPTION, changed, ctx.getEnvironment()).block());
+    }
+
+    @Test
+    void identifyExistingValues() {
+        SessionContext ctx = this.createContext("migrated");
+        IRI subject = DefaultIdentifierFactory.getInstance().createRandomIdentifier(Local.Entities.NAME);
+        Value existing = Values.literal("existing value");
+        ValueIdentifier identifier = ValueIdentifier.of(SDO.DESCRIPTION, existing);
+
+        // written bypassing the transactions, the identifier is computed until the values are identified
+        entityStore.asSearchable().update("INSERT DATA { <%s> <%s> \"existing value\" }".formatted(subject, SDO.DESCRIPTION), ctx.getEnvironment()).block();
+        Assertions.assertEquals(Map.of(), entityStore.asValueIdentified().getValueIdentifiers(subject, null, ctx.getEnvironment()).block());
+        Assertions.assertEquals(existing, entityStore.asValueIdentified().findValue(subject, SDO.DESCRIPTION, identifier, ctx.getEnvironment()).block());
+
+        Assertions.assertEquals(1L, valueServices.identifyValues(ctx).block());
+        Assertions.assertEquals(0L, valueServices.identifyValues(ctx).block());
+        Assertions.assertEquals(Map.of(Values.triple(subject, SDO.DESCRIPTION, existing), identifier), entityStore.asValueIdentified().getValueIdentifiers(subject, null, ctx.getEnvironment()).block());
+
+        // the stored identifier is left behind by queries, the value is not found anymore
+        entityStore.asSearchable().update("DELETE WHERE { ?s <%s> \"existing value\" }".formatted(SDO.DESCRIPTION), ctx.getEnvironment()).block();
+        Assertions.assertNull(entityStore.asValueIdentified().findValue(subject, SDO.DESCRIPTION, identifier, ctx.getEnvironment()).block());
+    }
+
+    @Test
+    void lookUpIdentifiersOfLargeValues() {
+        Environment environment = this.createContext("identified").getEnvironment();
+        for (IRI subject : subjects) {
+            RdfFragment fragment = entityStore.asFragmentable().getFragment(subject, SDO.DESCRIPTION, null, false, environment).block();
+            Assertions.assertNotNull(fragment);
+
+            // listing the values of an entity requires the identifiers of all values
+            Map<Triple, ValueIdentifier> identifiers = entityStore.asValueIdentified().getValueIdentifiers(subject, null, environment).block();
+            Assertions.assertNotNull(identifiers);
+            List<String> computed = fragment.streamValues(subject, SDO.DESCRIPTION).map(value -> ValuesUtils.generateHashForValue(SDO.DESCRIPTION, value)).toList();
+            List<String> lookedUp = fragment.streamValues(subject, SDO.DESCRIPTION)
+                    .map(value -> identifiers.get(Values.triple(subject, SDO.DESCRIPTION, value)).toString())
+                    .toList();
+            Assertions.assertEquals(computed, lookedUp);
+        }
+
+        // deleting a value requires finding the value with the requested identifier (here the last one)
+        for (int i = 0; i < ENTITIES; i += Math.max(1, ENTITIES / 50)) {
+            Value requested = Values.literal(value(i, VALUES - 1));
+            Assertions.assertEquals(requested, entityStore.asValueIdentified().findValue(subjects.get(i), SDO.DESCRIPTION, ValueIdentifier.of(SDO.DESCRIPTION, requested), environment).block());
+        }
+    }
+
+    private static String value(int entity, int value) {
+        StringBuilder sb = new StringBuilder(VALUE_SIZE);
+        sb.append("Description ").append(value).append(" of entity ").append(entity).append(": ");
+        while (sb.length() < VALUE_SIZE) sb.append("lorem ipsum dolor sit amet ");
+        return sb.substring(0, VALUE_SIZE);
+    }
+
+    private SessionContext createContext(String scope) {
+        SessionContext context = new SessionContext().setSystemAuthentication().setAuthorized();
+        context.getEnvironment().setRepositoryType(RepositoryType.ENTITIES);
+        context.getEnvironment().withScope(scope);
+        return context;
+    }
+}
@@ -0,0 +1,79 @@
+package org.av360.maverick.graph.services.aspects;
+
+import lombok.extern.slf4j.Slf4j;
+import org.av360.maverick.graph.model.context.SessionContext;
+import org.av360.maverick.graph.model.enums.RepositoryType;
+import org.av360.maverick.graph.model.errors.InsufficientPrivilegeException;
+import org.av360.maverick.graph.model.identifier.DefaultIdentifierFactory;
+import org.av360.maverick.graph.model.security.Authorities;
+import org.av360.maverick.graph.model.vocabulary.meg.Local;
+import org.av360.maverick.graph.services.EntityServices;
+import org.eclipse.rdf4j.model.IRI;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Measures the overhead of the aspects (authorization and repository type) on {@link EntityServices#get}. Only the
+ * pipeline is assembled, the store is never queried. The overhead on its own is measured with
+ * {@link EntityServices#getStore}. The number of calls can be raised with the system property
+ * "benchmark.calls", the measurements are logged (they depend too much on the machine to be asserted).
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Slf4j(topic = "graph.test.perf")
+class AspectOverheadTest {
+
+    private static final int CALLS = Integer.getInteger("benchmark.calls", 50000);
+    private static final int ROUNDS = 10;
+
+    @Autowired
+    EntityServices entityServices;
+
+    @Test
+    void getThroughAspects() {
+        Assertions.assertTrue(AopUtils.isAopProxy(entityServices));
+        EntityServices target = (EntityServices) AopProxyUtils.getSingletonTarget(entityServices);
+        Assertions.assertNotNull(target);
+
+        IRI entity = DefaultIdentifierFactory.getInstance().createRandomIdentifier(Local.Entities.NAME);
+        SessionContext ctx = new SessionContext().setSystemAuthentication();
+        SessionContext direct = new SessionContext().setSystemAuthentication().setAuthorized();
+        direct.getEnvironment().setRepositoryType(RepositoryType.ENTITIES);
+
+        this.compare("get", () -> entityServices.get(entity, false, 0, ctx), () -> target.get(entity, false, 0, direct));
+        // returns the store without any further work, which leaves only the aspects
+        this.compare("getStore", () -> entityServices.getStore(ctx), () -> target.getStore(direct));
+
+        Assertions.assertTrue(ctx.getEnvironment().isAuthorized());
+        Assertions.assertEquals(RepositoryType.ENTITIES, ctx.getEnvironment().getRepositoryType());
+
+        // the remembered decision is dropped with the authentication it has been made for
+        ctx.withAuthority(Authorities.GUEST);
+        Assertions.assertThrows(InsufficientPrivilegeException.class, () -> entityServices.get(entity, false, 0, ctx));
+    }
+
+    private void compare(String method, Runnable proxied, Runnable plain) {
+        long withAspects = Long.MAX_VALUE;
+        long withoutAspects = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            withAspects = Math.min(withAspects, this.measure(proxied));
+            withoutAspects = Math.min(withoutAspects, this.measure(plain));
+        }
+
+        log.info("EntityServices.{} ({} calls): {} ns/call with aspects, {} ns/call without, {} ns/call overhead",
+                method, CALLS, withAspects / CALLS, withoutAspects / CALLS, (withAspects - withoutAspects) / CALLS);
+    }
+
+    private long measure(Runnable call) {
+        long start = System.nanoTime();
+        for (int i = 0; i < CALLS; i++) {
+            call.run();
+        }
+        return System.nanoTime() - start;
+    }
+}
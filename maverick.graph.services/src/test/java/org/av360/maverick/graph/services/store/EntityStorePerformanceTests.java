@@ -0,0 +1,28 @@
+package org.av360.maverick.graph.services.store;
+
+import org.av360.maverick.graph.store.IndividualsStore;
+import org.av360.maverick.graph.tests.store.StorePerformanceTestsBase;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Runs the store performance scenarios against the in-memory RDF4J entity store.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class EntityStorePerformanceTests extends StorePerformanceTestsBase {
+
+    @Autowired
+    IndividualsStore entityStore;
+
+    @Override
+    protected IndividualsStore getStore() {
+        return entityStore;
+    }
+
+    @Override
+    protected String getBaselineKey() {
+        return "rdf4j-memory";
+    }
+}
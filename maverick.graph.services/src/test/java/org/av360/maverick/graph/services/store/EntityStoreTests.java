@@ -0,0 +1,23 @@
+package org.av360.maverick.graph.services.store;
+
+import org.av360.maverick.graph.store.IndividualsStore;
+import org.av360.maverick.graph.tests.store.StoreConformanceTestsBase;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Runs the store conformance suite against the RDF4J entity store.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class EntityStoreTests extends StoreConformanceTestsBase {
+
+    @Autowired
+    IndividualsStore entityStore;
+
+    @Override
+    protected IndividualsStore getStore() {
+        return entityStore;
+    }
+}
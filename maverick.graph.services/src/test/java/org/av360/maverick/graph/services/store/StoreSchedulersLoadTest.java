@@ -0,0 +1,169 @@
+package org.av360.maverick.graph.services.store;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.av360.maverick.graph.model.enums.RepositoryType;
+import org.av360.maverick.graph.store.StoreSchedulers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compares the throughput and the number of threads of blocking store calls on the store schedulers with the shared
+ * bounded elastic scheduler and ad-hoc single schedulers (as used before by jobs and imports).
+ */
+@Slf4j(topic = "graph.test.perf")
+class StoreSchedulersLoadTest {
+
+    private static final int TASKS = Integer.getInteger("benchmark.tasks", 2000);
+    private static final int CONCURRENCY = 256;
+    private static final int THREADS = 32;
+
+    private record Result(String name, long millis, int threads) {
+        @Override
+        public String toString() {
+            return "%-16s %6d ms %8d tasks/s %5d threads".formatted(name, millis, TASKS * 1000L / Math.max(1, millis), threads);
+        }
+    }
+
+    @Test
+    public void compareThroughputAndThreads() {
+        List<Result> results = new ArrayList<>();
+
+        results.add(this.run("bounded elastic", i -> Schedulers.boundedElastic()));
+
+        List<Scheduler> adhoc = new ArrayList<>();
+        results.add(this.run("ad-hoc single", i -> {
+            // every job or import created its own scheduler
+            Scheduler scheduler = Schedulers.newSingle("import");
+            synchronized (adhoc) {
+                adhoc.add(scheduler);
+            }
+            return scheduler;
+        }));
+        adhoc.forEach(Scheduler::dispose);
+
+        StoreSchedulers bounded = new StoreSchedulers("bounded", THREADS, 100000, Duration.ofSeconds(5));
+        Result store = this.run("store (bounded)", i -> bounded.forRepository(RepositoryType.ENTITIES));
+        results.add(store);
+        bounded.shutdown();
+
+        StoreSchedulers virtual = new StoreSchedulers("virtual", THREADS, 100000, Duration.ofSeconds(5));
+        if (virtual.getStrategy() == StoreSchedulers.Strategy.VIRTUAL) {
+            results.add(this.run("store (virtual)", i -> virtual.forRepository(RepositoryType.ENTITIES)));
+        }
+        virtual.shutdown();
+
+        log.info("Running {} blocking calls with concurrency {}:", TASKS, CONCURRENCY);
+        results.forEach(result -> log.info("{}", result));
+
+        Assertions.assertTrue(store.threads() <= THREADS + 2, "Bounded store scheduler started %d threads".formatted(store.threads()));
+    }
+
+    @Test
+    public void publishQueueDepth() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        StoreSchedulers schedulers = new StoreSchedulers("bounded", 2, 1000, Duration.ofSeconds(5));
+        schedulers.setMeterRegistry(registry);
+        Scheduler scheduler = schedulers.forRepository(RepositoryType.ENTITIES);
+
+        AtomicInteger maxQueued = new AtomicInteger();
+        Flux.range(0, 50)
+                .flatMap(i -> Mono.fromCallable(() -> this.block(i)).subscribeOn(scheduler), 50)
+                .doOnNext(i -> maxQueued.accumulateAndGet(schedulers.getQueued(), Math::max))
+                .blockLast();
+
+        Gauge queued = registry.find("graph.store.scheduler.queued").tag("repository", "ENTITIES").gauge();
+        Assertions.assertNotNull(queued);
+        Assertions.assertNotNull(registry.find("graph.store.scheduler.active").tag("repository", "ENTITIES").gauge());
+        Assertions.assertTrue(maxQueued.get() > 0);
+        Assertions.assertEquals(0, queued.value());
+        schedulers.shutdown();
+    }
+
+    @Test
+    public void drainOnShutdown() {
+        StoreSchedulers schedulers = new StoreSchedulers("bounded", 2, 1000, Duration.ofSeconds(5));
+        Scheduler scheduler = schedulers.forRepository(RepositoryType.ENTITIES);
+
+        AtomicInteger completed = new AtomicInteger();
+        Flux.range(0, 20)
+                .flatMap(i -> Mono.fromCallable(() -> this.block(i)).subscribeOn(scheduler), 20)
+                .doOnNext(i -> completed.incrementAndGet())
+                .subscribe();
+
+        schedulers.shutdown();
+        Assertions.assertEquals(20, completed.get());
+        Assertions.assertEquals(0, schedulers.getQueued() + schedulers.getActive());
+    }
+
+    @Test
+    public void fairQueuingAcrossScopes() {
+        // with a shared queue, the light tenant waits for the whole backlog of the heavy tenant (up to the running calls)
+        int shared = this.heavyCallsBeforeLightTenant("default", "default");
+        Assertions.assertTrue(shared >= 400 - 2, "Light tenant waited for %d calls of the heavy tenant with a shared queue".formatted(shared));
+
+        // with fair queuing, the tenants take turns
+        int fair = this.heavyCallsBeforeLightTenant("heavy", "light");
+        Assertions.assertTrue(fair < 50, "Light tenant waited for %d calls of the heavy tenant with fair queuing".formatted(fair));
+    }
+
+    /**
+     * The heavy tenant floods the scheduler before the light tenant submits a few calls.
+     *
+     * @return the number of calls of the heavy tenant completed until all calls of the light tenant are completed
+     */
+    private int heavyCallsBeforeLightTenant(String heavyScope, String lightScope) {
+        StoreSchedulers schedulers = new StoreSchedulers("bounded", 2, 100000, Duration.ofSeconds(5));
+        Scheduler heavy = schedulers.forScope(RepositoryType.ENTITIES, heavyScope, 1);
+        Scheduler light = schedulers.forScope(RepositoryType.ENTITIES, lightScope, 1);
+
+        AtomicInteger completed = new AtomicInteger();
+        Flux.range(0, 400)
+                .flatMap(i -> Mono.fromCallable(() -> this.block(i)).doOnNext(r -> completed.incrementAndGet()).subscribeOn(heavy), 400)
+                .subscribe();
+
+        int before = Flux.range(0, 10)
+                .flatMap(i -> Mono.fromCallable(() -> this.block(i)).subscribeOn(light), 10)
+                .then(Mono.fromSupplier(completed::get))
+                .block();
+
+        schedulers.shutdown();
+        return before;
+    }
+
+    private Result run(String name, java.util.function.IntFunction<Scheduler> schedulers) {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        int before = threads.getThreadCount();
+        threads.resetPeakThreadCount();
+
+        long start = System.nanoTime();
+        Long count = Flux.range(0, TASKS)
+                .flatMap(i -> Mono.fromCallable(() -> this.block(i)).subscribeOn(schedulers.apply(i)), CONCURRENCY)
+                .count()
+                .block();
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        Assertions.assertEquals(TASKS, count);
+        return new Result(name, millis, threads.getPeakThreadCount() - before);
+    }
+
+    /**
+     * Simulates a blocking call to a repository
+     */
+    private int block(int i) throws InterruptedException {
+        Thread.sleep(2);
+        return i;
+    }
+}
@@ -8,8 +8,11 @@ import org.av360.maverick.graph.model.rdf.AnnotatedStatement;
 import org.av360.maverick.graph.model.rdf.Triples;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.core.annotation.Order;
+import org.springframework.core.io.Resource;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.util.Assert;
@@ -19,6 +22,7 @@ import org.springframework.web.bind.annotation.RestController;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import javax.annotation.Nullable;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -40,12 +44,31 @@ public class FileUploadApi extends AbstractController implements ContentApi {
         this.fileServices = fileServices;
     }
 
+    /**
+     * Returns the file as resource, which is transferred without copying it into memory. Range requests are handled by
+     * the resource writer, conditional requests by the response entity handler (based on the ETag and modification date).
+     * Unsatisfiable ranges are rejected here, the resource writer would fail with a generic error.
+     */
     @Override
-    public Mono<ResponseEntity<Flux<DataBuffer>>> download(@PathVariable String key) {
+    public Mono<ResponseEntity<Resource>> download(@PathVariable String key, @Nullable String range) {
         return super.acquireContext()
                 .flatMap(ctx -> fileServices.read(key, ctx))
                 .map(fileAccessResult -> {
-                    ResponseEntity.BodyBuilder result = ResponseEntity.ok();
+                    if (!this.isSatisfiable(range, fileAccessResult.resource())) {
+                        return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                                .header(HttpHeaders.CONTENT_RANGE, "bytes */%d".formatted(this.lengthOf(fileAccessResult.resource())))
+                                .<Resource>build();
+                    }
+
+                    ResponseEntity.BodyBuilder result = ResponseEntity.ok()
+                            .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                            .eTag(this.buildETag(fileAccessResult));
+
+                    try {
+                        result.lastModified(fileAccessResult.resource().lastModified());
+                    } catch (IOException e) {
+                        log.debug("Failed to read modification date of content with id '{}'", key);
+                    }
 
                     try {
                         String mediaType = Files.probeContentType(Path.of(fileAccessResult.filename()));
@@ -57,7 +80,7 @@ public class FileUploadApi extends AbstractController implements ContentApi {
                         result.contentType(MediaType.APPLICATION_OCTET_STREAM);
                     }
 
-                    return result.body(fileAccessResult.content());
+                    return result.body(fileAccessResult.resource());
 
                 })
                 .doOnSubscribe(s -> {
@@ -66,6 +89,40 @@ public class FileUploadApi extends AbstractController implements ContentApi {
                 });
     }
 
+    private boolean isSatisfiable(@Nullable String range, Resource resource) {
+        if (!StringUtils.hasText(range)) return true;
+
+        try {
+            HttpRange.toResourceRegions(HttpRange.parseRanges(range), resource);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private long lengthOf(Resource resource) {
+        try {
+            return resource.contentLength();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * The checksum identifies the content, files uploaded before checksums were recorded fall back to a weak tag.
+     */
+    private String buildETag(FileServices.FileAccessResult fileAccessResult) {
+        if (StringUtils.hasLength(fileAccessResult.checksum())) {
+            return "\"%s\"".formatted(fileAccessResult.checksum());
+        }
+
+        try {
+            return "W/\"%x-%x\"".formatted(fileAccessResult.resource().contentLength(), fileAccessResult.resource().lastModified());
+        } catch (IOException e) {
+            return "W/\"%s\"".formatted(fileAccessResult.filename());
+        }
+    }
+
     @Override
     public Flux<AnnotatedStatement> createValueWithFile(
             String key,
@@ -0,0 +1,109 @@
+package org.av360.maverick.graph.feature.objects.jobs;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.av360.maverick.graph.feature.objects.services.ContentAddressedStorage;
+import org.av360.maverick.graph.model.annotations.Job;
+import org.av360.maverick.graph.model.context.SessionContext;
+import org.av360.maverick.graph.model.entities.ScheduledJob;
+import org.av360.maverick.graph.model.errors.requests.EntityNotFound;
+import org.av360.maverick.graph.model.vocabulary.SDO;
+import org.av360.maverick.graph.services.EntityServices;
+import org.av360.maverick.graph.services.SessionContextBuilder;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.util.Values;
+import org.springframework.beans.factory.annotation.Value;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Removes stored objects which are not referenced anymore. A reference to a blob is stale once the media object has
+ * been deleted, its content has been replaced by another upload, or the application it belongs to has been removed.
+ * <p>
+ * Blobs without references are only removed after the grace period, uploads still in progress might not have added
+ * their reference yet.
+ */
+@Job
+@Slf4j(topic = "graph.feat.obj.jobs.collect")
+public class CollectUnreferencedObjectsJob implements ScheduledJob {
+
+    public static String NAME = "collectUnreferencedObjects";
+
+    private static final String DEFAULT_SCOPE = "default";
+
+    private final ContentAddressedStorage blobs;
+    private final EntityServices entityServices;
+    private final Set<SessionContextBuilder> builders;
+    private final Duration gracePeriod;
+    private final Counter removedReferences;
+    private final Counter reclaimedBytes;
+
+    public CollectUnreferencedObjectsJob(ContentAddressedStorage blobs, EntityServices entityServices, Set<SessionContextBuilder> builders,
+                                         @Value("${application.features.modules.objects.configuration.gracePeriod:PT1H}") Duration gracePeriod,
+                                         MeterRegistry meterRegistry) {
+        this.blobs = blobs;
+        this.entityServices = entityServices;
+        this.builders = builders;
+        this.gracePeriod = gracePeriod;
+        this.removedReferences = Counter.builder("graph.objects.references.removed").register(meterRegistry);
+        this.reclaimedBytes = Counter.builder("graph.objects.collected").baseUnit("bytes").register(meterRegistry);
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public Mono<Void> run(SessionContext ctx) {
+        return this.blobs.listBlobs()
+                .concatMap(checksum -> this.blobs.listReferences(checksum)
+                        .concatMap(reference -> this.isStale(reference)
+                                .filter(stale -> stale)
+                                .flatMap(stale -> this.blobs.removeReference(reference))
+                                .doOnSuccess(empty -> log.trace("Checked reference of '{}' in scope '{}' to blob '{}'", reference.content(), reference.scope(), checksum)))
+                        .then(this.blobs.deleteIfUnreferenced(checksum, this.gracePeriod)))
+                .reduce(0L, Long::sum)
+                .doOnNext(reclaimed -> {
+                    if (reclaimed > 0) log.info("Removed unreferenced objects, reclaimed {} bytes", reclaimed);
+                    this.reclaimedBytes.increment(reclaimed);
+                })
+                .then(this.blobs.deleteIncompleteUploads(this.gracePeriod))
+                .doOnNext(removed -> {
+                    if (removed > 0) log.info("Removed {} incomplete uploads", removed);
+                })
+                .then();
+    }
+
+    private Mono<Boolean> isStale(ContentAddressedStorage.Reference reference) {
+        IRI content = Values.iri(reference.content());
+
+        SessionContext context = new SessionContext().setSystemAuthentication();
+        if (!DEFAULT_SCOPE.equals(reference.scope())) {
+            context.getEnvironment().withScope(reference.scope());
+        }
+
+        return Flux.fromIterable(this.builders)
+                .reduceWith(() -> Mono.just(context), (update, builder) -> update.flatMap(builder::build)).flatMap(mono -> mono)
+                // the annotated method has to be called, the default methods bypass the authorization
+                .flatMap(ctx -> this.entityServices.get(content, false, 0, ctx))
+                .map(fragment -> !fragment.hasStatement(content, SDO.SHA256, Values.literal(reference.checksum())))
+                // the scope (e.g. the application) doesn't exist anymore
+                .defaultIfEmpty(true)
+                .onErrorResume(EntityNotFound.class, error -> Mono.just(true))
+                .onErrorResume(error -> {
+                    log.warn("Failed to verify reference of '{}' in scope '{}', keeping it. Reason: {}", reference.content(), reference.scope(), error.getMessage());
+                    return Mono.just(false);
+                })
+                .doOnNext(stale -> {
+                    if (stale) {
+                        log.debug("Removing stale reference of '{}' in scope '{}' to blob '{}'", reference.content(), reference.scope(), reference.checksum());
+                        this.removedReferences.increment();
+                    }
+                });
+    }
+}
@@ -18,6 +18,7 @@ public class LocalStorageDetails implements StorageDetails {
     private  String filename;
     private  String language;
     private long length;
+    private String checksum;
     private Date lastModified;
 
     public LocalStorageDetails() {
@@ -72,6 +73,16 @@ public class LocalStorageDetails implements StorageDetails {
         return length;
     }
 
+    @Override
+    public String getChecksum() {
+        return checksum;
+    }
+
+    public LocalStorageDetails setChecksum(String checksum) {
+        this.checksum = checksum;
+        return this;
+    }
+
     @Override
     public Date getLastModified() {
         return lastModified;
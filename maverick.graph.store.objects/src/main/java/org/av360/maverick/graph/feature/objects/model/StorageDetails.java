@@ -19,6 +19,11 @@ public interface StorageDetails {
 
     long getLength();
 
+    /**
+     * @return the hex encoded SHA-256 checksum of the content
+     */
+    String getChecksum();
+
     Date getLastModified();
 
     IRI getEntityId();
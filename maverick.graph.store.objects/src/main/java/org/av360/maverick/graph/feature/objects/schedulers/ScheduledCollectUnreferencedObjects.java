@@ -0,0 +1,28 @@
+package org.av360.maverick.graph.feature.objects.schedulers;
+
+import lombok.extern.slf4j.Slf4j;
+import org.av360.maverick.graph.feature.objects.jobs.CollectUnreferencedObjectsJob;
+import org.av360.maverick.graph.model.context.SessionContext;
+import org.av360.maverick.graph.model.events.JobScheduledEvent;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@Slf4j(topic = "graph.feat.obj.jobs.collect")
+@ConditionalOnProperty(name = "application.features.modules.jobs.scheduled.collectUnreferencedObjects.enabled", havingValue = "true")
+public class ScheduledCollectUnreferencedObjects {
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ScheduledCollectUnreferencedObjects(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+
+    @Scheduled(cron = "${application.features.modules.jobs.scheduled.collectUnreferencedObjects.defaultFrequency:0 0 4 * * ?}")
+    public void scheduled() {
+        JobScheduledEvent event = new JobScheduledEvent(CollectUnreferencedObjectsJob.NAME, new SessionContext().setSystemAuthentication());
+        eventPublisher.publishEvent(event);
+    }
+}
@@ -0,0 +1,238 @@
+package org.av360.maverick.graph.feature.objects.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.av360.maverick.graph.services.ContentLocationResolverService;
+import org.eclipse.rdf4j.model.IRI;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Stores uploaded files by their content: every distinct content is stored once as blob, named by its SHA-256
+ * checksum. Uploading the same file for many entities (or in many applications) only adds a reference to the existing
+ * blob.
+ * <p>
+ * References are kept as empty marker files next to the blob (in the directory "{checksum}.refs"), one for every media
+ * object pointing to the blob. The graph remains the source of truth: a reference is only valid as long as the media
+ * object with this checksum exists, which is verified when collecting unreferenced blobs.
+ * <p>
+ * The layout is only used if configured with "application.features.modules.objects.configuration.layout: content".
+ * Blobs are always resolved when reading files with a checksum, switching back to the path layout keeps existing
+ * files accessible.
+ */
+@Service
+@Slf4j(topic = "graph.feat.obj.blobs")
+public class ContentAddressedStorage {
+
+    public static final String LAYOUT_CONTENT = "content";
+
+    private static final Pattern CHECKSUM = Pattern.compile("[0-9a-f]{64}");
+    private static final String REFERENCES_SUFFIX = ".refs";
+    private static final String REFERENCE_SEPARATOR = "~";
+
+    /**
+     * @param checksum the checksum of the referenced blob
+     * @param scope    the label of the scope of the media object
+     * @param content  the identifier of the media object
+     */
+    public record Reference(String checksum, String scope, String content, Path marker) {
+    }
+
+    private final ContentLocationResolverService filePathResolver;
+    private final String layout;
+    private final Counter deduplicatedFiles;
+    private final Counter deduplicatedBytes;
+
+    public ContentAddressedStorage(ContentLocationResolverService filePathResolver,
+                                   @Value("${application.features.modules.objects.configuration.layout:path}") String layout,
+                                   MeterRegistry meterRegistry) {
+        this.filePathResolver = filePathResolver;
+        this.layout = layout;
+        this.deduplicatedFiles = Counter.builder("graph.objects.deduplicated.files").register(meterRegistry);
+        this.deduplicatedBytes = Counter.builder("graph.objects.deduplicated").baseUnit("bytes").register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return LAYOUT_CONTENT.equalsIgnoreCase(this.layout);
+    }
+
+    public Path getRoot() {
+        String directory = this.filePathResolver.getDefaultBaseDirectory();
+        Assert.isTrue(StringUtils.hasLength(directory), "Path for local file storage is not configured in application properties.");
+        return Path.of(directory, "blobs");
+    }
+
+    /**
+     * @return the path of the blob with the given checksum, which might not exist
+     */
+    public Path resolve(String checksum) {
+        Assert.isTrue(CHECKSUM.matcher(checksum).matches(), "Invalid checksum: " + checksum);
+        return this.getRoot().resolve(checksum.substring(0, 2)).resolve(checksum.substring(2, 4)).resolve(checksum);
+    }
+
+    /**
+     * @return the blob with the given checksum, or empty if no such blob has been stored
+     */
+    public Optional<Path> find(String checksum) {
+        if (!CHECKSUM.matcher(checksum).matches()) return Optional.empty();
+        return Optional.of(this.resolve(checksum)).filter(Files::isReadable);
+    }
+
+    public Path createTemporaryFile() throws IOException {
+        Path directory = Files.createDirectories(this.getRoot().resolve("tmp"));
+        return Files.createTempFile(directory, null, ".upload");
+    }
+
+    /**
+     * Moves the uploaded file into the blob with the given checksum, or discards it if the blob already exists.
+     *
+     * @return the path of the blob
+     */
+    public Mono<Path> commit(Path temporary, String checksum) {
+        return Mono.fromCallable(() -> {
+            Path blob = this.resolve(checksum);
+            synchronized (this) {
+                if (Files.exists(blob)) {
+                    long size = Files.size(temporary);
+                    Files.delete(temporary);
+                    // the modification time protects the blob from being collected before the reference is added
+                    Files.setLastModifiedTime(blob, FileTime.from(Instant.now()));
+                    log.debug("Deduplicated upload of {} bytes with checksum '{}'", size, checksum);
+                    this.deduplicatedFiles.increment();
+                    this.deduplicatedBytes.increment(size);
+                } else {
+                    Files.createDirectories(blob.getParent());
+                    Files.move(temporary, blob, StandardCopyOption.ATOMIC_MOVE);
+                    log.debug("Stored new blob with checksum '{}'", checksum);
+                }
+            }
+            return blob;
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    public Mono<Void> addReference(String checksum, String scope, IRI content) {
+        return Mono.fromCallable(() -> {
+            Path marker = this.referencesOf(checksum).resolve(encode(scope) + REFERENCE_SEPARATOR + encode(content.stringValue()));
+            synchronized (this) {
+                Files.createDirectories(marker.getParent());
+                if (Files.notExists(marker)) Files.createFile(marker);
+            }
+            return marker;
+        }).subscribeOn(Schedulers.boundedElastic()).then();
+    }
+
+    public Mono<Void> removeReference(Reference reference) {
+        return Mono.fromCallable(() -> Files.deleteIfExists(reference.marker()))
+                .subscribeOn(Schedulers.boundedElastic())
+                .then();
+    }
+
+    /**
+     * @return the checksums of all stored blobs
+     */
+    public Flux<String> listBlobs() {
+        Path root = this.getRoot();
+        return Flux.using(
+                        () -> Files.exists(root) ? Files.walk(root, 3) : Stream.<Path>empty(),
+                        paths -> Flux.fromStream(paths
+                                .filter(Files::isRegularFile)
+                                .map(path -> path.getFileName().toString())
+                                .filter(name -> CHECKSUM.matcher(name).matches())
+                                .toList().stream()),
+                        Stream::close)
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    public Flux<Reference> listReferences(String checksum) {
+        return Mono.fromCallable(() -> {
+                    Path directory = this.referencesOf(checksum);
+                    if (Files.notExists(directory)) return List.<Reference>of();
+                    try (Stream<Path> markers = Files.list(directory)) {
+                        return markers.map(marker -> {
+                            String[] parts = marker.getFileName().toString().split(REFERENCE_SEPARATOR, 2);
+                            return parts.length < 2 ? null : new Reference(checksum, decode(parts[0]), decode(parts[1]), marker);
+                        }).filter(reference -> reference != null).toList();
+                    }
+                })
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMapIterable(references -> references);
+    }
+
+    /**
+     * Removes the blob if it has no references and has not been touched within the grace period.
+     *
+     * @return the number of removed bytes
+     */
+    public Mono<Long> deleteIfUnreferenced(String checksum, Duration gracePeriod) {
+        return Mono.fromCallable(() -> {
+            Path blob = this.resolve(checksum);
+            Path references = this.referencesOf(checksum);
+            synchronized (this) {
+                if (Files.notExists(blob)) return 0L;
+                if (Files.exists(references)) {
+                    try (Stream<Path> markers = Files.list(references)) {
+                        if (markers.findAny().isPresent()) return 0L;
+                    }
+                }
+                if (Files.getLastModifiedTime(blob).toInstant().isAfter(Instant.now().minus(gracePeriod))) return 0L;
+
+                long size = Files.size(blob);
+                Files.delete(blob);
+                FileSystemUtils.deleteRecursively(references);
+                log.debug("Removed unreferenced blob with checksum '{}'", checksum);
+                return size;
+            }
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Removes uploads which have been interrupted before they could be committed.
+     */
+    public Mono<Long> deleteIncompleteUploads(Duration gracePeriod) {
+        return Mono.fromCallable(() -> {
+            Path directory = this.getRoot().resolve("tmp");
+            if (Files.notExists(directory)) return 0L;
+
+            long count = 0;
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : files.toList()) {
+                    if (Files.getLastModifiedTime(file).toInstant().isBefore(Instant.now().minus(gracePeriod)) && Files.deleteIfExists(file)) count++;
+                }
+            }
+            return count;
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private Path referencesOf(String checksum) {
+        Path blob = this.resolve(checksum);
+        return blob.resolveSibling(blob.getFileName() + REFERENCES_SUFFIX);
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static String decode(String value) {
+        return URLDecoder.decode(value, StandardCharsets.UTF_8);
+    }
+}
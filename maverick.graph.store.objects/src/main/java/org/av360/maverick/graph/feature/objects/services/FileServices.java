@@ -22,6 +22,8 @@ import org.eclipse.rdf4j.model.ValueFactory;
 import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
 import org.eclipse.rdf4j.model.util.ModelBuilder;
 import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.core.io.buffer.DefaultDataBufferFactory;
@@ -29,18 +31,32 @@ import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import javax.annotation.Nullable;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.net.URI;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
 
 @Service
 @Slf4j(topic = "graph.feat.obj.svc")
 public class FileServices {
 
-    public record FileAccessResult(URI file, Flux<DataBuffer> content,  String filename, String language) {
+    /**
+     * @param file     the location of the stored file
+     * @param resource the stored file, which can be transferred without copying it into memory
+     * @param content  the content of the file, read on subscription
+     * @param checksum the hex encoded SHA-256 checksum of the content, null for files uploaded before checksums were recorded
+     */
+    public record FileAccessResult(URI file, Resource resource, Flux<DataBuffer> content, String filename, String language, @Nullable String checksum) {
     }
 
     private final ContentLocationResolverService filePathResolver;
@@ -55,13 +71,21 @@ public class FileServices {
 
     private final Api api;
 
-    public FileServices(ContentLocationResolverService filePathResolver, ValueServices valueServices, EntityServices entityServices, SchemaServices schemaServices, IdentifierServices identifierServices, Api api) {
+    private final ContentAddressedStorage blobs;
+
+    private final int bufferSize;
+
+    public FileServices(ContentLocationResolverService filePathResolver, ValueServices valueServices, EntityServices entityServices, SchemaServices schemaServices, IdentifierServices identifierServices, Api api,
+                        ContentAddressedStorage blobs,
+                        @org.springframework.beans.factory.annotation.Value("${application.features.modules.objects.configuration.bufferSize:65536}") int bufferSize) {
         this.filePathResolver = filePathResolver;
+        this.blobs = blobs;
         this.valueServices = valueServices;
         this.entityServices = entityServices;
         this.schemaServices = schemaServices;
         this.identifierServices = identifierServices;
         this.api = api;
+        this.bufferSize = bufferSize;
 
         dataBufferFactory = new DefaultDataBufferFactory();
     }
@@ -87,9 +111,8 @@ public class FileServices {
                     return sd;
                 })
                 .doOnNext(contentLocation -> log.debug("Writing file with id '{}' into uri '{}'", contentLocation.getIdentifier().getLocalName(), contentLocation.getStoragePath().toUri()))
-                .flatMap(localStorageDetails -> DataBufferUtils.write(bytes, localStorageDetails.getStoragePath(), StandardOpenOption.CREATE)
+                .flatMap(localStorageDetails -> this.write(bytes, localStorageDetails)
                         .doOnError(error -> log.error("Failed to store file due to reason: {}", error.getMessage()))
-                        .then(Mono.just(localStorageDetails))
                 )
                 .map(localStorageDetails -> localStorageDetails.setDetails(localStorageDetails.getStoragePath().toFile()))
                 .flatMap(sd -> {
@@ -101,6 +124,7 @@ public class FileServices {
                             .add(RDF.TYPE, Local.Entities.TYPE_EMBEDDED)
                             .add(SDO.CONTENT_SIZE, vf.createLiteral(sd.getLength()))
                             .add(SDO.UPLOAD_DATE, vf.createLiteral(sd.getLastModified()))
+                            .add(SDO.SHA256, vf.createLiteral(sd.getChecksum()))
                             .add(SDO.NAME, vf.createLiteral(sd.getFilename()))
                             .add(SDO.CONTENT_LOCATION, vf.createLiteral(sd.getStorageLocation()))
                             .add(SDO.CONTENT_URL, vf.createLiteral(sd.getUriPath()))
@@ -111,7 +135,10 @@ public class FileServices {
                     }
 
 
-                    return valueServices.insertComposite(sd.getEntityId(), sd.getProperty(), sd.getIdentifier(), builder.build(), ctx.getEnvironment().withRepositoryType(RepositoryType.ENTITIES));
+                    Mono<Transaction> inserted = valueServices.insertComposite(sd.getEntityId(), sd.getProperty(), sd.getIdentifier(), builder.build(), ctx.getEnvironment().withRepositoryType(RepositoryType.ENTITIES));
+                    if (!this.blobs.isEnabled()) return inserted;
+
+                    return inserted.flatMap(transaction -> this.blobs.addReference(sd.getChecksum(), ctx.getEnvironment().getScope().label(), sd.getIdentifier()).thenReturn(transaction));
                 });
 
     }
@@ -131,23 +158,85 @@ public class FileServices {
                         IRI entityId = embedded.findDistinctValue(contentID, SDO.SUBJECT_OF).filter(Value::isIRI).map(value -> (IRI) value).orElseThrow();
                         String name = embedded.findDistinctValue(contentID, SDO.NAME).filter(Value::isLiteral).map(value -> (Literal) value).map(Value::stringValue).orElseThrow();
                         String lang = embedded.findDistinctValue(contentID, SDO.IN_LANGUAGE).filter(Value::isLiteral).map(value -> (Literal) value).map(Value::stringValue).orElse("");
-                        return filePathResolver.resolveContentLocation(entityId, contentID, name, lang, ctx);
+                        String checksum = embedded.findDistinctValue(contentID, SDO.SHA256).filter(Value::isLiteral).map(Value::stringValue).orElse(null);
+                        return Mono.zip(filePathResolver.resolveContentLocation(entityId, contentID, name, lang, ctx), Mono.justOrEmpty(checksum).map(Optional::of).defaultIfEmpty(Optional.empty()));
                     } catch (InconsistentModelException exception) {
                         return Mono.error(exception);
                     }
                 })
-                .doOnNext(contentLocation -> log.debug("Loading file with id '{}' stored in uri '{}'", contentKey, contentLocation.storageURI()))
-                .flatMap(contentLocation -> {
-
+                .doOnNext(pair -> log.debug("Loading file with id '{}' stored in uri '{}'", contentKey, pair.getT1().storageURI()))
+                .flatMap(pair -> {
+                    ContentLocationResolverService.ContentLocation contentLocation = pair.getT1();
                     if (!contentLocation.storageURI().getScheme().startsWith(UriSchemes.FILE.toString())) {
                         log.warn("Unsupported scheme resolving a content object in uri: {}", contentLocation);
                         return Mono.empty();
                     }
 
-                    Flux<DataBuffer> content = DataBufferUtils.read(Path.of(contentLocation.storageURI()), dataBufferFactory, 4096, StandardOpenOption.READ).switchIfEmpty(Mono.error(new FileNotFoundException()));
-                    return Mono.just(new FileAccessResult(contentLocation.storageURI(), content, contentLocation.filename(), contentLocation.language()));
+                    // files stored by their content are preferred, the path layout might still hold files uploaded before
+                    Path path = pair.getT2()
+                            .flatMap(this.blobs::find)
+                            .orElse(Path.of(contentLocation.storageURI()));
+                    if (!Files.isReadable(path)) {
+                        return Mono.error(new FileNotFoundException("Missing file for content with id '%s'".formatted(contentKey)));
+                    }
+
+                    Flux<DataBuffer> content = DataBufferUtils.read(path, dataBufferFactory, this.bufferSize, StandardOpenOption.READ);
+                    return Mono.just(new FileAccessResult(path.toUri(), new FileSystemResource(path), content, contentLocation.filename(), contentLocation.language(), pair.getT2().orElse(null)));
                 })
                 .doOnError(error -> log.warn("Failed to open file with id '{}' due to error: {}", contentKey, error.getMessage()))
                 .doOnSuccess(fileAccessResult -> log.debug("Loading file with id '{}' was completed", contentKey));
     }
+
+    /**
+     * Writes the uploaded content into a temporary file, and computes its checksum while the content is streamed. The
+     * target is only replaced once the upload has completed, clients still reading the previous version are not affected.
+     * <p>
+     * If files are stored by their content, the temporary file becomes the blob for the checksum (or is discarded, if
+     * the same content has been stored before).
+     */
+    private Mono<LocalStorageDetails> write(Flux<DataBuffer> bytes, LocalStorageDetails details) {
+        Path target = details.getStoragePath();
+
+        return Mono.fromCallable(() -> this.blobs.isEnabled() ? this.blobs.createTemporaryFile() : Files.createTempFile(target.getParent(), target.getFileName() + ".", ".upload"))
+                .flatMap(temporary -> this.digest(bytes, temporary)
+                        .flatMap(checksum -> {
+                            details.setChecksum(checksum);
+                            if (this.blobs.isEnabled()) {
+                                return this.blobs.commit(temporary, checksum).map(details::setStoragePath);
+                            }
+                            return Mono.fromCallable(() -> details.setStoragePath(Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE)))
+                                    .subscribeOn(Schedulers.boundedElastic());
+                        })
+                        .doOnError(error -> {
+                            try {
+                                Files.deleteIfExists(temporary);
+                            } catch (IOException e) {
+                                log.warn("Failed to remove incomplete upload in path '{}'", temporary);
+                            }
+                        })
+                );
+    }
+
+    /**
+     * @return the hex encoded SHA-256 checksum of the content written into the file
+     */
+    private Mono<String> digest(Flux<DataBuffer> bytes, Path file) {
+        return Mono.defer(() -> {
+            MessageDigest digest;
+            try {
+                digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                return Mono.error(e);
+            }
+
+            Flux<DataBuffer> digested = bytes.doOnNext(buffer -> {
+                try (DataBuffer.ByteBufferIterator iterator = buffer.readableByteBuffers()) {
+                    iterator.forEachRemaining(digest::update);
+                }
+            });
+
+            return DataBufferUtils.write(digested, file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)
+                    .then(Mono.fromSupplier(() -> HexFormat.of().formatHex(digest.digest())));
+        });
+    }
 }
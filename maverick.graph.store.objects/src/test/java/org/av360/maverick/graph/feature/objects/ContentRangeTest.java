@@ -0,0 +1,125 @@
+package org.av360.maverick.graph.feature.objects;
+
+import org.av360.maverick.graph.model.vocabulary.SDO;
+import org.av360.maverick.graph.tests.clients.ObjectsTestClient;
+import org.av360.maverick.graph.tests.config.TestSecurityConfig;
+import org.av360.maverick.graph.tests.util.ApiTestsBase;
+import org.av360.maverick.graph.tests.util.RdfConsumer;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ContextConfiguration(classes = TestSecurityConfig.class)
+@RecordApplicationEvents
+@ActiveProfiles({"test", "api"})
+/**
+ * Tests for endpoint GET /content/{id} with files in the local storage
+ */
+public class ContentRangeTest extends ApiTestsBase {
+
+    private static final byte[] CONTENT = ObjectsTestClient.CONTENT;
+
+    private String contentPath;
+
+    @BeforeEach
+    public void uploadFile() {
+        RdfConsumer entity = super.upload("requests/create-valid.ttl");
+        Statement video = entity.findFirstStatement(null, RDF.TYPE, SDO.VIDEO_OBJECT);
+
+        this.contentPath = super.objectsTestClient.uploadContent((IRI) video.getSubject(), "lines.txt");
+    }
+
+    @AfterEach
+    public void resetRepository() {
+        super.resetRepository();
+    }
+
+    @Test
+    public void readCompleteFile() throws Exception {
+        super.printStart("Read complete file");
+
+        String expectedTag = "\"%s\"".formatted(HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(CONTENT)));
+
+        webClient.get()
+                .uri(this.contentPath)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, expectedTag)
+                .expectHeader().valueEquals(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .expectHeader().contentLength(CONTENT.length)
+                .expectBody(byte[].class)
+                .value(body -> Assertions.assertArrayEquals(CONTENT, body));
+    }
+
+    @Test
+    public void readRanges() {
+        super.printStart("Read partial content");
+
+        webClient.get()
+                .uri(this.contentPath)
+                .header(HttpHeaders.RANGE, "bytes=100-199")
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.PARTIAL_CONTENT)
+                .expectHeader().valueEquals(HttpHeaders.CONTENT_RANGE, "bytes 100-199/%d".formatted(CONTENT.length))
+                .expectBody(byte[].class)
+                .value(body -> Assertions.assertArrayEquals(Arrays.copyOfRange(CONTENT, 100, 200), body));
+
+        super.printStep("Read the end of the file");
+        webClient.get()
+                .uri(this.contentPath)
+                .header(HttpHeaders.RANGE, "bytes=-50")
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.PARTIAL_CONTENT)
+                .expectBody(byte[].class)
+                .value(body -> Assertions.assertArrayEquals(Arrays.copyOfRange(CONTENT, CONTENT.length - 50, CONTENT.length), body));
+
+        super.printStep("Request an unsatisfiable range");
+        webClient.get()
+                .uri(this.contentPath)
+                .header(HttpHeaders.RANGE, "bytes=%d-".formatted(CONTENT.length + 10))
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+    }
+
+    @Test
+    public void readConditional() {
+        super.printStart("Read with ETag");
+
+        String etag = webClient.get()
+                .uri(this.contentPath)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(byte[].class)
+                .getResponseHeaders().getETag();
+
+        Assertions.assertNotNull(etag);
+
+        webClient.get()
+                .uri(this.contentPath)
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectBody().isEmpty();
+
+        webClient.get()
+                .uri(this.contentPath)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"outdated\"")
+                .exchange()
+                .expectStatus().isOk();
+    }
+}
@@ -0,0 +1,126 @@
+package org.av360.maverick.graph.feature.objects;
+
+import org.av360.maverick.graph.feature.objects.jobs.CollectUnreferencedObjectsJob;
+import org.av360.maverick.graph.feature.objects.services.ContentAddressedStorage;
+import org.av360.maverick.graph.model.context.SessionContext;
+import org.av360.maverick.graph.model.vocabulary.SDO;
+import org.av360.maverick.graph.tests.clients.ObjectsTestClient;
+import org.av360.maverick.graph.tests.config.TestSecurityConfig;
+import org.av360.maverick.graph.tests.util.ApiTestsBase;
+import org.av360.maverick.graph.tests.util.RdfConsumer;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "application.features.modules.objects.configuration.layout=content",
+        "application.features.modules.objects.configuration.path=${java.io.tmpdir}/maverick/objects-deduplicated",
+        "application.features.modules.objects.configuration.gracePeriod=PT0S"
+})
+@ContextConfiguration(classes = TestSecurityConfig.class)
+@RecordApplicationEvents
+@ActiveProfiles({"test", "api"})
+/**
+ * Tests for uploading the same content for multiple entities, if files are stored by their content
+ */
+public class DeduplicatedContentTest extends ApiTestsBase {
+
+    private static final byte[] CONTENT = ObjectsTestClient.CONTENT;
+
+    @Autowired
+    ContentAddressedStorage blobs;
+
+    @Autowired
+    CollectUnreferencedObjectsJob collectJob;
+
+    private List<IRI> videos;
+
+    @BeforeEach
+    public void createEntities() {
+        FileSystemUtils.deleteRecursively(this.blobs.getRoot().toFile());
+
+        RdfConsumer entities = super.upload("requests/create-valid_multiple.ttl");
+        this.videos = entities.getStatements().stream()
+                .filter(statement -> statement.getPredicate().equals(RDF.TYPE) && statement.getObject().equals(SDO.VIDEO_OBJECT))
+                .map(statement -> (IRI) statement.getSubject())
+                .toList();
+        Assertions.assertEquals(2, this.videos.size());
+    }
+
+    @AfterEach
+    public void resetRepository() {
+        super.resetRepository();
+    }
+
+    @Test
+    public void storeContentOnce() throws IOException {
+        super.printStart("Upload the same content for multiple entities");
+
+        long start = System.nanoTime();
+        String first = this.uploadContent(this.videos.get(0), "lines.txt");
+        long initial = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        String second = this.uploadContent(this.videos.get(1), "lines.txt");
+        String third = this.uploadContent(this.videos.get(0), "copy.txt");
+        long repeated = (System.nanoTime() - start) / 2;
+
+        super.printSummary("Upload latency: %d ms for new content, %d ms for known content".formatted(initial / 1_000_000, repeated / 1_000_000));
+
+        List<String> checksums = this.blobs.listBlobs().collectList().block();
+        Assertions.assertNotNull(checksums);
+        Assertions.assertEquals(1, checksums.size());
+        Assertions.assertEquals(CONTENT.length, this.storedBytes());
+        Assertions.assertEquals(3, this.blobs.listReferences(checksums.get(0)).count().block());
+
+        super.printStep("Read content of every entity");
+        Stream.of(first, second, third).forEach(path -> webClient.get()
+                .uri(path)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(byte[].class)
+                .value(body -> Assertions.assertArrayEquals(CONTENT, body)));
+    }
+
+    @Test
+    public void collectUnreferencedContent() {
+        super.printStart("Remove content once it is not referenced anymore");
+
+        this.uploadContent(this.videos.get(0), "lines.txt");
+        this.uploadContent(this.videos.get(1), "lines.txt");
+
+        this.collectJob.run(new SessionContext().setSystemAuthentication()).block();
+        Assertions.assertEquals(1, this.blobs.listBlobs().count().block());
+
+        super.printStep("Remove entities and collect unreferenced content");
+        super.resetRepository();
+        this.collectJob.run(new SessionContext().setSystemAuthentication()).block();
+
+        Assertions.assertEquals(0, this.blobs.listBlobs().count().block());
+    }
+
+    private String uploadContent(IRI entity, String filename) {
+        return super.objectsTestClient.uploadContent(entity, filename);
+    }
+
+    private long storedBytes() throws IOException {
+        try (Stream<Path> files = Files.walk(this.blobs.getRoot())) {
+            return files.filter(Files::isRegularFile).mapToLong(path -> path.toFile().length()).sum();
+        }
+    }
+}
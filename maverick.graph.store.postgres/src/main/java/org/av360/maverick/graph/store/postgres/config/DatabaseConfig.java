@@ -19,27 +19,27 @@ import io.r2dbc.spi.ConnectionFactoryOptions;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.data.r2dbc.config.AbstractR2dbcConfiguration;
 import org.springframework.data.r2dbc.config.EnableR2dbcAuditing;
 import org.springframework.data.r2dbc.repository.config.EnableR2dbcRepositories;
+import org.springframework.r2dbc.connection.init.ConnectionFactoryInitializer;
+import org.springframework.r2dbc.connection.init.ResourceDatabasePopulator;
+import org.springframework.util.StringUtils;
 
-import static io.r2dbc.spi.ConnectionFactoryOptions.*;
+import static io.r2dbc.spi.ConnectionFactoryOptions.PASSWORD;
+import static io.r2dbc.spi.ConnectionFactoryOptions.USER;
 
 @Configuration
 @EnableR2dbcAuditing
 @EnableR2dbcRepositories(basePackages = "org.av360.maverick.graph.store.postgres.repositories")
 public class DatabaseConfig extends AbstractR2dbcConfiguration {
 
-    private static final String DATABASE_DRIVER = "postgresql";
-    private static final String DATABASE_HOST = "localhost";
-    private static final int DATABASE_PORT = 5432;  // optional, default 5432
-    private static final String DATABASE_NAME = "test";  // optional
-
     @Value("${spring.r2dbc.url}")
     private String url;
-    @Value("${spring.r2dbc.username}")
+    @Value("${spring.r2dbc.username:}")
     private String username;
-    @Value("${spring.r2dbc.password}")
+    @Value("${spring.r2dbc.password:}")
     private String password;
 
     @Override
@@ -49,14 +49,21 @@ public class DatabaseConfig extends AbstractR2dbcConfiguration {
         return ConnectionFactories.get(options);
     }
 
+    /**
+     * Creates the tables of the fragments store, if they don't exist yet.
+     */
+    @Bean
+    public ConnectionFactoryInitializer schemaInitializer(ConnectionFactory connectionFactory) {
+        ConnectionFactoryInitializer initializer = new ConnectionFactoryInitializer();
+        initializer.setConnectionFactory(connectionFactory);
+        initializer.setDatabasePopulator(new ResourceDatabasePopulator(new ClassPathResource("sql/schema.sql")));
+        return initializer;
+    }
+
     private ConnectionFactoryOptions createConnectionFactoryOptions() {
-        return ConnectionFactoryOptions.builder()
-                .option(DRIVER, DATABASE_DRIVER)
-                .option(HOST, DATABASE_HOST)
-                .option(PORT, DATABASE_PORT)
-                .option(USER, username)
-                .option(PASSWORD, password)
-                .option(DATABASE, DATABASE_NAME)
-                .build();
+        ConnectionFactoryOptions.Builder builder = ConnectionFactoryOptions.parse(url).mutate();
+        if (StringUtils.hasText(username)) builder.option(USER, username);
+        if (StringUtils.hasText(password)) builder.option(PASSWORD, password);
+        return builder.build();
     }
-}
\ No newline at end of file
+}
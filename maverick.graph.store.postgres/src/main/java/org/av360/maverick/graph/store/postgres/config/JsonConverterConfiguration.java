@@ -1,92 +0,0 @@
-/*
- * Copyright (c) 2023.
- *
- *  Licensed under the EUPL, Version 1.2 or – as soon they will be approved by the
- *  European Commission - subsequent versions of the EUPL (the "Licence");
- *
- *  You may not use this work except in compliance with the Licence.
- *  You may obtain a copy of the Licence at:
- *
- *  https://joinup.ec.europa.eu/software/page/eupl5
- *
- *  Unless required by applicable law or agreed to in writing, software distributed under the Licence is distributed on an "AS IS" basis,  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the Licence for the specific language governing permissions and limitations under the Licence.
- *
- */
-
-package org.av360.maverick.graph.store.postgres.config;
-
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import io.r2dbc.postgresql.codec.Json;
-import lombok.extern.slf4j.Slf4j;
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
-import org.springframework.core.convert.converter.Converter;
-import org.springframework.data.convert.ReadingConverter;
-import org.springframework.data.convert.WritingConverter;
-import org.springframework.data.r2dbc.convert.R2dbcCustomConversions;
-import org.springframework.data.r2dbc.dialect.PostgresDialect;
-
-import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
-
-@Configuration
-@Slf4j
-public class JsonConverterConfiguration {
-
-    private final ObjectMapper objectMapper;
-
-    public JsonConverterConfiguration(ObjectMapper objectMapper) {
-        this.objectMapper = objectMapper;
-    }
-
-    @Bean
-    public R2dbcCustomConversions customConversions() {
-        List<Converter<?, ?>> converters = new ArrayList<>();
-        converters.add(new JsonToJsonNodeConverter(objectMapper));
-        converters.add(new JsonNodeToJsonConverter(objectMapper));
-        return R2dbcCustomConversions.of(PostgresDialect.INSTANCE, converters);
-    }
-
-    @ReadingConverter
-    static class JsonToJsonNodeConverter implements Converter<Json, JsonNode> {
-
-        private final ObjectMapper objectMapper;
-
-        public JsonToJsonNodeConverter(ObjectMapper objectMapper) {
-            this.objectMapper = objectMapper;
-        }
-
-        @Override
-        public JsonNode convert(Json json) {
-            try {
-                return objectMapper.readTree(json.asString());
-            } catch (IOException e) {
-                log.error("Problem while parsing JSON: %s".formatted(json), e);
-            }
-            return objectMapper.createObjectNode();
-        }
-    }
-
-    @WritingConverter
-    static class JsonNodeToJsonConverter implements Converter<JsonNode, Json> {
-
-        private final ObjectMapper objectMapper;
-
-        public JsonNodeToJsonConverter(ObjectMapper objectMapper) {
-            this.objectMapper = objectMapper;
-        }
-
-        @Override
-        public Json convert(JsonNode source) {
-            try {
-                return Json.of(objectMapper.writeValueAsString(source));
-            } catch (JsonProcessingException e) {
-                log.error("Error occurred while serializing map to JSON: {}", source, e);
-            }
-            return Json.of("");
-        }
-    }
-}
@@ -15,7 +15,6 @@
 
 package org.av360.maverick.graph.store.postgres.dao;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -33,13 +32,22 @@ public class AnnotationDAO extends Base {
     @Id
     private Long id;
 
+    @Column("attribute_id")
+    private Long attributeId;
+
     @Column("annotation_name")
     private String annotationName;
 
+    @Column("value_type")
+    private String valueType;
+
     @Column("annotation_value")
-    private JsonNode annotationValue;
+    private String annotationValue;
 
-    @Column("attribute_id")
-    private String attributeId;
+    @Column("datatype")
+    private String datatype;
+
+    @Column("language_tag")
+    private String languageTag;
 
 }
\ No newline at end of file
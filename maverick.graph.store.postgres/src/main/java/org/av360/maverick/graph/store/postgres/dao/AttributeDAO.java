@@ -1,6 +1,5 @@
 package org.av360.maverick.graph.store.postgres.dao;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import lombok.*;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.relational.core.mapping.Column;
@@ -17,12 +16,21 @@ public class AttributeDAO extends Base {
     @Id
     private Long id;
 
+    @Column("entity_id")
+    private Long entityId;
+
     @Column("attribute_name")
     private String attributeName;    //renaming 'property' to 'attributeName'
 
+    @Column("value_type")
+    private String valueType;
+
     @Column("attribute_value")
-    private JsonNode value;
+    private String value;
 
-    @Column("entity_id")
-    private String entityId;
+    @Column("datatype")
+    private String datatype;
+
+    @Column("language_tag")
+    private String languageTag;
 }
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2024.
+ *
+ *  Licensed under the EUPL, Version 1.2 or – as soon they will be approved by the
+ *  European Commission - subsequent versions of the EUPL (the "Licence");
+ *
+ *  You may not use this work except in compliance with the Licence.
+ *  You may obtain a copy of the Licence at:
+ *
+ *  https://joinup.ec.europa.eu/software/page/eupl5
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the Licence is distributed on an "AS IS" basis,  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the Licence for the specific language governing permissions and limitations under the Licence.
+ *
+ */
+
+package org.av360.maverick.graph.store.postgres.stores;
+
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.util.Values;
+
+/**
+ * Maps the values of statements to the columns of the attribute rows (value type, lexical value, datatype and language
+ * tag) and back.
+ */
+final class AttributeValues {
+
+    static final String TYPE_IRI = "I";
+    static final String TYPE_LITERAL = "L";
+    static final String TYPE_BNODE = "B";
+
+    private static final String BNODE_PREFIX = "_:";
+
+    record Encoded(String type, String value, String datatype, String language) {
+    }
+
+    private AttributeValues() {
+    }
+
+    static Encoded encode(Value value) {
+        if (value.isIRI()) return new Encoded(TYPE_IRI, value.stringValue(), "", "");
+        if (value.isBNode()) return new Encoded(TYPE_BNODE, value.stringValue(), "", "");
+        if (value instanceof Literal literal) {
+            return literal.getLanguage()
+                    .map(language -> new Encoded(TYPE_LITERAL, literal.getLabel(), "", language))
+                    .orElseGet(() -> new Encoded(TYPE_LITERAL, literal.getLabel(), literal.getDatatype().stringValue(), ""));
+        }
+        throw new IllegalArgumentException("Unsupported value in fragments store: " + value);
+    }
+
+    static Value decode(String type, String value, String datatype, String language) {
+        return switch (type.trim()) {
+            case TYPE_IRI -> Values.iri(value);
+            case TYPE_BNODE -> Values.bnode(value);
+            default -> language.isEmpty() ? Values.literal(value, Values.iri(datatype)) : Values.literal(value, language);
+        };
+    }
+
+    /**
+     * @return the public id of a subject, blank nodes are prefixed
+     */
+    static String subjectKey(Resource subject) {
+        return subject.isBNode() ? BNODE_PREFIX + subject.stringValue() : subject.stringValue();
+    }
+
+    static Resource subject(String key) {
+        return key.startsWith(BNODE_PREFIX) ? Values.bnode(key.substring(BNODE_PREFIX.length())) : Values.iri(key);
+    }
+}
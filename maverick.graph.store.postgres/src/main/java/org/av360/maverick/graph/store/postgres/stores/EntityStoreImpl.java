@@ -15,116 +15,346 @@
 
 package org.av360.maverick.graph.store.postgres.stores;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.r2dbc.postgresql.api.PostgresqlConnection;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import io.r2dbc.spi.Wrapped;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.lang3.Validate;
 import org.av360.maverick.graph.model.context.Environment;
 import org.av360.maverick.graph.model.entities.Transaction;
 import org.av360.maverick.graph.model.enums.RepositoryType;
-import org.av360.maverick.graph.model.vocabulary.DC;
+import org.av360.maverick.graph.model.errors.InsufficientPrivilegeException;
+import org.av360.maverick.graph.model.vocabulary.meg.Local;
+import org.av360.maverick.graph.model.vocabulary.meg.Transactions;
 import org.av360.maverick.graph.store.IndividualsStore;
 import org.av360.maverick.graph.store.behaviours.Fragmentable;
-import org.av360.maverick.graph.store.postgres.dao.EntityDAO;
-import org.av360.maverick.graph.store.postgres.repositories.EntityRepository;
+import org.av360.maverick.graph.store.behaviours.Maintainable;
 import org.av360.maverick.graph.store.rdf.fragments.RdfFragment;
 import org.av360.maverick.graph.store.rdf.fragments.RdfTransaction;
-import org.eclipse.rdf4j.model.IRI;
-import org.eclipse.rdf4j.model.Resource;
-import org.eclipse.rdf4j.rio.RDFFormat;
-import org.eclipse.rdf4j.rio.RDFWriter;
-import org.eclipse.rdf4j.rio.RDFWriterFactory;
-import org.eclipse.rdf4j.rio.RDFWriterRegistry;
+import org.av360.maverick.graph.store.rdf.helpers.RdfUtils;
+import org.eclipse.rdf4j.model.*;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
+import org.eclipse.rdf4j.model.util.Values;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.rio.RDFParser;
+import org.eclipse.rdf4j.rio.RDFParserFactory;
+import org.eclipse.rdf4j.rio.helpers.StatementCollector;
+import org.reactivestreams.Publisher;
 import org.slf4j.Logger;
-import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.util.Assert;
+import org.springframework.util.MimeType;
+import org.springframework.util.StringUtils;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
-import java.io.StringWriter;
+import javax.annotation.Nullable;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.stream.Collectors;
 
+/**
+ * Fragments store backed by a relational database (Postgres, or H2 in PostgreSQL mode for tests). Every subject is a
+ * row in "entities", every statement of a subject is a row in "entity_attributes" and every statement about a statement
+ * (details) is a row in "attribute_annotations".
+ * <p>
+ * Fragments are loaded set-based: one query for the attributes of all requested subjects, and one query each for the
+ * related subjects (embedded entities or neighbours) and the details. Bulk imports are written with COPY into a
+ * staging table and merged from there if the database is Postgres, and with batched inserts otherwise. Both skip the
+ * statements which already exist.
+ * <p>
+ * The tests run against H2, the COPY path is only covered if Docker is available (PostgresFragmentsTests).
+ */
 @Component
-@Slf4j
-public class EntityStoreImpl implements IndividualsStore, Fragmentable {
+@Slf4j(topic = "graph.repo.entities")
+public class EntityStoreImpl implements IndividualsStore, Fragmentable, Maintainable {
 
-    private final R2dbcEntityTemplate template;
+    private static final int CHUNK_SIZE = 500;
 
-    private final ObjectMapper objectMapper;
+    private static final String SELECT_ATTRIBUTES = """
+            SELECT a.id, e.public_id, a.attribute_name, a.value_type, a.attribute_value, a.datatype, a.language_tag
+            FROM entity_attributes a JOIN entities e ON e.id = a.entity_id
+            WHERE e.scope = :scope AND e.public_id IN (:subjects)
+            ORDER BY a.id
+            """;
 
-    public EntityStoreImpl(EntityRepository entityRepository, R2dbcEntityTemplate template) {
-        this.template = template;
-        this.objectMapper = new ObjectMapper();
-    }
+    private static final String SELECT_ATTRIBUTES_OF_PREDICATE = """
+            SELECT a.id, e.public_id, a.attribute_name, a.value_type, a.attribute_value, a.datatype, a.language_tag
+            FROM entity_attributes a JOIN entities e ON e.id = a.entity_id
+            WHERE e.scope = :scope AND e.public_id = :subject AND a.attribute_name = :predicate %s
+            ORDER BY a.id
+            """;
 
-    @Override
-    public Mono<RdfFragment> getFragment(Resource subject, int includeNeighborsLevel, boolean includeDetails, Environment environment) {
-        return null;
-    }
+    private static final String SELECT_ANNOTATIONS = """
+            SELECT n.attribute_id, n.annotation_name, n.value_type, n.annotation_value, n.datatype, n.language_tag
+            FROM attribute_annotations n
+            WHERE n.attribute_id IN (:attributes)
+            ORDER BY n.id
+            """;
 
-    @Override
-    public Flux<RdfFragment> listFragments(IRI type, int limit, int offset, Environment environment) {
-        return null;
-    }
+    private static final String SELECT_TYPED_ENTITIES = """
+            SELECT e.public_id FROM entities e
+            WHERE e.scope = :scope AND EXISTS (
+                SELECT 1 FROM entity_attributes t WHERE t.entity_id = e.id AND t.attribute_name = :predicate %s
+            )
+            ORDER BY e.id
+            LIMIT :limit OFFSET :offset
+            """;
 
+    private static final String COUNT_INDIVIDUALS = """
+            SELECT COUNT(*) FROM entities e
+            WHERE e.scope = :scope AND EXISTS (
+                SELECT 1 FROM entity_attributes t WHERE t.entity_id = e.id AND t.attribute_name = :predicate AND t.value_type = 'I' AND t.attribute_value = :type
+            )
+            """;
 
-    @Override
-    public Mono<Transaction> insertFragment(RdfFragment fragment, Environment environment) {
+    private static final String COUNT_TYPED_ENTITY = """
+            SELECT COUNT(*) FROM entities e
+            WHERE e.scope = :scope AND e.public_id = :subject AND EXISTS (
+                SELECT 1 FROM entity_attributes t WHERE t.entity_id = e.id AND t.attribute_name = :predicate
+            )
+            """;
+
+    private static final String SELECT_ENTITY_IDS = "SELECT id, public_id FROM entities WHERE scope = :scope AND public_id IN (:subjects)";
+
+    private static final String INSERT_ENTITY = "INSERT INTO entities (scope, public_id) VALUES ($1, $2) ON CONFLICT DO NOTHING";
 
-        Resource identifier = fragment.getIdentifier();
-        Validate.isTrue(identifier.isIRI());
+    private static final String DELETE_ORPHANED_ENTITY = "DELETE FROM entities WHERE id = $1 AND NOT EXISTS (SELECT 1 FROM entity_attributes a WHERE a.entity_id = $1)";
 
-        JsonNode valuesNode =objectMapper.createObjectNode();
-        JsonNode relationsNode = objectMapper.createObjectNode();
+    private static final String INSERT_ATTRIBUTE_IF_ABSENT = """
+            INSERT INTO entity_attributes (entity_id, scope, attribute_name, value_type, attribute_value, datatype, language_tag)
+            SELECT CAST($1 AS BIGINT), CAST($2 AS VARCHAR), CAST($3 AS VARCHAR), CAST($4 AS CHAR(1)), CAST($5 AS VARCHAR), CAST($6 AS VARCHAR), CAST($7 AS VARCHAR)
+            WHERE NOT EXISTS (
+                SELECT 1 FROM entity_attributes WHERE entity_id = $1 AND attribute_name = $3 AND value_type = $4 AND attribute_value = $5 AND datatype = $6 AND language_tag = $7
+            )
+            """;
 
-        StringWriter valuesWriter = new StringWriter();
-        StringWriter relationsWriter = new StringWriter();
+    private static final String CREATE_STAGED_ATTRIBUTES = """
+            CREATE TEMPORARY TABLE IF NOT EXISTS staged_attributes (
+                entity_id BIGINT, scope VARCHAR, attribute_name VARCHAR, value_type CHAR(1), attribute_value VARCHAR, datatype VARCHAR, language_tag VARCHAR
+            ) ON COMMIT DELETE ROWS
+            """;
 
-        RDFWriterFactory rdfWriterFactory = RDFWriterRegistry.getInstance().get(RDFFormat.JSONLD).orElseThrow();
+    private static final String COPY_ATTRIBUTES = "COPY staged_attributes (entity_id, scope, attribute_name, value_type, attribute_value, datatype, language_tag) FROM STDIN";
 
-        RDFWriter valueStatementsWriter = rdfWriterFactory.getWriter(valuesWriter);
-        RDFWriter relationsStatementsWriter = rdfWriterFactory.getWriter(relationsWriter);
+    private static final String MERGE_STAGED_ATTRIBUTES = """
+            INSERT INTO entity_attributes (entity_id, scope, attribute_name, value_type, attribute_value, datatype, language_tag)
+            SELECT DISTINCT s.entity_id, s.scope, s.attribute_name, s.value_type, s.attribute_value, s.datatype, s.language_tag
+            FROM staged_attributes s
+            WHERE NOT EXISTS (
+                SELECT 1 FROM entity_attributes a
+                WHERE a.entity_id = s.entity_id AND a.attribute_name = s.attribute_name AND a.value_type = s.value_type
+                AND a.attribute_value = s.attribute_value AND a.datatype = s.datatype AND a.language_tag = s.language_tag
+            )
+            """;
 
+    private static final String DELETE_ATTRIBUTE = """
+            DELETE FROM entity_attributes
+            WHERE entity_id = $1 AND attribute_name = $2 AND value_type = $3 AND attribute_value = $4 AND datatype = $5 AND language_tag = $6
+            """;
 
-        valueStatementsWriter.startRDF();
-        valueStatementsWriter.handleNamespace("dc", DC.NAMESPACE);
-        relationsStatementsWriter.startRDF();
-        fragment.listStatements(identifier, null, null).forEach(statement -> {
-            log.info("Handling statement: {}", statement.toString());
-            if(statement.getObject().isLiteral()) valueStatementsWriter.handleStatement(statement);
-            if(statement.getObject().isIRI()) relationsStatementsWriter.handleStatement(statement);
+    private static final String INSERT_ANNOTATION_IF_ABSENT = """
+            INSERT INTO attribute_annotations (attribute_id, scope, annotation_name, value_type, annotation_value, datatype, language_tag)
+            SELECT a.id, a.scope, CAST($7 AS VARCHAR), CAST($8 AS CHAR(1)), CAST($9 AS VARCHAR), CAST($10 AS VARCHAR), CAST($11 AS VARCHAR)
+            FROM entity_attributes a
+            WHERE a.entity_id = $1 AND a.attribute_name = $2 AND a.value_type = $3 AND a.attribute_value = $4 AND a.datatype = $5 AND a.language_tag = $6
+            AND NOT EXISTS (
+                SELECT 1 FROM attribute_annotations n
+                WHERE n.attribute_id = a.id AND n.annotation_name = $7 AND n.value_type = $8 AND n.annotation_value = $9 AND n.datatype = $10 AND n.language_tag = $11
+            )
+            """;
 
+    private static final String DELETE_ANNOTATION = """
+            DELETE FROM attribute_annotations
+            WHERE annotation_name = $7 AND value_type = $8 AND annotation_value = $9 AND datatype = $10 AND language_tag = $11
+            AND attribute_id IN (
+                SELECT a.id FROM entity_attributes a
+                WHERE a.entity_id = $1 AND a.attribute_name = $2 AND a.value_type = $3 AND a.attribute_value = $4 AND a.datatype = $5 AND a.language_tag = $6
+            )
+            """;
 
+    private final DatabaseClient client;
+    private final TransactionalOperator transactionalOperator;
+
+    public EntityStoreImpl(ConnectionFactory connectionFactory) {
+        this.client = DatabaseClient.create(connectionFactory);
+        this.transactionalOperator = TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory));
+    }
+
+    @Override
+    public Mono<RdfFragment> getFragment(Resource subject, int includeNeighborsLevel, boolean includeDetails, Environment environment) {
+        return this.verify(environment)
+                .flatMap(scope -> this.loadFragments(scope, List.of(AttributeValues.subjectKey(subject)), includeNeighborsLevel, includeDetails))
+                .flatMap(fragments -> Mono.justOrEmpty(fragments.stream().findFirst()));
+    }
+
+    @Override
+    public Mono<RdfFragment> getFragment(Resource subject, IRI predicate, @Nullable String languageTag, boolean includeDetails, Environment environment) {
+        String key = AttributeValues.subjectKey(subject);
+        String query = SELECT_ATTRIBUTES_OF_PREDICATE.formatted(Objects.isNull(languageTag) ? "" : "AND (a.language_tag = '' OR lower(a.language_tag) = lower(:language))");
+
+        return this.verify(environment).flatMap(scope -> {
+            DatabaseClient.GenericExecuteSpec spec = this.client.sql(query)
+                    .bind("scope", scope)
+                    .bind("subject", key)
+                    .bind("predicate", predicate.stringValue());
+            if (Objects.nonNull(languageTag)) spec = spec.bind("language", languageTag);
+
+            return spec.map(EntityStoreImpl::attribute).all()
+                    .collectList()
+                    .flatMap(attributes -> {
+                        if (!attributes.isEmpty()) {
+                            return this.assembleFragments(scope, List.of(key), attributes, 0, includeDetails).flatMap(fragments -> Mono.justOrEmpty(fragments.stream().findFirst()));
+                        }
+                        // no values for the predicate, the fragment is still returned if the entity exists
+                        return this.resolveIds(scope, List.of(key)).flatMap(ids -> ids.isEmpty() ? Mono.empty() : Mono.just(new RdfFragment(subject)));
+                    });
         });
-        valueStatementsWriter.endRDF();
-        relationsStatementsWriter.endRDF();
+    }
 
-        log.info("Values JSON: {}", valuesWriter.toString());
-        log.info("Relations JSON: {}", relationsWriter.toString());
+    @Override
+    public Flux<RdfFragment> listFragments(IRI type, int limit, int offset, Environment environment) {
+        String query = SELECT_TYPED_ENTITIES.formatted(Objects.isNull(type) ? "" : "AND t.value_type = 'I' AND t.attribute_value = :type");
 
-        try {
-            valuesNode = objectMapper.readTree(valuesWriter.toString());
-            relationsNode = objectMapper.readTree(relationsWriter.toString());
-        } catch (JsonProcessingException e) {
-            return Mono.error(e);
-        }
+        return this.verify(environment)
+                .flatMap(scope -> {
+                    DatabaseClient.GenericExecuteSpec spec = this.client.sql(query)
+                            .bind("scope", scope)
+                            .bind("predicate", RDF.TYPE.stringValue())
+                            .bind("limit", limit)
+                            .bind("offset", offset);
+                    if (Objects.nonNull(type)) spec = spec.bind("type", type.stringValue());
 
-        EntityDAO fragmentEntity = new EntityDAO();
-        fragmentEntity.setPublicId(identifier.stringValue());
-        // fragmentEntity.setRelations(relationsNode);
-        // fragmentEntity.setValues(valuesNode);
+                    return spec.map((row, metadata) -> row.get("public_id", String.class)).all()
+                            .collectList()
+                            .flatMap(subjects -> this.loadFragments(scope, subjects, 0, false));
+                })
+                .flatMapMany(Flux::fromIterable);
+    }
 
-        return this.template.insert(fragmentEntity).then(Mono.just(new RdfTransaction()));
+    @Override
+    public Mono<Transaction> insertFragment(RdfFragment fragment, Environment environment) {
+        Transaction trx = new RdfTransaction().forInsert(fragment.listStatements());
+        return this.commit(trx, environment);
     }
 
     @Override
     public Mono<Boolean> exists(Resource subj, Environment environment) {
-        return Mono.just(Boolean.TRUE);
+        return this.verify(environment)
+                .flatMap(scope -> this.client.sql(COUNT_TYPED_ENTITY)
+                        .bind("scope", scope)
+                        .bind("subject", AttributeValues.subjectKey(subj))
+                        .bind("predicate", RDF.TYPE.stringValue())
+                        .map((row, metadata) -> row.get(0, Long.class))
+                        .one())
+                .map(count -> count > 0);
     }
 
     @Override
     public Mono<Long> countFragments(Environment environment) {
-        return null;
+        return this.verify(environment)
+                .flatMap(scope -> this.client.sql(COUNT_INDIVIDUALS)
+                        .bind("scope", scope)
+                        .bind("predicate", RDF.TYPE.stringValue())
+                        .bind("type", Local.Entities.TYPE_INDIVIDUAL.stringValue())
+                        .map((row, metadata) -> row.get(0, Long.class))
+                        .one());
+    }
+
+    @Override
+    public Flux<Transaction> commit(Collection<Transaction> transactions, Environment environment, boolean merge) {
+        return this.verify(environment).flatMapMany(scope -> {
+            Collection<Transaction> pending = transactions;
+            if (merge) {
+                RdfTransaction merged = new RdfTransaction();
+                transactions.forEach(transaction -> merged.getModel().addAll(transaction.getModel()));
+                pending = List.of(merged);
+            }
+
+            return Flux.fromIterable(pending).concatMap(trx -> this.apply(trx, scope)
+                    .as(this.transactionalOperator::transactional)
+                    .then(Mono.fromCallable(() -> {
+                        trx.setCompleted();
+                        return trx;
+                    }))
+                    .onErrorResume(error -> {
+                        log.error("Failed to complete transaction '{}' in scope '{}'.", trx.getIdentifier().getLocalName(), scope, error);
+                        trx.setFailed(error.getMessage());
+                        return Mono.just(trx);
+                    }));
+        });
+    }
+
+    @Override
+    public Mono<Void> purge(Environment environment) {
+        return this.verify(environment)
+                .flatMap(scope -> this.client.sql("DELETE FROM entities WHERE scope = :scope")
+                        .bind("scope", scope)
+                        .fetch().rowsUpdated()
+                        .doOnNext(count -> log.debug("Removed {} entities in scope '{}'", count, scope)))
+                .then();
+    }
+
+    /**
+     * Parses the statements and adds them with COPY (or batched inserts), statements which already exist are skipped.
+     */
+    @Override
+    public Mono<Void> importStatements(Publisher<DataBuffer> bytesPublisher, String mimetype, Environment environment) {
+        Optional<RDFParserFactory> parserFactory = RdfUtils.getParserFactory(MimeType.valueOf(mimetype));
+        Assert.isTrue(parserFactory.isPresent(), "Unsupported mimetype for parsing the file.");
+
+        return this.verify(environment)
+                .flatMap(scope -> DataBufferUtils.join(bytesPublisher)
+                        .publishOn(Schedulers.boundedElastic())
+                        .map(buffer -> {
+                            RDFParser parser = parserFactory.get().getParser();
+                            Model model = new LinkedHashModel();
+                            parser.setRDFHandler(new StatementCollector(model));
+                            try (InputStream stream = buffer.asInputStream(true)) {
+                                parser.parse(stream);
+                            } catch (Exception e) {
+                                throw new IllegalArgumentException("Failed to parse statements with mimetype " + mimetype, e);
+                            }
+                            return model;
+                        })
+                        .flatMap(model -> this.bulkInsert(scope, model))
+                        .doOnNext(count -> log.debug("Imported {} statements in scope '{}'", count, scope)))
+                .then();
+    }
+
+    /**
+     * Adds the statements, grouped in chunks of subjects which are written in one database transaction each.
+     *
+     * @return the number of written statements
+     */
+    public Mono<Long> bulkInsert(String scope, Model statements) {
+        Map<Resource, List<Statement>> bySubject = statements.stream()
+                .collect(Collectors.groupingBy(statement -> statement.getSubject().isTriple() ? ((Triple) statement.getSubject()).getSubject() : statement.getSubject(),
+                        LinkedHashMap::new, Collectors.toList()));
+
+        return Flux.fromIterable(bySubject.values())
+                .buffer(CHUNK_SIZE)
+                .concatMap(chunk -> {
+                    List<Statement> chunkStatements = chunk.stream().flatMap(List::stream).toList();
+                    return this.ensureEntities(scope, chunkStatements)
+                            .flatMap(ids -> this.copyAttributes(scope, ids, chunkStatements.stream().filter(st -> !st.getSubject().isTriple()).toList())
+                                    .then(this.executeBatch(INSERT_ANNOTATION_IF_ABSENT, annotationRows(ids, chunkStatements.stream().filter(st -> st.getSubject().isTriple()).toList())))
+                                    .thenReturn((long) chunkStatements.size()))
+                            .as(this.transactionalOperator::transactional);
+                })
+                .reduce(0L, Long::sum);
     }
 
     @Override
@@ -137,5 +367,276 @@ public class EntityStoreImpl implements IndividualsStore, Fragmentable {
         return log;
     }
 
+    /**
+     * Applies the changes of a transaction: removed details and statements first, then the inserted and updated
+     * statements and their details. Subjects without remaining statements are removed.
+     */
+    private Mono<Void> apply(Transaction trx, String scope) {
+        Model removed = trx.getModel(Transactions.GRAPH_DELETED);
+        Model inserted = new LinkedHashModel(trx.getModel(Transactions.GRAPH_CREATED));
+        inserted.addAll(trx.getModel(Transactions.GRAPH_UPDATED));
+
+        List<Statement> all = new ArrayList<>(removed);
+        all.addAll(inserted);
 
+        Map<Boolean, List<Statement>> removals = removed.stream().collect(Collectors.partitioningBy(st -> st.getSubject().isTriple()));
+        Map<Boolean, List<Statement>> inserts = inserted.stream().collect(Collectors.partitioningBy(st -> st.getSubject().isTriple()));
+
+        return this.ensureEntities(scope, inserted)
+                .then(this.resolveIds(scope, subjectKeys(all)))
+                .flatMap(ids -> this.executeBatch(DELETE_ANNOTATION, annotationRows(ids, removals.get(true)))
+                        .then(this.executeBatch(DELETE_ATTRIBUTE, attributeRows(ids, removals.get(false), null)))
+                        .then(this.executeBatch(INSERT_ATTRIBUTE_IF_ABSENT, attributeRows(ids, inserts.get(false), scope)))
+                        .then(this.executeBatch(INSERT_ANNOTATION_IF_ABSENT, annotationRows(ids, inserts.get(true))))
+                        .then(this.executeBatch(DELETE_ORPHANED_ENTITY, ids.values().stream().map(id -> new Object[]{id}).toList()))
+                        .doOnSuccess(v -> log.debug("Transaction '{}' completed with {} inserted statements and {} removed statements in scope '{}'.",
+                                trx.getIdentifier().getLocalName(), inserted.size(), removed.size(), scope)));
+    }
+
+    /**
+     * Creates the missing rows for the subjects of the statements.
+     *
+     * @return the ids of the subjects
+     */
+    private Mono<Map<String, Long>> ensureEntities(String scope, Collection<Statement> statements) {
+        Set<String> subjects = subjectKeys(statements);
+        List<Object[]> rows = subjects.stream().map(subject -> new Object[]{scope, subject}).toList();
+        return this.executeBatch(INSERT_ENTITY, rows).then(this.resolveIds(scope, subjects));
+    }
+
+    private Mono<Map<String, Long>> resolveIds(String scope, Collection<String> subjects) {
+        if (subjects.isEmpty()) return Mono.just(Map.of());
+        return Flux.fromIterable(subjects)
+                .buffer(CHUNK_SIZE)
+                .concatMap(chunk -> this.client.sql(SELECT_ENTITY_IDS)
+                        .bind("scope", scope)
+                        .bind("subjects", chunk)
+                        .map((row, metadata) -> Map.entry(Objects.requireNonNull(row.get("public_id", String.class)), Objects.requireNonNull(row.get("id", Long.class))))
+                        .all())
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue);
+    }
+
+    /**
+     * Writes the attributes with COPY into the staging table and merges the new rows, if the connection is a Postgres
+     * connection. Falls back to batched inserts for other databases. The staging table is emptied when the transaction
+     * of the chunk is committed.
+     */
+    private Mono<Void> copyAttributes(String scope, Map<String, Long> ids, List<Statement> statements) {
+        List<Object[]> rows = attributeRows(ids, statements, scope);
+        if (rows.isEmpty()) return Mono.empty();
+
+        return this.client.inConnection(connection -> {
+            Connection target = unwrap(connection);
+            if (target instanceof PostgresqlConnection postgres) {
+                Flux<ByteBuf> data = Flux.fromIterable(rows)
+                        .buffer(CHUNK_SIZE)
+                        .map(chunk -> Unpooled.wrappedBuffer(copyLines(chunk).getBytes(StandardCharsets.UTF_8)));
+                return Flux.from(postgres.createStatement(CREATE_STAGED_ATTRIBUTES).execute()).concatMap(Result::getRowsUpdated)
+                        .thenMany(postgres.copyIn(COPY_ATTRIBUTES, data))
+                        .thenMany(Flux.from(postgres.createStatement(MERGE_STAGED_ATTRIBUTES).execute()).concatMap(Result::getRowsUpdated))
+                        .doOnNext(count -> log.trace("Merged {} of {} copied attributes in scope '{}'", count, rows.size(), scope))
+                        .then();
+            }
+            return this.executeBatch(connection, INSERT_ATTRIBUTE_IF_ABSENT, rows);
+        });
+    }
+
+    private Mono<Void> executeBatch(String sql, List<Object[]> rows) {
+        if (rows.isEmpty()) return Mono.empty();
+        return this.client.inConnection(connection -> this.executeBatch(connection, sql, rows));
+    }
+
+    private Mono<Void> executeBatch(Connection connection, String sql, List<Object[]> rows) {
+        return Flux.fromIterable(rows)
+                .buffer(CHUNK_SIZE)
+                .concatMap(chunk -> {
+                    io.r2dbc.spi.Statement statement = connection.createStatement(sql);
+                    for (int r = 0; r < chunk.size(); r++) {
+                        if (r > 0) statement.add();
+                        Object[] row = chunk.get(r);
+                        for (int i = 0; i < row.length; i++) statement.bind(i, row[i]);
+                    }
+                    return Flux.from(statement.execute()).concatMap(Result::getRowsUpdated);
+                })
+                .then();
+    }
+
+    /**
+     * Loads the fragments of the given subjects (in the given order, subjects without statements are skipped).
+     * Embedded entities are always included, other neighbours only if requested.
+     */
+    private Mono<List<RdfFragment>> loadFragments(String scope, List<String> subjects, int includeNeighborsLevel, boolean includeDetails) {
+        if (subjects.isEmpty()) return Mono.just(List.of());
+
+        return this.loadAttributes(scope, subjects).flatMap(attributes -> this.assembleFragments(scope, subjects, attributes, includeNeighborsLevel, includeDetails));
+    }
+
+    /**
+     * Builds the fragments of the given subjects from the loaded attributes, adds the details and the neighbours.
+     */
+    private Mono<List<RdfFragment>> assembleFragments(String scope, List<String> subjects, List<Attribute> attributes, int includeNeighborsLevel, boolean includeDetails) {
+        Map<Resource, Model> models = new LinkedHashMap<>();
+        attributes.forEach(attribute -> models.computeIfAbsent(attribute.statement().getSubject(), s -> new LinkedHashModel()).add(attribute.statement()));
+
+        Set<String> related = attributes.stream()
+                .map(attribute -> attribute.statement().getObject())
+                .filter(value -> value.isIRI() || value.isBNode())
+                .map(value -> AttributeValues.subjectKey((Resource) value))
+                .filter(key -> !subjects.contains(key))
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+
+        Mono<Map<Resource, Model>> relatedModels = related.isEmpty() ? Mono.just(Map.of())
+                : this.loadAttributes(scope, List.copyOf(related)).map(rows -> rows.stream()
+                .collect(Collectors.groupingBy(attribute -> attribute.statement().getSubject(), Collectors.mapping(Attribute::statement, Collectors.toCollection(LinkedHashModel::new)))));
+
+        Mono<Map<Long, List<Statement>>> details = includeDetails ? this.loadDetails(attributes) : Mono.just(Map.of());
+
+        return Mono.zip(relatedModels, details).map(tuple -> {
+            Map<Long, Statement> byId = attributes.stream().collect(Collectors.toMap(Attribute::id, Attribute::statement, (a, b) -> a));
+            tuple.getT2().forEach((attributeId, annotations) -> {
+                Statement statement = byId.get(attributeId);
+                Model model = models.get(statement.getSubject());
+                annotations.forEach(annotation -> model.add(Values.triple(statement), annotation.getPredicate(), annotation.getObject()));
+            });
+
+            return subjects.stream()
+                    .map(AttributeValues::subject)
+                    .filter(models::containsKey)
+                    .map(subject -> {
+                        Model model = models.get(subject);
+                        new ArrayList<>(model.objects()).stream()
+                                .filter(value -> value.isIRI() || value.isBNode())
+                                .forEach(value -> {
+                                    Model neighbour = tuple.getT1().get((Resource) value);
+                                    if (Objects.isNull(neighbour)) return;
+                                    if (includeNeighborsLevel == 1 || value.isBNode() || neighbour.contains((Resource) value, RDF.TYPE, Local.Entities.TYPE_EMBEDDED)) {
+                                        model.addAll(neighbour);
+                                    }
+                                });
+                        return new RdfFragment(subject, model);
+                    })
+                    .toList();
+        });
+    }
+
+    private Mono<List<Attribute>> loadAttributes(String scope, List<String> subjects) {
+        return Flux.fromIterable(subjects)
+                .buffer(CHUNK_SIZE)
+                .concatMap(chunk -> this.client.sql(SELECT_ATTRIBUTES)
+                        .bind("scope", scope)
+                        .bind("subjects", chunk)
+                        .map(EntityStoreImpl::attribute)
+                        .all())
+                .collectList();
+    }
+
+    /**
+     * @return the annotations (with an empty subject) by id of the annotated attribute
+     */
+    private Mono<Map<Long, List<Statement>>> loadDetails(List<Attribute> attributes) {
+        if (attributes.isEmpty()) return Mono.just(Map.of());
+        return Flux.fromIterable(attributes)
+                .map(Attribute::id)
+                .buffer(CHUNK_SIZE)
+                .concatMap(chunk -> this.client.sql(SELECT_ANNOTATIONS)
+                        .bind("attributes", chunk)
+                        .map((row, metadata) -> Map.entry(
+                                Objects.requireNonNull(row.get("attribute_id", Long.class)),
+                                Values.getValueFactory().createStatement(
+                                        RDF.NIL,
+                                        Values.iri(row.get("annotation_name", String.class)),
+                                        AttributeValues.decode(row.get("value_type", String.class), row.get("annotation_value", String.class), row.get("datatype", String.class), row.get("language_tag", String.class)))))
+                        .all())
+                .collectMultimap(Map.Entry::getKey, Map.Entry::getValue)
+                .map(multimap -> multimap.entrySet().stream().collect(Collectors.toMap(Map.Entry::getKey, entry -> List.copyOf(entry.getValue()))));
+    }
+
+    private Mono<String> verify(Environment environment) {
+        if (!environment.isAuthorized()) {
+            return Mono.error(new InsufficientPrivilegeException("Unauthorized operation in environment '%s'".formatted(environment)));
+        }
+        String scope = environment.getScope().label();
+        return Mono.just(StringUtils.hasLength(environment.getStage()) ? scope + "_" + environment.getStage() : scope);
+    }
+
+    /**
+     * @param scope the scope to write, or null for the rows to identify existing attributes
+     */
+    private static Attribute attribute(Row row, RowMetadata metadata) {
+        return new Attribute(
+                Objects.requireNonNull(row.get("id", Long.class)),
+                Values.getValueFactory().createStatement(
+                        AttributeValues.subject(row.get("public_id", String.class)),
+                        Values.iri(row.get("attribute_name", String.class)),
+                        AttributeValues.decode(row.get("value_type", String.class), row.get("attribute_value", String.class), row.get("datatype", String.class), row.get("language_tag", String.class))));
+    }
+
+    private static List<Object[]> attributeRows(Map<String, Long> ids, List<Statement> statements, String scope) {
+        return statements.stream()
+                .filter(statement -> ids.containsKey(AttributeValues.subjectKey(statement.getSubject())))
+                .map(statement -> {
+                    Long entityId = ids.get(AttributeValues.subjectKey(statement.getSubject()));
+                    AttributeValues.Encoded value = AttributeValues.encode(statement.getObject());
+                    return Objects.isNull(scope)
+                            ? new Object[]{entityId, statement.getPredicate().stringValue(), value.type(), value.value(), value.datatype(), value.language()}
+                            : new Object[]{entityId, scope, statement.getPredicate().stringValue(), value.type(), value.value(), value.datatype(), value.language()};
+                })
+                .toList();
+    }
+
+    private static List<Object[]> annotationRows(Map<String, Long> ids, List<Statement> statements) {
+        return statements.stream()
+                .filter(statement -> ids.containsKey(AttributeValues.subjectKey(((Triple) statement.getSubject()).getSubject())))
+                .map(statement -> {
+                    Triple triple = (Triple) statement.getSubject();
+                    AttributeValues.Encoded annotated = AttributeValues.encode(triple.getObject());
+                    AttributeValues.Encoded value = AttributeValues.encode(statement.getObject());
+                    return new Object[]{ids.get(AttributeValues.subjectKey(triple.getSubject())), triple.getPredicate().stringValue(), annotated.type(), annotated.value(), annotated.datatype(), annotated.language(),
+                            statement.getPredicate().stringValue(), value.type(), value.value(), value.datatype(), value.language()};
+                })
+                .toList();
+    }
+
+    private static Set<String> subjectKeys(Collection<Statement> statements) {
+        return statements.stream()
+                .map(statement -> statement.getSubject().isTriple() ? ((Triple) statement.getSubject()).getSubject() : statement.getSubject())
+                .map(AttributeValues::subjectKey)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    /**
+     * Rows in the text format of COPY: tab-separated columns, with backslash escapes.
+     */
+    private static String copyLines(List<Object[]> rows) {
+        StringBuilder lines = new StringBuilder();
+        rows.forEach(row -> {
+            for (int i = 0; i < row.length; i++) {
+                if (i > 0) lines.append('\t');
+                String column = row[i].toString();
+                for (int c = 0; c < column.length(); c++) {
+                    char ch = column.charAt(c);
+                    switch (ch) {
+                        case '\\' -> lines.append("\\\\");
+                        case '\t' -> lines.append("\\t");
+                        case '\n' -> lines.append("\\n");
+                        case '\r' -> lines.append("\\r");
+                        default -> lines.append(ch);
+                    }
+                }
+            }
+            lines.append('\n');
+        });
+        return lines.toString();
+    }
+
+    private static Connection unwrap(Connection connection) {
+        Connection current = connection;
+        while (current instanceof Wrapped<?> wrapped && wrapped.unwrap() instanceof Connection inner && inner != current) {
+            current = inner;
+        }
+        return current;
+    }
+
+    private record Attribute(long id, Statement statement) {
+    }
 }
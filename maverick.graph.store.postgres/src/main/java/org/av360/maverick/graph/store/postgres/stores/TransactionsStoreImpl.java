@@ -18,10 +18,13 @@ package org.av360.maverick.graph.store.postgres.stores;
 import org.av360.maverick.graph.model.context.Environment;
 import org.av360.maverick.graph.model.entities.Transaction;
 import org.av360.maverick.graph.store.TransactionsStore;
+import org.eclipse.rdf4j.model.IRI;
 import org.slf4j.Logger;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.time.Instant;
 import java.util.Collection;
 
 @Component
@@ -31,6 +34,26 @@ public class TransactionsStoreImpl implements TransactionsStore {
         return null;
     }
 
+    @Override
+    public Flux<Transaction> listTransactions(Filter filter, Position after, int limit, Environment environment) {
+        return null;
+    }
+
+    @Override
+    public Mono<Transaction> getTransaction(IRI identifier, Environment environment) {
+        return null;
+    }
+
+    @Override
+    public Mono<Long> expireTransactions(Instant before, boolean keepMetadata, Environment environment) {
+        return null;
+    }
+
+    @Override
+    public Mono<Long> trimTransactions(int maxPerSubject, boolean keepMetadata, Environment environment) {
+        return null;
+    }
+
     @Override
     public Logger getLogger() {
         return null;
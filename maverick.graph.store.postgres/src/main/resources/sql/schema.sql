@@ -1,25 +1,45 @@
+-- Normalised storage of fragments: one row for every subject, one row for every statement of the subject, and one row
+-- for every statement about a statement (details). Compatible with H2 in PostgreSQL mode.
+
 CREATE TABLE IF NOT EXISTS entities (
-    id SERIAL PRIMARY KEY,
-    public_id VARCHAR(255) NOT NULL,
-    created_at TIMESTAMP,
-    updated_at TIMESTAMP,
-    scope VARCHAR(255) DEFAULT 'default'
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    public_id VARCHAR(2048) NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    scope VARCHAR(255) NOT NULL DEFAULT 'default',
+    CONSTRAINT entities_scope_public_id UNIQUE (scope, public_id)
 );
 
+-- value_type: 'I' (IRI), 'L' (literal) or 'B' (blank node); datatype and language_tag are empty if not applicable
 CREATE TABLE IF NOT EXISTS entity_attributes (
-    id SERIAL PRIMARY KEY,
-    attribute_name VARCHAR(255) NOT NULL,
-    attribute_value JSONB,
-    created_at TIMESTAMP,
-    updated_at TIMESTAMP,
-    scope VARCHAR(255) DEFAULT 'default'
-    );
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    entity_id BIGINT NOT NULL REFERENCES entities (id) ON DELETE CASCADE,
+    attribute_name VARCHAR(2048) NOT NULL,
+    value_type CHAR(1) NOT NULL,
+    attribute_value VARCHAR NOT NULL,
+    datatype VARCHAR(2048) NOT NULL DEFAULT '',
+    language_tag VARCHAR(64) NOT NULL DEFAULT '',
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    scope VARCHAR(255) NOT NULL DEFAULT 'default'
+);
+
+-- also serves the lookup of all attributes of an entity, reads of a single property don't depend on the size of the entity
+CREATE INDEX IF NOT EXISTS entity_attributes_entity_name ON entity_attributes (entity_id, attribute_name);
+DROP INDEX IF EXISTS entity_attributes_entity;
+CREATE INDEX IF NOT EXISTS entity_attributes_scope_name ON entity_attributes (scope, attribute_name);
 
 CREATE TABLE IF NOT EXISTS attribute_annotations (
-    id SERIAL PRIMARY KEY,
-    annotation_name VARCHAR(255) NOT NULL,
-    annotation_value JSONB,
-    created_at TIMESTAMP,
-    updated_at TIMESTAMP,
-    scope VARCHAR(255) DEFAULT 'default'
-    );
\ No newline at end of file
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    attribute_id BIGINT NOT NULL REFERENCES entity_attributes (id) ON DELETE CASCADE,
+    annotation_name VARCHAR(2048) NOT NULL,
+    value_type CHAR(1) NOT NULL,
+    annotation_value VARCHAR NOT NULL,
+    datatype VARCHAR(2048) NOT NULL DEFAULT '',
+    language_tag VARCHAR(64) NOT NULL DEFAULT '',
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    scope VARCHAR(255) NOT NULL DEFAULT 'default'
+);
+
+CREATE INDEX IF NOT EXISTS attribute_annotations_attribute ON attribute_annotations (attribute_id);
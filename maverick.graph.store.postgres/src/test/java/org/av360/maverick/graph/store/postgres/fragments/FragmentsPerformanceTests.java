@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2023.
+ *
+ *  Licensed under the EUPL, Version 1.2 or – as soon they will be approved by the
+ *  European Commission - subsequent versions of the EUPL (the "Licence");
+ *
+ *  You may not use this work except in compliance with the Licence.
+ *  You may obtain a copy of the Licence at:
+ *
+ *  https://joinup.ec.europa.eu/software/page/eupl5
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the Licence is distributed on an "AS IS" basis,  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the Licence for the specific language governing permissions and limitations under the Licence.
+ *
+ */
+
+package org.av360.maverick.graph.store.postgres.fragments;
+
+import org.av360.maverick.graph.store.IndividualsStore;
+import org.av360.maverick.graph.store.postgres.stores.EntityStoreImpl;
+import org.av360.maverick.graph.tests.store.StorePerformanceTestsBase;
+
+/**
+ * Runs the store performance scenarios against an in-memory H2 database in PostgreSQL mode.
+ */
+public class FragmentsPerformanceTests extends StorePerformanceTestsBase {
+
+    private final EntityStoreImpl entityStore = FragmentsTests.h2Store("performance");
+
+    @Override
+    protected IndividualsStore getStore() {
+        return entityStore;
+    }
+
+    @Override
+    protected String getBaselineKey() {
+        return "postgres-h2";
+    }
+}
@@ -15,105 +15,68 @@
 
 package org.av360.maverick.graph.store.postgres.fragments;
 
+import io.r2dbc.spi.ConnectionFactories;
 import io.r2dbc.spi.ConnectionFactory;
-import lombok.extern.slf4j.Slf4j;
-import org.av360.maverick.graph.model.entities.Transaction;
-import org.av360.maverick.graph.store.behaviours.Fragmentable;
+import org.av360.maverick.graph.model.vocabulary.SDO;
+import org.av360.maverick.graph.store.IndividualsStore;
+import org.av360.maverick.graph.store.postgres.stores.EntityStoreImpl;
 import org.av360.maverick.graph.store.rdf.fragments.RdfFragment;
+import org.av360.maverick.graph.store.rdf.fragments.RdfTransaction;
+import org.av360.maverick.graph.tests.store.StoreConformanceTestsBase;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.util.Values;
-import org.eclipse.rdf4j.model.vocabulary.DC;
-import org.junit.ClassRule;
-import org.junit.Test;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
 import org.junit.jupiter.api.Assertions;
-import org.junit.runner.RunWith;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
-import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.boot.test.util.TestPropertyValues;
-import org.springframework.context.ApplicationContextInitializer;
-import org.springframework.context.ConfigurableApplicationContext;
-import org.springframework.context.annotation.Import;
-import org.springframework.core.io.DefaultResourceLoader;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.ResourceLoader;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.r2dbc.connection.init.ResourceDatabasePopulator;
-import org.springframework.test.context.ContextConfiguration;
-import org.springframework.test.context.junit4.SpringRunner;
-import org.testcontainers.containers.PostgreSQLContainer;
-import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
-@RunWith(SpringRunner.class)
-@ConfigurationPropertiesScan
-@SpringBootTest
-@ContextConfiguration(initializers = {FragmentsTests.Initializer.class})
-@Import(FragmentsTests.DbInitializer.class)
-@Slf4j
-public class FragmentsTests {
-
-
-    @Autowired
-    Fragmentable entityStore;
-    private static final int POSTGRES_PORT = 5432;
-
-    @ClassRule
-    public static PostgreSQLContainer postgres = new PostgreSQLContainer<>("postgres")
-            .withDatabaseName("foo")
-            .withUsername("it_user")
-            .withPassword("it_pass")
-            .withInitScript("sql/schema.sql");
+/**
+ * Runs the store conformance suite against an in-memory H2 database in PostgreSQL mode.
+ */
+public class FragmentsTests extends StoreConformanceTestsBase {
 
-    static class DbInitializer {
-        private static boolean initialized = false;
+    private static EntityStoreImpl entityStore;
 
-        @Autowired
-        void initializeDb(ConnectionFactory connectionFactory) {
-            if (!initialized) {
-                ResourceLoader resourceLoader = new DefaultResourceLoader();
-                Resource[] scripts = new Resource[] {
-                        resourceLoader.getResource("sql/schema.sql")
-                };
-                new ResourceDatabasePopulator(scripts).populate(connectionFactory).block();
-                initialized = true;
-            }
-        }
+    @BeforeAll
+    public static void createStore() {
+        entityStore = h2Store("fragments");
     }
 
-    static class Initializer implements ApplicationContextInitializer<ConfigurableApplicationContext> {
-        public void initialize(ConfigurableApplicationContext configurableApplicationContext) {
-            // r2dbc:tc:postgresql:///databasename?TC_IMAGE_TAG=9.6.8
-           String url =  postgres.getHost();
-           String jdbc = postgres.getJdbcUrl();
-
-           String r2dbcUrl = "r2dbc:tc:postgresql:///%s?TC_IMAGE_TAG=16.1".formatted(postgres.getDatabaseName());
-
+    static EntityStoreImpl h2Store(String database) {
+        ConnectionFactory connectionFactory = ConnectionFactories.get("r2dbc:h2:mem:///%s?options=DB_CLOSE_DELAY=-1;MODE=PostgreSQL".formatted(database));
+        new ResourceDatabasePopulator(new ClassPathResource("sql/schema.sql")).populate(connectionFactory).block();
+        return new EntityStoreImpl(connectionFactory);
+    }
 
-            TestPropertyValues.of(
-                    "spring.r2dbc.url=" + r2dbcUrl,
-                    "spring.r2dbc.username=" + postgres.getUsername(),
-                    "spring.r2dbc.password=" + postgres.getPassword()
-            ).applyTo(configurableApplicationContext.getEnvironment());
-        }
+    @Override
+    protected IndividualsStore getStore() {
+        return entityStore;
     }
 
     @Test
-    public void insertFragment() {
-
-
-        IRI node = Values.iri("http://example.com/1234");
-        RdfFragment fragment = new RdfFragment(node);
-        fragment.getModel().add(node, DC.TITLE, Values.literal("a title"));
-        fragment.getModel().add(node, DC.DESCRIPTION, Values.literal("a description"));
-
-        fragment.getModel().add(node, DC.RELATION, Values.iri("http://example.com/target1"));
-        fragment.getModel().add(node, DC.RELATION, Values.iri("http://example.com/target2"));
-
-        log.info("Saving fragment");
-        Mono<Transaction> m = this.entityStore.insertFragment(fragment, null);
-
-
-        StepVerifier.create(m).assertNext(Assertions::assertNotNull).verifyComplete();
-
+    public void loadDetails() {
+        IRI subject = entity(1);
+        RdfFragment fragment = this.createFragment(1);
+        entityStore.insertFragment(fragment, this.environment).block();
+
+        RdfTransaction details = new RdfTransaction();
+        details.inserts(Values.triple(subject, SDO.TITLE, Values.literal("Title 1")), RDF.VALUE, Values.literal("verified"));
+        entityStore.commit(details, this.environment).block();
+
+        StepVerifier.create(entityStore.getFragment(subject, 0, true, this.environment))
+                .assertNext(loaded -> Assertions.assertTrue(loaded.getModel().contains(Values.triple(subject, SDO.TITLE, Values.literal("Title 1")), RDF.VALUE, Values.literal("verified"))))
+                .verifyComplete();
+        StepVerifier.create(entityStore.getFragment(subject, this.environment))
+                .assertNext(loaded -> Assertions.assertEquals(fragment.getModel().size(), loaded.getModel().size()))
+                .verifyComplete();
+
+        // removing the annotated statement removes its details
+        entityStore.commit(new RdfTransaction().removes(subject, SDO.TITLE, Values.literal("Title 1")), this.environment).block();
+        StepVerifier.create(entityStore.getFragment(subject, 0, true, this.environment))
+                .assertNext(loaded -> Assertions.assertFalse(loaded.getModel().contains(null, RDF.VALUE, null)))
+                .verifyComplete();
     }
 }
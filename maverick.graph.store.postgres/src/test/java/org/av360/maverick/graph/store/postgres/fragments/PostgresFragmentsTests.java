@@ -0,0 +1,49 @@
+package org.av360.maverick.graph.store.postgres.fragments;
+
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import org.av360.maverick.graph.store.IndividualsStore;
+import org.av360.maverick.graph.store.postgres.stores.EntityStoreImpl;
+import org.av360.maverick.graph.tests.store.StoreConformanceTestsBase;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.r2dbc.connection.init.ResourceDatabasePopulator;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.PostgreSQLR2DBCDatabaseContainer;
+
+import java.util.Objects;
+
+/**
+ * Runs the store conformance suite against Postgres, which covers the imports with COPY. The tests are skipped if
+ * Docker is not available.
+ */
+public class PostgresFragmentsTests extends StoreConformanceTestsBase {
+
+    private static PostgreSQLContainer<?> container;
+    private static EntityStoreImpl entityStore;
+
+    @BeforeAll
+    public static void createStore() {
+        Assumptions.assumeTrue(DockerClientFactory.instance().isDockerAvailable(), "Docker is not available");
+
+        container = new PostgreSQLContainer<>("postgres:16-alpine");
+        container.start();
+
+        ConnectionFactory connectionFactory = ConnectionFactories.get(PostgreSQLR2DBCDatabaseContainer.getOptions(container));
+        new ResourceDatabasePopulator(new ClassPathResource("sql/schema.sql")).populate(connectionFactory).block();
+        entityStore = new EntityStoreImpl(connectionFactory);
+    }
+
+    @AfterAll
+    public static void stopContainer() {
+        if (Objects.nonNull(container)) container.stop();
+    }
+
+    @Override
+    protected IndividualsStore getStore() {
+        return entityStore;
+    }
+}
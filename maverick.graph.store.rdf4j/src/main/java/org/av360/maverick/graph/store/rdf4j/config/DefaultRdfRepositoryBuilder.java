@@ -1,19 +1,25 @@
 package org.av360.maverick.graph.store.rdf4j.config;
 
+import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.BaseUnits;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.Validate;
 import org.av360.maverick.graph.model.context.Environment;
 import org.av360.maverick.graph.model.enums.RepositoryType;
+import org.av360.maverick.graph.model.errors.requests.SnapshotNotFound;
 import org.av360.maverick.graph.model.errors.store.InvalidStoreConfiguration;
 import org.av360.maverick.graph.store.FragmentsStore;
 import org.av360.maverick.graph.store.RepositoryBuilder;
+import org.av360.maverick.graph.store.RepositorySnapshot;
+import org.av360.maverick.graph.store.StoreSchedulers;
 import org.av360.maverick.graph.store.rdf.LabeledRepository;
 import org.av360.maverick.graph.store.rdf4j.repository.util.AbstractRdfRepository;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
 import org.eclipse.rdf4j.repository.RepositoryException;
 import org.eclipse.rdf4j.repository.RepositoryLockedException;
 import org.eclipse.rdf4j.repository.sail.SailRepository;
@@ -21,22 +27,32 @@ import org.eclipse.rdf4j.sail.lmdb.LmdbStore;
 import org.eclipse.rdf4j.sail.lmdb.config.LmdbStoreConfig;
 import org.eclipse.rdf4j.sail.memory.MemoryStore;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Component;
+import org.springframework.util.FileSystemUtils;
 import org.springframework.util.StringUtils;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import javax.annotation.Nullable;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
-import java.util.Collection;
-import java.util.Objects;
+import java.util.*;
 import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 @Component
 @Slf4j(topic = "graph.repo.cfg.builder")
@@ -44,14 +60,28 @@ import java.util.function.Function;
 public class DefaultRdfRepositoryBuilder implements RepositoryBuilder {
 
 
+    private static final DateTimeFormatter SNAPSHOT_ID_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmssSSS'Z'").withZone(ZoneOffset.UTC);
+    private static final Pattern SNAPSHOT_ID = Pattern.compile("\\d{8}T\\d{9}Z(-\\d+)?");
+
     private RepositoryCache cache;
     protected MeterRegistry meterRegistry;
+    private StoreSchedulers schedulers;
 
     @PreDestroy
     public void shutdownRepositories() {
+        // pending operations have to complete before the repositories are closed
+        if (Objects.nonNull(this.schedulers)) this.schedulers.shutdown();
         cache.shutdown();
     }
 
+    @Value("${application.storage.snapshots.retain:3}")
+    private int snapshotRetention;
+
+    @Autowired
+    public void setSchedulers(StoreSchedulers schedulers) {
+        this.schedulers = schedulers;
+    }
+
 
     @Autowired
     public void setMeterRegistry(MeterRegistry meterRegistry) {
@@ -179,11 +209,7 @@ public class DefaultRdfRepositoryBuilder implements RepositoryBuilder {
             log.debug("Initializing persistent repository in path '{}' for label '{}'", path, label);
 
             Resource file = new FileSystemResource(path);
-            LmdbStoreConfig config = new LmdbStoreConfig();
-
-            config.setTripleIndexes("spoc,ospc,psoc");
-            config.setForceSync(false);
-            
+            LmdbStoreConfig config = this.createLmdbConfig();
 
 
             if (!file.exists() && !file.getFile().mkdirs())
@@ -221,6 +247,273 @@ public class DefaultRdfRepositoryBuilder implements RepositoryBuilder {
     }
 
 
+    /**
+     * Compacts a persistent repository by copying all statements into a new LMDB environment, which then replaces the
+     * old one. LMDB never shrinks its data file, the space of removed statements is only reclaimed by rewriting it.
+     * <p>
+     * Commits to the repository are held back while it is copied and swapped, and other repositories can't be resolved
+     * during the swap. Reads continue on the old storage until the swap, connections still open then are closed. The
+     * compaction should therefore run in quiet periods.
+     */
+    @Override
+    public Mono<Long> compactRepository(FragmentsStore store, Environment environment) {
+        return this.getRepository(store, environment)
+                .flatMap(repository -> Mono.fromCallable(() -> {
+                    // the commit lock is acquired before the lock of the builder, as in the commits
+                    synchronized (getCommitLock(store, environment)) {
+                        return this.compact(repository, formatRepositoryLabel(environment));
+                    }
+                }))
+                .subscribeOn(this.schedulers.forRepository(environment.getRepositoryType(), environment));
+    }
+
+    protected synchronized long compact(LabeledRepository repository, String label) throws IOException {
+        Optional<LmdbStore> lmdbStore = getLmdbStore(repository);
+        if (lmdbStore.isEmpty()) {
+            log.debug("Skipping compaction of volatile repository '{}'", label);
+            return 0L;
+        }
+
+        Path dataDir = lmdbStore.get().getDataDir().toPath();
+        Path compacted = dataDir.resolveSibling(dataDir.getFileName() + ".compacted");
+        long sizeBefore = sizeOf(dataDir);
+
+        log.info("Compacting repository '{}' in path '{}' with size of {} bytes", label, dataDir, sizeBefore);
+        FileSystemUtils.deleteRecursively(compacted);
+        Files.createDirectories(compacted);
+
+        SailRepository target = new SailRepository(new LmdbStore(compacted.toFile(), this.createLmdbConfig()));
+        try {
+            target.init();
+            try (RepositoryConnection source = repository.getConnection(); RepositoryConnection sink = target.getConnection()) {
+                sink.begin();
+                source.getNamespaces().forEach(namespace -> sink.setNamespace(namespace.getPrefix(), namespace.getName()));
+                sink.add(source.getStatements(null, null, null, false));
+                sink.commit();
+            }
+        } catch (RepositoryException e) {
+            log.error("Failed to compact repository '{}', keeping the current storage.", label, e);
+            target.shutDown();
+            FileSystemUtils.deleteRecursively(compacted);
+            throw e;
+        }
+        target.shutDown();
+
+        this.replaceStorage(repository, label, dataDir, compacted);
+
+        long reclaimed = Math.max(0L, sizeBefore - sizeOf(dataDir));
+        log.info("Compacted repository '{}', reclaimed {} bytes", label, reclaimed);
+        if (Objects.nonNull(this.meterRegistry)) {
+            Counter.builder("graph.store.repository.compaction.reclaimed")
+                    .baseUnit(BaseUnits.BYTES)
+                    .tag("label", label)
+                    .register(this.meterRegistry)
+                    .increment(reclaimed);
+        }
+        return reclaimed;
+    }
+
+    /**
+     * Takes a snapshot of a persistent repository by copying its LMDB environments. Commits and all other writes to the
+     * repository (which hold its commit lock) are held back while the files are copied, the snapshot is therefore
+     * consistent. Snapshots are stored next to the storage of the repository, and only the configured number of
+     * snapshots is kept.
+     */
+    @Override
+    public Mono<RepositorySnapshot> createSnapshot(FragmentsStore store, Environment environment) {
+        return this.getRepository(store, environment)
+                .flatMap(repository -> Mono.fromCallable(() -> {
+                    synchronized (getCommitLock(store, environment)) {
+                        return this.snapshot(repository, formatRepositoryLabel(environment));
+                    }
+                }))
+                .subscribeOn(this.schedulers.forRepository(environment.getRepositoryType(), environment));
+    }
+
+    @Override
+    public Flux<RepositorySnapshot> listSnapshots(FragmentsStore store, Environment environment) {
+        return this.getRepository(store, environment)
+                .flatMapMany(repository -> Mono.justOrEmpty(getLmdbStore(repository))
+                        .flatMapIterable(lmdbStore -> {
+                            try {
+                                return listSnapshots(snapshotsDirectory(lmdbStore.getDataDir().toPath()));
+                            } catch (IOException e) {
+                                throw Exceptions.propagate(e);
+                            }
+                        }))
+                .subscribeOn(this.schedulers.forRepository(environment.getRepositoryType(), environment));
+    }
+
+    /**
+     * Restores a snapshot of a persistent repository. The snapshot is copied first, the storage of the repository is
+     * then swapped while commits are held back, the same way as for the compaction.
+     * <p>
+     * Connections which are still open on the previous storage are closed.
+     */
+    @Override
+    public Mono<RepositorySnapshot> restoreSnapshot(FragmentsStore store, Environment environment, String snapshotId) {
+        return this.getRepository(store, environment)
+                .flatMap(repository -> Mono.fromCallable(() -> {
+                    try {
+                        return this.restore(repository, getCommitLock(store, environment), formatRepositoryLabel(environment), snapshotId);
+                    } catch (SnapshotNotFound e) {
+                        throw Exceptions.propagate(e);
+                    }
+                }))
+                .subscribeOn(this.schedulers.forRepository(environment.getRepositoryType(), environment))
+                .onErrorMap(Exceptions::unwrap);
+    }
+
+    protected synchronized RepositorySnapshot snapshot(LabeledRepository repository, String label) throws IOException {
+        LmdbStore lmdbStore = getLmdbStore(repository)
+                .orElseThrow(() -> new IllegalArgumentException("Snapshots are only supported for persistent repositories, repository '%s' is volatile.".formatted(label)));
+
+        Path dataDir = lmdbStore.getDataDir().toPath();
+        Path snapshots = snapshotsDirectory(dataDir);
+        // the id has a precision of milliseconds
+        Instant created = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        String id = SNAPSHOT_ID_FORMAT.format(created);
+        for (int i = 1; Files.exists(snapshots.resolve(id)); i++) {
+            id = SNAPSHOT_ID_FORMAT.format(created) + "-" + i;
+        }
+
+        // copied into a partial directory first, an interrupted copy is never listed as snapshot
+        Path partial = snapshots.resolve(id + ".partial");
+        FileSystemUtils.deleteRecursively(partial);
+        copyStorage(dataDir, partial);
+        Files.move(partial, snapshots.resolve(id), StandardCopyOption.ATOMIC_MOVE);
+
+        RepositorySnapshot snapshot = new RepositorySnapshot(id, created, sizeOf(snapshots.resolve(id)));
+        log.info("Created snapshot '{}' of repository '{}' with size of {} bytes in {} ms", id, label, snapshot.size(), Duration.between(created, Instant.now()).toMillis());
+
+        List<RepositorySnapshot> existing = listSnapshots(snapshots);
+        if (this.snapshotRetention > 0) {
+            for (RepositorySnapshot outdated : existing.subList(Math.min(this.snapshotRetention, existing.size()), existing.size())) {
+                log.debug("Removing outdated snapshot '{}' of repository '{}'", outdated.id(), label);
+                FileSystemUtils.deleteRecursively(snapshots.resolve(outdated.id()));
+            }
+        }
+        return snapshot;
+    }
+
+    protected RepositorySnapshot restore(LabeledRepository repository, Object commitLock, String label, String snapshotId) throws IOException, SnapshotNotFound {
+        LmdbStore lmdbStore = getLmdbStore(repository)
+                .orElseThrow(() -> new IllegalArgumentException("Snapshots are only supported for persistent repositories, repository '%s' is volatile.".formatted(label)));
+
+        Path dataDir = lmdbStore.getDataDir().toPath();
+        RepositorySnapshot snapshot = listSnapshots(snapshotsDirectory(dataDir)).stream()
+                .filter(candidate -> candidate.id().equals(snapshotId))
+                .findFirst()
+                .orElseThrow(() -> new SnapshotNotFound(snapshotId));
+
+        // the snapshot itself is kept, it can be restored again
+        Instant started = Instant.now();
+        Path restored = dataDir.resolveSibling(dataDir.getFileName() + ".restored-" + snapshot.id());
+        FileSystemUtils.deleteRecursively(restored);
+        copyStorage(snapshotsDirectory(dataDir).resolve(snapshot.id()), restored);
+
+        // the commit lock is acquired before the lock of the builder, as in the commits
+        synchronized (commitLock) {
+            this.replaceStorage(repository, label, dataDir, restored);
+        }
+        log.info("Restored snapshot '{}' of repository '{}' in {} ms", snapshot.id(), label, Duration.between(started, Instant.now()).toMillis());
+        return snapshot;
+    }
+
+    /**
+     * Swaps the storage of the repository with the replacement and registers the reopened repository in the cache.
+     * The previous storage is only removed once the replacement is in place. Callers hold the commit lock of the
+     * repository.
+     */
+    private synchronized void replaceStorage(LabeledRepository repository, String label, Path dataDir, Path replacement) throws IOException {
+        Path replaced = dataDir.resolveSibling(dataDir.getFileName() + ".replaced");
+        FileSystemUtils.deleteRecursively(replaced);
+
+        // the repository is reopened and registered again on any failure, with whatever storage is in place then
+        try {
+            repository.shutDown();
+            Files.move(dataDir, replaced);
+            try {
+                Files.move(replacement, dataDir);
+            } catch (IOException e) {
+                log.error("Failed to replace storage of repository '{}', restoring the previous storage.", label, e);
+                Files.move(replaced, dataDir);
+                throw e;
+            }
+        } finally {
+            LabeledRepository reopened = new LabeledRepository(label, new SailRepository(new LmdbStore(dataDir.toFile(), this.createLmdbConfig())));
+            reopened.init();
+            this.cache.register(label, reopened);
+        }
+        FileSystemUtils.deleteRecursively(replaced);
+    }
+
+    private static Object getCommitLock(FragmentsStore store, Environment environment) {
+        return store instanceof AbstractRdfRepository rdfStore ? rdfStore.getCommitLock(environment) : new Object();
+    }
+
+    private static Optional<LmdbStore> getLmdbStore(LabeledRepository repository) {
+        if (repository.getDelegate() instanceof SailRepository sailRepository && sailRepository.getSail() instanceof LmdbStore lmdbStore) {
+            return Optional.of(lmdbStore);
+        }
+        return Optional.empty();
+    }
+
+    private static Path snapshotsDirectory(Path dataDir) {
+        return dataDir.resolveSibling(dataDir.getFileName() + ".snapshots");
+    }
+
+    private static List<RepositorySnapshot> listSnapshots(Path snapshots) throws IOException {
+        if (!Files.isDirectory(snapshots)) return List.of();
+
+        try (Stream<Path> directories = Files.list(snapshots)) {
+            List<RepositorySnapshot> result = new ArrayList<>();
+            for (Path directory : directories.filter(Files::isDirectory).toList()) {
+                String id = directory.getFileName().toString();
+                if (!SNAPSHOT_ID.matcher(id).matches()) continue;
+                result.add(new RepositorySnapshot(id, Instant.from(SNAPSHOT_ID_FORMAT.parse(id.substring(0, 19))), sizeOf(directory)));
+            }
+            result.sort(Comparator.comparing(RepositorySnapshot::id).reversed());
+            return result;
+        }
+    }
+
+    /**
+     * Copies the files of the LMDB environments, without the lock files (which belong to the running repository).
+     */
+    private static void copyStorage(Path source, Path target) throws IOException {
+        try (Stream<Path> files = Files.walk(source)) {
+            for (Path file : files.toList()) {
+                Path relative = source.relativize(file);
+                if (relative.toString().isEmpty()) {
+                    Files.createDirectories(target);
+                } else if (!isLockFile(relative)) {
+                    Path copy = target.resolve(relative.toString());
+                    if (Files.isDirectory(file)) Files.createDirectories(copy);
+                    else Files.copy(file, copy);
+                }
+            }
+        }
+    }
+
+    private static boolean isLockFile(Path relative) {
+        return relative.getName(0).toString().equals("lock") || relative.getFileName().toString().equals("lock.mdb");
+    }
+
+    private LmdbStoreConfig createLmdbConfig() {
+        LmdbStoreConfig config = new LmdbStoreConfig();
+        config.setTripleIndexes("spoc,ospc,psoc");
+        config.setForceSync(false);
+        return config;
+    }
+
+    private static long sizeOf(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            return files.filter(Files::isRegularFile).mapToLong(file -> file.toFile().length()).sum();
+        }
+    }
+
+
     private void registerMetrics(String label, LabeledRepository labeledRepository) {
         if (Objects.nonNull(this.meterRegistry)) {
             meterRegistry.counter("graph.store.repository", "method", "init", "mode", "persistent", "label", label).increment();
@@ -3,20 +3,55 @@ package org.av360.maverick.graph.store.rdf4j.repository;
 import lombok.extern.slf4j.Slf4j;
 import org.av360.maverick.graph.model.context.Environment;
 import org.av360.maverick.graph.model.entities.Transaction;
+import org.av360.maverick.graph.model.errors.InvalidRequest;
+import org.av360.maverick.graph.model.errors.requests.EntityVersionMismatch;
+import org.av360.maverick.graph.model.identifier.ValueIdentifier;
+import org.av360.maverick.graph.model.vocabulary.meg.Metadata;
 import org.av360.maverick.graph.store.IndividualsStore;
+import org.av360.maverick.graph.store.RepositorySnapshot;
+import org.av360.maverick.graph.store.behaviours.ValueIdentified;
+import org.av360.maverick.graph.store.behaviours.ValueIndexed;
+import org.av360.maverick.graph.store.behaviours.Versioned;
 import org.av360.maverick.graph.store.rdf.fragments.RdfFragment;
 import org.av360.maverick.graph.store.rdf4j.repository.util.AbstractRdfRepository;
+import org.av360.maverick.graph.store.rdf4j.repository.util.EntityVersions;
+import org.av360.maverick.graph.store.rdf4j.repository.util.PropertyValueIndex;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Triple;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.util.Values;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.RepositoryResult;
+import org.reactivestreams.Publisher;
 import org.slf4j.Logger;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
 import reactor.core.publisher.Mono;
 
+import javax.annotation.Nullable;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 @Slf4j(topic = "graph.repo.entities")
 @Component
-public class EntityStoreImpl extends AbstractRdfRepository implements IndividualsStore {
+public class EntityStoreImpl extends AbstractRdfRepository implements IndividualsStore, ValueIndexed, ValueIdentified, Versioned {
 
     @org.springframework.beans.factory.annotation.Value("${application.storage.entities.path:#{null}}")
     private String path;
 
+    private final PropertyValueIndex valueIndex = new PropertyValueIndex();
+    private final ValueIdentifiersStoreImpl valueIdentifiers;
+
+    public EntityStoreImpl(ValueIdentifiersStoreImpl valueIdentifiers) {
+        this.valueIdentifiers = valueIdentifiers;
+    }
+
     @Override
     public Logger getLogger() {
         return log;
@@ -29,9 +64,182 @@ public class EntityStoreImpl extends AbstractRdfRepository implements Individual
 
 
     @Override
-    public Mono<Transaction> insertFragment(RdfFragment fragment, Environment environment) {
-        return null;
+    public Mono<Void> declareIndexedProperties(Set<IRI> properties, Environment environment) {
+        String key = indexKey(environment);
+        if (this.valueIndex.isDeclared(key, properties)) return Mono.empty();
+
+        return this.consumeWithConnection(environment, connection -> {
+            long count = this.valueIndex.declare(key, properties, property -> connection.getStatements(null, property, null).stream());
+            if (count >= 0) log.debug("Built value index for properties {} with {} values in repository '{}'", properties, count, connection.getRepository());
+        });
+    }
+
+    @Override
+    public Optional<Set<Resource>> lookup(IRI property, Value value, Environment environment) {
+        return this.valueIndex.lookup(indexKey(environment), property, value);
+    }
+
+    @Override
+    public Mono<Long> identifyValues(Environment environment) {
+        return this.applyWithConnection(environment, connection -> {
+            try (RepositoryResult<Statement> statements = connection.getStatements(null, null, null)) {
+                long count = this.valueIdentifiers.identify(statements.stream(), environment);
+                log.debug("Identified {} values in repository '{}'", count, connection.getRepository());
+                return count;
+            }
+        });
+    }
+
+    @Override
+    public Mono<Map<Triple, ValueIdentifier>> getValueIdentifiers(Resource subject, @Nullable IRI predicate, Environment environment) {
+        return this.valueIdentifiers.getValueIdentifiers(subject, predicate, environment);
     }
-}
 
+    @Override
+    public Mono<Value> findValue(Resource subject, IRI predicate, ValueIdentifier identifier, Environment environment) {
+        return this.valueIdentifiers.findValues(subject, predicate, identifier, environment)
+                // the stored value might have been removed by a query
+                .filterWhen(value -> this.hasStatement(subject, predicate, value, environment))
+                .next()
+                // the identifiers of the values without stored identifier are computed
+                .switchIfEmpty(Mono.defer(() -> this.valueIdentifiers.getValueIdentifiers(subject, predicate, environment)
+                        .flatMap(identified -> this.applyWithConnection(environment, connection -> {
+                            try (RepositoryResult<Statement> statements = connection.getStatements(subject, predicate, null)) {
+                                return statements.stream()
+                                        .filter(statement -> !identified.containsKey(Values.triple(statement.getSubject(), statement.getPredicate(), statement.getObject())))
+                                        .map(Statement::getObject)
+                                        .filter(value -> identifier.equals(ValueIdentifier.of(predicate, value)))
+                                        .findFirst()
+                                        .orElse(null);
+                            }
+                        }))));
+    }
+
+    @Override
+    public Mono<String> getVersion(Resource entity, Environment environment) {
+        return this.applyWithConnection(environment, connection -> EntityVersions.get(connection, entity));
+    }
+
+    @Override
+    protected void beforeCommit(Transaction transaction, RepositoryConnection connection, Environment environment) throws InvalidRequest {
+        for (Map.Entry<Resource, String> expected : transaction.getExpectedVersions().entrySet()) {
+            verifyVersion(expected.getKey(), expected.getValue(), EntityVersions.get(connection, expected.getKey()));
+        }
+        // the expected versions of the request apply to the entity with the key
+        for (Resource entity : EntityVersions.changedEntities(transaction.getModel())) {
+            if (entity instanceof IRI iri) {
+                Optional<String> expected = environment.getExpectedVersion(iri.getLocalName());
+                if (expected.isPresent()) verifyVersion(entity, expected.get(), EntityVersions.get(connection, entity));
+            }
+        }
+    }
+
+    private static void verifyVersion(Resource entity, String expected, String current) throws EntityVersionMismatch {
+        if (!expected.equals(current)) {
+            throw new EntityVersionMismatch(entity instanceof IRI iri ? iri.getLocalName() : entity.stringValue(), expected);
+        }
+    }
+
+    @Override
+    protected void onCommit(Transaction transaction, RepositoryConnection connection, Environment environment) {
+        Set<Resource> changed = EntityVersions.changedEntities(transaction.getModel());
+        changed.addAll(transaction.getExpectedVersions().keySet());
+        EntityVersions.apply(connection, changed, transaction.getIdentifier().getLocalName()).forEach(transaction::setVersion);
+    }
+
+    @Override
+    protected void afterCommit(Transaction transaction, Environment environment) {
+        try {
+            this.valueIndex.apply(indexKey(environment), transaction.getModel());
+        } catch (Exception e) {
+            log.warn("Failed to update value index with transaction '{}', the index is rebuilt with the next lookup.", transaction.getIdentifier().getLocalName(), e);
+            this.valueIndex.invalidate(indexKey(environment));
+        }
+        try {
+            this.valueIdentifiers.apply(transaction.getModel(), environment);
+        } catch (Exception e) {
+            // the identifiers of the values are computed when requested (until the values are identified again)
+            log.warn("Failed to store value identifiers of transaction '{}': {}", transaction.getIdentifier().getLocalName(), e.getMessage());
+        }
+    }
 
+    // the versions are stored with the entities, but are not part of them
+
+    @Override
+    public Mono<RdfFragment> getFragment(Resource id, int includeNeighborsLevel, boolean includeDetails, Environment environment) {
+        return super.getFragment(id, includeNeighborsLevel, includeDetails, environment).map(EntityStoreImpl::withoutVersions);
+    }
+
+    @Override
+    public Mono<RdfFragment> getFragment(Resource id, IRI predicate, @Nullable String languageTag, boolean includeDetails, Environment environment) {
+        return super.getFragment(id, predicate, languageTag, includeDetails, environment).map(EntityStoreImpl::withoutVersions);
+    }
+
+    @Override
+    public Mono<Set<Statement>> listStatements(Resource value, IRI predicate, Value object, Environment environment) {
+        return super.listStatements(value, predicate, object, environment)
+                .map(statements -> statements.stream()
+                        .filter(statement -> !Metadata.VERSION.equals(statement.getPredicate()))
+                        .collect(Collectors.toUnmodifiableSet()));
+    }
+
+    private static RdfFragment withoutVersions(RdfFragment fragment) {
+        fragment.getModel().remove(null, Metadata.VERSION, null);
+        return fragment;
+    }
+
+    // the following operations bypass the transactions, the indexes are rebuilt with the next lookup (invalidated before
+    // the completion is signalled, since the callers might continue on another thread)
+
+    @Override
+    public Mono<Void> update(String query, Environment environment) {
+        return this.renewingVersions(super.update(query, environment), environment)
+                .doOnTerminate(() -> this.invalidateIndexes(environment))
+                .doOnCancel(() -> this.invalidateIndexes(environment));
+    }
+
+    @Override
+    public Mono<Void> purge(Environment environment) {
+        return super.purge(environment)
+                .then(Mono.defer(() -> this.valueIdentifiers.clear(environment)))
+                .doOnTerminate(() -> this.invalidateIndexes(environment))
+                .doOnCancel(() -> this.invalidateIndexes(environment));
+    }
+
+    @Override
+    public Mono<Void> importStatements(Publisher<DataBuffer> bytesPublisher, String mimetype, Environment environment) {
+        return this.renewingVersions(super.importStatements(bytesPublisher, mimetype, environment), environment)
+                .doOnTerminate(() -> this.invalidateIndexes(environment))
+                .doOnCancel(() -> this.invalidateIndexes(environment));
+    }
+
+    @Override
+    public Mono<RepositorySnapshot> restoreSnapshot(String snapshotId, Environment environment) {
+        return super.restoreSnapshot(snapshotId, environment)
+                .doOnTerminate(() -> this.invalidateIndexes(environment))
+                .doOnCancel(() -> this.invalidateIndexes(environment));
+    }
+
+    private void invalidateIndexes(Environment environment) {
+        this.valueIndex.invalidate(indexKey(environment));
+    }
+
+    /**
+     * The changes of the operation are not known, all entities get a new version (also if the operation fails, it
+     * might have changed some statements).
+     */
+    private Mono<Void> renewingVersions(Mono<Void> operation, Environment environment) {
+        Mono<Void> renew = Mono.defer(() -> this.consumeWithCommitLock(environment, EntityVersions::renew));
+        return operation
+                .onErrorResume(error -> renew.then(Mono.error(error)))
+                .then(renew);
+    }
+
+    /**
+     * Same scope and stage as the repository.
+     */
+    private static String indexKey(Environment environment) {
+        String scope = environment.getScope().label();
+        return StringUtils.hasLength(environment.getStage()) ? scope + "_" + environment.getStage() : scope;
+    }
+}
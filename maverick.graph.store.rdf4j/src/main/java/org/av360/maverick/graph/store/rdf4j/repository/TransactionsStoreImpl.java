@@ -3,46 +3,276 @@ package org.av360.maverick.graph.store.rdf4j.repository;
 import lombok.extern.slf4j.Slf4j;
 import org.av360.maverick.graph.model.context.Environment;
 import org.av360.maverick.graph.model.entities.Transaction;
+import org.av360.maverick.graph.model.enums.Activity;
+import org.av360.maverick.graph.model.vocabulary.meg.Local;
 import org.av360.maverick.graph.model.vocabulary.meg.Transactions;
+import org.av360.maverick.graph.store.RepositorySnapshot;
 import org.av360.maverick.graph.store.TransactionsStore;
 import org.av360.maverick.graph.store.behaviours.Maintainable;
 import org.av360.maverick.graph.store.rdf.fragments.RdfFragment;
+import org.av360.maverick.graph.store.rdf.fragments.RdfTransaction;
 import org.av360.maverick.graph.store.rdf4j.repository.util.AbstractRdfRepository;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.model.vocabulary.XSD;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.query.QueryResults;
+import org.eclipse.rdf4j.query.TupleQueryResult;
+import org.reactivestreams.Publisher;
 import org.slf4j.Logger;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import java.util.Collection;
+import javax.annotation.Nullable;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 @Slf4j(topic = "graph.repo.transactions")
 @Component
 public class TransactionsStoreImpl extends AbstractRdfRepository implements TransactionsStore, Maintainable {
 
+    private static final String ACTIVITIES = Arrays.stream(Activity.values()).map(activity -> "<%s>".formatted(activity.toIRI())).collect(Collectors.joining(" "));
+
+    // the commit time is the ordering key of the transactions, it is stored with every transaction
+    private static final String TIME_OF_TRANSACTION = "?trx <%s> ?time .\n".formatted(Transactions.COMMITTED);
+
+    // transactions recorded before the change feed have no commit time, their start time is stored as commit time
+    private static final String BACKFILL_COMMIT_TIMES = """
+            INSERT { ?trx <%s> ?started }
+            WHERE {
+                ?trx a <%s> ;
+                     <%s> ?started .
+                FILTER NOT EXISTS { ?trx <%s> ?committed }
+            }
+            """.formatted(Transactions.COMMITTED, Transactions.TRANSACTION, Transactions.AT, Transactions.COMMITTED);
+
+    private static final int REMOVAL_BATCH_SIZE = 1000;
+
     @Value("${application.storage.transactions.path:#{null}}")
     private String path;
 
+    private final Set<String> backfilled = ConcurrentHashMap.newKeySet();
 
+
+    /**
+     * Stores the provenance of all given transactions within one repository transaction. Transactions without commit
+     * time are stored with their start time as commit time.
+     */
     @Override
     public Flux<Transaction> store(Collection<Transaction> transactions, Environment environment) {
         return this.applyManyWithConnection(environment, connection -> {
-            transactions.forEach(trx -> {
-                try {
+            try {
+                synchronized (this.getCommitLock(environment)) {
                     connection.begin();
-                    connection.add(trx.getModel(Transactions.GRAPH_PROVENANCE));
+                    transactions.forEach(trx -> {
+                        Model provenance = trx.getModel(Transactions.GRAPH_PROVENANCE);
+                        connection.add(provenance);
+                        if (!provenance.contains(trx.getIdentifier(), Transactions.COMMITTED, null)) {
+                            provenance.filter(trx.getIdentifier(), Transactions.AT, null).objects().stream().findFirst()
+                                    .ifPresent(started -> connection.add(trx.getIdentifier(), Transactions.COMMITTED, started, Transactions.GRAPH_PROVENANCE));
+                        }
+                    });
                     connection.commit();
-                } catch (Exception e) {
-                    log.error("Error while storing transaction, performing rollback.", e);
-                    connection.rollback();
                 }
-            });
+            } catch (Exception e) {
+                log.error("Error while storing {} transactions, performing rollback.", transactions.size(), e);
+                connection.rollback();
+                throw e;
+            }
 
             return transactions.stream();
         });
     }
 
 
+    /**
+     * Keyset paging over the commit time stored with every transaction. Lookups by subject are served by the object
+     * index of the repository, the query for the next page only depends on the position of the last transaction (not on
+     * an offset).
+     */
+    @Override
+    public Flux<Transaction> listTransactions(Filter filter, @Nullable Position after, int limit, Environment environment) {
+        Position start = Objects.isNull(after) ? Position.START : after;
+
+        StringBuilder patterns = new StringBuilder();
+        if (Objects.nonNull(filter.subject())) {
+            patterns.append("VALUES ?activity { %s }\n".formatted(ACTIVITIES));
+            patterns.append("?trx ?activity <%s> .\n".formatted(filter.subject()));
+        }
+        patterns.append("?trx a <%s> .\n".formatted(Transactions.TRANSACTION));
+        patterns.append(TIME_OF_TRANSACTION);
+        patterns.append("FILTER(?time > %s || (?time = %s && STR(?trx) > \"%s\"))\n".formatted(
+                asLiteral(start.committed()), asLiteral(start.committed()),
+                StringUtils.hasLength(start.identifier()) ? Local.Transactions.NAME + start.identifier() : ""));
+        if (Objects.nonNull(filter.from())) patterns.append("FILTER(?time >= %s)\n".formatted(asLiteral(filter.from())));
+        if (Objects.nonNull(filter.until())) patterns.append("FILTER(?time < %s)\n".formatted(asLiteral(filter.until())));
+
+        String query = """
+                SELECT DISTINCT ?trx ?time WHERE {
+                %s}
+                ORDER BY ?time STR(?trx)
+                LIMIT %d
+                """.formatted(patterns, limit);
+
+        return this.backfillCommitTimes(environment).then(this.applyWithConnection(environment, connection -> {
+            List<Transaction> result = new ArrayList<>(limit);
+            try (TupleQueryResult bindings = connection.prepareTupleQuery(QueryLanguage.SPARQL, query).evaluate()) {
+                for (BindingSet binding : bindings) {
+                    IRI identifier = (IRI) binding.getValue("trx");
+                    Model provenance = QueryResults.asModel(connection.getStatements(identifier, null, null));
+                    result.add(RdfTransaction.fromProvenance(identifier, provenance));
+                }
+            }
+            return result;
+        })).flatMapIterable(transactions -> transactions);
+    }
+
+    @Override
+    public Mono<Transaction> getTransaction(IRI identifier, Environment environment) {
+        return this.applyWithConnection(environment, connection -> {
+            Model provenance = QueryResults.asModel(connection.getStatements(identifier, null, null));
+            return provenance.contains(identifier, RDF.TYPE, Transactions.TRANSACTION) ? RdfTransaction.fromProvenance(identifier, provenance) : null;
+        });
+    }
+
+    @Override
+    public Mono<Long> expireTransactions(Instant before, boolean keepMetadata, Environment environment) {
+        String query = """
+                SELECT DISTINCT ?trx WHERE {
+                    ?trx a <%s> .
+                    %s
+                    FILTER(?time < %s)
+                    %s
+                }
+                """.formatted(
+                Transactions.TRANSACTION,
+                TIME_OF_TRANSACTION,
+                asLiteral(before),
+                keepMetadata ? "FILTER EXISTS { VALUES ?activity { %s } ?trx ?activity ?subject }".formatted(ACTIVITIES) : "");
+
+        return this.backfillCommitTimes(environment).then(this.applyWithConnection(environment, connection -> {
+            List<IRI> expired = new ArrayList<>();
+            try (TupleQueryResult bindings = connection.prepareTupleQuery(QueryLanguage.SPARQL, query).evaluate()) {
+                bindings.forEach(binding -> expired.add((IRI) binding.getValue("trx")));
+            }
+
+            for (int i = 0; i < expired.size(); i += REMOVAL_BATCH_SIZE) {
+                List<IRI> batch = expired.subList(i, Math.min(i + REMOVAL_BATCH_SIZE, expired.size()));
+                // the lock is held for one batch at a time
+                synchronized (this.getCommitLock(environment)) {
+                    connection.begin();
+                    batch.forEach(trx -> {
+                        if (keepMetadata) {
+                            Arrays.stream(Activity.values()).forEach(activity -> connection.remove(trx, activity.toIRI(), null));
+                        } else {
+                            connection.remove(trx, null, null);
+                        }
+                    });
+                    connection.commit();
+                }
+            }
+
+            log.debug("Expired {} transactions committed before {} in repository '{}'", expired.size(), before, connection.getRepository());
+            return (long) expired.size();
+        }));
+    }
+
+    @Override
+    public Mono<Long> trimTransactions(int maxPerSubject, boolean keepMetadata, Environment environment) {
+        String subjectsQuery = """
+                SELECT ?subject WHERE {
+                    VALUES ?activity { %s }
+                    ?trx ?activity ?subject .
+                }
+                GROUP BY ?subject
+                HAVING (COUNT(DISTINCT ?trx) > %d)
+                """.formatted(ACTIVITIES, maxPerSubject);
+
+        return this.backfillCommitTimes(environment).then(this.applyWithConnection(environment, connection -> {
+            List<IRI> subjects = new ArrayList<>();
+            try (TupleQueryResult bindings = connection.prepareTupleQuery(QueryLanguage.SPARQL, subjectsQuery).evaluate()) {
+                bindings.forEach(binding -> {
+                    if (binding.getValue("subject") instanceof IRI subject) subjects.add(subject);
+                });
+            }
+
+            Set<IRI> trimmed = new HashSet<>();
+            for (IRI subject : subjects) {
+                String olderQuery = """
+                        SELECT DISTINCT ?trx ?time WHERE {
+                            VALUES ?activity { %s }
+                            ?trx ?activity <%s> .
+                            %s
+                        }
+                        ORDER BY DESC(?time) DESC(STR(?trx))
+                        OFFSET %d
+                        """.formatted(ACTIVITIES, subject, TIME_OF_TRANSACTION, maxPerSubject);
+
+                List<IRI> older = new ArrayList<>();
+                try (TupleQueryResult bindings = connection.prepareTupleQuery(QueryLanguage.SPARQL, olderQuery).evaluate()) {
+                    bindings.forEach(binding -> older.add((IRI) binding.getValue("trx")));
+                }
+
+                synchronized (this.getCommitLock(environment)) {
+                    connection.begin();
+                    older.forEach(trx -> {
+                        Arrays.stream(Activity.values()).forEach(activity -> connection.remove(trx, activity.toIRI(), subject));
+                        boolean unlinked = Arrays.stream(Activity.values()).noneMatch(activity -> connection.hasStatement(trx, activity.toIRI(), null, false));
+                        if (unlinked && !keepMetadata) {
+                            connection.remove(trx, null, null);
+                        }
+                    });
+                    connection.commit();
+                }
+                trimmed.addAll(older);
+            }
+
+            log.debug("Trimmed {} transactions of {} subjects in repository '{}'", trimmed.size(), subjects.size(), connection.getRepository());
+            return (long) trimmed.size();
+        }));
+    }
+
+    /**
+     * Stores the commit time of transactions which have been recorded before the commit time was stamped, once per
+     * repository (and again after statements have been imported or a snapshot has been restored).
+     */
+    private Mono<Void> backfillCommitTimes(Environment environment) {
+        String key = environment.toString();
+        if (this.backfilled.contains(key)) return Mono.empty();
+
+        return this.consumeWithCommitLock(environment, connection -> {
+            connection.begin();
+            connection.prepareUpdate(QueryLanguage.SPARQL, BACKFILL_COMMIT_TIMES).execute();
+            connection.commit();
+            this.backfilled.add(key);
+        });
+    }
+
+    @Override
+    public Mono<Void> importStatements(Publisher<DataBuffer> bytesPublisher, String mimetype, Environment environment) {
+        return super.importStatements(bytesPublisher, mimetype, environment)
+                .doOnTerminate(() -> this.backfilled.remove(environment.toString()));
+    }
+
+    @Override
+    public Mono<RepositorySnapshot> restoreSnapshot(String snapshotId, Environment environment) {
+        return super.restoreSnapshot(snapshotId, environment)
+                .doOnTerminate(() -> this.backfilled.remove(environment.toString()));
+    }
+
+    private static String asLiteral(Instant instant) {
+        return "\"%s\"^^<%s>".formatted(instant, XSD.DATETIME);
+    }
+
+
     @Override
     public Logger getLogger() {
         return log;
@@ -0,0 +1,187 @@
+package org.av360.maverick.graph.store.rdf4j.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.av360.maverick.graph.model.context.Environment;
+import org.av360.maverick.graph.model.context.SessionContext;
+import org.av360.maverick.graph.model.enums.RepositoryType;
+import org.av360.maverick.graph.model.identifier.ValueIdentifier;
+import org.av360.maverick.graph.model.vocabulary.meg.Local;
+import org.av360.maverick.graph.model.vocabulary.meg.Metadata;
+import org.av360.maverick.graph.model.vocabulary.meg.Transactions;
+import org.av360.maverick.graph.store.rdf4j.repository.util.AbstractRdfRepository;
+import org.eclipse.rdf4j.model.*;
+import org.eclipse.rdf4j.model.util.Values;
+import org.eclipse.rdf4j.repository.Repository;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.RepositoryResult;
+import org.slf4j.Logger;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the identifiers of the literal values of the entities (see {@link ValueIdentifier}), in a repository next to
+ * the entity repository (with the same scope and stage). It holds a copy of every value statement, within a named
+ * graph for the identifier of the value. Values are found by subject, predicate and identifier, and the identifiers by
+ * subject, predicate and value.
+ * <p>
+ * The entries are written by the entity store when a transaction is committed. Writes bypassing the transactions
+ * (queries, imports, restored snapshots) leave entries behind or miss some: an identifier only depends on the predicate
+ * and the value, a stale entry is therefore never wrong (the entity store checks whether the value still exists), and
+ * missing entries are computed by the callers (or stored with the migration of the existing values).
+ * <p>
+ * All operations expect the environment of the entity repository.
+ */
+@Slf4j(topic = "graph.repo.values")
+@Component
+public class ValueIdentifiersStoreImpl extends AbstractRdfRepository {
+
+    private static final String IDENTIFIER_NAMESPACE = Local.URN_PREFIX + "h:";
+    private static final int BATCH_SIZE = 1000;
+
+    @org.springframework.beans.factory.annotation.Value("${application.storage.values.path:#{null}}")
+    private String path;
+
+    @org.springframework.beans.factory.annotation.Value("${application.storage.entities.path:#{null}}")
+    private String entitiesPath;
+
+    @Override
+    public Logger getLogger() {
+        return log;
+    }
+
+    @Override
+    public RepositoryType getRepositoryType() {
+        return RepositoryType.VALUES;
+    }
+
+    /**
+     * The values are stored next to the entities, if no path is configured for them.
+     */
+    @Override
+    public String getDirectory() {
+        if (StringUtils.hasLength(this.path) || !StringUtils.hasLength(this.entitiesPath)) return this.path;
+        return this.entitiesPath + ".values";
+    }
+
+    /**
+     * @param predicate the predicate of the values, or null for the values of all predicates
+     * @return the stored identifiers of the values of the subject
+     */
+    public Mono<Map<Triple, ValueIdentifier>> getValueIdentifiers(Resource subject, @Nullable IRI predicate, Environment environment) {
+        return this.applyWithConnection(valuesEnvironment(environment), connection -> {
+            Map<Triple, ValueIdentifier> identifiers = new HashMap<>();
+            try (RepositoryResult<Statement> statements = connection.getStatements(subject, predicate, null)) {
+                statements.forEach(statement -> toIdentifier(statement.getContext()).ifPresent(identifier ->
+                        identifiers.put(Values.triple(statement.getSubject(), statement.getPredicate(), statement.getObject()), identifier)));
+            }
+            return identifiers;
+        });
+    }
+
+    /**
+     * @return the values of the subject and predicate stored with the identifier, they might have been removed from the
+     * entity repository since
+     */
+    public Flux<Value> findValues(Resource subject, IRI predicate, ValueIdentifier identifier, Environment environment) {
+        return this.applyWithConnection(valuesEnvironment(environment), connection -> {
+            try (RepositoryResult<Statement> statements = connection.getStatements(subject, predicate, null, toGraph(identifier))) {
+                return statements.stream().map(Statement::getObject).toList();
+            }
+        }).flatMapIterable(values -> values);
+    }
+
+    /**
+     * Applies the changes of a committed transaction: first the removed values, then the inserted and updated values,
+     * whose identifiers are computed here. Called by the entity store while it holds its commit lock, the repository is
+     * accessed on the calling thread.
+     *
+     * @param model the model of the transaction, with the changes in the named graphs of the transaction
+     */
+    public void apply(Model model, Environment environment) throws IOException {
+        try (RepositoryConnection connection = this.getRepository(environment).getConnection()) {
+            connection.begin();
+            model.getStatements(null, null, null, Transactions.GRAPH_DELETED).forEach(statement -> {
+                if (isValue(statement)) connection.remove(statement.getSubject(), statement.getPredicate(), statement.getObject());
+            });
+            Stream.concat(model.filter(null, null, null, Transactions.GRAPH_CREATED).stream(), model.filter(null, null, null, Transactions.GRAPH_UPDATED).stream())
+                    .filter(ValueIdentifiersStoreImpl::isValue)
+                    .forEach(statement -> add(connection, statement));
+            connection.commit();
+        }
+    }
+
+    /**
+     * Stores the identifiers of the given values, if they are not stored yet (e.g. for the values which existed before
+     * the identifiers were stored). Called by the entity store while it reads its repository, the repository is
+     * accessed on the calling thread.
+     *
+     * @return the number of values which have been identified
+     */
+    public long identify(Stream<Statement> statements, Environment environment) throws IOException {
+        try (RepositoryConnection connection = this.getRepository(environment).getConnection()) {
+            long count = 0;
+            connection.begin();
+            Iterator<Statement> iterator = statements.filter(ValueIdentifiersStoreImpl::isValue).iterator();
+            while (iterator.hasNext()) {
+                Statement statement = iterator.next();
+                if (connection.hasStatement(statement.getSubject(), statement.getPredicate(), statement.getObject(), false)) continue;
+
+                add(connection, statement);
+                if (++count % BATCH_SIZE == 0) {
+                    connection.commit();
+                    connection.begin();
+                }
+            }
+            connection.commit();
+            return count;
+        }
+    }
+
+    /**
+     * Removes all identifiers of the entity repository.
+     */
+    public Mono<Void> clear(Environment environment) {
+        return super.purge(valuesEnvironment(environment));
+    }
+
+    private Repository getRepository(Environment environment) throws IOException {
+        Environment values = valuesEnvironment(environment);
+        return this.getBuilder().getRepository(this, values).blockOptional()
+                .orElseThrow(() -> new IOException("Failed to build repository for repository of type: " + values.getRepositoryType()));
+    }
+
+    private static void add(RepositoryConnection connection, Statement statement) {
+        ValueIdentifier identifier = ValueIdentifier.of(statement.getPredicate(), statement.getObject());
+        connection.add(statement.getSubject(), statement.getPredicate(), statement.getObject(), toGraph(identifier));
+    }
+
+    /**
+     * The versions of the entities are stored as literals, but are not values of the entities.
+     */
+    private static boolean isValue(Statement statement) {
+        return statement.getSubject().isIRI() && statement.getObject().isLiteral() && !Metadata.VERSION.equals(statement.getPredicate());
+    }
+
+    private static IRI toGraph(ValueIdentifier identifier) {
+        return Values.iri(IDENTIFIER_NAMESPACE + identifier);
+    }
+
+    private static Optional<ValueIdentifier> toIdentifier(@Nullable Resource graph) {
+        if (Objects.isNull(graph) || !graph.stringValue().startsWith(IDENTIFIER_NAMESPACE)) return Optional.empty();
+        return ValueIdentifier.parse(graph.stringValue().substring(IDENTIFIER_NAMESPACE.length()));
+    }
+
+    /**
+     * Same scope, stage and configuration as the entity repository.
+     */
+    private static Environment valuesEnvironment(Environment environment) {
+        return SessionContext.systemEnvironmentFor(environment, RepositoryType.VALUES);
+    }
+}
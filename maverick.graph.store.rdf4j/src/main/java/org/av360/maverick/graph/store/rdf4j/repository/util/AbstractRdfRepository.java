@@ -7,13 +7,18 @@ import org.av360.maverick.graph.model.context.Environment;
 import org.av360.maverick.graph.model.context.SessionContext;
 import org.av360.maverick.graph.model.entities.Transaction;
 import org.av360.maverick.graph.model.errors.InsufficientPrivilegeException;
+import org.av360.maverick.graph.model.errors.InvalidRequest;
 import org.av360.maverick.graph.model.errors.store.InvalidStoreConfiguration;
 import org.av360.maverick.graph.model.rdf.AnnotatedStatement;
 import org.av360.maverick.graph.model.security.Authorities;
 import org.av360.maverick.graph.model.vocabulary.meg.Local;
 import org.av360.maverick.graph.model.vocabulary.meg.Transactions;
+import org.av360.maverick.graph.store.CommitListener;
 import org.av360.maverick.graph.store.FragmentsStore;
 import org.av360.maverick.graph.store.RepositoryBuilder;
+import org.av360.maverick.graph.store.RepositorySnapshot;
+import org.av360.maverick.graph.store.StoreSchedulers;
+import org.av360.maverick.graph.store.WriteLimiter;
 import org.av360.maverick.graph.store.behaviours.*;
 import org.av360.maverick.graph.store.rdf.fragments.RdfFragment;
 import org.av360.maverick.graph.store.rdf.fragments.RdfTransaction;
@@ -44,8 +49,10 @@ import org.springframework.util.MimeType;
 import org.springframework.util.function.ThrowingConsumer;
 import org.springframework.util.function.ThrowingFunction;
 import org.springframework.web.client.HttpClientErrorException;
+import reactor.core.Exceptions;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 import reactor.core.scheduler.Schedulers;
 
 import javax.annotation.Nullable;
@@ -55,7 +62,9 @@ import java.io.PipedInputStream;
 import java.io.PipedOutputStream;
 import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -63,12 +72,17 @@ import java.util.stream.Stream;
 public abstract class AbstractRdfRepository implements Searchable, Maintainable, Selectable, StatementsAware, Fragmentable, TripleStore, FragmentsStore {
 
     private RepositoryBuilder repositoryConfiguration;
+    private StoreSchedulers schedulers;
+    private List<WriteLimiter> writeLimiters = List.of();
+    private List<CommitListener> commitListeners = List.of();
     private MeterRegistry meterRegistry;
     private Counter transactionsMonoCounter;
     private Counter transactionsFluxCounter;
     private Timer transactionsMonoTimer;
     private Timer transactionsFluxTimer;
 
+    private final Map<String, Object> commitLocks = new ConcurrentHashMap<>();
+
     public AbstractRdfRepository() {
 
     }
@@ -84,6 +98,33 @@ public abstract class AbstractRdfRepository implements Searchable, Maintainable,
         this.repositoryConfiguration = repositoryConfiguration;
     }
 
+    @Autowired
+    private void setSchedulers(StoreSchedulers schedulers) {
+        this.schedulers = schedulers;
+    }
+
+    @Autowired(required = false)
+    private void setWriteLimiters(List<WriteLimiter> writeLimiters) {
+        this.writeLimiters = writeLimiters;
+    }
+
+    @Autowired(required = false)
+    private void setCommitListeners(List<CommitListener> commitListeners) {
+        this.commitListeners = commitListeners;
+    }
+
+    /**
+     * The environment is read when an operation is assembled (it is mutable and shared with other operations of the
+     * same session). The operation is subscribed on this scheduler, resolving and initializing the repository is a
+     * blocking call as well as the calls to the connection.
+     *
+     * @return the scheduler for the blocking calls to the repositories of this store, shared fairly with the other
+     * scopes
+     */
+    protected Scheduler getScheduler(Environment environment) {
+        return this.schedulers.forRepository(this.getRepositoryType(), environment);
+    }
+
     @Autowired
     private void setMeterRegistry(@Nullable MeterRegistry meterRegistry) {
         if (Objects.nonNull(meterRegistry)) {
@@ -126,7 +167,7 @@ public abstract class AbstractRdfRepository implements Searchable, Maintainable,
     public Mono<Long> countFragments(Environment environment) {
         return this.applyWithConnection(environment, connection -> {
             try {
-                long count = connection.getStatements(null, null, Local.Entities.TYPE_INDIVIDUAL).stream().count();
+                long count = connection.getStatements(null, RDF.TYPE, Local.Entities.TYPE_INDIVIDUAL).stream().count();
                 return count;
             } catch (Exception e) {
                 getLogger().error("Unknown error while running query", e);
@@ -164,7 +205,7 @@ public abstract class AbstractRdfRepository implements Searchable, Maintainable,
 
 
     public Mono<Void> update(String query, Environment environment) {
-        return this.consumeWithConnection(environment, connection -> {
+        return this.consumeWithCommitLock(environment, connection -> {
             try {
 
                 getLogger().debug("Running update query in repository: {}", connection.getRepository());
@@ -190,7 +231,7 @@ public abstract class AbstractRdfRepository implements Searchable, Maintainable,
     @Override
     public Mono<Void> purge(Environment environment) {
 
-        return this.consumeWithConnection(environment, connection -> {
+        return this.consumeWithCommitLock(environment, connection -> {
             try {
                 if (!connection.isOpen() || connection.isActive()) return;
 
@@ -207,7 +248,53 @@ public abstract class AbstractRdfRepository implements Searchable, Maintainable,
                 getLogger().error("Failed to clear repository: {}", connection.getRepository());
                 throw e;
             }
-        }).then(getBuilder().shutdownRepository(this, environment)).then();
+        }).then(Mono.defer(() -> getBuilder().shutdownRepository(this, environment)));
+    }
+
+
+    @Override
+    public Mono<Long> compact(Environment environment) {
+        return this.verifyValidAndAuthorized(environment)
+                .flatMap(env -> this.getBuilder().compactRepository(this, env));
+    }
+
+    @Override
+    public Mono<RepositorySnapshot> createSnapshot(Environment environment) {
+        return this.verifyValidAndAuthorized(environment)
+                .flatMap(env -> this.getBuilder().createSnapshot(this, env));
+    }
+
+    @Override
+    public Flux<RepositorySnapshot> listSnapshots(Environment environment) {
+        return this.verifyValidAndAuthorized(environment)
+                .flatMapMany(env -> this.getBuilder().listSnapshots(this, env));
+    }
+
+    @Override
+    public Mono<RepositorySnapshot> restoreSnapshot(String snapshotId, Environment environment) {
+        return this.verifyValidAndAuthorized(environment)
+                .flatMap(env -> this.getBuilder().restoreSnapshot(this, env, snapshotId));
+    }
+
+    /**
+     * Commits to the repository of the environment are serialized with this lock, as well as all other writes (see
+     * {@link #consumeWithCommitLock(Environment, ThrowingConsumer)}). It is also held while the storage of the
+     * repository is copied or replaced, a snapshot therefore never contains a partial write.
+     */
+    public Object getCommitLock(Environment environment) {
+        return this.commitLocks.computeIfAbsent(environment.toString(), key -> new Object());
+    }
+
+    /**
+     * Writes to the repository without a transaction (e.g. update queries, imports or maintenance), while holding the
+     * commit lock of the repository.
+     */
+    protected Mono<Void> consumeWithCommitLock(Environment environment, ThrowingConsumer<RepositoryConnection> fun) {
+        return this.consumeWithConnection(environment, connection -> {
+            synchronized (this.getCommitLock(environment)) {
+                fun.acceptWithException(connection);
+            }
+        });
     }
 
 
@@ -239,7 +326,7 @@ public abstract class AbstractRdfRepository implements Searchable, Maintainable,
 
         RDFParser parser = parserFactory.orElseThrow().getParser();
 
-        return this.consumeWithConnection(environment, connection -> {
+        return this.consumeWithCommitLock(environment, connection -> {
             try {
                 // example: https://www.baeldung.com/spring-reactive-read-flux-into-inputstream
                 // solution: https://manhtai.github.io/posts/flux-databuffer-to-inputstream/
@@ -292,6 +379,7 @@ public abstract class AbstractRdfRepository implements Searchable, Maintainable,
                 RdfTransaction merged = new RdfTransaction();
                 transactions.forEach(rdfTransaction -> {
                     merged.getModel().addAll(rdfTransaction.getModel());
+                    rdfTransaction.getExpectedVersions().forEach(merged::expects);
                 });
                 transactions.clear();
                 transactions.add(merged);
@@ -299,8 +387,28 @@ public abstract class AbstractRdfRepository implements Searchable, Maintainable,
 
 
             Stream<Transaction> result = transactions.stream().peek(trx -> {
-                synchronized (connection) {
+                // checked before acquiring the lock, a rejected transaction doesn't hold back the others
+                try {
+                    for (WriteLimiter writeLimiter : this.writeLimiters) {
+                        writeLimiter.acquire(trx, environment);
+                    }
+                } catch (InvalidRequest e) {
+                    getLogger().debug("Rejected transaction '{}' for repository '{}': {}", trx.getIdentifier().getLocalName(), connection.getRepository(), e.getMessage());
+                    trx.setFailed(e.getMessage());
+                    throw Exceptions.propagate(e);
+                }
+
+                // every call has its own connection, concurrent commits to the same repository are serialized here
+                synchronized (this.getCommitLock(environment)) {
                     getLogger().trace("Committing transaction '{}' to repository '{}'", trx.getIdentifier().getLocalName(), connection.getRepository().toString());
+                    try {
+                        this.beforeCommit(trx, connection, environment);
+                    } catch (InvalidRequest e) {
+                        getLogger().debug("Rejected transaction '{}' for repository '{}': {}", trx.getIdentifier().getLocalName(), connection.getRepository(), e.getMessage());
+                        trx.setFailed(e.getMessage());
+                        throw Exceptions.propagate(e);
+                    }
+
                     // FIXME: the approach based on the context works only as long as the statements in the graph are all within the global context only
                     // with this approach, we cannot insert a statement to a context (since it is already in GRAPH_CREATED), every st can only be in one context
                     ValueFactory vf = connection.getValueFactory();
@@ -315,6 +423,7 @@ public abstract class AbstractRdfRepository implements Searchable, Maintainable,
                     removeStatements = Models.convertRDFStarToReification(connection.getValueFactory(), removeStatements);
 
                     try {
+                        connection.begin();
                         if (removeStatements.size() > 0) {
                             connection.remove(removeStatements);
                         }
@@ -326,10 +435,15 @@ public abstract class AbstractRdfRepository implements Searchable, Maintainable,
                         }
 
                         if (insertStatements.size() > 0 || removeStatements.size() > 0) {
+                            this.onCommit(trx, connection, environment);
+                            this.notifyCommitListeners(trx, listener -> listener.onCommit(trx, environment));
                             connection.prepare();
                             connection.commit();
                             getLogger().debug("Transaction '{}' completed with {} inserted statements and {} removed statements in repository '{}'.", trx.getIdentifier().getLocalName(), insertStatements.size(), removeStatements.size(), connection.getRepository());
-
+                            this.afterCommit(trx, environment);
+                            this.notifyCommitListeners(trx, listener -> listener.afterCommit(trx, environment));
+                        } else {
+                            connection.rollback();
                         }
 
                         trx.setCompleted();
@@ -344,8 +458,47 @@ public abstract class AbstractRdfRepository implements Searchable, Maintainable,
 
             });
             return result;
-        });
+        }).onErrorMap(Exceptions::unwrap);
+
+
+    }
+
+    private void notifyCommitListeners(Transaction trx, Consumer<CommitListener> notification) {
+        for (CommitListener commitListener : this.commitListeners) {
+            try {
+                notification.accept(commitListener);
+            } catch (Exception e) {
+                // the transaction is committed regardless of its listeners
+                getLogger().warn("Commit listener '{}' failed for transaction '{}': {}", commitListener.getClass().getSimpleName(), trx.getIdentifier().getLocalName(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Called before the changes of a transaction are written to the repository (while holding the commit lock of the
+     * repository), e.g. to verify the expected versions of the transaction.
+     *
+     * @param connection the connection the changes are written with, it reads the committed state of the repository
+     * @throws InvalidRequest if the transaction has to be rejected, the commit fails with this error
+     */
+    protected void beforeCommit(Transaction transaction, RepositoryConnection connection, Environment environment) throws InvalidRequest {
+
+    }
+
+    /**
+     * Called after the changes of a transaction have been written, before they are committed. Statements written here
+     * with the connection are committed (or rolled back) together with the changes, e.g. to update the versions of the
+     * changed entities.
+     */
+    protected void onCommit(Transaction transaction, RepositoryConnection connection, Environment environment) {
 
+    }
+
+    /**
+     * Called after the changes of a transaction have been committed to the repository (while still holding the commit
+     * lock of the repository), e.g. to maintain secondary indexes.
+     */
+    protected void afterCommit(Transaction transaction, Environment environment) {
 
     }
 
@@ -389,9 +542,37 @@ public abstract class AbstractRdfRepository implements Searchable, Maintainable,
 
 
 
+    @Override
+    public Mono<RdfFragment> getFragment(Resource id, IRI predicate, @Nullable String languageTag, boolean includeDetails, Environment environment) {
+        return this.applyWithConnection(environment, connection -> {
+            getLogger().trace("Loading values of fragment with id '{}' and predicate '{}' from repository {}", id, predicate, connection.getRepository().toString());
+
+            List<Statement> values;
+            try (RepositoryResult<Statement> statements = connection.getStatements(id, predicate, null)) {
+                values = statements.stream().filter(statement -> hasLanguage(statement.getObject(), languageTag)).toList();
+            }
+            if (values.isEmpty() && !connection.hasStatement(id, null, null, false)) {
+                if (getLogger().isDebugEnabled()) getLogger().debug("Found no statements for IRI: <{}>.", id);
+                return null;
+            }
+
+            RdfFragment entity = new RdfFragment(id);
+            entity.getModel().addAll(values);
+            entity.getModel().addAll(loadEmbeds(connection, entity));
+            if (includeDetails) {
+                entity.getModel().addAll(loadDetailsWithReification(connection, id, predicate, values));
+            }
+            return entity;
+        });
+    }
+
     @Override
     public Flux<RdfFragment> listFragments(IRI type, int limit, int offset, Environment environment) {
-        return this.subjects(type, environment).flatMap(subject -> this.getFragment(subject, environment));
+        return this.subjects(type, environment)
+                .distinct()
+                .skip(offset)
+                .take(limit)
+                .concatMap(subject -> this.getFragment(subject, environment));
     }
 
 
@@ -440,6 +621,30 @@ public abstract class AbstractRdfRepository implements Searchable, Maintainable,
 
     }
 
+    /**
+     * Loads the details of the given values only, by looking up the reified statements with the values as object.
+     *
+     * @see #loadDetailsWithReification(RepositoryConnection, TripleModel)
+     */
+    private Model loadDetailsWithReification(RepositoryConnection connection, Resource subject, IRI predicate, Collection<Statement> values) {
+        Model md = values.stream()
+                .flatMap(value -> connection.getStatements(null, RDF.OBJECT, value.getObject()).stream())
+                .map(Statement::getSubject)
+                .distinct()
+                .filter(reification -> connection.hasStatement(reification, RDF.SUBJECT, subject, false) && connection.hasStatement(reification, RDF.PREDICATE, predicate, false))
+                .flatMap(reification -> connection.getStatements(reification, null, null).stream())
+                .collect(new ModelCollector());
+        return Models.convertReificationToRDFStar(md);
+    }
+
+    /**
+     * @return false only for literals with another language tag, values without a language tag are never filtered
+     */
+    private static boolean hasLanguage(Value value, @Nullable String languageTag) {
+        if (Objects.isNull(languageTag) || !(value instanceof Literal literal)) return true;
+        return literal.getLanguage().map(languageTag::equalsIgnoreCase).orElse(true);
+    }
+
     private Model loadEmbeds(RepositoryConnection connection, RdfFragment entity) {
         HashSet<Value> objects = new HashSet<>(entity.getModel().objects());
 
@@ -510,11 +715,10 @@ public abstract class AbstractRdfRepository implements Searchable, Maintainable,
         return transactionsMonoTimer.record(() ->
                 this.verifyValidAndAuthorized(environment)
                         .then(this.getBuilder().getRepository(this, environment))
+                        .subscribeOn(this.getScheduler(environment))
                         .flatMap(repository -> {
-                            try {
-                                RepositoryConnection connection = repository.getConnection();
+                            try (RepositoryConnection connection = repository.getConnection()) {
                                 T result = fun.applyWithException(new RepositoryConnectionWrapper(repository, connection));
-                                connection.close();
                                 if (Objects.isNull(result)) return Mono.empty();
                                 else return Mono.just(result);
                             } catch (Exception e) {
@@ -531,13 +735,14 @@ public abstract class AbstractRdfRepository implements Searchable, Maintainable,
                 this.verifyValidAndAuthorized(environment)
                         .flatMap(env -> this.getBuilder().getRepository(this, env))
                         .switchIfEmpty(Mono.error(new IOException("Failed to build repository for repository of type: " + environment.getRepositoryType())))
+                        .subscribeOn(this.getScheduler(environment))
                         .flatMap(repository -> {
                             try (RepositoryConnection connection = repository.getConnection()) {
 
                                 fun.acceptWithException(new RepositoryConnectionWrapper(repository, connection));
-                                return Mono.empty();
+                                return Mono.<Void>empty();
                             } catch (Exception e) {
-                                return Mono.error(e);
+                                return Mono.<Void>error(e);
                             } finally {
                                 transactionsMonoCounter.increment();
                             }
@@ -569,12 +774,22 @@ public abstract class AbstractRdfRepository implements Searchable, Maintainable,
                 this.verifyValidAndAuthorized(environment)
                         // .then(this.assertPrivilege(environment, requiredAuthority))
                         .then(this.getBuilder().getRepository(this, environment))
+                        .subscribeOn(this.getScheduler(environment))
                         .flatMapMany(repository -> {
+                            RepositoryConnection connection = repository.getConnection();
                             try {
-                                RepositoryConnection connection = repository.getConnection();
                                 Stream<E> stream = fun.apply(connection);
-                                return Flux.fromStream(stream).doOnComplete(connection::close);
+                                // the connection has to be released if the stream is canceled (e.g. when paging), otherwise the shutdown of the repository blocks.
+                                // The stream is closed first, RDF4J forcefully closes open iterations of a connection (and triggers a GC for that).
+                                Runnable release = () -> {
+                                    stream.close();
+                                    connection.close();
+                                };
+                                return Flux.fromStream(stream)
+                                        .doOnTerminate(release)
+                                        .doOnCancel(release);
                             } catch (Exception e) {
+                                connection.close();
                                 this.meterRegistry.counter("graph.store.operations", "cardinality", "multiple", "state", "failure").increment();
                                 getLogger().warn("Error while applying function to repository '{}' with message '{}'. Active connections for repository: {}", repository, e.getMessage(), repository.getConnectionsCount());
                                 return Mono.error(e);
@@ -0,0 +1,105 @@
+package org.av360.maverick.graph.store.rdf4j.repository.util;
+
+import org.av360.maverick.graph.model.vocabulary.meg.Metadata;
+import org.av360.maverick.graph.model.vocabulary.meg.Transactions;
+import org.eclipse.rdf4j.model.*;
+import org.eclipse.rdf4j.model.util.Values;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.RepositoryResult;
+
+import java.security.SecureRandom;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Versions of the entities, which are stored with the entities in the repository (and therefore survive restarts and
+ * are the same for all instances sharing the repository).
+ * <p>
+ * A version consists of the epoch of the repository and the stamp of the last transaction which changed the entity
+ * ({@link Metadata#VERSION} of the entity). The epoch is chosen randomly whenever the repository is changed without
+ * transactions (e.g. by queries or imports), all versions change with a new epoch. This might reject changes based on
+ * versions which are actually still valid, but never accepts changes based on outdated versions. Entities without
+ * stamp (e.g. stored before the versions were stored) have a version as well.
+ * <p>
+ * The caller has to make sure that versions are checked and applied for one repository at a time (the entity store
+ * holds the commit lock).
+ */
+public final class EntityVersions {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    // the epoch is stored as version of the repository
+    private static final IRI REPOSITORY = Values.iri(Metadata.NAMESPACE, "versions");
+    private static final String INITIAL_EPOCH = "0";
+    private static final String INITIAL_STAMP = "0";
+
+    private EntityVersions() {
+    }
+
+    public static String get(RepositoryConnection connection, Resource entity) {
+        return epoch(connection) + "-" + stamp(connection, entity).orElse(INITIAL_STAMP);
+    }
+
+    /**
+     * Stamps the entities changed with a transaction, entities which have been removed are skipped. Called with the
+     * connection which wrote the changes (before they are committed).
+     *
+     * @param entities the changed entities
+     * @param stamp    the stamp of the transaction, unique in the repository
+     * @return the new versions of the changed entities
+     */
+    public static Map<Resource, String> apply(RepositoryConnection connection, Set<Resource> entities, String stamp) {
+        if (entities.isEmpty()) return Map.of();
+
+        String epoch = epoch(connection);
+        Map<Resource, String> result = new HashMap<>();
+        for (Resource entity : entities) {
+            connection.remove(entity, Metadata.VERSION, null);
+            if (!connection.hasStatement(entity, null, null, false)) continue;
+
+            connection.add(entity, Metadata.VERSION, Values.literal(stamp));
+            result.put(entity, epoch + "-" + stamp);
+        }
+        return result;
+    }
+
+    /**
+     * Starts a new epoch, all entities get a new version.
+     */
+    public static void renew(RepositoryConnection connection) {
+        connection.begin();
+        connection.remove(REPOSITORY, Metadata.VERSION, null);
+        connection.add(REPOSITORY, Metadata.VERSION, Values.literal(Long.toHexString(RANDOM.nextLong())));
+        connection.commit();
+    }
+
+    /**
+     * @return the entities with statements (or details of statements) in the changes of the transaction, ignoring
+     * the metadata
+     */
+    public static Set<Resource> changedEntities(Model model) {
+        Set<Resource> result = new LinkedHashSet<>();
+        Stream.of(Transactions.GRAPH_CREATED, Transactions.GRAPH_UPDATED, Transactions.GRAPH_DELETED)
+                .flatMap(graph -> model.filter(null, null, null, graph).stream())
+                .filter(statement -> !Objects.equals(statement.getPredicate().getNamespace(), Metadata.NAMESPACE))
+                .map(statement -> entity(statement.getSubject()))
+                .forEach(result::add);
+        return result;
+    }
+
+    private static String epoch(RepositoryConnection connection) {
+        return stamp(connection, REPOSITORY).orElse(INITIAL_EPOCH);
+    }
+
+    private static Optional<String> stamp(RepositoryConnection connection, Resource subject) {
+        try (RepositoryResult<Statement> statements = connection.getStatements(subject, Metadata.VERSION, null, false)) {
+            return statements.stream().findFirst().map(statement -> statement.getObject().stringValue());
+        }
+    }
+
+    private static Resource entity(Resource subject) {
+        Resource result = subject;
+        while (result instanceof Triple triple) result = triple.getSubject();
+        return result;
+    }
+}
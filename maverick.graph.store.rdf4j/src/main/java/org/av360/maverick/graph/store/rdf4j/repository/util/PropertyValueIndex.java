@@ -0,0 +1,135 @@
+package org.av360.maverick.graph.store.rdf4j.repository.util;
+
+import org.av360.maverick.graph.model.vocabulary.meg.Transactions;
+import org.av360.maverick.graph.store.behaviours.ValueIndexed;
+import org.eclipse.rdf4j.model.*;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * In-memory index from property and normalized value to subjects, with one index for every repository (identified by
+ * a key derived from the environment).
+ * <p>
+ * Most values (identifiers) belong to one subject only, the subjects are therefore kept in small arrays which are
+ * replaced on every change instead of concurrent sets.
+ * <p>
+ * Building and updating an index are synchronized on the index: a transaction committed while the index is built is
+ * either already visible to the scan of the repository, or applied once the scan has completed. Both orders result in
+ * the same state, since adding and removing values is idempotent.
+ */
+public final class PropertyValueIndex {
+
+    private static final Resource[] EMPTY = new Resource[0];
+
+    private final Map<String, KeyIndex> indexes = new ConcurrentHashMap<>();
+
+    public boolean isDeclared(String key, Set<IRI> properties) {
+        KeyIndex index = this.indexes.get(key);
+        return Objects.nonNull(index) && index.properties.equals(properties);
+    }
+
+    /**
+     * Declares the indexed properties and builds the index, if the same properties have not been declared before.
+     *
+     * @param loader streams all statements with the given property from the repository
+     * @return the number of indexed values, or -1 if the index already existed (or is being built)
+     */
+    public long declare(String key, Set<IRI> properties, Function<IRI, Stream<Statement>> loader) {
+        KeyIndex created = new KeyIndex(Set.copyOf(properties));
+        KeyIndex index = this.indexes.compute(key, (k, current) -> Objects.nonNull(current) && current.properties.equals(created.properties) ? current : created);
+        if (index != created) return -1;
+
+        synchronized (index) {
+            try {
+                long count = 0;
+                for (IRI property : index.properties) {
+                    try (Stream<Statement> statements = loader.apply(property)) {
+                        Iterator<Statement> iterator = statements.iterator();
+                        while (iterator.hasNext()) {
+                            index.add(iterator.next());
+                            count++;
+                        }
+                    }
+                }
+                index.ready = true;
+                return count;
+            } catch (RuntimeException e) {
+                this.indexes.remove(key, index);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * @return the subjects with the value, or empty if the property is not indexed or the index is not ready
+     */
+    public Optional<Set<Resource>> lookup(String key, IRI property, Value value) {
+        KeyIndex index = this.indexes.get(key);
+        if (Objects.isNull(index) || !index.ready || !index.properties.contains(property)) return Optional.empty();
+        return Optional.of(Set.of(index.get(property, value)));
+    }
+
+    /**
+     * Applies the changes of a committed transaction: first the removed statements, then the inserted and updated
+     * statements.
+     *
+     * @param model the model of the transaction, with the changes in the named graphs of the transaction
+     */
+    public void apply(String key, Model model) {
+        KeyIndex index = this.indexes.get(key);
+        if (Objects.isNull(index)) return;
+
+        synchronized (index) {
+            for (IRI property : index.properties) {
+                model.getStatements(null, property, null, Transactions.GRAPH_DELETED).forEach(index::remove);
+                model.getStatements(null, property, null, Transactions.GRAPH_CREATED).forEach(index::add);
+                model.getStatements(null, property, null, Transactions.GRAPH_UPDATED).forEach(index::add);
+            }
+        }
+    }
+
+    /**
+     * Drops the index, it is built again when the properties are declared the next time.
+     */
+    public void invalidate(String key) {
+        this.indexes.remove(key);
+    }
+
+    private static final class KeyIndex {
+        private final Set<IRI> properties;
+        private final Map<IRI, Map<String, Resource[]>> values;
+        private volatile boolean ready;
+
+        private KeyIndex(Set<IRI> properties) {
+            this.properties = properties;
+            this.values = new HashMap<>();
+            properties.forEach(property -> this.values.put(property, new ConcurrentHashMap<>()));
+        }
+
+        private Resource[] get(IRI property, Value value) {
+            return this.values.get(property).getOrDefault(ValueIndexed.normalize(value), EMPTY);
+        }
+
+        private void add(Statement statement) {
+            this.values.get(statement.getPredicate()).compute(ValueIndexed.normalize(statement.getObject()), (value, subjects) -> {
+                if (Objects.isNull(subjects)) return new Resource[]{statement.getSubject()};
+                for (Resource subject : subjects) {
+                    if (subject.equals(statement.getSubject())) return subjects;
+                }
+                Resource[] extended = Arrays.copyOf(subjects, subjects.length + 1);
+                extended[subjects.length] = statement.getSubject();
+                return extended;
+            });
+        }
+
+        private void remove(Statement statement) {
+            this.values.get(statement.getPredicate()).computeIfPresent(ValueIndexed.normalize(statement.getObject()), (value, subjects) -> {
+                Resource[] remaining = Arrays.stream(subjects).filter(subject -> !subject.equals(statement.getSubject())).toArray(Resource[]::new);
+                return remaining.length == 0 ? null : remaining;
+            });
+        }
+    }
+}
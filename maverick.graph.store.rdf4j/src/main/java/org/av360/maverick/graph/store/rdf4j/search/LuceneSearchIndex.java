@@ -0,0 +1,340 @@
+package org.av360.maverick.graph.store.rdf4j.search;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.DelegatingAnalyzerWrapper;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.de.GermanAnalyzer;
+import org.apache.lucene.analysis.en.EnglishAnalyzer;
+import org.apache.lucene.analysis.es.SpanishAnalyzer;
+import org.apache.lucene.analysis.fr.FrenchAnalyzer;
+import org.apache.lucene.analysis.it.ItalianAnalyzer;
+import org.apache.lucene.analysis.nl.DutchAnalyzer;
+import org.apache.lucene.analysis.pt.PortugueseAnalyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.*;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.av360.maverick.graph.model.context.Environment;
+import org.av360.maverick.graph.store.SearchIndex;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Full-text index with Lucene, with one index for every scope (the default scope and each application).
+ * <p>
+ * Every entity is indexed as one document. All values are indexed into the fields "label" and "description" with a
+ * language-neutral analyzer. Values with a language tag are also indexed into the fields "label_{lang}" and
+ * "description_{lang}" with the stemming analyzer of the language (if supported), which are searched if a language is
+ * requested.
+ * <p>
+ * The indexes are stored in the configured path ("application.storage.search.path"), they are kept in memory if the
+ * storage is not persistent.
+ */
+@Component
+@Slf4j(topic = "graph.repo.search")
+public class LuceneSearchIndex implements SearchIndex {
+
+    private static final String FIELD_ID = "id";
+    private static final String FIELD_LABEL = "label";
+    private static final String FIELD_DESCRIPTION = "description";
+    private static final String FIELD_DISPLAY = "display";
+    private static final char DISPLAY_SEPARATOR = '|';
+
+    private static final float BOOST_LABEL = 2.0f;
+    private static final float BOOST_EXACT = 3.0f;
+    private static final float BOOST_PREFIX = 1.5f;
+    private static final int MAX_EDITS = 1;
+    private static final int MIN_FUZZY_LENGTH = 4;
+
+    private static final Map<String, Analyzer> LANGUAGE_ANALYZERS = Map.of(
+            "en", new EnglishAnalyzer(),
+            "de", new GermanAnalyzer(),
+            "fr", new FrenchAnalyzer(),
+            "es", new SpanishAnalyzer(),
+            "it", new ItalianAnalyzer(),
+            "nl", new DutchAnalyzer(),
+            "pt", new PortugueseAnalyzer()
+    );
+
+    private final ValueFactory valueFactory = SimpleValueFactory.getInstance();
+    private final Analyzer analyzer = new LanguageAnalyzer();
+    private final Map<String, ScopeIndex> indexes = new ConcurrentHashMap<>();
+
+    private final boolean persistent;
+    private final String path;
+
+    public LuceneSearchIndex(@Value("${application.storage.search.persistent:false}") boolean persistent,
+                             @Value("${application.storage.search.path:#{null}}") String path) {
+        this.persistent = persistent;
+        this.path = path;
+    }
+
+    @Override
+    public Mono<Void> index(Collection<Entry> entries, Environment environment) {
+        if (entries.isEmpty()) return Mono.empty();
+
+        return Mono.fromCallable(() -> {
+            ScopeIndex index = this.getIndex(environment);
+            for (Entry entry : entries) {
+                Term id = new Term(FIELD_ID, entry.subject().stringValue());
+                if (entry.isEmpty()) index.writer().deleteDocuments(id);
+                else index.writer().updateDocument(id, this.toDocument(entry));
+            }
+            index.commit();
+            log.trace("Indexed {} entities in scope '{}'", entries.size(), environment.getScope().label());
+            return entries.size();
+        }).subscribeOn(Schedulers.boundedElastic()).then();
+    }
+
+    @Override
+    public Mono<Void> remove(Collection<Resource> subjects, Environment environment) {
+        if (subjects.isEmpty()) return Mono.empty();
+
+        return Mono.fromCallable(() -> {
+            ScopeIndex index = this.getIndex(environment);
+            Term[] terms = subjects.stream().map(subject -> new Term(FIELD_ID, subject.stringValue())).toArray(Term[]::new);
+            index.writer().deleteDocuments(terms);
+            index.commit();
+            log.trace("Removed {} entities from index in scope '{}'", subjects.size(), environment.getScope().label());
+            return subjects.size();
+        }).subscribeOn(Schedulers.boundedElastic()).then();
+    }
+
+    @Override
+    public Mono<Void> clear(Environment environment) {
+        return Mono.fromCallable(() -> {
+            ScopeIndex index = this.getIndex(environment);
+            index.writer().deleteAll();
+            index.commit();
+            log.debug("Cleared search index in scope '{}'", environment.getScope().label());
+            return true;
+        }).subscribeOn(Schedulers.boundedElastic()).then();
+    }
+
+    @Override
+    public Mono<Result> search(SearchIndex.Query query, Environment environment) {
+        return Mono.fromCallable(() -> {
+            org.apache.lucene.search.Query luceneQuery = this.buildQuery(query);
+            if (Objects.isNull(luceneQuery)) return new Result(0, List.of());
+
+            ScopeIndex index = this.getIndex(environment);
+            IndexSearcher searcher = index.searchers().acquire();
+            try {
+                // the offset is bounded by the callers, the collector keeps all hits up to the requested page
+                TopScoreDocCollector collector = TopScoreDocCollector.create(Math.addExact(query.offset(), query.limit()), Integer.MAX_VALUE);
+                searcher.search(luceneQuery, collector);
+                TopDocs topDocs = collector.topDocs(query.offset(), query.limit());
+
+                List<Hit> hits = new ArrayList<>(topDocs.scoreDocs.length);
+                for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+                    Document document = searcher.doc(scoreDoc.doc);
+                    hits.add(new Hit(this.toResource(document.get(FIELD_ID)), scoreDoc.score, selectLabel(document, query.language())));
+                }
+                return new Result(topDocs.totalHits.value, hits);
+            } finally {
+                index.searchers().release(searcher);
+            }
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @PreDestroy
+    public void close() {
+        this.indexes.forEach((label, index) -> {
+            try {
+                index.close();
+            } catch (IOException e) {
+                log.warn("Failed to close search index for scope '{}'", label, e);
+            }
+        });
+        this.indexes.clear();
+    }
+
+
+    private Document toDocument(Entry entry) {
+        Document document = new Document();
+        document.add(new StringField(FIELD_ID, entry.subject().stringValue(), Field.Store.YES));
+        entry.labels().forEach(literal -> {
+            addValue(document, FIELD_LABEL, literal);
+            document.add(new StoredField(FIELD_DISPLAY, literal.getLanguage().orElse("") + DISPLAY_SEPARATOR + literal.getLabel()));
+        });
+        entry.descriptions().forEach(literal -> addValue(document, FIELD_DESCRIPTION, literal));
+        return document;
+    }
+
+    private static void addValue(Document document, String field, Literal literal) {
+        document.add(new TextField(field, literal.getLabel(), Field.Store.NO));
+        literal.getLanguage()
+                .map(LuceneSearchIndex::normalizeLanguage)
+                .ifPresent(language -> document.add(new TextField(field + "_" + language, literal.getLabel(), Field.Store.NO)));
+    }
+
+    /**
+     * Every term has to match, either in the labels or in the descriptions (matches in labels are ranked higher). Exact
+     * matches of a term rank higher than prefix or fuzzy matches, only the last term is also matched as prefix (to
+     * support search as you type).
+     *
+     * @return the query, or null if the text has no searchable terms
+     */
+    @Nullable
+    private org.apache.lucene.search.Query buildQuery(SearchIndex.Query query) throws IOException {
+        Assert.isTrue(query.limit() > 0, "The limit has to be positive");
+        Assert.isTrue(query.offset() >= 0, "The offset cannot be negative");
+        if (!StringUtils.hasText(query.text())) return null;
+
+        String suffix = StringUtils.hasText(query.language()) ? "_" + normalizeLanguage(query.language()) : "";
+        org.apache.lucene.search.Query labels = this.buildFieldQuery(FIELD_LABEL + suffix, query.text(), query.fuzzy());
+        org.apache.lucene.search.Query descriptions = this.buildFieldQuery(FIELD_DESCRIPTION + suffix, query.text(), query.fuzzy());
+        if (Objects.isNull(labels) && Objects.isNull(descriptions)) return null;
+
+        BooleanQuery.Builder builder = new BooleanQuery.Builder();
+        if (Objects.nonNull(labels)) builder.add(new BoostQuery(labels, BOOST_LABEL), BooleanClause.Occur.SHOULD);
+        if (Objects.nonNull(descriptions)) builder.add(descriptions, BooleanClause.Occur.SHOULD);
+        return builder.setMinimumNumberShouldMatch(1).build();
+    }
+
+    @Nullable
+    private org.apache.lucene.search.Query buildFieldQuery(String field, String text, boolean fuzzy) throws IOException {
+        List<String> terms = this.analyze(field, text);
+        if (terms.isEmpty()) return null;
+
+        BooleanQuery.Builder builder = new BooleanQuery.Builder();
+        for (int i = 0; i < terms.size(); i++) {
+            Term term = new Term(field, terms.get(i));
+
+            BooleanQuery.Builder variants = new BooleanQuery.Builder();
+            variants.add(new BoostQuery(new TermQuery(term), BOOST_EXACT), BooleanClause.Occur.SHOULD);
+            if (i == terms.size() - 1) variants.add(new BoostQuery(new PrefixQuery(term), BOOST_PREFIX), BooleanClause.Occur.SHOULD);
+            if (fuzzy && term.text().length() >= MIN_FUZZY_LENGTH) variants.add(new FuzzyQuery(term, MAX_EDITS), BooleanClause.Occur.SHOULD);
+
+            builder.add(variants.build(), BooleanClause.Occur.MUST);
+        }
+        return builder.build();
+    }
+
+    private List<String> analyze(String field, String text) throws IOException {
+        List<String> terms = new ArrayList<>();
+        try (TokenStream stream = this.analyzer.tokenStream(field, text)) {
+            CharTermAttribute attribute = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                terms.add(attribute.toString());
+            }
+            stream.end();
+        }
+        return terms;
+    }
+
+    @Nullable
+    private static String selectLabel(Document document, @Nullable String language) {
+        String fallback = null;
+        for (IndexableField field : document.getFields(FIELD_DISPLAY)) {
+            String value = field.stringValue();
+            int separator = value.indexOf(DISPLAY_SEPARATOR);
+            String lang = value.substring(0, separator);
+            String label = value.substring(separator + 1);
+
+            if (StringUtils.hasText(language) && lang.equalsIgnoreCase(language)) return label;
+            if (Objects.isNull(fallback) || (lang.isEmpty() && !StringUtils.hasText(language))) fallback = label;
+        }
+        return fallback;
+    }
+
+    private Resource toResource(String value) {
+        return value.startsWith("_:") ? this.valueFactory.createBNode(value.substring(2)) : this.valueFactory.createIRI(value);
+    }
+
+    /**
+     * Only the primary language subtag is used, e.g. "en-GB" is indexed as "en".
+     */
+    private static String normalizeLanguage(String language) {
+        int separator = language.indexOf('-');
+        return (separator > 0 ? language.substring(0, separator) : language).toLowerCase(Locale.ROOT);
+    }
+
+    private ScopeIndex getIndex(Environment environment) {
+        String label = environment.getScope().label();
+        return this.indexes.computeIfAbsent(label, this::openIndex);
+    }
+
+    private ScopeIndex openIndex(String label) {
+        try {
+            Directory directory;
+            if (this.persistent) {
+                Assert.isTrue(StringUtils.hasLength(this.path), "No storage directory defined for persistent search index");
+                Path location = Path.of(this.path, label);
+                log.debug("Opening search index for scope '{}' in path '{}'", label, location);
+                directory = FSDirectory.open(location);
+            } else {
+                log.debug("Opening in-memory search index for scope '{}'", label);
+                directory = new ByteBuffersDirectory();
+            }
+
+            IndexWriter writer = new IndexWriter(directory, new IndexWriterConfig(this.analyzer).setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+            return new ScopeIndex(directory, writer, new SearcherManager(writer, null));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open search index for scope '%s'".formatted(label), e);
+        }
+    }
+
+    private record ScopeIndex(Directory directory, IndexWriter writer, SearcherManager searchers) {
+
+        void commit() throws IOException {
+            this.writer.commit();
+            this.searchers.maybeRefreshBlocking();
+        }
+
+        void close() throws IOException {
+            this.searchers.close();
+            this.writer.close();
+            this.directory.close();
+        }
+    }
+
+    /**
+     * Uses the stemming analyzer of the language for the language specific fields (e.g. "label_de"), and the standard
+     * analyzer for all other fields.
+     */
+    private static final class LanguageAnalyzer extends DelegatingAnalyzerWrapper {
+
+        private final Analyzer standard = new StandardAnalyzer();
+
+        private LanguageAnalyzer() {
+            super(PER_FIELD_REUSE_STRATEGY);
+        }
+
+        @Override
+        protected Analyzer getWrappedAnalyzer(String fieldName) {
+            int separator = fieldName.lastIndexOf('_');
+            if (separator < 0) return this.standard;
+            return LANGUAGE_ANALYZERS.getOrDefault(fieldName.substring(separator + 1), this.standard);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package org.av360.maverick.graph.store;
+
+import org.av360.maverick.graph.model.context.Environment;
+import org.av360.maverick.graph.model.entities.Transaction;
+
+/**
+ * Notified about all transactions committed to the repositories, independent of the store. Unlike the entity events,
+ * this includes the transactions of jobs and postprocessors.
+ */
+public interface CommitListener {
+
+    /**
+     * Called while the repository is locked for commits, after the changes of the transaction have been written but
+     * before they are committed (and visible to other connections). The commit might still fail. Listeners should
+     * return quickly.
+     *
+     * @param transaction the transaction which is about to be committed
+     * @param environment of the repository the transaction is committed to
+     */
+    default void onCommit(Transaction transaction, Environment environment) {
+    }
+
+    /**
+     * Called while the repository is still locked for commits, listeners should return quickly.
+     *
+     * @param transaction the committed transaction
+     * @param environment of the repository the transaction has been committed to
+     */
+    default void afterCommit(Transaction transaction, Environment environment) {
+    }
+}
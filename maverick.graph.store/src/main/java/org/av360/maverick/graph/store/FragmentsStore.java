@@ -63,6 +63,24 @@ public interface FragmentsStore {
         } else throw new InvalidStoreConfiguration("This store of type {} does not implement the behaviour: StatementsAware");
     }
 
+    default ValueIndexed asValueIndexed() {
+        if(this instanceof ValueIndexed valueIndexed) {
+            return valueIndexed;
+        } else throw new InvalidStoreConfiguration("This store of type {} does not implement the behaviour: ValueIndexed");
+    }
+
+    default ValueIdentified asValueIdentified() {
+        if(this instanceof ValueIdentified valueIdentified) {
+            return valueIdentified;
+        } else throw new InvalidStoreConfiguration("This store of type {} does not implement the behaviour: ValueIdentified");
+    }
+
+    default Versioned asVersioned() {
+        if(this instanceof Versioned versioned) {
+            return versioned;
+        } else throw new InvalidStoreConfiguration("This store of type {} does not implement the behaviour: Versioned");
+    }
+
     default boolean isSearchable() {
         return this instanceof Searchable;
     }
@@ -70,4 +88,24 @@ public interface FragmentsStore {
     default boolean isMaintainable() {
         return this instanceof Maintainable;
     }
+
+    default boolean isSelectable() {
+        return this instanceof Selectable;
+    }
+
+    default boolean isStatementsAware() {
+        return this instanceof StatementsAware;
+    }
+
+    default boolean isValueIndexed() {
+        return this instanceof ValueIndexed;
+    }
+
+    default boolean isValueIdentified() {
+        return this instanceof ValueIdentified;
+    }
+
+    default boolean isVersioned() {
+        return this instanceof Versioned;
+    }
 }
@@ -2,6 +2,7 @@ package org.av360.maverick.graph.store;
 
 import org.av360.maverick.graph.model.context.Environment;
 import org.av360.maverick.graph.store.rdf.LabeledRepository;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 public interface RepositoryBuilder {
@@ -12,4 +13,42 @@ public interface RepositoryBuilder {
 
 
     Mono<Void> shutdownRepository(FragmentsStore store, Environment environment);
+
+
+    /**
+     * Rewrites the repository for the given environment into a new storage and replaces the old one.
+     *
+     * @return the number of reclaimed bytes
+     */
+    default Mono<Long> compactRepository(FragmentsStore store, Environment environment) {
+        return Mono.just(0L);
+    }
+
+
+    /**
+     * Copies the storage of the repository for the given environment, while no transactions are committed to it.
+     * Only the configured number of snapshots is kept, older snapshots are removed.
+     *
+     * @return the new snapshot
+     */
+    default Mono<RepositorySnapshot> createSnapshot(FragmentsStore store, Environment environment) {
+        return Mono.error(new UnsupportedOperationException("Snapshots are not supported by this repository builder."));
+    }
+
+    /**
+     * @return the snapshots of the repository for the given environment, the latest first
+     */
+    default Flux<RepositorySnapshot> listSnapshots(FragmentsStore store, Environment environment) {
+        return Flux.empty();
+    }
+
+    /**
+     * Replaces the storage of the repository for the given environment with the snapshot. Changes after the snapshot
+     * are lost.
+     *
+     * @return the restored snapshot
+     */
+    default Mono<RepositorySnapshot> restoreSnapshot(FragmentsStore store, Environment environment, String snapshotId) {
+        return Mono.error(new UnsupportedOperationException("Snapshots are not supported by this repository builder."));
+    }
 }
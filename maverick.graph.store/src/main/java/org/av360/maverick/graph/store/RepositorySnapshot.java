@@ -0,0 +1,13 @@
+package org.av360.maverick.graph.store;
+
+import java.time.Instant;
+
+/**
+ * A consistent copy of the storage of a persistent repository, which can be restored later on.
+ *
+ * @param id      identifier of the snapshot, unique for the repository
+ * @param created time the snapshot has been taken
+ * @param size    size of the snapshot in bytes
+ */
+public record RepositorySnapshot(String id, Instant created, long size) {
+}
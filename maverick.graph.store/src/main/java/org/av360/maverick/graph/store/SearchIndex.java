@@ -0,0 +1,70 @@
+package org.av360.maverick.graph.store;
+
+import org.av360.maverick.graph.model.context.Environment;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.Resource;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.Nullable;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Full-text index over the labels and descriptions of the entities, with one index per scope.
+ * <p>
+ * The index is derived from the entities store and can always be rebuilt from it.
+ */
+public interface SearchIndex {
+
+    /**
+     * Adds the entries to the index, replacing the previous entries of the same subjects.
+     */
+    Mono<Void> index(Collection<Entry> entries, Environment environment);
+
+    /**
+     * Removes the subjects from the index.
+     */
+    Mono<Void> remove(Collection<Resource> subjects, Environment environment);
+
+    /**
+     * Removes all entries of the current scope.
+     */
+    Mono<Void> clear(Environment environment);
+
+    Mono<Result> search(Query query, Environment environment);
+
+
+    /**
+     * @param subject      the indexed entity
+     * @param labels       names, titles and labels, which are ranked higher than descriptions
+     * @param descriptions descriptions, keywords and definitions
+     */
+    record Entry(Resource subject, List<Literal> labels, List<Literal> descriptions) {
+
+        public boolean isEmpty() {
+            return labels.isEmpty() && descriptions.isEmpty();
+        }
+    }
+
+    /**
+     * @param text     the search terms, the last term also matches as prefix
+     * @param language only match values in this language (and its language specific stemming), all values if null
+     * @param fuzzy    if true, terms also match with small spelling differences
+     * @param limit    the maximum number of hits
+     * @param offset   the number of hits to skip
+     */
+    record Query(String text, @Nullable String language, boolean fuzzy, int limit, int offset) {
+    }
+
+    /**
+     * @param label the best matching label of the entity (in the requested language, if available)
+     */
+    record Hit(Resource subject, float score, @Nullable String label) {
+    }
+
+    /**
+     * @param total the number of all matching entities
+     */
+    record Result(long total, List<Hit> hits) {
+    }
+}
@@ -0,0 +1,458 @@
+/*
+ * Copyright (c) 2024.
+ *
+ *  Licensed under the EUPL, Version 1.2 or – as soon they will be approved by the
+ *  European Commission - subsequent versions of the EUPL (the "Licence");
+ *
+ *  You may not use this work except in compliance with the Licence.
+ *  You may obtain a copy of the Licence at:
+ *
+ *  https://joinup.ec.europa.eu/software/page/eupl5
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the Licence is distributed on an "AS IS" basis,  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the Licence for the specific language governing permissions and limitations under the Licence.
+ *
+ */
+
+package org.av360.maverick.graph.store;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.av360.maverick.graph.model.context.Environment;
+import org.av360.maverick.graph.model.enums.RepositoryType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import javax.annotation.Nullable;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The schedulers for the blocking calls to the stores (e.g. the connections of RDF4J repositories). Every repository
+ * type has its own scheduler, backed by virtual threads if the runtime supports them (JDK 21+) or a bounded pool of
+ * named threads otherwise. The number of queued and running tasks is published as metrics, pending tasks are drained
+ * when the application shuts down.
+ * <p>
+ * The scopes (applications) share the threads with weighted fair queuing: at most <code>threads</code> tasks are
+ * running at the same time, the waiting tasks are queued per scope and the scopes take turns in proportion to their
+ * scheduling weight. A scope with a huge import therefore only delays the other scopes by its share of the threads,
+ * instead of by its whole backlog. Virtual threads are only limited (and queued) if <code>threads</code> is configured.
+ * <p>
+ * Configured with <code>application.storage.scheduler.strategy</code> (auto, virtual or bounded),
+ * <code>application.storage.scheduler.threads</code> (size of the bounded pools, limit of the virtual threads),
+ * <code>application.storage.scheduler.queue</code> (maximum number of waiting tasks per repository type) and
+ * <code>application.storage.scheduler.drainTimeout</code>.
+ */
+@Component
+@Slf4j(topic = "graph.repo.schedulers")
+public class StoreSchedulers {
+
+    public enum Strategy {
+        AUTO, VIRTUAL, BOUNDED
+    }
+
+    private final Strategy strategy;
+    private final int threads;
+    private final int permits;
+    private final int queueCapacity;
+    private final Duration drainTimeout;
+    private static final String DEFAULT_SCOPE = "default";
+    // the schedulers of scopes which haven't been used for a while (e.g. deleted applications or changed weights)
+    private static final Duration SCOPE_EXPIRY = Duration.ofMinutes(10);
+
+    private final Map<RepositoryType, ManagedScheduler> schedulers = new ConcurrentHashMap<>();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private MeterRegistry meterRegistry;
+
+    public StoreSchedulers(@Value("${application.storage.scheduler.strategy:auto}") String strategy,
+                           @Value("${application.storage.scheduler.threads:0}") int threads,
+                           @Value("${application.storage.scheduler.queue:100000}") int queueCapacity,
+                           @Value("${application.storage.scheduler.drainTimeout:30s}") Duration drainTimeout) {
+        this.strategy = resolveStrategy(Strategy.valueOf(strategy.trim().toUpperCase()));
+        this.threads = threads > 0 ? threads : Schedulers.DEFAULT_BOUNDED_ELASTIC_SIZE;
+        // virtual threads are cheap, they are only limited on request
+        this.permits = this.strategy == Strategy.VIRTUAL && threads <= 0 ? Integer.MAX_VALUE : this.threads;
+        this.queueCapacity = queueCapacity;
+        this.drainTimeout = drainTimeout;
+        log.info("Running blocking store operations on {}", this.strategy == Strategy.VIRTUAL
+                ? (this.permits == Integer.MAX_VALUE ? "virtual threads" : "up to %d virtual threads".formatted(this.permits))
+                : "bounded pools with %d threads".formatted(this.threads));
+    }
+
+    @Autowired
+    public void setMeterRegistry(@Nullable MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public Strategy getStrategy() {
+        return strategy;
+    }
+
+    /**
+     * @param repositoryType the type of the repository which is accessed
+     * @return the scheduler for blocking calls to the repositories of the given type
+     * @throws RejectedExecutionException if the schedulers have been shut down
+     */
+    public Scheduler forRepository(RepositoryType repositoryType) {
+        return this.managed(repositoryType).scheduler();
+    }
+
+    /**
+     * @param repositoryType the type of the repository which is accessed
+     * @param environment    with the scope which is accessed
+     * @return the scheduler for blocking calls to the repositories of the given type, queued with the other calls of
+     * the same scope and weighted with {@link Environment.RepositoryConfigurationKey#SCHEDULING_WEIGHT}
+     */
+    public Scheduler forRepository(RepositoryType repositoryType, Environment environment) {
+        int weight = environment.getConfiguration(Environment.RepositoryConfigurationKey.SCHEDULING_WEIGHT)
+                .map(StoreSchedulers::parseWeight)
+                .orElse(1);
+        return this.forScope(repositoryType, environment.getScope().label(), weight);
+    }
+
+    /**
+     * @param repositoryType the type of the repository which is accessed
+     * @param scope          the scope (application) of the calls, which are queued together
+     * @param weight         the share of the threads of this scope, relative to the other scopes
+     * @return the scheduler for blocking calls of the scope to the repositories of the given type
+     * @throws RejectedExecutionException if the schedulers have been shut down
+     */
+    public Scheduler forScope(RepositoryType repositoryType, String scope, int weight) {
+        ManagedScheduler managed = this.managed(repositoryType);
+        if (DEFAULT_SCOPE.equals(scope) && weight == 1) return managed.scheduler();
+
+        ScopeKey key = new ScopeKey(scope, Math.max(1, weight));
+        // evicted schedulers are not disposed, they hold no threads and might still be referenced by running pipelines
+        return managed.scopes().get(key, k -> Schedulers.fromExecutorService(new ScopedExecutor(managed.executor(), k), managed.name() + "-" + k.scope()));
+    }
+
+    /**
+     * @return the number of tasks waiting for a thread, over all repository types
+     */
+    public int getQueued() {
+        return this.schedulers.values().stream().mapToInt(managed -> managed.executor().queued.get()).sum();
+    }
+
+    /**
+     * @return the number of running tasks, over all repository types
+     */
+    public int getActive() {
+        return this.schedulers.values().stream().mapToInt(managed -> managed.executor().active.get()).sum();
+    }
+
+    /**
+     * Stops accepting new tasks and waits until the pending tasks have completed (or the drain timeout is reached).
+     * Only the first call has an effect, the repository builder shuts the schedulers down before the bean is destroyed.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (!this.closed.compareAndSet(false, true)) return;
+
+        List<ManagedScheduler> managed = List.copyOf(this.schedulers.values());
+        this.schedulers.clear();
+        managed.forEach(scheduler -> scheduler.executor().shutdown());
+
+        long deadline = System.nanoTime() + this.drainTimeout.toNanos();
+        for (ManagedScheduler scheduler : managed) {
+            try {
+                if (!scheduler.executor().awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                    List<Runnable> dropped = scheduler.executor().shutdownNow();
+                    log.warn("Scheduler '{}' not drained within {}, dropped {} pending tasks", scheduler.name(), this.drainTimeout, dropped.size());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                scheduler.executor().shutdownNow();
+            }
+            scheduler.scopes().asMap().values().forEach(Scheduler::dispose);
+            scheduler.scheduler().dispose();
+        }
+    }
+
+    private ManagedScheduler managed(RepositoryType repositoryType) {
+        if (this.closed.get()) throw new RejectedExecutionException("Store schedulers have been shut down");
+        RepositoryType type = Objects.requireNonNullElse(repositoryType, RepositoryType.UNSET);
+        return this.schedulers.computeIfAbsent(type, this::createScheduler);
+    }
+
+    private ManagedScheduler createScheduler(RepositoryType repositoryType) {
+        String name = "store-" + repositoryType.name().toLowerCase();
+        ExecutorService delegate = this.strategy == Strategy.VIRTUAL ? virtualThreads(name) : this.boundedPool(name);
+        FairExecutor executor = new FairExecutor(delegate, this.permits, this.queueCapacity);
+
+        if (Objects.nonNull(this.meterRegistry)) {
+            Gauge.builder("graph.store.scheduler.queued", executor, e -> e.queued.get())
+                    .tag("repository", repositoryType.name())
+                    .tag("strategy", this.strategy.name())
+                    .register(this.meterRegistry);
+            Gauge.builder("graph.store.scheduler.active", executor, e -> e.active.get())
+                    .tag("repository", repositoryType.name())
+                    .tag("strategy", this.strategy.name())
+                    .register(this.meterRegistry);
+        }
+        log.debug("Created scheduler '{}'", name);
+        return new ManagedScheduler(name, executor, Schedulers.fromExecutorService(executor, name), Caffeine.newBuilder().expireAfterAccess(SCOPE_EXPIRY).build());
+    }
+
+    private ExecutorService boundedPool(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        // the tasks are queued by the fair executor, it never hands out more tasks than there are threads
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(this.threads, this.threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private static int parseWeight(String weight) {
+        try {
+            return Integer.parseInt(weight.trim());
+        } catch (NumberFormatException e) {
+            log.warn("Invalid scheduling weight '{}', using 1", weight);
+            return 1;
+        }
+    }
+
+    private static Strategy resolveStrategy(Strategy configured) {
+        boolean supported = Runtime.version().feature() >= 21;
+        if (configured == Strategy.AUTO) return supported ? Strategy.VIRTUAL : Strategy.BOUNDED;
+        if (configured == Strategy.VIRTUAL && !supported) {
+            log.warn("Virtual threads are not supported by this runtime ({}), falling back to bounded pools", Runtime.version());
+            return Strategy.BOUNDED;
+        }
+        return configured;
+    }
+
+    /**
+     * The API for virtual threads is not available at compile time (we build for Java 17).
+     */
+    private static ExecutorService virtualThreads(String name) {
+        try {
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, name + "-", 1L);
+            ThreadFactory factory = (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+            return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class).invoke(null, factory);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Failed to create executor with virtual threads", e);
+        }
+    }
+
+    private record ManagedScheduler(String name, FairExecutor executor, Scheduler scheduler, Cache<ScopeKey, Scheduler> scopes) {
+    }
+
+    private record ScopeKey(String scope, int weight) {
+    }
+
+    /**
+     * Runs at most a fixed number of tasks at the same time on the delegate. Waiting tasks are queued per scope and the
+     * scopes with waiting tasks take turns (weighted round-robin): in its turn, a scope with weight 3 starts up to three
+     * tasks. Counts the tasks which are waiting and the tasks which are currently running.
+     */
+    private static final class FairExecutor extends AbstractExecutorService {
+        private final ExecutorService delegate;
+        private final int permits;
+        private final int capacity;
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicInteger active = new AtomicInteger();
+
+        // guarded by this
+        private final Map<String, ScopeQueue> queues = new HashMap<>();
+        private final Deque<ScopeQueue> turns = new ArrayDeque<>();
+        private int running;
+        private boolean shutdown;
+
+        private FairExecutor(ExecutorService delegate, int permits, int capacity) {
+            this.delegate = delegate;
+            this.permits = permits;
+            this.capacity = capacity;
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            this.execute(DEFAULT_SCOPE, 1, command);
+        }
+
+        private void execute(String scope, int weight, Runnable command) {
+            synchronized (this) {
+                if (this.shutdown) throw new RejectedExecutionException("Scheduler has been shut down");
+                if (this.queued.get() >= this.capacity) throw new RejectedExecutionException("More than %d tasks are waiting".formatted(this.capacity));
+
+                ScopeQueue queue = this.queues.computeIfAbsent(scope, ScopeQueue::new);
+                queue.weight = weight;
+                if (queue.tasks.isEmpty()) {
+                    queue.credit = weight;
+                    this.turns.addLast(queue);
+                }
+                queue.tasks.addLast(command);
+                this.queued.incrementAndGet();
+            }
+            this.dispatch();
+        }
+
+        private void dispatch() {
+            while (true) {
+                Runnable next;
+                synchronized (this) {
+                    if (this.running >= this.permits || this.turns.isEmpty()) return;
+
+                    ScopeQueue queue = this.turns.peekFirst();
+                    next = queue.tasks.pollFirst();
+                    if (queue.tasks.isEmpty()) {
+                        this.turns.pollFirst();
+                        this.queues.remove(queue.scope);
+                    } else if (--queue.credit <= 0) {
+                        // the turn of this scope is over
+                        this.turns.pollFirst();
+                        queue.credit = queue.weight;
+                        this.turns.addLast(queue);
+                    }
+                    this.queued.decrementAndGet();
+                    this.running++;
+                }
+
+                try {
+                    this.delegate.execute(() -> this.run(next));
+                } catch (RejectedExecutionException e) {
+                    log.warn("Dropped task after the scheduler has been shut down");
+                    this.completed();
+                }
+            }
+        }
+
+        private void run(Runnable command) {
+            this.active.incrementAndGet();
+            try {
+                command.run();
+            } finally {
+                this.active.decrementAndGet();
+                this.completed();
+                this.dispatch();
+            }
+        }
+
+        private synchronized void completed() {
+            this.running--;
+            if (this.isIdle()) {
+                this.notifyAll();
+                if (this.shutdown) this.delegate.shutdown();
+            }
+        }
+
+        private boolean isIdle() {
+            return this.running == 0 && this.turns.isEmpty();
+        }
+
+        @Override
+        public synchronized void shutdown() {
+            this.shutdown = true;
+            if (this.isIdle()) this.delegate.shutdown();
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            List<Runnable> dropped = new ArrayList<>();
+            synchronized (this) {
+                this.shutdown = true;
+                this.turns.forEach(queue -> dropped.addAll(queue.tasks));
+                this.turns.clear();
+                this.queues.clear();
+                this.queued.addAndGet(-dropped.size());
+                this.notifyAll();
+            }
+            dropped.addAll(this.delegate.shutdownNow());
+            return dropped;
+        }
+
+        @Override
+        public synchronized boolean isShutdown() {
+            return this.shutdown;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            synchronized (this) {
+                if (!this.shutdown || !this.isIdle()) return false;
+            }
+            return this.delegate.isTerminated();
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+            long deadline = System.nanoTime() + unit.toNanos(timeout);
+            synchronized (this) {
+                while (!this.isIdle()) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) return false;
+                    TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                }
+            }
+            return this.delegate.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        }
+
+        private static final class ScopeQueue {
+            private final String scope;
+            private final Deque<Runnable> tasks = new ArrayDeque<>();
+            private int weight = 1;
+            private int credit;
+
+            private ScopeQueue(String scope) {
+                this.scope = scope;
+            }
+        }
+    }
+
+    /**
+     * Submits the tasks of one scope to the fair executor, shutting it down has no effect on the other scopes.
+     */
+    private static final class ScopedExecutor extends AbstractExecutorService {
+        private final FairExecutor executor;
+        private final ScopeKey key;
+
+        private ScopedExecutor(FairExecutor executor, ScopeKey key) {
+            this.executor = executor;
+            this.key = key;
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            this.executor.execute(this.key.scope(), this.key.weight(), command);
+        }
+
+        @Override
+        public void shutdown() {
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return List.of();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return this.executor.isShutdown();
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return this.executor.isTerminated();
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+            return this.executor.awaitTermination(timeout, unit);
+        }
+    }
+}
@@ -3,11 +3,21 @@ package org.av360.maverick.graph.store;
 import org.av360.maverick.graph.model.context.Environment;
 import org.av360.maverick.graph.model.entities.Transaction;
 import org.av360.maverick.graph.model.enums.RepositoryType;
+import org.av360.maverick.graph.model.vocabulary.meg.Transactions;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Value;
+import org.springframework.util.StringUtils;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import javax.annotation.Nullable;
+import java.time.Instant;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Optional;
 
 public interface TransactionsStore extends FragmentsStore {
 
@@ -21,8 +31,144 @@ public interface TransactionsStore extends FragmentsStore {
     Flux<Transaction> store(Collection<Transaction> transaction, Environment environment);
 
 
+    /**
+     * Lists the recorded transactions in the order of their commit time.
+     *
+     * @param after       only transactions recorded after this position are returned, starts from the beginning if null
+     * @param limit       the maximum number of transactions to return
+     * @param environment the current environment
+     * @return the transactions with their provenance statements
+     */
+    default Flux<Transaction> listTransactions(@Nullable Position after, int limit, Environment environment) {
+        return this.listTransactions(Filter.ALL, after, limit, environment);
+    }
+
+    /**
+     * Lists the recorded transactions matching the filter in the order of their commit time. Use the position of the
+     * last returned transaction to request the next page.
+     *
+     * @param filter      restricts the transactions by affected subject and commit time
+     * @param after       only transactions recorded after this position are returned, starts from the beginning if null
+     * @param limit       the maximum number of transactions to return
+     * @param environment the current environment
+     * @return the transactions with their provenance statements
+     */
+    Flux<Transaction> listTransactions(Filter filter, @Nullable Position after, int limit, Environment environment);
+
+    /**
+     * Returns the recorded transaction with the given identifier, or an empty mono if it doesn't exist.
+     */
+    Mono<Transaction> getTransaction(IRI identifier, Environment environment);
+
+    /**
+     * Removes the transactions committed before the given time.
+     *
+     * @param before       the time of the oldest transaction to keep
+     * @param keepMetadata if true, only the affected subjects are removed and the transaction itself (with its status
+     *                     and commit time) is kept
+     * @param environment  the current environment
+     * @return the number of removed or summarized transactions
+     */
+    Mono<Long> expireTransactions(Instant before, boolean keepMetadata, Environment environment);
+
+    /**
+     * Keeps only the latest transactions for every subject. Older transactions are unlinked from the subject, and
+     * removed once they don't affect any subject anymore (unless the metadata should be kept).
+     *
+     * @param maxPerSubject the number of transactions to keep for each subject
+     * @param keepMetadata  if true, unlinked transactions are kept with their status and commit time
+     * @param environment   the current environment
+     * @return the number of trimmed transactions
+     */
+    Mono<Long> trimTransactions(int maxPerSubject, boolean keepMetadata, Environment environment);
+
+
     @Override
     default RepositoryType getRepositoryType() {
         return RepositoryType.TRANSACTIONS;
     }
+
+
+    /**
+     * Restricts the listed transactions.
+     *
+     * @param subject only transactions which inserted, updated or removed statements of this subject
+     * @param from    only transactions committed at or after this time
+     * @param until   only transactions committed before this time
+     */
+    record Filter(@Nullable Resource subject, @Nullable Instant from, @Nullable Instant until) {
+
+        public static final Filter ALL = new Filter(null, null, null);
+
+        public Filter forSubject(@Nullable Resource subject) {
+            return new Filter(subject, this.from, this.until);
+        }
+
+        public Filter between(@Nullable Instant from, @Nullable Instant until) {
+            return new Filter(this.subject, from, until);
+        }
+    }
+
+
+    /**
+     * The position of a transaction within the history of a scope. Transactions are ordered by their commit time, the
+     * identifier breaks ties between transactions recorded at the same time.
+     * <p>
+     * The token has the form "{epoch millis}-{identifier}" and can be used by clients to resume reading the history.
+     *
+     * @param committed  the time the transaction has been recorded
+     * @param identifier the local name of the transaction, might be empty
+     */
+    record Position(Instant committed, String identifier) implements Comparable<Position> {
+
+        public static final Position START = new Position(Instant.EPOCH, "");
+
+        private static final Comparator<Position> ORDER = Comparator.comparing(Position::committed).thenComparing(Position::identifier);
+
+        public static Position of(Transaction transaction) {
+            return committedAt(transaction)
+                    .map(instant -> new Position(instant, transaction.getIdentifier().getLocalName()))
+                    .orElseThrow(() -> new IllegalStateException("Transaction '%s' has not been recorded yet.".formatted(transaction.getIdentifier().getLocalName())));
+        }
+
+        /**
+         * @return the commit time of the transaction, or its start time if it has been recorded before the commit time
+         * was stamped
+         */
+        public static Optional<Instant> committedAt(Transaction transaction) {
+            return timeOf(transaction, Transactions.COMMITTED).or(() -> timeOf(transaction, Transactions.AT));
+        }
+
+        private static Optional<Instant> timeOf(Transaction transaction, IRI predicate) {
+            return transaction.getModel().filter(transaction.getIdentifier(), predicate, null).objects().stream()
+                    .filter(Value::isLiteral)
+                    .map(value -> ((Literal) value).calendarValue().toGregorianCalendar().toInstant())
+                    .findFirst();
+        }
+
+        public static Position parse(String token) {
+            if (!StringUtils.hasText(token)) throw new IllegalArgumentException("Empty position token.");
+
+            String[] parts = token.trim().split("-", 2);
+            try {
+                return new Position(Instant.ofEpochMilli(Long.parseLong(parts[0])), parts.length > 1 ? parts[1] : "");
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid position token '%s'.".formatted(token));
+            }
+        }
+
+        public String token() {
+            return StringUtils.hasLength(identifier) ? "%d-%s".formatted(committed.toEpochMilli(), identifier) : Long.toString(committed.toEpochMilli());
+        }
+
+        @Override
+        public int compareTo(Position other) {
+            return ORDER.compare(this, other);
+        }
+
+        @Override
+        public String toString() {
+            return this.token();
+        }
+    }
 }
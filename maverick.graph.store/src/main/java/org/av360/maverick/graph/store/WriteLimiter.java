@@ -0,0 +1,19 @@
+package org.av360.maverick.graph.store;
+
+import org.av360.maverick.graph.model.context.Environment;
+import org.av360.maverick.graph.model.entities.Transaction;
+import org.av360.maverick.graph.model.errors.InvalidRequest;
+
+/**
+ * Limits the statements written to the repositories (e.g. per application). All limiters are asked before the
+ * changes of a transaction are committed, independent of the store.
+ */
+public interface WriteLimiter {
+
+    /**
+     * @param transaction the transaction which is about to be committed
+     * @param environment of the repository the transaction is committed to
+     * @throws InvalidRequest if the transaction has to be rejected, the commit fails with this error
+     */
+    void acquire(Transaction transaction, Environment environment) throws InvalidRequest;
+}
@@ -9,6 +9,8 @@ import org.eclipse.rdf4j.model.Resource;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import javax.annotation.Nullable;
+
 /**
  * Behaviour with all methods required to access and manipulate fragments. A fragment is the summary of all statements
  * which share the same subject.
@@ -20,6 +22,20 @@ public interface Fragmentable extends RepositoryBehaviour {
 
     Mono<RdfFragment> getFragment(Resource subject, int includeNeighborsLevel, boolean includeDetails, Environment environment);
 
+    /**
+     * Loads only the statements of the fragment with the given predicate, together with the embedded objects and (if
+     * requested) the details of these values. Reading a single property is therefore independent of the size of the
+     * fragment.
+     *
+     * @param subject        the id of the entity
+     * @param predicate      the predicate of the values
+     * @param languageTag    if set, literals with another language tag (case-insensitive) are excluded, values without
+     *                       a language tag are always included
+     * @param includeDetails whether to include the details of the values
+     * @return the (possibly empty) fragment, or empty if no statements exist for the subject
+     */
+    Mono<RdfFragment> getFragment(Resource subject, IRI predicate, @Nullable String languageTag, boolean includeDetails, Environment environment);
+
     Flux<RdfFragment> listFragments(IRI type, int limit, int offset, Environment environment);
 
     default Flux<RdfFragment> listFragments(Environment environment) {
@@ -2,10 +2,12 @@ package org.av360.maverick.graph.store.behaviours;
 
 import org.av360.maverick.graph.model.context.Environment;
 import org.av360.maverick.graph.model.entities.Transaction;
+import org.av360.maverick.graph.store.RepositorySnapshot;
 import org.av360.maverick.graph.store.rdf.fragments.RdfTransaction;
 import org.eclipse.rdf4j.model.Statement;
 import org.reactivestreams.Publisher;
 import org.springframework.core.io.buffer.DataBuffer;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.Collection;
@@ -16,6 +18,46 @@ public interface Maintainable extends Commitable {
 
     Mono<Void> importStatements(Publisher<DataBuffer> bytesPublisher, String mimetype, Environment environment);
 
+    /**
+     * Rewrites the storage of the repository to reclaim the space of removed statements. Only applicable to persistent
+     * repositories.
+     *
+     * @param environment the current environment
+     * @return the number of reclaimed bytes
+     */
+    default Mono<Long> compact(Environment environment) {
+        return Mono.just(0L);
+    }
+
+    /**
+     * Takes a consistent snapshot of the storage of the repository. Only applicable to persistent repositories.
+     *
+     * @param environment the current environment
+     * @return the new snapshot
+     */
+    default Mono<RepositorySnapshot> createSnapshot(Environment environment) {
+        return Mono.error(new UnsupportedOperationException("Snapshots are not supported by this store."));
+    }
+
+    /**
+     * @param environment the current environment
+     * @return the available snapshots of the repository, the latest first
+     */
+    default Flux<RepositorySnapshot> listSnapshots(Environment environment) {
+        return Flux.empty();
+    }
+
+    /**
+     * Replaces the storage of the repository with the given snapshot.
+     *
+     * @param snapshotId  identifier of the snapshot
+     * @param environment the current environment
+     * @return the restored snapshot
+     */
+    default Mono<RepositorySnapshot> restoreSnapshot(String snapshotId, Environment environment) {
+        return Mono.error(new UnsupportedOperationException("Snapshots are not supported by this store."));
+    }
+
     default Mono<Void> importStatements(Collection<Statement> statements, Environment environment) {
         Transaction trx = new RdfTransaction().inserts(statements);
         return this.commit(trx, environment).then();
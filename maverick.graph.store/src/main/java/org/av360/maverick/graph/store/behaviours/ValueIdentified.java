@@ -0,0 +1,44 @@
+package org.av360.maverick.graph.store.behaviours;
+
+import org.av360.maverick.graph.model.context.Environment;
+import org.av360.maverick.graph.model.identifier.ValueIdentifier;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Triple;
+import org.eclipse.rdf4j.model.Value;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.Nullable;
+import java.util.Map;
+
+/**
+ * Stores the identifiers of the literal values (see {@link ValueIdentifier}), which are computed once when the values are
+ * committed instead of with every request listing or addressing the values of an entity.
+ * <p>
+ * Values which have been written before (or bypassing the transactions) have no stored identifier until they are
+ * identified with {@link #identifyValues(Environment)}, callers compute the identifiers of these values themselves.
+ */
+public interface ValueIdentified extends RepositoryBehaviour {
+
+    /**
+     * Stores the identifiers of all literal values in the scope of the environment which have none yet. This reads the
+     * whole repository, it is meant to run as (maintenance) job only.
+     *
+     * @return the number of identified values
+     */
+    Mono<Long> identifyValues(Environment environment);
+
+    /**
+     * @param predicate the predicate of the values, or null for the values of all predicates
+     * @return the stored identifiers of the values of the subject, values without stored identifier are missing
+     */
+    Mono<Map<Triple, ValueIdentifier>> getValueIdentifiers(Resource subject, @Nullable IRI predicate, Environment environment);
+
+    /**
+     * Looks up the value with the identifier, the identifiers are only computed for the values of the subject and
+     * predicate without stored identifier.
+     *
+     * @return the value of the subject and predicate with the given identifier, or empty if there is none
+     */
+    Mono<Value> findValue(Resource subject, IRI predicate, ValueIdentifier identifier, Environment environment);
+}
@@ -0,0 +1,45 @@
+package org.av360.maverick.graph.store.behaviours;
+
+import org.av360.maverick.graph.model.context.Environment;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Value;
+import reactor.core.publisher.Mono;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Secondary index from a property and a value to the subjects with this value, for exact-match lookups (e.g. by
+ * external identifiers) without running a query.
+ * <p>
+ * The indexed properties are declared for each scope. The index is updated when transactions are committed, and built
+ * from the repository when the properties of a scope are declared for the first time (or have changed). Literals are
+ * indexed with their normalized label (see {@link #normalize(Value)}) and found by it. Lookups falling back to a query
+ * only find the exact value, the query can't apply the normalization without scanning all values of the property.
+ */
+public interface ValueIndexed extends RepositoryBehaviour {
+
+    /**
+     * Declares the indexed properties for the scope of the environment. Does nothing if the same properties have already
+     * been declared, otherwise the index is built from the repository.
+     */
+    Mono<Void> declareIndexedProperties(Set<IRI> properties, Environment environment);
+
+    /**
+     * @return the subjects with the given value, or empty if the property is not (yet) indexed in the scope of the
+     * environment. Callers have to fall back to a query in this case.
+     */
+    Optional<Set<Resource>> lookup(IRI property, Value value, Environment environment);
+
+    /**
+     * @return the label of literals trimmed, in NFC and in lower case (ignoring datatype and language), the string value
+     * of any other value
+     */
+    static String normalize(Value value) {
+        if (!value.isLiteral()) return value.stringValue();
+        return Normalizer.normalize(value.stringValue().strip(), Normalizer.Form.NFC).toLowerCase(Locale.ROOT);
+    }
+}
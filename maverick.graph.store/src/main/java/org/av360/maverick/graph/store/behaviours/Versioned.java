@@ -0,0 +1,26 @@
+package org.av360.maverick.graph.store.behaviours;
+
+import org.av360.maverick.graph.model.context.Environment;
+import org.av360.maverick.graph.model.entities.Transaction;
+import org.eclipse.rdf4j.model.Resource;
+import reactor.core.publisher.Mono;
+
+/**
+ * Keeps a version for every entity, which changes with every committed transaction changing the statements of the
+ * entity (or the details of its values), or expecting a version of the entity. Changes of the metadata (like the
+ * modification date) don't change the version.
+ * <p>
+ * Transactions expecting an entity in a version (see {@link Transaction#expects(Resource, String)}, or the expected
+ * versions of the environment) are rejected with a conflict if the entity has been changed in the meantime.
+ * <p>
+ * The versions are stored with the entities, they survive restarts and are shared by all instances using the same
+ * repository. Changes bypassing the transactions (queries, imports) change the versions of all entities. Stores keep
+ * the stored versions out of the fragments and statements they return, but queries can see them.
+ */
+public interface Versioned extends RepositoryBehaviour {
+
+    /**
+     * @return the current version of the entity (entities which are not known have a version as well)
+     */
+    Mono<String> getVersion(Resource entity, Environment environment);
+}
@@ -7,10 +7,7 @@ import org.av360.maverick.graph.model.identifier.DefaultIdentifierFactory;
 import org.av360.maverick.graph.model.rdf.AnnotatedStatement;
 import org.av360.maverick.graph.model.vocabulary.meg.Local;
 import org.av360.maverick.graph.model.vocabulary.meg.Transactions;
-import org.eclipse.rdf4j.model.IRI;
-import org.eclipse.rdf4j.model.Model;
-import org.eclipse.rdf4j.model.Statement;
-import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.*;
 import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
 import org.eclipse.rdf4j.model.vocabulary.PROV;
 import org.eclipse.rdf4j.model.vocabulary.RDF;
@@ -32,6 +29,8 @@ import java.util.*;
 public class RdfTransaction extends TripleModel implements Transaction {
     private final IRI transactionIdentifier;
 
+    private final Map<Resource, String> expectedVersions = new LinkedHashMap<>();
+    private final Map<Resource, String> versions = new LinkedHashMap<>();
 
     public RdfTransaction() {
         super();
@@ -48,6 +47,43 @@ public class RdfTransaction extends TripleModel implements Transaction {
     }
 
 
+    private RdfTransaction(IRI transactionIdentifier, Model provenance) {
+        super();
+        this.transactionIdentifier = transactionIdentifier;
+        super.getBuilder().setNamespace(PROV.NS).setNamespace(Local.Transactions.NAMESPACE);
+        provenance.forEach(statement -> super.getModel().add(statement.getSubject(), statement.getPredicate(), statement.getObject(), Transactions.GRAPH_PROVENANCE));
+    }
+
+    private RdfTransaction(RdfTransaction original) {
+        super();
+        this.transactionIdentifier = original.transactionIdentifier;
+        original.getModel().getNamespaces().forEach(namespace -> super.getModel().setNamespace(namespace));
+        super.getModel().addAll(original.getModel());
+        this.expectedVersions.putAll(original.expectedVersions);
+        this.versions.putAll(original.versions);
+    }
+
+    /**
+     * @return a copy of this transaction with its own model, which can be changed without affecting the other holders
+     * of this transaction
+     */
+    public RdfTransaction copy() {
+        return new RdfTransaction(this);
+    }
+
+    /**
+     * Restores a transaction from its provenance statements (as persisted in the transactions store). The actual
+     * changeset is not part of the restored transaction.
+     *
+     * @param transactionIdentifier the identifier of the stored transaction
+     * @param provenance            the statements about the transaction
+     * @return the restored transaction
+     */
+    public static RdfTransaction fromProvenance(IRI transactionIdentifier, Model provenance) {
+        return new RdfTransaction(transactionIdentifier, provenance);
+    }
+
+
     public Transaction removes(Collection<Statement> statements) {
         if (log.isTraceEnabled())
             log.trace("Removal planned for {} statements in transaction '{}'.", statements.size(), this.getIdentifier().getLocalName());
@@ -170,6 +206,28 @@ public class RdfTransaction extends TripleModel implements Transaction {
 
 
 
+    @Override
+    public Transaction expects(Resource entity, String version) {
+        this.expectedVersions.put(entity, version);
+        return this;
+    }
+
+    @Override
+    public Map<Resource, String> getExpectedVersions() {
+        return Collections.unmodifiableMap(this.expectedVersions);
+    }
+
+    @Override
+    public void setVersion(Resource entity, String version) {
+        this.versions.put(entity, version);
+    }
+
+    @Override
+    public Optional<String> getVersion(Resource entity) {
+        return Optional.ofNullable(this.versions.get(entity));
+    }
+
+
     private static class StatementComparator implements Comparator<Statement> {
         @Override
         public int compare(Statement o1, Statement o2) {
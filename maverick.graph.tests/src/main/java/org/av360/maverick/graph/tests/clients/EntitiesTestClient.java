@@ -22,6 +22,7 @@ import java.io.StringWriter;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 
 public class EntitiesTestClient {
 
@@ -60,6 +61,18 @@ public class EntitiesTestClient {
         return consumer;
     }
 
+    /**
+     * @param documents the entities, one JSON-LD document per line
+     */
+    public WebTestClient.ResponseSpec createEntities(String documents) {
+        return webClient.post()
+                .uri(uriBuilder -> uriBuilder.path("/api/entities/batch").build())
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .body(BodyInserters.fromValue(documents))
+                .exchange();
+    }
+
     public RdfConsumer createValue(String entityKey, String prefixedKey, String value) {
         return this.createValue(entityKey, prefixedKey, value, true);
     }
@@ -222,6 +235,25 @@ public class EntitiesTestClient {
         return rdfConsumer;
     }
 
+    public RdfConsumer readValue(IRI sourceIdentifier, String property, @Nullable String languageTag) {
+        RDFFormat format = RDFFormat.TURTLE;
+
+        RdfConsumer rdfConsumer = new RdfConsumer(format, false);
+        webClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/api/entities/{id}/values/{property}")
+                        .queryParamIfPresent("languageTag", Optional.ofNullable(languageTag))
+                        .build(sourceIdentifier.getLocalName(), property)
+                )
+                .accept(RdfUtils.getMediaType(format))
+                .header("X-API-KEY", "test")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .consumeWith(rdfConsumer);
+        return rdfConsumer;
+    }
+
     public RdfConsumer readEntity(String entityKey) {
         RDFFormat format = RDFFormat.TURTLE;
 
@@ -269,6 +301,49 @@ public class EntitiesTestClient {
     }
 
 
+    public WebTestClient.ResponseSpec patchEntity(IRI entityIdentifier, String patch, @Nullable String version) {
+        return webClient.patch()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/api/entities/{id}")
+                        .build(entityIdentifier.getLocalName())
+                )
+                .contentType(MediaType.parseMediaType("application/rdf-patch"))
+                .accept(MediaType.parseMediaType(RDFFormat.TURTLE.getDefaultMIMEType()))
+                .headers(headers -> {
+                    if (Objects.nonNull(version)) headers.setIfMatch(version);
+                })
+                .body(BodyInserters.fromValue(patch))
+                .exchange();
+    }
+
+    public WebTestClient.ResponseSpec setValue(IRI entityIdentifier, String prefixedKey, String value, @Nullable String version) {
+        return webClient.post()
+                .uri(uriBuilder -> uriBuilder.path("/api/entities/{entityKey}/values/{prefixedKey}")
+                        .build(entityIdentifier.getLocalName(), prefixedKey)
+                )
+                .contentType(MediaType.parseMediaType("text/plain"))
+                .accept(MediaType.parseMediaType(RDFFormat.JSONLD.getDefaultMIMEType()))
+                .headers(headers -> {
+                    if (Objects.nonNull(version)) headers.setIfMatch(version);
+                })
+                .body(BodyInserters.fromValue(value))
+                .exchange();
+    }
+
+    public String readVersion(IRI entityIdentifier) {
+        return webClient.head()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/api/entities/{id}")
+                        .build(entityIdentifier.getLocalName())
+                )
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(Void.class)
+                .getResponseHeaders()
+                .getETag();
+    }
+
+
     static Mono<String> serialize(Model builder, RDFFormat format) {
         StringWriter sw = new StringWriter();
         Rio.write(builder, sw, format);
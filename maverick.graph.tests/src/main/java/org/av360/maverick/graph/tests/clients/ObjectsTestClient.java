@@ -0,0 +1,58 @@
+package org.av360.maverick.graph.tests.clients;
+
+import org.av360.maverick.graph.model.enums.Activity;
+import org.av360.maverick.graph.model.enums.RdfMimeTypes;
+import org.av360.maverick.graph.tests.util.RdfConsumer;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.BodyInserters;
+
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class ObjectsTestClient {
+
+    /**
+     * Text content of about 200 KB, shared by the tests for uploaded objects.
+     */
+    public static final byte[] CONTENT = IntStream.range(0, 20000).mapToObj("line %05d\n"::formatted).collect(Collectors.joining()).getBytes(StandardCharsets.UTF_8);
+
+    private final WebTestClient webClient;
+
+    public ObjectsTestClient(WebTestClient webClient) {
+        this.webClient = webClient;
+    }
+
+    /**
+     * Uploads the content as object of the given entity.
+     *
+     * @return the path to read the stored content
+     */
+    public String uploadContent(IRI entity, String prefixedProperty, String filename, byte[] content) {
+        RdfConsumer result = new RdfConsumer(RDFFormat.TURTLE);
+        webClient.post()
+                .uri(uriBuilder -> uriBuilder.path("/api/entities/{id}/objects/{property}")
+                        .queryParam("filename", filename)
+                        .build(entity.getLocalName(), prefixedProperty))
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .accept(MediaType.parseMediaType(RdfMimeTypes.TURTLE_VALUE))
+                .body(BodyInserters.fromValue(content))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .consumeWith(result);
+
+        // the content object is the only entity inserted by the transaction
+        return result.getStatements().stream()
+                .filter(statement -> statement.getPredicate().equals(Activity.INSERTED.toIRI()))
+                .map(statement -> "/content/%s".formatted(((IRI) statement.getObject()).getLocalName()))
+                .findFirst().orElseThrow();
+    }
+
+    public String uploadContent(IRI entity, String filename) {
+        return this.uploadContent(entity, "sdo.subjectOf", filename, CONTENT);
+    }
+}
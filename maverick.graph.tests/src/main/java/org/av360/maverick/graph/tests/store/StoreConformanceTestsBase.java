@@ -0,0 +1,405 @@
+package org.av360.maverick.graph.tests.store;
+
+import org.av360.maverick.graph.model.context.Environment;
+import org.av360.maverick.graph.model.context.SessionContext;
+import org.av360.maverick.graph.model.entities.Transaction;
+import org.av360.maverick.graph.model.enums.RepositoryType;
+import org.av360.maverick.graph.model.vocabulary.SDO;
+import org.av360.maverick.graph.model.vocabulary.meg.Local;
+import org.av360.maverick.graph.store.IndividualsStore;
+import org.av360.maverick.graph.store.behaviours.Selectable;
+import org.av360.maverick.graph.store.behaviours.StatementsAware;
+import org.av360.maverick.graph.store.rdf.fragments.RdfFragment;
+import org.av360.maverick.graph.store.rdf.fragments.RdfTransaction;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.util.Models;
+import org.eclipse.rdf4j.model.util.Values;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Conformance suite for the entity stores, extended by the tests of every store implementation. It covers the
+ * behaviours every store has to implement (fragments, commits, maintenance), the tests of the optional behaviours
+ * ({@link Selectable}, {@link StatementsAware}) are skipped if the store doesn't implement them. Every test runs in
+ * its own scope.
+ */
+public abstract class StoreConformanceTestsBase {
+
+    protected Environment environment;
+
+    protected abstract IndividualsStore getStore();
+
+    @BeforeEach
+    public void createScope() {
+        this.environment = this.createEnvironment();
+    }
+
+    @Test
+    public void insertAndGetFragment() {
+        RdfFragment fragment = this.createFragment(1);
+        StepVerifier.create(this.getStore().asFragmentable().insertFragment(fragment, this.environment))
+                .assertNext(transaction -> Assertions.assertTrue(transaction.isCompleted()))
+                .verifyComplete();
+
+        StepVerifier.create(this.getStore().asFragmentable().getFragment(fragment.getIdentifier(), this.environment))
+                .assertNext(loaded -> Assertions.assertTrue(Models.isomorphic(fragment.getModel(), loaded.getModel())))
+                .verifyComplete();
+
+        StepVerifier.create(this.getStore().asFragmentable().getFragment(entity(2), this.environment)).verifyComplete();
+    }
+
+    @Test
+    public void keepLiteralsAndLanguages() {
+        IRI subject = entity(1);
+        RdfFragment fragment = this.createFragment(1);
+        fragment.getModel().add(subject, SDO.NAME, Values.literal("Einhorn", "de"));
+        fragment.getModel().add(subject, SDO.VALUE, Values.literal(42));
+        fragment.getModel().add(subject, SDO.DESCRIPTION, Values.literal("tab\tnew line\nbackslash\\ and ümlaut"));
+        this.getStore().asFragmentable().insertFragment(fragment, this.environment).block();
+
+        StepVerifier.create(this.getStore().asFragmentable().getFragment(subject, this.environment))
+                .assertNext(loaded -> Assertions.assertTrue(Models.isomorphic(fragment.getModel(), loaded.getModel())))
+                .verifyComplete();
+    }
+
+    @Test
+    public void checkExistence() {
+        this.getStore().asFragmentable().insertFragment(this.createFragment(1), this.environment).block();
+        this.getStore().asCommitable().commit(new RdfTransaction().inserts(entity(2), SDO.NAME, Values.literal("untyped")), this.environment).block();
+
+        StepVerifier.create(this.getStore().asFragmentable().exists(entity(1), this.environment)).expectNext(true).verifyComplete();
+        StepVerifier.create(this.getStore().asFragmentable().exists(entity(2), this.environment)).expectNext(false).verifyComplete();
+        StepVerifier.create(this.getStore().asFragmentable().exists(entity(3), this.environment)).expectNext(false).verifyComplete();
+    }
+
+    @Test
+    public void listAndCountFragments() {
+        Flux.range(0, 25)
+                .concatMap(i -> this.getStore().asFragmentable().insertFragment(this.createFragment(i), this.environment))
+                .blockLast();
+
+        StepVerifier.create(this.getStore().asFragmentable().countFragments(this.environment)).expectNext(25L).verifyComplete();
+        StepVerifier.create(this.getStore().asFragmentable().listFragments(this.environment)).expectNextCount(25).verifyComplete();
+        StepVerifier.create(this.getStore().asFragmentable().listFragments(SDO.VIDEO_OBJECT, this.environment)).expectNextCount(13).verifyComplete();
+
+        Set<IRI> paged = new HashSet<>();
+        for (int offset = 0; offset < 25; offset += 10) {
+            List<RdfFragment> page = this.getStore().asFragmentable().listFragments(null, 10, offset, this.environment).collectList().block();
+            Assertions.assertNotNull(page);
+            Assertions.assertEquals(Math.min(10, 25 - offset), page.size());
+            page.forEach(fragment -> Assertions.assertTrue(paged.add((IRI) fragment.getIdentifier())));
+        }
+        Assertions.assertEquals(25, paged.size());
+    }
+
+    @Test
+    public void commitRemovalsAndUpdates() {
+        IRI subject = entity(1);
+        this.getStore().asFragmentable().insertFragment(this.createFragment(1), this.environment).block();
+
+        Transaction update = new RdfTransaction()
+                .removes(subject, SDO.TITLE, Values.literal("Title 1"))
+                .inserts(subject, SDO.TITLE, Values.literal("Changed"));
+        StepVerifier.create(this.getStore().asCommitable().commit(update, this.environment))
+                .assertNext(transaction -> Assertions.assertTrue(transaction.isCompleted()))
+                .verifyComplete();
+
+        RdfFragment loaded = this.getStore().asFragmentable().getFragment(subject, this.environment).block();
+        Assertions.assertNotNull(loaded);
+        Assertions.assertEquals(Set.of(Values.literal("Changed")), loaded.getModel().filter(subject, SDO.TITLE, null).objects());
+
+        // removing all statements removes the fragment
+        Transaction removal = new RdfTransaction().removes(List.copyOf(loaded.getModel()));
+        this.getStore().asCommitable().commit(removal, this.environment).block();
+        StepVerifier.create(this.getStore().asFragmentable().getFragment(subject, this.environment)).verifyComplete();
+        StepVerifier.create(this.getStore().asFragmentable().countFragments(this.environment)).expectNext(0L).verifyComplete();
+    }
+
+    @Test
+    public void loadEmbeddedAndNeighbours() {
+        IRI subject = entity(1);
+        IRI embedded = Values.iri(Local.Entities.NAME, "embedded");
+        RdfFragment fragment = this.createFragment(1);
+        fragment.getModel().add(subject, SDO.IDENTIFIER, embedded);
+        fragment.getModel().add(embedded, RDF.TYPE, Local.Entities.TYPE_EMBEDDED);
+        fragment.getModel().add(embedded, SDO.VALUE, Values.literal("abc"));
+        fragment.getModel().add(subject, SDO.SUBJECT_OF, entity(2));
+        this.getStore().asFragmentable().insertFragment(fragment, this.environment).block();
+        this.getStore().asFragmentable().insertFragment(this.createFragment(2), this.environment).block();
+
+        RdfFragment loaded = this.getStore().asFragmentable().getFragment(subject, this.environment).block();
+        Assertions.assertNotNull(loaded);
+        Assertions.assertTrue(loaded.getModel().contains(embedded, SDO.VALUE, Values.literal("abc")));
+        Assertions.assertFalse(loaded.getModel().contains(entity(2), SDO.TITLE, null));
+
+        RdfFragment withNeighbours = this.getStore().asFragmentable().getFragment(subject, 1, false, this.environment).block();
+        Assertions.assertNotNull(withNeighbours);
+        Assertions.assertTrue(withNeighbours.getModel().contains(entity(2), SDO.TITLE, Values.literal("Title 2")));
+    }
+
+    @Test
+    public void loadValuesOfPredicate() {
+        IRI subject = entity(1);
+        IRI embedded = Values.iri(Local.Entities.NAME, "embedded");
+        RdfFragment fragment = this.createFragment(1);
+        fragment.getModel().add(subject, SDO.HEADLINE, Values.literal("Headline", "en"));
+        fragment.getModel().add(subject, SDO.HEADLINE, Values.literal("Überschrift", "de"));
+        fragment.getModel().add(subject, SDO.HEADLINE, Values.literal("HL-1"));
+        fragment.getModel().add(Values.triple(subject, SDO.HEADLINE, Values.literal("Headline", "en")), SDO.AUTHOR, Values.literal("Author"));
+        fragment.getModel().add(subject, SDO.IDENTIFIER, embedded);
+        fragment.getModel().add(embedded, RDF.TYPE, Local.Entities.TYPE_EMBEDDED);
+        fragment.getModel().add(embedded, SDO.VALUE, Values.literal("abc"));
+        this.getStore().asFragmentable().insertFragment(fragment, this.environment).block();
+
+        RdfFragment headlines = this.getStore().asFragmentable().getFragment(subject, SDO.HEADLINE, null, false, this.environment).block();
+        Assertions.assertNotNull(headlines);
+        Assertions.assertEquals(3, headlines.getModel().size());
+        Assertions.assertEquals(3, headlines.getModel().filter(subject, SDO.HEADLINE, null).size());
+
+        RdfFragment english = this.getStore().asFragmentable().getFragment(subject, SDO.HEADLINE, "EN", true, this.environment).block();
+        Assertions.assertNotNull(english);
+        // values without a language tag are not filtered
+        Assertions.assertEquals(Set.of(Values.literal("Headline", "en"), Values.literal("HL-1")), english.getModel().filter(subject, SDO.HEADLINE, null).objects());
+        Assertions.assertTrue(english.getModel().contains(Values.triple(subject, SDO.HEADLINE, Values.literal("Headline", "en")), SDO.AUTHOR, Values.literal("Author")));
+
+        RdfFragment german = this.getStore().asFragmentable().getFragment(subject, SDO.HEADLINE, "de", true, this.environment).block();
+        Assertions.assertNotNull(german);
+        Assertions.assertEquals(2, german.getModel().size());
+
+        RdfFragment identifiers = this.getStore().asFragmentable().getFragment(subject, SDO.IDENTIFIER, null, false, this.environment).block();
+        Assertions.assertNotNull(identifiers);
+        Assertions.assertTrue(identifiers.getModel().contains(embedded, SDO.VALUE, Values.literal("abc")));
+        Assertions.assertFalse(identifiers.getModel().contains(subject, SDO.TITLE, null));
+
+        // the fragment exists, but has no values for the predicate
+        StepVerifier.create(this.getStore().asFragmentable().getFragment(subject, SDO.DESCRIPTION, null, true, this.environment))
+                .assertNext(empty -> Assertions.assertTrue(empty.getModel().isEmpty()))
+                .verifyComplete();
+        StepVerifier.create(this.getStore().asFragmentable().getFragment(entity(2), SDO.HEADLINE, null, true, this.environment)).verifyComplete();
+    }
+
+    @Test
+    public void separateScopes() {
+        this.getStore().asFragmentable().insertFragment(this.createFragment(1), this.environment).block();
+
+        Environment other = this.createEnvironment();
+
+        StepVerifier.create(this.getStore().asFragmentable().getFragment(entity(1), other)).verifyComplete();
+        StepVerifier.create(this.getStore().asFragmentable().countFragments(other)).expectNext(0L).verifyComplete();
+    }
+
+    @Test
+    public void rejectUnauthorized() {
+        Environment unauthorized = new SessionContext().getEnvironment();
+        unauthorized.setRepositoryType(RepositoryType.ENTITIES);
+        StepVerifier.create(Mono.defer(() -> this.getStore().asFragmentable().getFragment(entity(1), unauthorized))).verifyError();
+    }
+
+    @Test
+    public void commitTransactionsInOrder() {
+        List<Transaction> transactions = IntStream.range(0, 3)
+                .mapToObj(i -> (Transaction) new RdfTransaction().forInsert(this.createFragment(i).listStatements()))
+                .toList();
+        List<IRI> identifiers = transactions.stream().map(Transaction::getIdentifier).toList();
+
+        List<Transaction> committed = this.getStore().asCommitable().commit(new ArrayList<>(transactions), this.environment, false).collectList().block();
+        Assertions.assertNotNull(committed);
+        Assertions.assertEquals(identifiers, committed.stream().map(Transaction::getIdentifier).toList());
+        committed.forEach(transaction -> Assertions.assertTrue(transaction.isCompleted()));
+        StepVerifier.create(this.getStore().asFragmentable().countFragments(this.environment)).expectNext(3L).verifyComplete();
+    }
+
+    @Test
+    public void mergeTransactions() {
+        List<Transaction> transactions = new ArrayList<>();
+        IntStream.range(0, 3).forEach(i -> transactions.add(new RdfTransaction().forInsert(this.createFragment(i).listStatements())));
+        transactions.add(new RdfTransaction().removes(entity(0), SDO.TITLE, Values.literal("Title 0")));
+
+        List<Transaction> committed = this.getStore().asCommitable().commit(transactions, this.environment, true).collectList().block();
+        Assertions.assertNotNull(committed);
+        Assertions.assertEquals(1, committed.size());
+        Assertions.assertTrue(committed.get(0).isCompleted());
+
+        StepVerifier.create(this.getStore().asFragmentable().countFragments(this.environment)).expectNext(3L).verifyComplete();
+        // removals are applied before the insertions of the merged transaction
+        StepVerifier.create(this.getStore().asFragmentable().getFragment(entity(0), this.environment))
+                .assertNext(loaded -> Assertions.assertTrue(loaded.getModel().contains(entity(0), SDO.TITLE, Values.literal("Title 0"))))
+                .verifyComplete();
+    }
+
+    @Test
+    public void commitIsIdempotent() {
+        RdfFragment fragment = this.createFragment(1);
+        this.getStore().asFragmentable().insertFragment(fragment, this.environment).block();
+        this.getStore().asFragmentable().insertFragment(this.createFragment(1), this.environment).block();
+
+        StepVerifier.create(this.getStore().asFragmentable().getFragment(entity(1), this.environment))
+                .assertNext(loaded -> Assertions.assertEquals(fragment.getModel().size(), loaded.getModel().size()))
+                .verifyComplete();
+        StepVerifier.create(this.getStore().asFragmentable().countFragments(this.environment)).expectNext(1L).verifyComplete();
+    }
+
+    @Test
+    public void removeMissingStatements() {
+        RdfFragment fragment = this.createFragment(1);
+        this.getStore().asFragmentable().insertFragment(fragment, this.environment).block();
+
+        Transaction removal = new RdfTransaction()
+                .removes(entity(1), SDO.TITLE, Values.literal("Unknown"))
+                .removes(entity(2), SDO.TITLE, Values.literal("Title 2"));
+        StepVerifier.create(this.getStore().asCommitable().commit(removal, this.environment))
+                .assertNext(transaction -> Assertions.assertTrue(transaction.isCompleted()))
+                .verifyComplete();
+
+        StepVerifier.create(this.getStore().asFragmentable().getFragment(entity(1), this.environment))
+                .assertNext(loaded -> Assertions.assertTrue(Models.isomorphic(fragment.getModel(), loaded.getModel())))
+                .verifyComplete();
+    }
+
+    @Test
+    public void pageBeyondFragments() {
+        Flux.range(0, 5)
+                .concatMap(i -> this.getStore().asFragmentable().insertFragment(this.createFragment(i), this.environment))
+                .blockLast();
+
+        StepVerifier.create(this.getStore().asFragmentable().listFragments(null, 10, 5, this.environment)).verifyComplete();
+        StepVerifier.create(this.getStore().asFragmentable().listFragments(null, 10, 3, this.environment)).expectNextCount(2).verifyComplete();
+        StepVerifier.create(this.getStore().asFragmentable().listFragments(SDO.VIDEO_OBJECT, 2, 2, this.environment))
+                .assertNext(fragment -> Assertions.assertTrue(fragment.getModel().contains(fragment.getIdentifier(), RDF.TYPE, SDO.VIDEO_OBJECT)))
+                .verifyComplete();
+    }
+
+    @Test
+    public void countOnlyIndividuals() {
+        this.getStore().asFragmentable().insertFragment(this.createFragment(1), this.environment).block();
+        Transaction classifier = new RdfTransaction()
+                .inserts(entity(2), RDF.TYPE, Local.Entities.TYPE_CLASSIFIER)
+                .inserts(entity(2), SDO.NAME, Values.literal("classifier"));
+        this.getStore().asCommitable().commit(classifier, this.environment).block();
+
+        StepVerifier.create(this.getStore().asFragmentable().countFragments(this.environment)).expectNext(1L).verifyComplete();
+        StepVerifier.create(this.getStore().asFragmentable().exists(entity(2), this.environment)).expectNext(true).verifyComplete();
+
+        // only the type makes an individual, not any reference to the type
+        Transaction reference = new RdfTransaction()
+                .inserts(entity(3), RDF.TYPE, Local.Entities.TYPE_CLASSIFIER)
+                .inserts(entity(3), RDFS.SEEALSO, Local.Entities.TYPE_INDIVIDUAL);
+        this.getStore().asCommitable().commit(reference, this.environment).block();
+        StepVerifier.create(this.getStore().asFragmentable().countFragments(this.environment)).expectNext(1L).verifyComplete();
+    }
+
+    @Test
+    public void purgeScope() {
+        Flux.range(0, 5)
+                .concatMap(i -> this.getStore().asFragmentable().insertFragment(this.createFragment(i), this.environment))
+                .blockLast();
+        Environment other = this.createEnvironment();
+        this.getStore().asFragmentable().insertFragment(this.createFragment(1), other).block();
+
+        StepVerifier.create(this.getStore().asMaintainable().purge(this.environment)).verifyComplete();
+
+        StepVerifier.create(this.getStore().asFragmentable().countFragments(this.environment)).expectNext(0L).verifyComplete();
+        StepVerifier.create(this.getStore().asFragmentable().getFragment(entity(1), this.environment)).verifyComplete();
+        StepVerifier.create(this.getStore().asFragmentable().countFragments(other)).expectNext(1L).verifyComplete();
+    }
+
+    @Test
+    public void importStatements() {
+        StepVerifier.create(this.getStore().asMaintainable().importStatements(StoreFixtures.turtle(0, 1200), "text/turtle", this.environment)).verifyComplete();
+
+        StepVerifier.create(this.getStore().asFragmentable().countFragments(this.environment)).expectNext(1200L).verifyComplete();
+        StepVerifier.create(this.getStore().asFragmentable().getFragment(entity(1100), this.environment))
+                .assertNext(fragment -> Assertions.assertEquals(3, fragment.getModel().size()))
+                .verifyComplete();
+    }
+
+    @Test
+    public void importExistingStatements() {
+        StepVerifier.create(this.getStore().asMaintainable().importStatements(StoreFixtures.turtle(0, 20), "text/turtle", this.environment)).verifyComplete();
+        StepVerifier.create(this.getStore().asMaintainable().importStatements(StoreFixtures.turtle(10, 30), "text/turtle", this.environment)).verifyComplete();
+
+        StepVerifier.create(this.getStore().asFragmentable().countFragments(this.environment)).expectNext(30L).verifyComplete();
+        StepVerifier.create(this.getStore().asFragmentable().getFragment(entity(15), this.environment))
+                .assertNext(fragment -> Assertions.assertEquals(3, fragment.getModel().size()))
+                .verifyComplete();
+    }
+
+    @Test
+    public void importStatementCollections() {
+        List<Statement> statements = IntStream.range(0, 10)
+                .mapToObj(i -> this.createFragment(i).listStatements())
+                .flatMap(List::stream)
+                .toList();
+
+        StepVerifier.create(this.getStore().asMaintainable().importStatements(statements, this.environment)).verifyComplete();
+        StepVerifier.create(this.getStore().asFragmentable().countFragments(this.environment)).expectNext(10L).verifyComplete();
+
+        StepVerifier.create(this.getStore().asMaintainable().purgeStatements(this.createFragment(3).listStatements(), this.environment)).verifyComplete();
+        StepVerifier.create(this.getStore().asFragmentable().exists(entity(3), this.environment)).expectNext(false).verifyComplete();
+        StepVerifier.create(this.getStore().asFragmentable().countFragments(this.environment)).expectNext(9L).verifyComplete();
+    }
+
+    @Test
+    public void selectTypes() {
+        Assumptions.assumeTrue(this.getStore().isSelectable(), "Store is not selectable");
+        this.getStore().asFragmentable().insertFragment(this.createFragment(2), this.environment).block();
+
+        StepVerifier.create(this.getStore().asSelectable().types(entity(2), this.environment).collect(Collectors.toSet()))
+                .expectNext(Set.of(Local.Entities.TYPE_INDIVIDUAL, SDO.VIDEO_OBJECT))
+                .verifyComplete();
+        StepVerifier.create(this.getStore().asSelectable().types(entity(3), this.environment)).verifyComplete();
+    }
+
+    @Test
+    public void listAndCheckStatements() {
+        Assumptions.assumeTrue(this.getStore().isStatementsAware(), "Store is not aware of statements");
+        Flux.range(0, 3)
+                .concatMap(i -> this.getStore().asFragmentable().insertFragment(this.createFragment(i), this.environment))
+                .blockLast();
+
+        StatementsAware store = this.getStore().asStatementsAware();
+        StepVerifier.create(store.listStatements(entity(1), null, null, this.environment))
+                .assertNext(statements -> Assertions.assertEquals(this.createFragment(1).getModel().size(), statements.size()))
+                .verifyComplete();
+        StepVerifier.create(store.listStatements(null, SDO.TITLE, null, this.environment))
+                .assertNext(statements -> Assertions.assertEquals(3, statements.size()))
+                .verifyComplete();
+        StepVerifier.create(store.listStatements(null, SDO.KEYWORDS, Values.literal("keyword 1"), this.environment))
+                .assertNext(statements -> Assertions.assertEquals(3, statements.size()))
+                .verifyComplete();
+
+        StepVerifier.create(store.hasStatement(entity(2), SDO.TITLE, Values.literal("Title 2"), this.environment)).expectNext(true).verifyComplete();
+        StepVerifier.create(store.hasStatement(entity(2), SDO.TITLE, Values.literal("Title 1"), this.environment)).expectNext(false).verifyComplete();
+    }
+
+    protected Environment createEnvironment() {
+        SessionContext context = new SessionContext().setSystemAuthentication().setAuthorized();
+        context.getEnvironment().setRepositoryType(RepositoryType.ENTITIES);
+        context.getEnvironment().withScope("s" + UUID.randomUUID().toString().replace("-", ""));
+        return context.getEnvironment();
+    }
+
+    protected static IRI entity(int i) {
+        return StoreFixtures.entity(i);
+    }
+
+    protected RdfFragment createFragment(int i) {
+        return StoreFixtures.fragment(i);
+    }
+}
@@ -0,0 +1,54 @@
+package org.av360.maverick.graph.tests.store;
+
+import org.av360.maverick.graph.model.vocabulary.SDO;
+import org.av360.maverick.graph.model.vocabulary.meg.Local;
+import org.av360.maverick.graph.store.rdf.fragments.RdfFragment;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
+import org.eclipse.rdf4j.model.util.Values;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Test data shared by the conformance and performance suites of the stores.
+ */
+public final class StoreFixtures {
+
+    private StoreFixtures() {
+    }
+
+    public static IRI entity(int i) {
+        return Values.iri(Local.Entities.NAME, "e" + i);
+    }
+
+    /**
+     * @return an individual, every second one is a video
+     */
+    public static RdfFragment fragment(int i) {
+        IRI subject = entity(i);
+        Model model = new LinkedHashModel();
+        model.add(subject, RDF.TYPE, Local.Entities.TYPE_INDIVIDUAL);
+        model.add(subject, RDF.TYPE, i % 2 == 0 ? SDO.VIDEO_OBJECT : SDO.PERSON);
+        model.add(subject, SDO.TITLE, Values.literal("Title " + i));
+        model.add(subject, SDO.URL, Values.iri("http://example.org/" + i));
+        IntStream.range(0, 3).forEach(k -> model.add(subject, SDO.KEYWORDS, Values.literal("keyword " + k)));
+        return new RdfFragment(subject, model);
+    }
+
+    /**
+     * @return the serialized individuals from (inclusive) to (exclusive), every one is a video with a title
+     */
+    public static Flux<DataBuffer> turtle(int from, int to) {
+        String turtle = IntStream.range(from, to)
+                .mapToObj(i -> "<%s> a <%s>, <%s> ; <%s> \"Title %d\" .".formatted(entity(i), Local.Entities.TYPE_INDIVIDUAL, SDO.VIDEO_OBJECT, SDO.TITLE, i))
+                .collect(Collectors.joining("\n"));
+        return Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(turtle.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,205 @@
+package org.av360.maverick.graph.tests.store;
+
+import lombok.extern.slf4j.Slf4j;
+import org.av360.maverick.graph.model.context.Environment;
+import org.av360.maverick.graph.model.context.SessionContext;
+import org.av360.maverick.graph.model.entities.Transaction;
+import org.av360.maverick.graph.model.enums.RepositoryType;
+import org.av360.maverick.graph.model.vocabulary.SDO;
+import org.av360.maverick.graph.store.IndividualsStore;
+import org.av360.maverick.graph.store.rdf.fragments.RdfFragment;
+import org.av360.maverick.graph.store.rdf.fragments.RdfTransaction;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.util.Values;
+import org.junit.jupiter.api.*;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Standard performance scenarios for the entity stores, extended by the tests of every store implementation. The
+ * scenarios always check the results, the measured durations are only logged.
+ * <p>
+ * Run with <code>-Dstore.performance.verify=true</code> to compare the durations with the baselines recorded in
+ * <code>store/baselines.properties</code> (keyed by the baseline key of the store and the scenario). A scenario fails
+ * then if it takes longer than the baseline multiplied by the tolerance (system property
+ * <code>store.performance.tolerance</code>, default 5) plus a fixed slack.
+ * <p>
+ * Run with <code>-Dstore.performance.record=true</code> to write the measurements to
+ * <code>target/store-baselines.properties</code>, which can be copied into the recorded baselines.
+ */
+@Slf4j(topic = "graph.test.perf")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public abstract class StorePerformanceTestsBase {
+
+    private static final int DEFAULT_ENTITIES = 2000;
+    protected static final int ENTITIES = Integer.getInteger("store.performance.entities", DEFAULT_ENTITIES);
+    private static final boolean VERIFY = Boolean.getBoolean("store.performance.verify");
+    private static final double TOLERANCE = Double.parseDouble(System.getProperty("store.performance.tolerance", "5"));
+    private static final long SLACK_MILLIS = 250;
+    private static final int BATCH_SIZE = 100;
+    private static final int READS = 500;
+    private static final int COUNTS = 50;
+    private static final int LARGE_FRAGMENT_VALUES = 10000;
+
+    private final Map<String, Long> measurements = new LinkedHashMap<>();
+    private final Properties baselines = new Properties();
+    private Environment environment;
+
+    protected abstract IndividualsStore getStore();
+
+    /**
+     * @return the prefix of the recorded baselines of this store, e.g. "rdf4j-memory"
+     */
+    protected abstract String getBaselineKey();
+
+    @BeforeAll
+    public void setup() throws IOException {
+        try (InputStream stream = StorePerformanceTestsBase.class.getResourceAsStream("/store/baselines.properties")) {
+            if (stream != null) this.baselines.load(stream);
+        }
+        this.environment = this.createEnvironment();
+
+        // warm up the store and the JIT in a separate scope
+        Environment warmup = this.createEnvironment();
+        this.commitFragments(0, 200, warmup);
+        Flux.range(0, 200).concatMap(i -> this.getStore().asFragmentable().getFragment(StoreFixtures.entity(i), warmup)).blockLast();
+        this.getStore().asMaintainable().purge(warmup).block();
+    }
+
+    @Test
+    @Order(1)
+    public void commitFragments() {
+        this.measure("commit", () -> this.commitFragments(0, ENTITIES, this.environment));
+        Assertions.assertEquals(ENTITIES, this.getStore().asFragmentable().countFragments(this.environment).block());
+    }
+
+    @Test
+    @Order(2)
+    public void readFragments() {
+        this.measure("read", () -> {
+            List<RdfFragment> fragments = Flux.range(0, READS)
+                    .map(i -> StoreFixtures.entity((int) ((long) i * ENTITIES / READS)))
+                    .concatMap(subject -> this.getStore().asFragmentable().getFragment(subject, this.environment))
+                    .collectList().block();
+            Assertions.assertNotNull(fragments);
+            Assertions.assertEquals(READS, fragments.size());
+        });
+    }
+
+    @Test
+    @Order(3)
+    public void pageFragments() {
+        this.measure("page", () -> {
+            long total = 0;
+            for (int offset = 0; offset < ENTITIES; offset += BATCH_SIZE) {
+                total += Objects.requireNonNull(this.getStore().asFragmentable().listFragments(null, BATCH_SIZE, offset, this.environment).count().block());
+            }
+            Assertions.assertEquals(ENTITIES, total);
+        });
+    }
+
+    @Test
+    @Order(4)
+    public void countFragments() {
+        this.measure("count", () -> Flux.range(0, COUNTS)
+                .concatMap(i -> this.getStore().asFragmentable().countFragments(this.environment))
+                .doOnNext(count -> Assertions.assertEquals(ENTITIES, count))
+                .blockLast());
+    }
+
+    @Test
+    @Order(5)
+    public void importStatements() {
+        Environment imported = this.createEnvironment();
+        this.measure("import", () -> this.getStore().asMaintainable().importStatements(StoreFixtures.turtle(0, ENTITIES), "text/turtle", imported).block());
+        Assertions.assertEquals(ENTITIES, this.getStore().asFragmentable().countFragments(imported).block());
+        this.getStore().asMaintainable().purge(imported).block();
+    }
+
+    @Test
+    @Order(6)
+    public void purge() {
+        this.measure("purge", () -> this.getStore().asMaintainable().purge(this.environment).block());
+        Assertions.assertEquals(0L, this.getStore().asFragmentable().countFragments(this.environment).block());
+    }
+
+    @Test
+    @Order(7)
+    public void readValuesOfLargeFragment() {
+        // a single fragment with many values, reading one of its properties must not load all of them
+        Environment large = this.createEnvironment();
+        IRI subject = StoreFixtures.entity(0);
+        RdfFragment fragment = StoreFixtures.fragment(0);
+        IntStream.range(0, LARGE_FRAGMENT_VALUES).forEach(i -> fragment.getModel().add(subject, SDO.DESCRIPTION, Values.literal("Description " + i)));
+        this.getStore().asFragmentable().insertFragment(fragment, large).block();
+
+        long values = this.measure("read-value", () -> Flux.range(0, READS)
+                .concatMap(i -> this.getStore().asFragmentable().getFragment(subject, SDO.TITLE, null, true, large))
+                .doOnNext(loaded -> Assertions.assertEquals(1, loaded.getModel().size()))
+                .blockLast());
+        long fragments = this.measure("read-large", () -> Flux.range(0, READS / 25)
+                .concatMap(i -> this.getStore().asFragmentable().getFragment(subject, 0, true, large))
+                .blockLast());
+        this.getStore().asMaintainable().purge(large).block();
+
+        // a small share of the reads of the complete fragment takes longer than all reads of the single property
+        if (VERIFY) Assertions.assertTrue(values < fragments, "Reading a single property (%d ms) isn't faster than reading the complete fragment (%d ms)".formatted(values, fragments));
+    }
+
+    @AfterAll
+    public void report() throws IOException {
+        this.measurements.forEach((scenario, millis) ->
+                log.info("Store '{}', scenario '{}' with {} entities: {} ms (baseline: {} ms)", this.getBaselineKey(), scenario, ENTITIES, millis, this.baselines.getProperty(this.getBaselineKey() + "." + scenario, "-")));
+
+        if (Boolean.getBoolean("store.performance.record")) {
+            Path target = Path.of("target", "store-baselines.properties");
+            Properties recorded = new Properties();
+            if (Files.exists(target)) {
+                try (InputStream stream = Files.newInputStream(target)) {
+                    recorded.load(stream);
+                }
+            }
+            this.measurements.forEach((scenario, millis) -> recorded.setProperty(this.getBaselineKey() + "." + scenario, Long.toString(millis)));
+            try (OutputStream stream = Files.newOutputStream(target)) {
+                recorded.store(stream, "Store baselines in ms for %d entities".formatted(ENTITIES));
+            }
+        }
+    }
+
+    protected Environment createEnvironment() {
+        SessionContext context = new SessionContext().setSystemAuthentication().setAuthorized();
+        context.getEnvironment().setRepositoryType(RepositoryType.ENTITIES);
+        context.getEnvironment().withScope("p" + UUID.randomUUID().toString().replace("-", ""));
+        return context.getEnvironment();
+    }
+
+    private void commitFragments(int from, int to, Environment environment) {
+        Flux.range(from, to - from)
+                .map(i -> (Transaction) new RdfTransaction().forInsert(StoreFixtures.fragment(i).listStatements()))
+                .buffer(BATCH_SIZE)
+                .concatMap(transactions -> this.getStore().asCommitable().commit(transactions, environment, false))
+                .blockLast();
+    }
+
+    private long measure(String scenario, Runnable runnable) {
+        long start = System.nanoTime();
+        runnable.run();
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        this.measurements.put(scenario, millis);
+
+        String baseline = this.baselines.getProperty(this.getBaselineKey() + "." + scenario);
+        // baselines are recorded for the default number of entities only
+        if (!VERIFY || baseline == null || ENTITIES != DEFAULT_ENTITIES) return millis;
+        long limit = (long) (Long.parseLong(baseline) * TOLERANCE) + SLACK_MILLIS;
+        Assertions.assertTrue(millis <= limit, "Scenario '%s' of store '%s' took %d ms, the recorded baseline is %s ms (limit %d ms)".formatted(scenario, this.getBaselineKey(), millis, baseline, limit));
+        return millis;
+    }
+}
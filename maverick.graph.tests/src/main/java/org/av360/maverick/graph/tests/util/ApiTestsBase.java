@@ -3,6 +3,7 @@ package org.av360.maverick.graph.tests.util;
 import org.av360.maverick.graph.store.rdf.helpers.RdfUtils;
 import org.av360.maverick.graph.tests.clients.AdminTestClient;
 import org.av360.maverick.graph.tests.clients.EntitiesTestClient;
+import org.av360.maverick.graph.tests.clients.ObjectsTestClient;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.rio.RDFFormat;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -25,12 +26,15 @@ public abstract class ApiTestsBase extends TestsBase {
 
     protected EntitiesTestClient entitiesTestClient;
 
+    protected ObjectsTestClient objectsTestClient;
+
 
     @Autowired
     public void setWebClient(WebTestClient webClient) {
         this.webClient = webClient;
         this.adminTestClient = new AdminTestClient(webClient);
         this.entitiesTestClient = new EntitiesTestClient(webClient);
+        this.objectsTestClient = new ObjectsTestClient(webClient);
     }
 
     protected void dumpStatementsAsTable(CsvConsumer csvConsumer) {